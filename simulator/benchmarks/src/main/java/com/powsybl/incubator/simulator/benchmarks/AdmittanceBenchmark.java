@@ -0,0 +1,149 @@
+/**
+ * Copyright (c) 2022, Jean-Baptiste Heyberger & Geoffroy Jamgotchian
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.incubator.simulator.benchmarks;
+
+import com.powsybl.iidm.network.Network;
+import com.powsybl.incubator.simulator.util.*;
+import com.powsybl.incubator.simulator.util.extensions.ShortCircuitExtensions;
+import com.powsybl.incubator.simulator.util.extensions.ShortCircuitNetworkData;
+import com.powsybl.loadflow.LoadFlowParameters;
+import com.powsybl.math.matrix.DenseMatrix;
+import com.powsybl.math.matrix.MatrixFactory;
+import com.powsybl.math.matrix.SparseMatrixFactory;
+import com.powsybl.openloadflow.OpenLoadFlowParameters;
+import com.powsybl.openloadflow.ac.outerloop.AcLoadFlowParameters;
+import com.powsybl.openloadflow.equations.EquationSystem;
+import com.powsybl.openloadflow.equations.VariableSet;
+import com.powsybl.openloadflow.graph.EvenShiloachGraphDecrementalConnectivityFactory;
+import com.powsybl.openloadflow.network.LfBranch;
+import com.powsybl.openloadflow.network.LfBus;
+import com.powsybl.openloadflow.network.LfNetwork;
+import com.powsybl.openloadflow.network.LfNetworkParameters;
+import com.powsybl.openloadflow.network.impl.LfNetworkLoaderImpl;
+import org.apache.commons.math3.util.Pair;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the steps shared by all the simulators: admittance equation system creation, admittance matrix assembly,
+ * LU decomposition and Thevenin impedance linear resolution.
+ *
+ * @author Jean-Baptiste Heyberger <jbheyberger at gmail.com>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class AdmittanceBenchmark {
+
+    @Param({"14", "118", "1000", "10000"})
+    private int busCount;
+
+    @Param({"1", "10"})
+    private int faultCount;
+
+    private final MatrixFactory matrixFactory = new SparseMatrixFactory();
+
+    private LfNetwork lfNetwork;
+
+    private ShortCircuitNetworkData networkData;
+
+    private AcLoadFlowParameters acLoadFlowParameters;
+
+    private EquationSystem<VariableType, EquationType> equationSystem;
+
+    private List<CalculationLocation> calculationLocations;
+
+    private final Map<CalculationLocation, Pair<String, Integer>> iidmBusInfos = new HashMap<>();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Network network = BenchmarkNetworks.create(busCount);
+        List<LfNetwork> lfNetworks = LfNetwork.load(network, new LfNetworkLoaderImpl(), new LfNetworkParameters());
+        networkData = ShortCircuitExtensions.add(network, lfNetworks).get(0);
+        lfNetwork = lfNetworks.get(0);
+
+        LoadFlowParameters loadFlowParameters = new LoadFlowParameters();
+        acLoadFlowParameters = OpenLoadFlowParameters.createAcParameters(loadFlowParameters, OpenLoadFlowParameters.get(loadFlowParameters),
+                matrixFactory, new EvenShiloachGraphDecrementalConnectivityFactory<>(), false, false);
+
+        equationSystem = createEquationSystem();
+        calculationLocations = createCalculationLocations();
+    }
+
+    private EquationSystem<VariableType, EquationType> createEquationSystem() {
+        return AdmittanceEquationSystem.create(lfNetwork, new VariableSet<>(), AdmittanceEquationSystem.AdmittanceType.ADM_THEVENIN,
+                AdmittanceEquationSystem.AdmittanceVoltageProfileType.NOMINAL, AdmittanceEquationSystem.AdmittancePeriodType.ADM_SUB_TRANSIENT,
+                false, new FeedersAtNetwork(), acLoadFlowParameters, networkData);
+    }
+
+    // locations are given as in the short circuit engines, through a branch connected to the bus
+    private List<CalculationLocation> createCalculationLocations() {
+        List<LfBus> lfBuses = lfNetwork.getBuses();
+        if (faultCount > lfBuses.size()) {
+            throw new IllegalArgumentException("Fault count " + faultCount + " exceeds the number of busses " + lfBuses.size());
+        }
+        List<CalculationLocation> locations = new ArrayList<>(faultCount);
+        for (int i = 0; i < faultCount; i++) {
+            LfBus lfBus = lfBuses.get(i * lfBuses.size() / faultCount);
+            for (LfBranch lfBranch : lfNetwork.getBranches()) {
+                if (lfBranch.getBranchType() != LfBranch.BranchType.LINE && lfBranch.getBranchType() != LfBranch.BranchType.TRANSFO_2) {
+                    continue;
+                }
+                if (lfBranch.getBus1() == lfBus || lfBranch.getBus2() == lfBus) {
+                    CalculationLocation location = new CalculationLocation(lfBus.getId());
+                    iidmBusInfos.put(location, new Pair<>(lfBranch.getId(), lfBranch.getBus1() == lfBus ? 1 : 2));
+                    locations.add(location);
+                    break;
+                }
+            }
+        }
+        return locations;
+    }
+
+    @Benchmark
+    public void createAdmittanceEquationSystem(Blackhole bh) {
+        bh.consume(createEquationSystem());
+    }
+
+    @Benchmark
+    public void buildAdmittanceMatrix(Blackhole bh) {
+        try (AdmittanceMatrix y = new AdmittanceMatrix(equationSystem, matrixFactory, lfNetwork, networkData.getZeroImpedanceContraction())) {
+            bh.consume(y.getMatrix());
+        }
+    }
+
+    @Benchmark
+    public void decomposeAdmittanceMatrix(Blackhole bh) {
+        try (AdmittanceMatrix y = new AdmittanceMatrix(equationSystem, matrixFactory, lfNetwork, networkData.getZeroImpedanceContraction())) {
+            // the LU decomposition is built on the first solve
+            DenseMatrix b = new DenseMatrix(y.getRowCount(), 1);
+            b.set(0, 0, 1.);
+            y.solveTransposed(b);
+            bh.consume(b);
+        }
+    }
+
+    @Benchmark
+    public void impedanceLinearResolution(Blackhole bh) {
+        ImpedanceLinearResolutionParameters parameters = new ImpedanceLinearResolutionParameters(acLoadFlowParameters, matrixFactory,
+                calculationLocations, false, AdmittanceEquationSystem.AdmittanceVoltageProfileType.NOMINAL,
+                AdmittanceEquationSystem.AdmittancePeriodType.ADM_SUB_TRANSIENT, AdmittanceEquationSystem.AdmittanceType.ADM_THEVENIN, false);
+        parameters.setIidmBusInfos(iidmBusInfos, Map.of());
+        ImpedanceLinearResolution resolution = new ImpedanceLinearResolution(networkData, parameters, new SimulatorMetrics());
+        resolution.run();
+        bh.consume(resolution.getResults());
+    }
+}
@@ -0,0 +1,72 @@
+/**
+ * Copyright (c) 2022, Jean-Baptiste Heyberger & Geoffroy Jamgotchian
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.incubator.simulator.benchmarks;
+
+import com.powsybl.ieeecdf.converter.IeeeCdfNetworkFactory;
+import com.powsybl.iidm.network.Bus;
+import com.powsybl.iidm.network.Network;
+import com.powsybl.incubator.simulator.shortcircuit.ShortCircuitFault;
+import com.powsybl.incubator.simulator.util.SyntheticNetworkFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Networks and fault lists shared by the benchmarks, selected by the number of busses of the network:
+ * IEEE cases up to 300 busses and seeded synthetic networks above.
+ *
+ * @author Jean-Baptiste Heyberger <jbheyberger at gmail.com>
+ */
+final class BenchmarkNetworks {
+
+    private static final long SEED = 20220101L;
+
+    private BenchmarkNetworks() {
+    }
+
+    static Network create(int busCount) {
+        switch (busCount) {
+            case 14:
+                return IeeeCdfNetworkFactory.create14();
+            case 30:
+                return IeeeCdfNetworkFactory.create30();
+            case 57:
+                return IeeeCdfNetworkFactory.create57();
+            case 118:
+                return IeeeCdfNetworkFactory.create118();
+            case 300:
+                return IeeeCdfNetworkFactory.create300();
+            default:
+                return SyntheticNetworkFactory.create(busCount, SEED);
+        }
+    }
+
+    // ids of faultCount busses evenly spread over the bus list of the network
+    static List<String> getFaultBusIds(Network network, int faultCount) {
+        List<String> busIds = new ArrayList<>();
+        for (Bus bus : network.getBusBreakerView().getBuses()) {
+            busIds.add(bus.getId());
+        }
+        if (faultCount <= 0 || faultCount > busIds.size()) {
+            throw new IllegalArgumentException("Fault count " + faultCount + " must be between 1 and " + busIds.size());
+        }
+
+        List<String> faultBusIds = new ArrayList<>(faultCount);
+        for (int i = 0; i < faultCount; i++) {
+            faultBusIds.add(busIds.get(i * busIds.size() / faultCount));
+        }
+        return faultBusIds;
+    }
+
+    static List<ShortCircuitFault> createFaults(List<String> faultBusIds, ShortCircuitFault.ShortCircuitType type) {
+        List<ShortCircuitFault> faults = new ArrayList<>(faultBusIds.size());
+        for (String busId : faultBusIds) {
+            faults.add(new ShortCircuitFault(busId, "sc_" + busId, 0., 0., type));
+        }
+        return faults;
+    }
+}
@@ -0,0 +1,68 @@
+/**
+ * Copyright (c) 2022, Jean-Baptiste Heyberger & Geoffroy Jamgotchian
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.incubator.simulator.benchmarks;
+
+import com.powsybl.iidm.network.Identifiable;
+import com.powsybl.iidm.network.Network;
+import com.powsybl.incubator.simulator.networkreduction.ReductionEngine;
+import com.powsybl.incubator.simulator.networkreduction.ReductionParameters;
+import com.powsybl.loadflow.LoadFlow;
+import com.powsybl.loadflow.LoadFlowParameters;
+import com.powsybl.math.matrix.MatrixFactory;
+import com.powsybl.math.matrix.SparseMatrixFactory;
+import com.powsybl.openloadflow.OpenLoadFlowProvider;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Cost of the Ward reduction of the last voltage levels of a network.
+ *
+ * @author Jean-Baptiste Heyberger <jbheyberger at gmail.com>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ReductionBenchmark {
+
+    @Param({"14", "118", "1000"})
+    private int busCount;
+
+    @Param({"2", "10"})
+    private int externalVoltageLevelCount;
+
+    private ReductionEngine reductionEngine;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Network network = BenchmarkNetworks.create(busCount);
+        LoadFlowParameters loadFlowParameters = new LoadFlowParameters();
+        MatrixFactory matrixFactory = new SparseMatrixFactory();
+        new LoadFlow.Runner(new OpenLoadFlowProvider(matrixFactory)).run(network, loadFlowParameters);
+
+        List<String> voltageLevelIds = network.getVoltageLevelStream().map(Identifiable::getId).collect(Collectors.toList());
+        if (externalVoltageLevelCount >= voltageLevelIds.size()) {
+            throw new IllegalArgumentException("External voltage level count " + externalVoltageLevelCount + " must be lower than " + voltageLevelIds.size());
+        }
+        List<String> externalVoltageLevels = voltageLevelIds.subList(voltageLevelIds.size() - externalVoltageLevelCount, voltageLevelIds.size());
+
+        ReductionParameters reductionParameters = new ReductionParameters(loadFlowParameters, matrixFactory, externalVoltageLevels, ReductionEngine.ReductionType.WARD_INJ);
+        reductionEngine = new ReductionEngine(network, reductionParameters);
+    }
+
+    @Benchmark
+    public void runWard(Blackhole bh) {
+        reductionEngine.runWard(ReductionEngine.ReductionType.WARD_INJ);
+        bh.consume(reductionEngine.getReductionResults());
+    }
+}
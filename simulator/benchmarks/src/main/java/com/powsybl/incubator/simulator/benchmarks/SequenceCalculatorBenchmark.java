@@ -0,0 +1,96 @@
+/**
+ * Copyright (c) 2022, Jean-Baptiste Heyberger & Geoffroy Jamgotchian
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.incubator.simulator.benchmarks;
+
+import com.powsybl.incubator.simulator.shortcircuit.*;
+import com.powsybl.math.matrix.DenseMatrix;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.powsybl.incubator.simulator.shortcircuit.AbstractShortCircuitCalculator.*;
+
+/**
+ * Per fault cost of the sequence calculators, compared with the former DenseMatrix based computation of the
+ * monophased fault currents (kept here as the reference).
+ *
+ * @author Jean-Baptiste Heyberger <jbheyberger at gmail.com>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SequenceCalculatorBenchmark {
+
+    // Thevenin data of a 400 kV bus, in ohms and volts
+    private double rdf = 0.28;
+    private double xdf = 7.4;
+    private double rof = 0.61;
+    private double xof = 11.2;
+    private double rf = 0.5;
+    private double xf = 0.1;
+    private double vx = 229000.;
+    private double vy = -12500.;
+
+    @Benchmark
+    public void monophasedDenseMatrix(Blackhole bh) {
+        double rt = (2 * rdf + rof) / 3 + rf;
+        double xt = (2 * xdf + xof) / 3 + xf;
+
+        DenseMatrix vdInit = new DenseMatrix(2, 1);
+        vdInit.add(0, 0, vx);
+        vdInit.add(1, 0, vy);
+
+        DenseMatrix ma = getMatrixByType(BlocType.A, 1.0);
+        DenseMatrix ma2 = getMatrixByType(BlocType.A2, 1.0);
+        DenseMatrix invZt = getInvZt(rt, xt);
+
+        DenseMatrix mIc = invZt.times(ma.times(vdInit).toDense()).toDense();
+        DenseMatrix mIo = getMatrixByType(BlocType.I_D, 1. / 3.).times(mIc).toDense();
+
+        bh.consume(mIo);
+        bh.consume(ma2.times(mIo).toDense());
+        bh.consume(ma.times(mIo).toDense());
+    }
+
+    @Benchmark
+    public void monophased(Blackhole bh) {
+        MonophasedShortCircuitCalculator calculator = new MonophasedShortCircuitCalculator(rdf, xdf, rof, xof, rf, xf, vx, vy);
+        calculator.computeCurrents();
+        bh.consume(calculator.getIdx());
+        bh.consume(calculator.getIdy());
+    }
+
+    @Benchmark
+    public void biphased(Blackhole bh) {
+        BiphasedShortCircuitCalculator calculator = new BiphasedShortCircuitCalculator(rdf, xdf, rof, xof, rf, xf, vx, vy);
+        calculator.computeCurrents();
+        bh.consume(calculator.getIdx());
+        bh.consume(calculator.getIdy());
+    }
+
+    @Benchmark
+    public void biphasedGround(Blackhole bh) {
+        BiphasedGroundShortCircuitCalculator calculator = new BiphasedGroundShortCircuitCalculator(rdf, xdf, rof, xof, rf, xf, vx, vy);
+        calculator.computeCurrents();
+        bh.consume(calculator.getIdx());
+        bh.consume(calculator.getIdy());
+    }
+
+    @Benchmark
+    public void biphasedCommonSupportC1A2(Blackhole bh) {
+        BiphasedC1A2Calculator calculator = new BiphasedC1A2Calculator(rdf, xdf, rof, xof, rf, xf, vx, vy,
+                vx * 0.98, vy * 1.02,
+                0.1, 2.1, rof * 1.1, xof * 0.9, 0.1, 2.1,
+                0.05, 1.3, rdf * 0.9, xdf * 1.1, 0.05, 1.3);
+        bh.consume(calculator.getIdx());
+        bh.consume(calculator.getIdy());
+    }
+}
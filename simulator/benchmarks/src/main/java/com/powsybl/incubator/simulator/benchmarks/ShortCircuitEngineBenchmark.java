@@ -0,0 +1,96 @@
+/**
+ * Copyright (c) 2022, Jean-Baptiste Heyberger & Geoffroy Jamgotchian
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.incubator.simulator.benchmarks;
+
+import com.powsybl.iidm.network.Network;
+import com.powsybl.incubator.simulator.shortcircuit.*;
+import com.powsybl.loadflow.LoadFlowParameters;
+import com.powsybl.math.matrix.SparseMatrixFactory;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End to end cost of the balanced and unbalanced short circuit engines, from the LfNetwork loading to the results.
+ * The voltage update parameter switches on the post-fault voltage and feeder contribution computation.
+ *
+ * @author Jean-Baptiste Heyberger <jbheyberger at gmail.com>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ShortCircuitEngineBenchmark {
+
+    @Param({"14", "118", "1000", "10000"})
+    private int busCount;
+
+    @Param({"1", "10"})
+    private int faultCount;
+
+    @Param({"false", "true"})
+    private boolean voltageUpdate;
+
+    private Network network;
+
+    private ShortCircuitEngineParameters balancedSelectiveParameters;
+
+    private ShortCircuitEngineParameters balancedSystematicParameters;
+
+    private ShortCircuitEngineParameters unbalancedSelectiveParameters;
+
+    private ShortCircuitEngineParameters unbalancedSystematicParameters;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        network = BenchmarkNetworks.create(busCount);
+        List<String> faultBusIds = BenchmarkNetworks.getFaultBusIds(network, faultCount);
+        balancedSelectiveParameters = createParameters(faultBusIds, ShortCircuitEngineParameters.AnalysisType.SELECTIVE, ShortCircuitFault.ShortCircuitType.TRIPHASED_GROUND);
+        balancedSystematicParameters = createParameters(faultBusIds, ShortCircuitEngineParameters.AnalysisType.SYSTEMATIC, ShortCircuitFault.ShortCircuitType.TRIPHASED_GROUND);
+        unbalancedSelectiveParameters = createParameters(faultBusIds, ShortCircuitEngineParameters.AnalysisType.SELECTIVE, ShortCircuitFault.ShortCircuitType.MONOPHASED);
+        unbalancedSystematicParameters = createParameters(faultBusIds, ShortCircuitEngineParameters.AnalysisType.SYSTEMATIC, ShortCircuitFault.ShortCircuitType.MONOPHASED);
+    }
+
+    private ShortCircuitEngineParameters createParameters(List<String> faultBusIds, ShortCircuitEngineParameters.AnalysisType analysisType,
+                                                          ShortCircuitFault.ShortCircuitType type) {
+        return new ShortCircuitEngineParameters(new LoadFlowParameters(), new SparseMatrixFactory(), analysisType,
+                BenchmarkNetworks.createFaults(faultBusIds, type), voltageUpdate, ShortCircuitEngineParameters.VoltageProfileType.NOMINAL,
+                false, ShortCircuitEngineParameters.PeriodType.SUB_TRANSIENT, new ShortCircuitNormNone());
+    }
+
+    @Benchmark
+    public void balancedSelective(Blackhole bh) {
+        ShortCircuitBalancedEngine engine = new ShortCircuitBalancedEngine(network, balancedSelectiveParameters);
+        engine.run();
+        bh.consume(engine.getResultsPerFault());
+    }
+
+    @Benchmark
+    public void balancedSystematic(Blackhole bh) {
+        ShortCircuitBalancedEngine engine = new ShortCircuitBalancedEngine(network, balancedSystematicParameters);
+        engine.run();
+        bh.consume(engine.getResultsPerFault());
+    }
+
+    @Benchmark
+    public void unbalancedSelective(Blackhole bh) {
+        ShortCircuitUnbalancedEngine engine = new ShortCircuitUnbalancedEngine(network, unbalancedSelectiveParameters);
+        engine.run();
+        bh.consume(engine.getResultsPerFault());
+    }
+
+    @Benchmark
+    public void unbalancedSystematic(Blackhole bh) {
+        ShortCircuitUnbalancedEngine engine = new ShortCircuitUnbalancedEngine(network, unbalancedSystematicParameters);
+        engine.run();
+        bh.consume(engine.getResultsPerFault());
+    }
+}
@@ -0,0 +1,102 @@
+/**
+ * Copyright (c) 2022, Jean-Baptiste Heyberger & Geoffroy Jamgotchian
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.incubator.simulator.benchmarks;
+
+import com.powsybl.iidm.network.Network;
+import com.powsybl.incubator.simulator.util.*;
+import com.powsybl.incubator.simulator.util.extensions.ShortCircuitExtensions;
+import com.powsybl.incubator.simulator.util.extensions.ShortCircuitNetworkData;
+import com.powsybl.loadflow.LoadFlowParameters;
+import com.powsybl.math.matrix.MatrixFactory;
+import com.powsybl.math.matrix.SparseMatrixFactory;
+import com.powsybl.openloadflow.OpenLoadFlowParameters;
+import com.powsybl.openloadflow.ac.outerloop.AcLoadFlowParameters;
+import com.powsybl.openloadflow.graph.EvenShiloachGraphDecrementalConnectivityFactory;
+import com.powsybl.openloadflow.network.LfNetwork;
+import com.powsybl.openloadflow.network.LfNetworkParameters;
+import com.powsybl.openloadflow.network.impl.LfNetworkLoaderImpl;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the start of a factorized impedance matrix, as at the restart of a short circuit query service: assembled
+ * from its equation system, or restored from an admittance matrix snapshot. Both include the LU decomposition.
+ *
+ * @author Jean-Baptiste Heyberger <jbheyberger at gmail.com>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SnapshotBenchmark {
+
+    @Param({"118", "1000", "10000"})
+    private int busCount;
+
+    private final MatrixFactory matrixFactory = new SparseMatrixFactory();
+
+    private ShortCircuitNetworkData networkData;
+
+    private ImpedanceLinearResolutionParameters parameters;
+
+    private Path snapshot;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Network network = BenchmarkNetworks.create(busCount);
+        List<LfNetwork> lfNetworks = LfNetwork.load(network, new LfNetworkLoaderImpl(), new LfNetworkParameters());
+        networkData = ShortCircuitExtensions.add(network, lfNetworks).get(0);
+
+        LoadFlowParameters loadFlowParameters = new LoadFlowParameters();
+        AcLoadFlowParameters acLoadFlowParameters = OpenLoadFlowParameters.createAcParameters(loadFlowParameters, OpenLoadFlowParameters.get(loadFlowParameters),
+                matrixFactory, new EvenShiloachGraphDecrementalConnectivityFactory<>(), false, false);
+        parameters = new ImpedanceLinearResolutionParameters(acLoadFlowParameters, matrixFactory, new ArrayList<>(), false,
+                AdmittanceEquationSystem.AdmittanceVoltageProfileType.NOMINAL, AdmittanceEquationSystem.AdmittancePeriodType.ADM_SUB_TRANSIENT,
+                AdmittanceEquationSystem.AdmittanceType.ADM_THEVENIN, false);
+
+        snapshot = Files.createTempFile("snapshot-benchmark", ".snapshot");
+        try (FactorizedImpedanceMatrix matrix = new FactorizedImpedanceMatrix(networkData, parameters, 0, new SimulatorMetrics())) {
+            matrix.save(snapshot);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        try {
+            Files.deleteIfExists(snapshot);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Benchmark
+    public void startAssembled(Blackhole bh) {
+        try (FactorizedImpedanceMatrix matrix = new FactorizedImpedanceMatrix(networkData, parameters, 0, new SimulatorMetrics())) {
+            bh.consume(matrix);
+        }
+    }
+
+    @Benchmark
+    public void startRestored(Blackhole bh) {
+        try (FactorizedImpedanceMatrix matrix = new FactorizedImpedanceMatrix(networkData, parameters, 0, new SimulatorMetrics(), snapshot)) {
+            if (!matrix.isRestored()) {
+                throw new IllegalStateException("Snapshot " + snapshot + " has not been restored");
+            }
+            bh.consume(matrix);
+        }
+    }
+}
@@ -10,7 +10,10 @@ import com.powsybl.iidm.network.Network;
 import com.powsybl.incubator.simulator.util.AdmittanceEquationSystem;
 import com.powsybl.incubator.simulator.util.AdmittanceMatrix;
 import com.powsybl.incubator.simulator.util.EquationType;
+import com.powsybl.incubator.simulator.util.ShortCircuitNetworkContext;
 import com.powsybl.incubator.simulator.util.VariableType;
+import com.powsybl.incubator.simulator.util.extensions.BranchAdmittanceTable;
+import com.powsybl.incubator.simulator.util.extensions.ShortCircuitNetworkData;
 import com.powsybl.math.matrix.DenseMatrix;
 import com.powsybl.math.matrix.Matrix;
 import com.powsybl.openloadflow.OpenLoadFlowParameters;
@@ -38,6 +41,8 @@ public class ReductionEngine {
 
     private final List<LfNetwork> lfNetworks;
 
+    private final ShortCircuitNetworkData networkData; // of the first LfNetwork, shared by the admittance matrix and the reduction hypotheses
+
     private final ReductionParameters parameters;
 
     public List<LfNetwork> getLfNetworks() {
@@ -277,6 +282,19 @@ public class ReductionEngine {
     public ReductionEngine(Network network, ReductionParameters parameters) {
         this.network = Objects.requireNonNull(network);
         this.lfNetworks = LfNetwork.load(network, new LfNetworkLoaderImpl(), new LfNetworkParameters());
+        this.networkData = ShortCircuitNetworkData.build(lfNetworks.get(0));
+        this.parameters = Objects.requireNonNull(parameters);
+        extBusses = new HashSet<>();
+        borderBusses = new HashSet<>();
+    }
+
+    // the LfNetworks and short circuit data already loaded by the context are reused
+    public ReductionEngine(ShortCircuitNetworkContext context, ReductionParameters parameters) {
+        Objects.requireNonNull(context);
+        context.checkVariant();
+        this.network = context.getNetwork();
+        this.lfNetworks = context.getLfNetworks();
+        this.networkData = context.getNetworkData().get(0);
         this.parameters = Objects.requireNonNull(parameters);
         extBusses = new HashSet<>();
         borderBusses = new HashSet<>();
@@ -306,7 +324,7 @@ public class ReductionEngine {
         OpenLoadFlowParameters loadflowParametersExt = OpenLoadFlowParameters.get(parameters.getLoadFlowParameters());
         AcLoadFlowParameters acLoadFlowParameters = OpenLoadFlowParameters.createAcParameters(network, parameters.getLoadFlowParameters(), loadflowParametersExt, parameters.getMatrixFactory(), new EvenShiloachGraphDecrementalConnectivityFactory<>());
 
-        EquationSystem<VariableType, EquationType> equationSystem = AdmittanceEquationSystem.create(lfNetwork, new VariableSet<>(), admittanceType, admittanceVoltageProfileType, acLoadFlowParameters);
+        EquationSystem<VariableType, EquationType> equationSystem = AdmittanceEquationSystem.create(lfNetwork, new VariableSet<>(), admittanceType, admittanceVoltageProfileType, acLoadFlowParameters, networkData);
 
         // Reduction problem:
         // The Grid is decomposed in 3 zones: internal (i), border (b), external (e) which is to be reduced
@@ -621,24 +639,22 @@ public class ReductionEngine {
         }
 
         //remove g1 + g12 of branches linking E and B zones
+        BranchAdmittanceTable admittanceTable = networkData.getAdmittanceTable(false);
         for (LfBranch branch : network.getBranches()) {
             LfBus bus1 = branch.getBus1();
             LfBus bus2 = branch.getBus2();
-            PiModel piModel = branch.getPiModel();
             if (extBusses.contains(bus1) && borderBusses.contains(bus2)) {
-                double b2 = 0.; // g2g21sum = r * zInvSquare + gPi2;
-                double g2 = 0.; // b2b21sum = -x * zInvSquare + bPi2;
-                g2 = piModel.getR() / (piModel.getZ() * piModel.getZ()) + piModel.getG2();
-                b2 = -piModel.getX() / (piModel.getZ() * piModel.getZ()) + piModel.getB2();
+                // g2g21sum = r * zInvSquare + gPi2 and b2b21sum = -x * zInvSquare + bPi2
+                double g2 = admittanceTable.get(branch.getNum(), BranchAdmittanceTable.ROW_I2R, BranchAdmittanceTable.COL_V2R);
+                double b2 = admittanceTable.get(branch.getNum(), BranchAdmittanceTable.ROW_I2I, BranchAdmittanceTable.COL_V2R);
 
                 busNumtToDiagonalBlock.get(bus2.getNum()).y1r2r = busNumtToDiagonalBlock.get(bus2.getNum()).y1r2r + g2;
                 busNumtToDiagonalBlock.get(bus2.getNum()).y1i2r = busNumtToDiagonalBlock.get(bus2.getNum()).y1i2r + b2;
 
             } else if (extBusses.contains(bus2) && borderBusses.contains(bus1)) {
-                double b1 = 0.; //g1g12sum = rho * rho * (gPi1 + r * zInvSquare);
-                double g1 = 0.; //b1b12sum = rho * rho * (bPi1 - x * zInvSquare);
-                g1 = piModel.getR1() * piModel.getR1() * (piModel.getG1() + piModel.getR() / (piModel.getZ() * piModel.getZ()));
-                b1 = piModel.getR1() * piModel.getR1() * (piModel.getB1() - piModel.getX() / (piModel.getZ() * piModel.getZ()));
+                // g1g12sum = rho * rho * (gPi1 + r * zInvSquare) and b1b12sum = rho * rho * (bPi1 - x * zInvSquare)
+                double g1 = admittanceTable.get(branch.getNum(), BranchAdmittanceTable.ROW_I1R, BranchAdmittanceTable.COL_V1R);
+                double b1 = admittanceTable.get(branch.getNum(), BranchAdmittanceTable.ROW_I1I, BranchAdmittanceTable.COL_V1R);
 
                 busNumtToDiagonalBlock.get(bus1.getNum()).y1r2r = busNumtToDiagonalBlock.get(bus1.getNum()).y1r2r + g1;
                 busNumtToDiagonalBlock.get(bus1.getNum()).y1i2r = busNumtToDiagonalBlock.get(bus1.getNum()).y1i2r + b1;
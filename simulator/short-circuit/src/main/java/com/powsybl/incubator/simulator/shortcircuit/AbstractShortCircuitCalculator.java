@@ -13,9 +13,13 @@ import com.powsybl.math.matrix.DenseMatrix;
  */
 public abstract class AbstractShortCircuitCalculator {
 
-    DenseMatrix mIo;
-    DenseMatrix mId;
-    DenseMatrix mIi;
+    // fortescue components of the short circuit current
+    double iox;
+    double ioy;
+    double idx;
+    double idy;
+    double iix;
+    double iiy;
 
     DenseMatrix mIk; //contains the shortcircuit values
 
@@ -44,16 +48,32 @@ public abstract class AbstractShortCircuitCalculator {
 
     }
 
-    DenseMatrix getmIo() {
-        return mIo;
+    public FortescueComponents getCurrents() {
+        return new FortescueComponents(iox, ioy, idx, idy, iix, iiy);
     }
 
-    DenseMatrix getmId() {
-        return mId;
+    public double getIox() {
+        return iox;
     }
 
-    DenseMatrix getmIi() {
-        return mIi;
+    public double getIoy() {
+        return ioy;
+    }
+
+    public double getIdx() {
+        return idx;
+    }
+
+    public double getIdy() {
+        return idy;
+    }
+
+    public double getIix() {
+        return iix;
+    }
+
+    public double getIiy() {
+        return iiy;
     }
 
     public abstract void computeCurrents();
@@ -12,13 +12,14 @@ import com.powsybl.iidm.network.Network;
 import com.powsybl.iidm.network.ThreeWindingsTransformer;
 import com.powsybl.incubator.simulator.util.AdmittanceEquationSystem;
 import com.powsybl.incubator.simulator.util.CalculationLocation;
-import com.powsybl.incubator.simulator.util.extensions.ShortCircuitExtensions;
+import com.powsybl.incubator.simulator.util.ImpedanceLinearResolutionParameters;
+import com.powsybl.incubator.simulator.util.ShortCircuitNetworkContext;
+import com.powsybl.incubator.simulator.util.SimulatorMetrics;
 import com.powsybl.openloadflow.OpenLoadFlowParameters;
 import com.powsybl.openloadflow.ac.outerloop.AcLoadFlowParameters;
 import com.powsybl.openloadflow.graph.EvenShiloachGraphDecrementalConnectivityFactory;
+import com.powsybl.openloadflow.network.LfBus;
 import com.powsybl.openloadflow.network.LfNetwork;
-import com.powsybl.openloadflow.network.LfNetworkParameters;
-import com.powsybl.openloadflow.network.impl.LfNetworkLoaderImpl;
 import org.apache.commons.math3.util.Pair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -26,6 +27,10 @@ import org.slf4j.LoggerFactory;
 import java.util.*;
 
 /**
+ * Parameters, network context and faults given in input are never modified by a run: all the state of a run (fault
+ * lists, iidm bus infos of the faults, results) is built by the run itself, so that the same parameters may be shared by
+ * engines running concurrently. Runs of a given engine are serialized, the results of a run being published once complete.
+ *
  * @author Jean-Baptiste Heyberger <jbheyberger at gmail.com>
  */
 public abstract class AbstractShortCircuitEngine {
@@ -36,31 +41,67 @@ public abstract class AbstractShortCircuitEngine {
 
     protected final ShortCircuitEngineParameters parameters;
 
+    protected final ShortCircuitNetworkContext context;
+
     protected final List<LfNetwork> lfNetworks;
 
-    protected final Map<ShortCircuitFault, ShortCircuitResult> resultsPerFault = new LinkedHashMap<>();
+    protected Map<ShortCircuitFault, ShortCircuitResult> resultsPerFault = new LinkedHashMap<>(); // a new map is built by each run
 
     protected List<CalculationLocation> solverFaultList; // list of faults provided to the solver (not including biphased common support faults)
 
     protected List<CalculationLocation> solverBiphasedFaultList; // list of biphased common support faults provided to the solver
 
+    protected List<ShortCircuitFault> solverBranchFaultList = new ArrayList<>(); // list of faults on lines, not provided to the bus solver
+
+    protected Map<ShortCircuitFault, List<String>> systematicFaultBusIds = new LinkedHashMap<>(); // iidm bus breaker busses of each systematic fault
+
+    // iidm info of the faults of the run: (iidm branch id, side) through which each fault bus is identified in the LfNetwork
+    protected Map<CalculationLocation, Pair<String, Integer>> iidmBusInfos = new HashMap<>();
+
+    protected Map<CalculationLocation, Pair<String, Integer>> iidmBus2Infos = new HashMap<>(); // second bus of biphased common support faults
+
+    protected boolean voltageUpdate; // voltage update of the run, never made in a systematic analysis
+
     protected final AcLoadFlowParameters acLoadFlowParameters;
 
+    protected final SimulatorMetrics metrics = new SimulatorMetrics();
+
     protected AbstractShortCircuitEngine(Network network, ShortCircuitEngineParameters parameters) {
         this.network = Objects.requireNonNull(network);
         this.parameters = Objects.requireNonNull(parameters);
-        this.lfNetworks = LfNetwork.load(network, new LfNetworkLoaderImpl(), new LfNetworkParameters());
+        this.context = new ShortCircuitNetworkContext(network, parameters.getNormExtensions(), metrics);
+        this.lfNetworks = context.getLfNetworks();
+        this.acLoadFlowParameters = getAcLoadFlowParametersFromParam();
+    }
+
+    // the LfNetworks of the context are reused as is, they must have been built with the norm extensions of the parameters
+    protected AbstractShortCircuitEngine(ShortCircuitNetworkContext context, ShortCircuitEngineParameters parameters) {
+        this.context = Objects.requireNonNull(context);
+        this.parameters = Objects.requireNonNull(parameters);
+        context.check(parameters.getNormExtensions());
+        this.network = context.getNetwork();
+        this.lfNetworks = context.getLfNetworks();
         this.acLoadFlowParameters = getAcLoadFlowParametersFromParam();
-        ShortCircuitNorm shortCircuitNorm = parameters.getNorm();
-        ShortCircuitExtensions.add(network, lfNetworks, shortCircuitNorm.getNormExtensions());
     }
 
     protected AcLoadFlowParameters getAcLoadFlowParametersFromParam() {
+        return getAcLoadFlowParameters(parameters);
+    }
+
+    protected AdmittanceEquationSystem.AdmittancePeriodType getAdmittancePeriodTypeFromParam() {
+        return getAdmittancePeriodType(parameters);
+    }
+
+    protected AdmittanceEquationSystem.AdmittanceVoltageProfileType getAdmittanceVoltageProfileTypeFromParam() {
+        return getAdmittanceVoltageProfileType(parameters);
+    }
+
+    static AcLoadFlowParameters getAcLoadFlowParameters(ShortCircuitEngineParameters parameters) {
         OpenLoadFlowParameters loadflowParametersExt = OpenLoadFlowParameters.get(parameters.getLoadFlowParameters());
         return OpenLoadFlowParameters.createAcParameters(parameters.getLoadFlowParameters(), loadflowParametersExt, parameters.getMatrixFactory(), new EvenShiloachGraphDecrementalConnectivityFactory<>(), false, false);
     }
 
-    protected AdmittanceEquationSystem.AdmittancePeriodType getAdmittancePeriodTypeFromParam() {
+    static AdmittanceEquationSystem.AdmittancePeriodType getAdmittancePeriodType(ShortCircuitEngineParameters parameters) {
         AdmittanceEquationSystem.AdmittancePeriodType admittancePeriodType = AdmittanceEquationSystem.AdmittancePeriodType.ADM_TRANSIENT;
         if (parameters.getPeriodType() == ShortCircuitEngineParameters.PeriodType.SUB_TRANSIENT) {
             admittancePeriodType = AdmittanceEquationSystem.AdmittancePeriodType.ADM_SUB_TRANSIENT;
@@ -70,7 +111,7 @@ public abstract class AbstractShortCircuitEngine {
         return admittancePeriodType;
     }
 
-    protected AdmittanceEquationSystem.AdmittanceVoltageProfileType getAdmittanceVoltageProfileTypeFromParam() {
+    static AdmittanceEquationSystem.AdmittanceVoltageProfileType getAdmittanceVoltageProfileType(ShortCircuitEngineParameters parameters) {
         AdmittanceEquationSystem.AdmittanceVoltageProfileType admittanceVoltageProfileType = AdmittanceEquationSystem.AdmittanceVoltageProfileType.NOMINAL;
         if (parameters.getVoltageProfileType() == ShortCircuitEngineParameters.VoltageProfileType.CALCULATED) {
             admittanceVoltageProfileType = AdmittanceEquationSystem.AdmittanceVoltageProfileType.CALCULATED;
@@ -78,25 +119,100 @@ public abstract class AbstractShortCircuitEngine {
         return admittanceVoltageProfileType;
     }
 
-    protected void buildSystematicList(ShortCircuitFault.ShortCircuitType type) {
-        List<ShortCircuitFault> scfSystematic = new ArrayList<>();
-        parameters.setVoltageUpdate(false);
+    protected void setResolutionOptions(ImpedanceLinearResolutionParameters linearResolutionParameters) {
+        linearResolutionParameters.setChunkSize(parameters.getFaultChunkSize());
+        linearResolutionParameters.setExecutor(parameters.getExecutor());
+        linearResolutionParameters.setKronElimination(parameters.isKronElimination());
+        linearResolutionParameters.setIidmBusInfos(iidmBusInfos, iidmBus2Infos);
+    }
+
+    /**
+     * Resets the state of the run and gives the faults to compute: those of the parameters, or for a systematic analysis
+     * one fault of the given type per electrical node.
+     */
+    protected List<ShortCircuitFault> initRun(ShortCircuitFault.ShortCircuitType systematicType) {
+        metrics.resetRun();
+        resultsPerFault = new LinkedHashMap<>();
+        systematicFaultBusIds = new LinkedHashMap<>();
+        if (parameters.getAnalysisType() == ShortCircuitEngineParameters.AnalysisType.SYSTEMATIC) {
+            voltageUpdate = false;
+            return buildSystematicList(systematicType);
+        }
+        voltageUpdate = parameters.isVoltageUpdate();
+        return parameters.getShortCircuitFaults();
+    }
+
+    protected List<ShortCircuitFault> buildSystematicList(ShortCircuitFault.ShortCircuitType type) {
+        // several bus breaker busses may be merged into the same electrical node (LfBus): a single fault is built per LfBus
+        // and the bus breaker busses sharing it are kept in systematicFaultBusIds
+        LfNetwork lfNetwork = lfNetworks.get(0);
+        List<List<Bus>> bussesPerNode = new ArrayList<>();
+        Map<LfBus, List<Bus>> bussesPerLfBus = new HashMap<>();
         for (Bus bus : network.getBusBreakerView().getBuses()) {
-            ShortCircuitFault sc = new ShortCircuitFault(bus.getId(), bus.getId(),  0., 0., type); //TODO : check validity of voltage levels if no connexity
+            LfBus lfBus = getLfBus(lfNetwork, bus);
+            if (lfBus == null) {
+                bussesPerNode.add(List.of(bus)); //TODO : check validity of voltage levels if no connexity
+            } else {
+                bussesPerLfBus.computeIfAbsent(lfBus, k -> {
+                    List<Bus> busses = new ArrayList<>();
+                    bussesPerNode.add(busses);
+                    return busses;
+                }).add(bus);
+            }
+        }
+
+        Set<Bus> branchBusses = getBranchBusses(network);
+        List<ShortCircuitFault> scfSystematic = new ArrayList<>(bussesPerNode.size());
+        for (List<Bus> busses : bussesPerNode) {
+            // the fault is located at a bus connected to a branch, if any, to be identified in the LfNetwork
+            Bus faultBus = busses.stream().filter(branchBusses::contains).findFirst().orElse(busses.get(0));
+            ShortCircuitFault sc = new ShortCircuitFault(faultBus.getId(), faultBus.getId(),  0., 0., type);
             scfSystematic.add(sc);
+            List<String> busIds = new ArrayList<>(busses.size());
+            for (Bus bus : busses) {
+                busIds.add(bus.getId());
+            }
+            systematicFaultBusIds.put(sc, busIds);
         }
-        parameters.setShortCircuitFaults(scfSystematic);
+        return scfSystematic;
     }
 
-    protected Pair<List<CalculationLocation>, List<CalculationLocation>> buildFaultListsFromInputs() {
+    static LfBus getLfBus(LfNetwork lfNetwork, Bus busBreakerBus) {
+        Bus mergedBus = busBreakerBus.getVoltageLevel().getBusView().getMergedBus(busBreakerBus.getId());
+        return mergedBus != null ? lfNetwork.getBusById(mergedBus.getId()) : null;
+    }
+
+    private static Set<Bus> getBranchBusses(Network tmpNetwork) {
+        Set<Bus> branchBusses = new HashSet<>();
+        for (Branch<?> branch : tmpNetwork.getBranches()) {
+            branchBusses.add(branch.getTerminal1().getBusBreakerView().getBus());
+            branchBusses.add(branch.getTerminal2().getBusBreakerView().getBus());
+        }
+        for (ThreeWindingsTransformer t3w : tmpNetwork.getThreeWindingsTransformers()) {
+            branchBusses.add(t3w.getLeg1().getTerminal().getBusBreakerView().getBus());
+            branchBusses.add(t3w.getLeg2().getTerminal().getBusBreakerView().getBus());
+            branchBusses.add(t3w.getLeg3().getTerminal().getBusBreakerView().getBus());
+        }
+        return branchBusses;
+    }
+
+    protected Pair<List<CalculationLocation>, List<CalculationLocation>> buildFaultListsFromInputs(List<ShortCircuitFault> faults) {
         // We handle a pre-treatement of faults given in input:
         // - filtering faults because of some inconsistencies on the bus identification
-        // - addition of info in each fault to ease the identification in LfNetwork of iidm info
+        // - building of iidm info for each fault to ease the identification in LfNetwork, the faults being left unchanged
 
         List<CalculationLocation> faultList = new ArrayList<>();
         List<CalculationLocation> biphasedFaultList = new ArrayList<>();
         Map<String, Pair<String, Integer >> tmpListBus1 = new HashMap<>();
-        for (ShortCircuitFault scfe : parameters.getShortCircuitFaults()) {
+        solverBranchFaultList = new ArrayList<>();
+        iidmBusInfos = new HashMap<>();
+        iidmBus2Infos = new HashMap<>();
+        for (ShortCircuitFault scfe : faults) {
+            if (scfe.isBranchFault()) {
+                solverBranchFaultList.add(scfe);
+                continue;
+            }
+
             String busName = scfe.getBusLocation();
             String bus2Name = scfe.getBus2Location();
 
@@ -105,7 +221,7 @@ public abstract class AbstractShortCircuitEngine {
                     throw new IllegalArgumentException(" short circuit fault : " + busName + " must have a second voltage level defined because it is a common support fault");
                 }
                 Pair<String, Integer> branchFaultInfo = buildFaultBranchFromBusId(busName, network); // creates additional info for fault, identifying location through iidm branches instead of iidm busses to easily get lf busses
-                scfe.setIidmBusInfo(branchFaultInfo); // the short circuit fault info is now enriched with the couple iidmBranchId + iidmBranchSide and not only the iidm bus name in order to be able to identify the busses in the LfNetwork
+                iidmBusInfos.put(scfe, branchFaultInfo); // the couple iidmBranchId + iidmBranchSide and not only the iidm bus name is needed to identify the busses in the LfNetwork
                 faultList.add(scfe);
 
             } else {
@@ -120,8 +236,8 @@ public abstract class AbstractShortCircuitEngine {
                 Pair<String, Integer > branchBus2FaultInfo = buildFaultBranchFromBusId(bus2Name, network);
                 Pair<String, Integer > branchBus1FaultInfo = tmpListBus1.get(busName);
 
-                scfe.setIidmBusInfo(branchBus1FaultInfo);
-                scfe.setIidmBus2Info(branchBus2FaultInfo);
+                iidmBusInfos.put(scfe, branchBus1FaultInfo);
+                iidmBus2Infos.put(scfe, branchBus2FaultInfo);
                 biphasedFaultList.add(scfe);
             }
         }
@@ -203,8 +319,43 @@ public abstract class AbstractShortCircuitEngine {
         return new Pair<>(branchId, legNum);
     }
 
-    public Map<ShortCircuitFault, ShortCircuitResult> getResultsPerFault() {
-        return resultsPerFault;
+    /**
+     * Results of the last run, not modified by the next runs.
+     */
+    public synchronized Map<ShortCircuitFault, ShortCircuitResult> getResultsPerFault() {
+        return Collections.unmodifiableMap(resultsPerFault);
+    }
+
+    /**
+     * Ids of the iidm bus breaker busses of each fault of a systematic analysis: all of them belong to the electrical node
+     * of the fault and share its result. Empty if the analysis is selective.
+     */
+    public synchronized Map<ShortCircuitFault, List<String>> getSystematicFaultBusIds() {
+        return Collections.unmodifiableMap(systematicFaultBusIds);
+    }
+
+    public ShortCircuitNetworkContext getContext() {
+        return context;
+    }
+
+    /**
+     * Timers and counters of this engine: LfNetwork loading and short circuit extensions at construction (unless a
+     * context is given), then equation systems, matrices, LU decompositions, solves, post-processing and feeders update
+     * of the last run only, these being reset at the start of each run.
+     */
+    public SimulatorMetrics getMetrics() {
+        return metrics;
+    }
+
+    // results building is timed as post-processing and the bytes it allocates are counted as result bytes
+    protected void processResults(Runnable resultsBuilder) {
+        long start = metrics.start();
+        long allocatedBytes = SimulatorMetrics.getCurrentThreadAllocatedBytes();
+        resultsBuilder.run();
+        if (allocatedBytes >= 0) {
+            metrics.addResultBytes(SimulatorMetrics.getCurrentThreadAllocatedBytes() - allocatedBytes);
+        }
+        metrics.stop(SimulatorMetrics.Phase.POST_PROCESSING, start);
     }
 
     public abstract void run();
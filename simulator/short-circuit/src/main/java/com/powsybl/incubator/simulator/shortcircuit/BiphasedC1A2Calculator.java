@@ -6,7 +6,7 @@
  */
 package com.powsybl.incubator.simulator.shortcircuit;
 
-import com.powsybl.math.matrix.DenseMatrix;
+import static com.powsybl.incubator.simulator.shortcircuit.ComplexKernel.*;
 
 /**
  * @author Jean-Baptiste Heyberger <jbheyberger at gmail.com>
@@ -94,70 +94,42 @@ public class BiphasedC1A2Calculator extends BiphasedCommonSupportShortCircuitCal
         //
 
         //compute the numerator matrix = a * V1d(init) - V2d(init)
-        DenseMatrix ma = getMatrixByType(AbstractShortCircuitCalculator.BlocType.A, 1.0);
-
-        DenseMatrix mVd1Init = new DenseMatrix(2, 1);
-        mVd1Init.add(0, 0, initVx);
-        mVd1Init.add(1, 0, initVy);
-
-        DenseMatrix maVd = ma.times(mVd1Init).toDense();
-
-        maVd.add(0, 0, -v2dxInit);
-        maVd.add(1, 0, -v2dyInit);
+        double numx = mulX(A_X, A_Y, initVx, initVy) - v2dxInit;
+        double numy = mulY(A_X, A_Y, initVx, initVy) - v2dyInit;
 
         // get Ic by multiplying the numerator to inv(Zt)
-        DenseMatrix invZt = getInvZt(rt, xt);
-        mIc = invZt.times(maVd).toDense();
+        double invZtx = invX(rt, xt);
+        double invZty = invY(rt, xt);
+        icx = mulX(invZtx, invZty, numx, numy);
+        icy = mulY(invZtx, invZty, numx, numy);
     }
 
     @Override
     public void computeZt() {
         // Zf + 1/3*(Zd_11 - a*Zd_12 + Zd_22 -a²*Zd_21 + Zo_11 - Zo_21 + Zo_22 - Zo_12 + Zi_22 - a²*Zi_12 + Zi_11 - a*Zi_21)
-        DenseMatrix a2 = getMatrixByType(AbstractShortCircuitCalculator.BlocType.A2, 1.0);
-        DenseMatrix a = getMatrixByType(AbstractShortCircuitCalculator.BlocType.A, 1.0);
-        DenseMatrix minusId = getMatrixByType(AbstractShortCircuitCalculator.BlocType.I_D, -1.0);
-        DenseMatrix idDiv3 = getMatrixByType(AbstractShortCircuitCalculator.BlocType.I_D, 1. / 3.);
-
-        // td12 = - a*Zd_12
-        DenseMatrix tmpd12 = a.times(zdf12).toDense();
-        DenseMatrix td12 = minusId.times(tmpd12).toDense();
-
-        // td21 = -a²*Zd_21
-        DenseMatrix tmpd21 = a2.times(zdf21).toDense();
-        DenseMatrix td21 = minusId.times(tmpd21).toDense();
-
-        // to21 = -zof21 and to12 = -zof12
-        DenseMatrix to21 = minusId.times(zof21).toDense();
-        DenseMatrix to12 = minusId.times(zof12).toDense();
-
-        // ti12 = -a²*Zi_12
-        DenseMatrix tmpi12 = a2.times(zif12).toDense();
-        DenseMatrix ti12 = minusId.times(tmpi12).toDense();
-
-        // ti21 = - a*Zi_21
-        DenseMatrix tmpi21 = a.times(zif21).toDense();
-        DenseMatrix ti21 = minusId.times(tmpi21).toDense();
-
-        DenseMatrix zt = addMatrices22(zdf11, td12);
-        zt = addMatrices22(zt, zdf22);
-        zt = addMatrices22(zt, td21);
-        zt = addMatrices22(zt, zof11);
-        zt = addMatrices22(zt, to21);
-        zt = addMatrices22(zt, zof22);
-        zt = addMatrices22(zt, to12);
-        zt = addMatrices22(zt, zif22);
-        zt = addMatrices22(zt, ti12);
-        zt = addMatrices22(zt, zif11);
-        zt = addMatrices22(zt, ti21);
-
-        DenseMatrix tmpzt = idDiv3.times(zt).toDense();
-
-        DenseMatrix zf = getZ(rg, xg);
-
-        zt = addMatrices22(tmpzt.toDense(), zf);
-
-        rt = zt.get(0, 0);
-        xt = zt.get(1, 0);
+
+        // a*Zd_12
+        double pd12x = mulX(A_X, A_Y, rd12, xd12);
+        double pd12y = mulY(A_X, A_Y, rd12, xd12);
+
+        // a²*Zd_21
+        double pd21x = mulX(A2_X, A2_Y, rd21, xd21);
+        double pd21y = mulY(A2_X, A2_Y, rd21, xd21);
+
+        // a²*Zi_12
+        double pi12x = mulX(A2_X, A2_Y, rd12, xd12);
+        double pi12y = mulY(A2_X, A2_Y, rd12, xd12);
+
+        // a*Zi_21
+        double pi21x = mulX(A_X, A_Y, rd21, xd21);
+        double pi21y = mulY(A_X, A_Y, rd21, xd21);
+
+        double ztx = rdf - pd12x + rd22 - pd21x + rof - ro21 + ro22 - ro12 + rd22 - pi12x + rdf - pi21x;
+        double zt01 = -xdf + pd12y - xd22 + pd21y - xof + xo21 - xo22 + xo12 - xd22 + pi12y - xdf + pi21y;
+
+        // as done when summing the cartesian blocs with addMatrices22, rt is read in the (0,0) term and xt in the (0,1) term
+        rt = ONE_THIRD * ztx + rg;
+        xt = ONE_THIRD * zt01 + xg;
     }
 
     @Override
@@ -172,17 +144,18 @@ public class BiphasedC1A2Calculator extends BiphasedCommonSupportShortCircuitCal
         // [ I2d ] = -1/3 *Ic1 * [ 1 ]
         // [ I2i ]               [ 1 ]
 
-        DenseMatrix mI3 = getMatrixByType(AbstractShortCircuitCalculator.BlocType.I_D, 1. / 3);
-        DenseMatrix ma2Div3 = getMatrixByType(AbstractShortCircuitCalculator.BlocType.A2, 1. / 3);
-        DenseMatrix maDiv3 = getMatrixByType(AbstractShortCircuitCalculator.BlocType.A, 1. / 3);
-        DenseMatrix mMinusI = getMatrixByType(AbstractShortCircuitCalculator.BlocType.I_D, -1.);
-
-        mIo = mI3.times(mIc).toDense();
-        mId = ma2Div3.times(mIc).toDense();
-        mIi = maDiv3.times(mIc).toDense();
-
-        mI2o = mMinusI.times(mIo).toDense();
-        mI2d = mI2o;
-        mI2i = mI2o;
+        iox = ONE_THIRD * icx;
+        ioy = ONE_THIRD * icy;
+        idx = mulX(A2_DIV3_X, A2_DIV3_Y, icx, icy);
+        idy = mulY(A2_DIV3_X, A2_DIV3_Y, icx, icy);
+        iix = mulX(A_DIV3_X, A_DIV3_Y, icx, icy);
+        iiy = mulY(A_DIV3_X, A_DIV3_Y, icx, icy);
+
+        i2ox = -iox;
+        i2oy = -ioy;
+        i2dx = i2ox;
+        i2dy = i2oy;
+        i2ix = i2ox;
+        i2iy = i2oy;
     }
 }
@@ -6,7 +6,7 @@
  */
 package com.powsybl.incubator.simulator.shortcircuit;
 
-import com.powsybl.math.matrix.DenseMatrix;
+import static com.powsybl.incubator.simulator.shortcircuit.ComplexKernel.*;
 
 /**
  * @author Jean-Baptiste Heyberger <jbheyberger at gmail.com>
@@ -92,74 +92,49 @@ public class BiphasedC1B2Calculator extends BiphasedCommonSupportShortCircuitCal
         // [ic1y]         (rt² + xt²)           [-xt rt ]    ( [ sqrt(3)/2  -1/2  ]    [vd1y]   [ sqrt(3)/2   1/2  ]   [vd2y] )
         //
 
-        //compute the numerator matrix = a * V1d(init) - a² * V2d(init)
-        DenseMatrix ma = getMatrixByType(AbstractShortCircuitCalculator.BlocType.A, 1.0);
+        //compute the numerator matrix = a * V1d(init) - a² * V2d(init) = a * (V1d(init) - a * V2d(init))
+        double v2x = -v2dxInit;
+        double v2y = -v2dyInit;
+        double maVd2x = mulX(A_X, A_Y, v2x, v2y) + initVx;
+        double maVd2y = mulY(A_X, A_Y, v2x, v2y) + initVy;
 
-        DenseMatrix mVd2Init = new DenseMatrix(2, 1);
-        mVd2Init.add(0, 0, -v2dxInit);
-        mVd2Init.add(1, 0, -v2dyInit);
-        DenseMatrix maVd2 = ma.times(mVd2Init).toDense();
-
-        maVd2.add(0, 0, initVx);
-        maVd2.add(1, 0, initVy);
-
-        DenseMatrix numerator = ma.times(maVd2).toDense();
+        double numx = mulX(A_X, A_Y, maVd2x, maVd2y);
+        double numy = mulY(A_X, A_Y, maVd2x, maVd2y);
 
         // get Ic by multiplying the numerator to inv(Zt)
-        DenseMatrix invZt = getInvZt(rt, xt);
-        mIc = invZt.times(numerator).toDense();
+        double invZtx = invX(rt, xt);
+        double invZty = invY(rt, xt);
+        icx = mulX(invZtx, invZty, numx, numy);
+        icy = mulY(invZtx, invZty, numx, numy);
     }
 
     @Override
     public void computeZt() {
 
         // Zf + 1/3*(Zd_11 - a²*Zd_12 + Zd_22 - a*Zd_21 + Zo_11 - Zo_21 + Zo_22 - Zo_12 + Zi_22 - a*Zi_12 + Zi_11 - a²*Zi_21)
-        DenseMatrix a2 = getMatrixByType(AbstractShortCircuitCalculator.BlocType.A2, 1.0);
-        DenseMatrix a = getMatrixByType(AbstractShortCircuitCalculator.BlocType.A, 1.0);
-        DenseMatrix minusId = getMatrixByType(AbstractShortCircuitCalculator.BlocType.I_D, -1.0);
-        DenseMatrix idDiv3 = getMatrixByType(AbstractShortCircuitCalculator.BlocType.I_D, 1. / 3.);
-
-        // td12 = - a²*Zd_12
-        DenseMatrix tmpd12 = a2.times(zdf12).toDense();
-        DenseMatrix td12 = minusId.times(tmpd12).toDense();
-
-        // td21 = - a*Zd_21
-        DenseMatrix tmpd21 = a.times(zdf21).toDense();
-        DenseMatrix td21 = minusId.times(tmpd21).toDense();
-
-        // to21 = -zof21 and to12 = -zof12
-        DenseMatrix to21 = minusId.times(zof21).toDense();
-        DenseMatrix to12 = minusId.times(zof12).toDense();
 
-        // ti12 = - a*Zi_12
-        DenseMatrix tmpi12 = a.times(zif12).toDense();
-        DenseMatrix ti12 = minusId.times(tmpi12).toDense();
+        // a²*Zd_12
+        double pd12x = mulX(A2_X, A2_Y, rd12, xd12);
+        double pd12y = mulY(A2_X, A2_Y, rd12, xd12);
 
-        // ti21 = - a²*Zi_21
-        DenseMatrix tmpi21 = a2.times(zif21).toDense();
-        DenseMatrix ti21 = minusId.times(tmpi21).toDense();
+        // a*Zd_21
+        double pd21x = mulX(A_X, A_Y, rd21, xd21);
+        double pd21y = mulY(A_X, A_Y, rd21, xd21);
 
-        DenseMatrix zt = addMatrices22(zdf11, td12.toDense());
-        zt = addMatrices22(zt, zdf22);
-        zt = addMatrices22(zt, td21);
-        zt = addMatrices22(zt, zof11);
-        zt = addMatrices22(zt, to21);
-        zt = addMatrices22(zt, zof22);
-        zt = addMatrices22(zt, to12);
-        zt = addMatrices22(zt, zif22);
-        zt = addMatrices22(zt, ti12);
-        zt = addMatrices22(zt, zif11);
-        zt = addMatrices22(zt, ti21);
+        // a*Zi_12
+        double pi12x = mulX(A_X, A_Y, rd12, xd12);
+        double pi12y = mulY(A_X, A_Y, rd12, xd12);
 
-        DenseMatrix tmpzt = idDiv3.times(zt).toDense();
+        // a²*Zi_21
+        double pi21x = mulX(A2_X, A2_Y, rd21, xd21);
+        double pi21y = mulY(A2_X, A2_Y, rd21, xd21);
 
-        DenseMatrix zf = getZ(rg, xg);
-
-        zt = addMatrices22(tmpzt, zf);
-
-        rt = zt.get(0, 0);
-        xt = zt.get(1, 0);
+        double ztx = rdf - pd12x + rd22 - pd21x + rof - ro21 + ro22 - ro12 + rd22 - pi12x + rdf - pi21x;
+        double zt01 = -xdf + pd12y - xd22 + pd21y - xof + xo21 - xo22 + xo12 - xd22 + pi12y - xdf + pi21y;
 
+        // as done when summing the cartesian blocs with addMatrices22, rt is read in the (0,0) term and xt in the (0,1) term
+        rt = ONE_THIRD * ztx + rg;
+        xt = ONE_THIRD * zt01 + xg;
     }
 
     @Override
@@ -174,17 +149,18 @@ public class BiphasedC1B2Calculator extends BiphasedCommonSupportShortCircuitCal
         // [ I2d ] = -1/3 *Ic1 * [ a ]
         // [ I2i ]               [ a²]
 
-        DenseMatrix mI3 = getMatrixByType(AbstractShortCircuitCalculator.BlocType.I_D, 1. / 3);
-        DenseMatrix ma2Div3 = getMatrixByType(AbstractShortCircuitCalculator.BlocType.A2, 1. / 3);
-        DenseMatrix maDiv3 = getMatrixByType(AbstractShortCircuitCalculator.BlocType.A, 1. / 3);
-        DenseMatrix mMinusI = getMatrixByType(AbstractShortCircuitCalculator.BlocType.I_D, -1.);
-
-        mIo = mI3.times(mIc).toDense();
-        mId = ma2Div3.times(mIc).toDense();
-        mIi = maDiv3.times(mIc).toDense();
-
-        mI2o = mMinusI.times(mIo).toDense();
-        mI2d = maDiv3.times(mIo).toDense();
-        mI2i = ma2Div3.times(mIo).toDense();
+        iox = ONE_THIRD * icx;
+        ioy = ONE_THIRD * icy;
+        idx = mulX(A2_DIV3_X, A2_DIV3_Y, icx, icy);
+        idy = mulY(A2_DIV3_X, A2_DIV3_Y, icx, icy);
+        iix = mulX(A_DIV3_X, A_DIV3_Y, icx, icy);
+        iiy = mulY(A_DIV3_X, A_DIV3_Y, icx, icy);
+
+        i2ox = -iox;
+        i2oy = -ioy;
+        i2dx = mulX(A_DIV3_X, A_DIV3_Y, iox, ioy);
+        i2dy = mulY(A_DIV3_X, A_DIV3_Y, iox, ioy);
+        i2ix = mulX(A2_DIV3_X, A2_DIV3_Y, iox, ioy);
+        i2iy = mulY(A2_DIV3_X, A2_DIV3_Y, iox, ioy);
     }
 }
@@ -6,7 +6,7 @@
  */
 package com.powsybl.incubator.simulator.shortcircuit;
 
-import com.powsybl.math.matrix.DenseMatrix;
+import static com.powsybl.incubator.simulator.shortcircuit.ComplexKernel.*;
 
 /**
  * @author Jean-Baptiste Heyberger <jbheyberger at gmail.com>
@@ -93,54 +93,28 @@ public class BiphasedC1C2Calculator extends BiphasedCommonSupportShortCircuitCal
         //
 
         //compute the numerator matrix =  a * (V1d(init) - V2d(init))
-        DenseMatrix ma = getMatrixByType(AbstractShortCircuitCalculator.BlocType.A, 1.0);
+        double dvx = initVx - v2dxInit;
+        double dvy = initVy - v2dyInit;
 
-        DenseMatrix mVdInit = new DenseMatrix(2, 1);
-        mVdInit.add(0, 0, initVx - v2dxInit);
-        mVdInit.add(1, 0, initVy - v2dyInit);
-
-        DenseMatrix numerator = ma.times(mVdInit).toDense();
+        double numx = mulX(A_X, A_Y, dvx, dvy);
+        double numy = mulY(A_X, A_Y, dvx, dvy);
 
         // get Ic by multiplying the numerator to inv(Zt)
-        DenseMatrix invZt = getInvZt(rt, xt);
-        mIc = invZt.times(numerator).toDense();
+        double invZtx = invX(rt, xt);
+        double invZty = invY(rt, xt);
+        icx = mulX(invZtx, invZty, numx, numy);
+        icy = mulY(invZtx, invZty, numx, numy);
     }
 
     @Override
     public void computeZt() {
         //  Zf + 1/3*(Zd_11 - Zd_12 + Zd_22 - Zd_21 + Zo_11 - Zo_21 + Zo_22 - Zo_12 + Zi_22 - Zi_12 + Zi_11 - Zi_21)
-        DenseMatrix mId = getMatrixByType(AbstractShortCircuitCalculator.BlocType.I_D, -1.0);
-        DenseMatrix idDiv3 = getMatrixByType(AbstractShortCircuitCalculator.BlocType.I_D, 1. / 3.);
-
-        DenseMatrix td12 = mId.times(zdf12).toDense();
-        DenseMatrix td21 = mId.times(zdf21).toDense();
-
-        DenseMatrix to21 = mId.times(zof21).toDense();
-        DenseMatrix to12 = mId.times(zof12).toDense();
-
-        DenseMatrix ti12 = mId.times(zif12).toDense();
-        DenseMatrix ti21 = mId.times(zif21).toDense();
-
-        DenseMatrix zt = addMatrices22(zdf11.toDense(), td12.toDense());
-        zt = addMatrices22(zt, zdf22);
-        zt = addMatrices22(zt, td21);
-        zt = addMatrices22(zt, zof11);
-        zt = addMatrices22(zt, to21);
-        zt = addMatrices22(zt, zof22);
-        zt = addMatrices22(zt, to12);
-        zt = addMatrices22(zt, zif22);
-        zt = addMatrices22(zt, ti12);
-        zt = addMatrices22(zt, zif11);
-        zt = addMatrices22(zt, ti21);
+        double ztx = rdf - rd12 + rd22 - rd21 + rof - ro21 + ro22 - ro12 + rd22 - rd12 + rdf - rd21;
+        double zt01 = -xdf + xd12 - xd22 + xd21 - xof + xo21 - xo22 + xo12 - xd22 + xd12 - xdf + xd21;
 
-        DenseMatrix tmpzt = idDiv3.times(zt).toDense();
-
-        DenseMatrix zf = getZ(rg, xg);
-
-        zt = addMatrices22(tmpzt.toDense(), zf);
-
-        rt = zt.get(0, 0);
-        xt = zt.get(1, 0);
+        // as done when summing the cartesian blocs with addMatrices22, rt is read in the (0,0) term and xt in the (0,1) term
+        rt = ONE_THIRD * ztx + rg;
+        xt = ONE_THIRD * zt01 + xg;
     }
 
     @Override
@@ -155,17 +129,18 @@ public class BiphasedC1C2Calculator extends BiphasedCommonSupportShortCircuitCal
         // [ I2d ] = -1/3 *Ic1 * [ a²]
         // [ I2i ]               [ a ]
 
-        DenseMatrix mI3 = getMatrixByType(AbstractShortCircuitCalculator.BlocType.I_D, 1. / 3);
-        DenseMatrix ma2Div3 = getMatrixByType(AbstractShortCircuitCalculator.BlocType.A2, 1. / 3);
-        DenseMatrix maDiv3 = getMatrixByType(AbstractShortCircuitCalculator.BlocType.A, 1. / 3);
-        DenseMatrix mMinusI = getMatrixByType(AbstractShortCircuitCalculator.BlocType.I_D, -1.);
-
-        mIo = mI3.times(mIc).toDense();
-        mId = ma2Div3.times(mIc).toDense();
-        mIi = maDiv3.times(mIc).toDense();
-
-        mI2o = mMinusI.times(mIo).toDense();
-        mI2d = mMinusI.times(mId).toDense();
-        mI2i = mMinusI.times(mIi).toDense();
+        iox = ONE_THIRD * icx;
+        ioy = ONE_THIRD * icy;
+        idx = mulX(A2_DIV3_X, A2_DIV3_Y, icx, icy);
+        idy = mulY(A2_DIV3_X, A2_DIV3_Y, icx, icy);
+        iix = mulX(A_DIV3_X, A_DIV3_Y, icx, icy);
+        iiy = mulY(A_DIV3_X, A_DIV3_Y, icx, icy);
+
+        i2ox = -iox;
+        i2oy = -ioy;
+        i2dx = -idx;
+        i2dy = -idy;
+        i2ix = -iix;
+        i2iy = -iiy;
     }
 }
@@ -6,8 +6,6 @@
  */
 package com.powsybl.incubator.simulator.shortcircuit;
 
-import com.powsybl.math.matrix.DenseMatrix;
-
 /**
  * @author Jean-Baptiste Heyberger <jbheyberger at gmail.com>
  */
@@ -30,34 +28,32 @@ public class BiphasedCommonSupportShortCircuitCalculator extends AbstractShortCi
     protected double  v2dxInit;
     protected double  v2dyInit;
 
-    protected DenseMatrix zdf11;
-    protected DenseMatrix zdf12;
-    protected DenseMatrix zdf21;
-    protected DenseMatrix zdf22;
-    protected DenseMatrix zof11;
-    protected DenseMatrix zof12;
-    protected DenseMatrix zof21;
-    protected DenseMatrix zof22;
-    protected DenseMatrix zif11;
-    protected DenseMatrix zif12;
-    protected DenseMatrix zif21;
-    protected DenseMatrix zif22;
-
-    protected DenseMatrix zdf;
-    protected DenseMatrix zof;
-
-    protected DenseMatrix mI2o; // current from bus 2
-    protected DenseMatrix mI2d;
-    protected DenseMatrix mI2i;
-
-    protected DenseMatrix mVo;
-    protected DenseMatrix mVd;
-    protected DenseMatrix mVi;
+    protected double i2ox; // current from bus 2
+    protected double i2oy;
+    protected double i2dx;
+    protected double i2dy;
+    protected double i2ix;
+    protected double i2iy;
+
+    // voltage variations at bus 1 and 2
+    protected double dv1ox;
+    protected double dv1oy;
+    protected double dv2ox;
+    protected double dv2oy;
+    protected double dv1dx;
+    protected double dv1dy;
+    protected double dv2dx;
+    protected double dv2dy;
+    protected double dv1ix;
+    protected double dv1iy;
+    protected double dv2ix;
+    protected double dv2iy;
 
     protected double rt; // values of total impedance used to get Ic
     protected double xt;
 
-    protected DenseMatrix mIc; // short circuit phase C1 current circulating from common support 1 to 2
+    protected double icx; // short circuit phase C1 current circulating from common support 1 to 2
+    protected double icy;
 
     public BiphasedCommonSupportShortCircuitCalculator(double rdf, double xdf, double rof, double xof, double rg, double xg,
                                                        double initVx, double initVy,
@@ -79,9 +75,6 @@ public class BiphasedCommonSupportShortCircuitCalculator extends AbstractShortCi
         this.xd22 = xd22;
         this.v2dxInit = v2dxInit;
         this.v2dyInit = v2dyInit;
-
-        buildZxf(); // build all remaining matrix elements from inputs
-
     }
 
     public void computeZt() { }
@@ -102,188 +95,58 @@ public class BiphasedCommonSupportShortCircuitCalculator extends AbstractShortCi
         // [v1oy] = -1  *  [ xof_11   rof_11  xof_12   rof_12 ] * [ i1oy ]
         // [v2ox]          [ rof_21  -xof_21  rof_22  -xof_22 ]   [ i2ox ]
         // [v2oy]          [ xof_21   rof_21  xof_22   rof_22 ]   [ i2oy ]
-        DenseMatrix minusIo = new DenseMatrix(4, 1);
-        minusIo.add(0, 0, -getmIo().toDense().get(0, 0));
-        minusIo.add(1, 0, -getmIo().toDense().get(1, 0));
-        minusIo.add(2, 0, -getmI2o().toDense().get(0, 0));
-        minusIo.add(3, 0, -getmI2o().toDense().get(1, 0));
+        double mi1x = -iox;
+        double mi1y = -ioy;
+        double mi2x = -i2ox;
+        double mi2y = -i2oy;
 
-        mVo = zof.times(minusIo).toDense();
+        dv1ox = rof * mi1x - xof * mi1y + ro12 * mi2x - xo12 * mi2y;
+        dv1oy = xof * mi1x + rof * mi1y + xo12 * mi2x + ro12 * mi2y;
+        dv2ox = ro21 * mi1x - xo21 * mi1y + ro22 * mi2x - xo22 * mi2y;
+        dv2oy = xo21 * mi1x + ro21 * mi1y + xo22 * mi2x + ro22 * mi2y;
 
         // Vd :
         // [v1dx]          [ rdf_11  -xdf_11  rdf_12  -xdf_12 ]   [ i1ox ]     [v1dx(init)]
         // [v1dy] = -1  *  [ xdf_11   rdf_11  xdf_12   rdf_12 ] * [ i1oy ]  +  [v1dy(init)]
         // [v2dx]          [ rdf_21  -xdf_21  rdf_22  -xdf_22 ]   [ i2ox ]     [v2dx(init)]
         // [v2dy]          [ xdf_21   rdf_21  xdf_22   rdf_22 ]   [ i2oy ]     [v2dy(init)]
-        DenseMatrix minusId = new DenseMatrix(4, 1);
-        minusId.add(0, 0, -getmId().toDense().get(0, 0));
-        minusId.add(1, 0, -getmId().toDense().get(1, 0));
-        minusId.add(2, 0, -getmI2d().toDense().get(0, 0));
-        minusId.add(3, 0, -getmI2d().toDense().get(1, 0));
+        mi1x = -idx;
+        mi1y = -idy;
+        mi2x = -i2dx;
+        mi2y = -i2dy;
 
-        mVd = zdf.times(minusId).toDense();
+        dv1dx = rdf * mi1x - xdf * mi1y + rd12 * mi2x - xd12 * mi2y;
+        dv1dy = xdf * mi1x + rdf * mi1y + xd12 * mi2x + rd12 * mi2y;
+        dv2dx = rd21 * mi1x - xd21 * mi1y + rd22 * mi2x - xd22 * mi2y;
+        dv2dy = xd21 * mi1x + rd21 * mi1y + xd22 * mi2x + rd22 * mi2y;
 
         // Vi :
         // [v1ix]          [ rdf_11  -xdf_11  rdf_12  -xdf_12 ]   [ i1dx ]
         // [v1iy] = -1  *  [ xdf_11   rdf_11  xdf_12   rdf_12 ] * [ i1dy ]
         // [v2ix]          [ rdf_21  -xdf_21  rdf_22  -xdf_22 ]   [ i2dx ]
         // [v2iy]          [ xdf_21   rdf_21  xdf_22   rdf_22 ]   [ i2dy ]
-
-        DenseMatrix minusIi = new DenseMatrix(4, 1);
-        minusIi.add(0, 0, -getmIi().toDense().get(0, 0));
-        minusIi.add(1, 0, -getmIi().toDense().get(1, 0));
-        minusIi.add(2, 0, -getmI2i().toDense().get(0, 0));
-        minusIi.add(3, 0, -getmI2i().toDense().get(1, 0));
-
-        mVi = zdf.times(minusIi).toDense();
-
-    }
-
-    public void buildZxf() {
-
-        zdf11 = new DenseMatrix(2, 2);
-        zdf11.add(0, 0, rdf);
-        zdf11.add(0, 1, -xdf);
-        zdf11.add(1, 0, xdf);
-        zdf11.add(1, 1, rdf);
-
-        zdf12 = new DenseMatrix(2, 2);
-        zdf12.add(0, 0, rd12);
-        zdf12.add(0, 1, -xd12);
-        zdf12.add(1, 0, xd12);
-        zdf12.add(1, 1, rd12);
-
-        zdf21 = new DenseMatrix(2, 2);
-        zdf21.add(0, 0, rd21);
-        zdf21.add(0, 1, -xd21);
-        zdf21.add(1, 0, xd21);
-        zdf21.add(1, 1, rd21);
-
-        zdf22 = new DenseMatrix(2, 2);
-        zdf22.add(0, 0, rd22);
-        zdf22.add(0, 1, -xd22);
-        zdf22.add(1, 0, xd22);
-        zdf22.add(1, 1, rd22);
-
-        zof11 = new DenseMatrix(2, 2);
-        zof11.add(0, 0, rof);
-        zof11.add(0, 1, -xof);
-        zof11.add(1, 0, xof);
-        zof11.add(1, 1, rof);
-
-        zof12 = new DenseMatrix(2, 2);
-        zof12.add(0, 0, ro12);
-        zof12.add(0, 1, -xo12);
-        zof12.add(1, 0, xo12);
-        zof12.add(1, 1, ro12);
-
-        zof21 = new DenseMatrix(2, 2);
-        zof21.add(0, 0, ro21);
-        zof21.add(0, 1, -xo21);
-        zof21.add(1, 0, xo21);
-        zof21.add(1, 1, ro21);
-
-        zof22 = new DenseMatrix(2, 2);
-        zof22.add(0, 0, ro22);
-        zof22.add(0, 1, -xo22);
-        zof22.add(1, 0, xo22);
-        zof22.add(1, 1, ro22);
-
-        zif11 = new DenseMatrix(2, 2);
-        zif11.add(0, 0, rdf);
-        zif11.add(0, 1, -xdf);
-        zif11.add(1, 0, xdf);
-        zif11.add(1, 1, rdf);
-
-        zif12 = new DenseMatrix(2, 2);
-        zif12.add(0, 0, rd12);
-        zif12.add(0, 1, -xd12);
-        zif12.add(1, 0, xd12);
-        zif12.add(1, 1, rd12);
-
-        zif21 = new DenseMatrix(2, 2);
-        zif21.add(0, 0, rd21);
-        zif21.add(0, 1, -xd21);
-        zif21.add(1, 0, xd21);
-        zif21.add(1, 1, rd21);
-
-        zif22 = new DenseMatrix(2, 2);
-        zif22.add(0, 0, rd22);
-        zif22.add(0, 1, -xd22);
-        zif22.add(1, 0, xd22);
-        zif22.add(1, 1, rd22);
-
-        //Matrix zof
-        // [ rof_11  -xof_11  rof_12  -xof_12 ]
-        // [ xof_11   rof_11  xof_12   rof_12 ]
-        // [ rof_21  -xof_21  rof_22  -xof_22 ]
-        // [ xof_21   rof_21  xof_22   rof_22 ]
-        zof = new DenseMatrix(4, 4);
-        zof.add(0, 0, rof);
-        zof.add(0, 1, -xof);
-        zof.add(1, 0, xof);
-        zof.add(1, 1, rof);
-
-        zof.add(0, 2, ro12);
-        zof.add(0, 3, -xo12);
-        zof.add(1, 2, xo12);
-        zof.add(1, 3, ro12);
-
-        zof.add(2, 0, ro21);
-        zof.add(2, 1, -xo21);
-        zof.add(3, 0, xo21);
-        zof.add(3, 1, ro21);
-
-        zof.add(2, 2, ro22);
-        zof.add(2, 3, -xo22);
-        zof.add(3, 2, xo22);
-        zof.add(3, 3, ro22);
-
-        //Matrix zdf
-        zdf = new DenseMatrix(4, 4);
-        zdf.add(0, 0, rdf);
-        zdf.add(0, 1, -xdf);
-        zdf.add(1, 0, xdf);
-        zdf.add(1, 1, rdf);
-
-        zdf.add(0, 2, rd12);
-        zdf.add(0, 3, -xd12);
-        zdf.add(1, 2, xd12);
-        zdf.add(1, 3, rd12);
-
-        zdf.add(2, 0, rd21);
-        zdf.add(2, 1, -xd21);
-        zdf.add(3, 0, xd21);
-        zdf.add(3, 1, rd21);
-
-        zdf.add(2, 2, rd22);
-        zdf.add(2, 3, -xd22);
-        zdf.add(3, 2, xd22);
-        zdf.add(3, 3, rd22);
-
-    }
-
-    public DenseMatrix getmI2d() {
-        return mI2d;
-    }
-
-    public DenseMatrix getmI2i() {
-        return mI2i;
-    }
-
-    public DenseMatrix getmI2o() {
-        return mI2o;
+        mi1x = -iix;
+        mi1y = -iiy;
+        mi2x = -i2ix;
+        mi2y = -i2iy;
+
+        dv1ix = rdf * mi1x - xdf * mi1y + rd12 * mi2x - xd12 * mi2y;
+        dv1iy = xdf * mi1x + rdf * mi1y + xd12 * mi2x + rd12 * mi2y;
+        dv2ix = rd21 * mi1x - xd21 * mi1y + rd22 * mi2x - xd22 * mi2y;
+        dv2iy = xd21 * mi1x + rd21 * mi1y + xd22 * mi2x + rd22 * mi2y;
     }
 
-    public DenseMatrix getmVd() {
-        return mVd;
+    public FortescueComponents getI2() {
+        return new FortescueComponents(i2ox, i2oy, i2dx, i2dy, i2ix, i2iy);
     }
 
-    public DenseMatrix getmVi() {
-        return mVi;
+    // voltage variations at bus 1, without Vinit
+    public FortescueComponents getDv1() {
+        return new FortescueComponents(dv1ox, dv1oy, dv1dx, dv1dy, dv1ix, dv1iy);
     }
 
-    public DenseMatrix getmVo() {
-        return mVo;
+    // voltage variations at bus 2, without Vinit
+    public FortescueComponents getDv2() {
+        return new FortescueComponents(dv2ox, dv2oy, dv2dx, dv2dy, dv2ix, dv2iy);
     }
 }
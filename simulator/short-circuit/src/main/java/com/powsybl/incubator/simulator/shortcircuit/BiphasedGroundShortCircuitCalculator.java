@@ -6,7 +6,7 @@
  */
 package com.powsybl.incubator.simulator.shortcircuit;
 
-import com.powsybl.math.matrix.DenseMatrix;
+import static com.powsybl.incubator.simulator.shortcircuit.ComplexKernel.*;
 
 /**
  * @author Jean-Baptiste Heyberger <jbheyberger at gmail.com>
@@ -57,9 +57,6 @@ public class BiphasedGroundShortCircuitCalculator extends AbstractShortCircuitCa
         // From computed Ic1 we get complex values : I1o, I1d, I1i, I2o, I2d, I2i using step 1 formulas expressed with Ic1
         // Then compute the voltages from current values
 
-        DenseMatrix zof = getZ(rof, xof);
-        DenseMatrix zdf = getZ(rdf, xdf);
-
         //         (zof + zdf) * [Vinit]
         // Id = ---------------------------
         //         Zdf * (Zdf + 2 * Zof)
@@ -76,28 +73,32 @@ public class BiphasedGroundShortCircuitCalculator extends AbstractShortCircuitCa
         // Va = ---------------------
         //          Zdf + 2 * Zof
 
-        DenseMatrix vdInit = new DenseMatrix(2, 1);
-        vdInit.add(0, 0, initVx);
-        vdInit.add(1, 0, initVy);
-
-        DenseMatrix twoId = getMatrixByType(BlocType.I_D, 2.);
-        DenseMatrix minusId = getMatrixByType(BlocType.I_D, -1.);
-
-        DenseMatrix twoZof = twoId.times(zof).toDense();
-        DenseMatrix zdf2Zof = addMatrices22(zdf.toDense(), twoZof.toDense());
-        DenseMatrix zdfZof = addMatrices22(zdf.toDense(), zof.toDense());
-        DenseMatrix minusZof = zof.times(minusId).toDense();
-        DenseMatrix minusZdf = zdf.times(minusId).toDense();
+        // Zdf + 2 * Zof and Zdf + Zof, blocs as assembled by addMatrices22
+        double zdf2Zof00 = rdf + 2 * rof;
+        double zdf2Zof10 = -xdf + 2 * xof;
+        double zdfZof00 = rdf + rof;
+        double zdfZof01 = -xdf - xof;
+        double zdfZof10 = -xdf + xof;
+        double zdfZof11 = -xdf + rof;
 
-        DenseMatrix numId = zdfZof.times(vdInit).toDense();
-        DenseMatrix numIo = minusZdf.times(vdInit).toDense();
-        DenseMatrix numIi = minusZof.times(vdInit).toDense();
+        double numIdx = zdfZof00 * initVx + zdfZof01 * initVy;
+        double numIdy = zdfZof10 * initVx + zdfZof11 * initVy;
+        double numIox = mulX(-rdf, -xdf, initVx, initVy);
+        double numIoy = mulY(-rdf, -xdf, initVx, initVy);
+        double numIix = mulX(-rof, -xof, initVx, initVy);
+        double numIiy = mulY(-rof, -xof, initVx, initVy);
 
-        DenseMatrix demonI = zdf.times(zdf2Zof).toDense();
-        DenseMatrix invDemonI = getInvZt(demonI.get(0, 0), demonI.get(1, 0));
+        // Zdf * (Zdf + 2 * Zof)
+        double demonIx = rdf * zdf2Zof00 - xdf * zdf2Zof10;
+        double demonIy = xdf * zdf2Zof00 + rdf * zdf2Zof10;
+        double invDemonIx = invX(demonIx, demonIy);
+        double invDemonIy = invY(demonIx, demonIy);
 
-        mId = invDemonI.times(numId).toDense();
-        mIo = invDemonI.times(numIo).toDense();
-        mIi = invDemonI.times(numIi).toDense();
+        idx = mulX(invDemonIx, invDemonIy, numIdx, numIdy);
+        idy = mulY(invDemonIx, invDemonIy, numIdx, numIdy);
+        iox = mulX(invDemonIx, invDemonIy, numIox, numIoy);
+        ioy = mulY(invDemonIx, invDemonIy, numIox, numIoy);
+        iix = mulX(invDemonIx, invDemonIy, numIix, numIiy);
+        iiy = mulY(invDemonIx, invDemonIy, numIix, numIiy);
     }
 }
@@ -6,13 +6,19 @@
  */
 package com.powsybl.incubator.simulator.shortcircuit;
 
-import com.powsybl.math.matrix.DenseMatrix;
+import static com.powsybl.incubator.simulator.shortcircuit.ComplexKernel.*;
 
 /**
  * @author Jean-Baptiste Heyberger <jbheyberger at gmail.com>
  */
 public class BiphasedShortCircuitCalculator extends AbstractShortCircuitCalculator  {
 
+    // bloc (a - a²)/3 as assembled with addMatrices22(getMatrixByType(A, 1/3), getMatrixByType(A2, -1/3))
+    private static final double AA2_DIV3_00 = A_DIV3_X - A2_DIV3_X;
+    private static final double AA2_DIV3_01 = -A_DIV3_Y + A2_DIV3_Y;
+    private static final double AA2_DIV3_10 = -A_DIV3_Y - A2_DIV3_Y;
+    private static final double AA2_DIV3_11 = -A_DIV3_Y - A2_DIV3_X;
+
     public BiphasedShortCircuitCalculator(double rdf, double xdf, double rof, double xof, double rg, double xg,
                                             double initVx, double initVy) {
         super(rdf, xdf, rof, xof, rg, xg, initVx, initVy);
@@ -68,15 +74,15 @@ public class BiphasedShortCircuitCalculator extends AbstractShortCircuitCalculat
         // [ibx] = - inv([Zt]) * [j] *sqrt(3) * [vdx] = ------------ * [ rt xt ] * [ 0 -1 ] * [vdx]
         // [iby]                                [vdy]   (rt² + xt²)    [-xt rt ]   [ 1  0 ]   [vdy]
 
-        DenseMatrix vdInit = new DenseMatrix(2, 1);
-        vdInit.add(0, 0, initVx);
-        vdInit.add(1, 0, initVy);
+        // j * (-sqrt(3)) * [Vd(init)]
+        double jVdx = mulX(0., -SQRT3, initVx, initVy);
+        double jVdy = mulY(0., -SQRT3, initVx, initVy);
 
-        DenseMatrix jmSqrt3 = getMatrixByType(BlocType.J, -Math.sqrt(3));
-        DenseMatrix invZt = getInvZt(rt, xt);
+        double invZtx = invX(rt, xt);
+        double invZty = invY(rt, xt);
 
-        DenseMatrix tmpjVd = jmSqrt3.times(vdInit).toDense();
-        DenseMatrix mIb = invZt.times(tmpjVd).toDense();
+        double ibx = mulX(invZtx, invZty, jVdx, jVdy);
+        double iby = mulY(invZtx, invZty, jVdx, jVdy);
 
         // Compute the currents :
         // [ Io ]         [ 1  1  1 ]   [ 0  ]              [  0   ]
@@ -84,13 +90,11 @@ public class BiphasedShortCircuitCalculator extends AbstractShortCircuitCalculat
         // [ Ii ]         [ 1  a² a ]   [-Ib ]              [a²- a ]
 
         // [Io] = 0
-        DenseMatrix adiv3 = getMatrixByType(BlocType.A, 1. / 3.);
-        DenseMatrix ma2div3 = getMatrixByType(BlocType.A2, -1. / 3);
-        DenseMatrix minusId = getMatrixByType(BlocType.I_D, -1.);
-        DenseMatrix aa2div3 = addMatrices22(adiv3.toDense(), ma2div3.toDense());
-
-        mId = aa2div3.times(mIb).toDense();
-        mIi = minusId.times(mId).toDense();
-        mIo = new DenseMatrix(2, 1);
+        idx = AA2_DIV3_00 * ibx + AA2_DIV3_01 * iby;
+        idy = AA2_DIV3_10 * ibx + AA2_DIV3_11 * iby;
+        iix = -idx;
+        iiy = -idy;
+        iox = 0.;
+        ioy = 0.;
     }
 }
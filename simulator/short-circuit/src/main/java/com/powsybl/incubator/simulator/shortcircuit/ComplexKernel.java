@@ -0,0 +1,61 @@
+/**
+ * Copyright (c) 2022, Jean-Baptiste Heyberger & Geoffroy Jamgotchian
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.incubator.simulator.shortcircuit;
+
+/**
+ * Primitive complex arithmetic used by the sequence calculators.
+ * A complex value z = x + j.y is handled as its two doubles, which is equivalent to the cartesian bloc:
+ * [ x -y ]
+ * [ y  x ]
+ * used in {@link AbstractShortCircuitCalculator}, each operation being written with the same floating point
+ * operations as the equivalent 2x2 matrix product so that results are unchanged.
+ *
+ * @author Jean-Baptiste Heyberger <jbheyberger at gmail.com>
+ */
+public final class ComplexKernel {
+
+    public static final double SQRT3 = Math.sqrt(3.);
+    public static final double SQRT3_DIV2 = SQRT3 / 2.;
+    public static final double ONE_THIRD = 1. / 3.;
+
+    // a as in BlocType.A
+    public static final double A_X = -1. / 2.;
+    public static final double A_Y = SQRT3_DIV2;
+
+    // a² as in BlocType.A2
+    public static final double A2_X = 1. / 2.;
+    public static final double A2_Y = SQRT3_DIV2;
+
+    // a/3 and a²/3
+    public static final double A_DIV3_X = -1. / 2. * ONE_THIRD;
+    public static final double A_DIV3_Y = SQRT3_DIV2 * ONE_THIRD;
+    public static final double A2_DIV3_X = 1. / 2. * ONE_THIRD;
+    public static final double A2_DIV3_Y = SQRT3_DIV2 * ONE_THIRD;
+
+    private ComplexKernel() {
+    }
+
+    // real part of (ax + j.ay) * (bx + j.by)
+    public static double mulX(double ax, double ay, double bx, double by) {
+        return ax * bx - ay * by;
+    }
+
+    // imaginary part of (ax + j.ay) * (bx + j.by)
+    public static double mulY(double ax, double ay, double bx, double by) {
+        return ay * bx + ax * by;
+    }
+
+    // real part of 1 / (r + j.x)
+    public static double invX(double r, double x) {
+        return r / (r * r + x * x);
+    }
+
+    // imaginary part of 1 / (r + j.x)
+    public static double invY(double r, double x) {
+        return -x / (r * r + x * x);
+    }
+}
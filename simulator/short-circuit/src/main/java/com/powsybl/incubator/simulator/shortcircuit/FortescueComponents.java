@@ -0,0 +1,117 @@
+/**
+ * Copyright (c) 2022, Jean-Baptiste Heyberger & Geoffroy Jamgotchian
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.incubator.simulator.shortcircuit;
+
+import java.util.Objects;
+
+/**
+ * Immutable triple of complex fortescue components (homopolar, direct, inverse) in cartesian coordinates.
+ * Replaces the former 6x1 DenseMatrix t[Hx, Hy, Dx, Dy, Ix, Iy] used to store currents and voltages in results.
+ *
+ * @author Jean-Baptiste Heyberger <jbheyberger at gmail.com>
+ */
+public final class FortescueComponents {
+
+    public static final FortescueComponents ZERO = new FortescueComponents(0., 0., 0., 0., 0., 0.);
+
+    private final double homopolarX;
+    private final double homopolarY;
+    private final double directX;
+    private final double directY;
+    private final double inverseX;
+    private final double inverseY;
+
+    public FortescueComponents(double homopolarX, double homopolarY, double directX, double directY, double inverseX, double inverseY) {
+        this.homopolarX = homopolarX;
+        this.homopolarY = homopolarY;
+        this.directX = directX;
+        this.directY = directY;
+        this.inverseX = inverseX;
+        this.inverseY = inverseY;
+    }
+
+    public static FortescueComponents direct(double directX, double directY) {
+        return new FortescueComponents(0., 0., directX, directY, 0., 0.);
+    }
+
+    public double getHomopolarX() {
+        return homopolarX;
+    }
+
+    public double getHomopolarY() {
+        return homopolarY;
+    }
+
+    public double getDirectX() {
+        return directX;
+    }
+
+    public double getDirectY() {
+        return directY;
+    }
+
+    public double getInverseX() {
+        return inverseX;
+    }
+
+    public double getInverseY() {
+        return inverseY;
+    }
+
+    public double getHomopolarMagnitude() {
+        return Math.sqrt(homopolarX * homopolarX + homopolarY * homopolarY);
+    }
+
+    public double getHomopolarAngle() {
+        return Math.atan2(homopolarY, homopolarX);
+    }
+
+    public double getDirectMagnitude() {
+        return Math.sqrt(directX * directX + directY * directY);
+    }
+
+    public double getDirectAngle() {
+        return Math.atan2(directY, directX);
+    }
+
+    public double getInverseMagnitude() {
+        return Math.sqrt(inverseX * inverseX + inverseY * inverseY);
+    }
+
+    public double getInverseAngle() {
+        return Math.atan2(inverseY, inverseX);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        FortescueComponents other = (FortescueComponents) o;
+        return Double.compare(homopolarX, other.homopolarX) == 0
+                && Double.compare(homopolarY, other.homopolarY) == 0
+                && Double.compare(directX, other.directX) == 0
+                && Double.compare(directY, other.directY) == 0
+                && Double.compare(inverseX, other.inverseX) == 0
+                && Double.compare(inverseY, other.inverseY) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(homopolarX, homopolarY, directX, directY, inverseX, inverseY);
+    }
+
+    @Override
+    public String toString() {
+        return "FortescueComponents(homopolar=" + homopolarX + " + j(" + homopolarY + ")"
+                + ", direct=" + directX + " + j(" + directY + ")"
+                + ", inverse=" + inverseX + " + j(" + inverseY + "))";
+    }
+}
@@ -6,7 +6,7 @@
  */
 package com.powsybl.incubator.simulator.shortcircuit;
 
-import com.powsybl.math.matrix.DenseMatrix;
+import static com.powsybl.incubator.simulator.shortcircuit.ComplexKernel.*;
 
 /**
  * @author Jean-Baptiste Heyberger <jbheyberger at gmail.com>
@@ -75,17 +75,15 @@ public class MonophasedShortCircuitCalculator extends AbstractShortCircuitCalcul
         // [icx] = inv([Zt]) * [a] * [vdx] = ------------ * [ rt xt ] * [ -1/2  -sqrt(3)/2 ] * [vdx]
         // [icy]                     [vdy]   (rt² + xt²)    [-xt rt ]   [ sqrt(3)/2  -1/2  ]   [vdy]
 
-        DenseMatrix vdInit = new DenseMatrix(2, 1);
-        vdInit.add(0, 0, initVx);
-        vdInit.add(1, 0, initVy);
+        // a * [Vd(init)]
+        double avx = mulX(A_X, A_Y, initVx, initVy);
+        double avy = mulY(A_X, A_Y, initVx, initVy);
 
-        DenseMatrix ma = getMatrixByType(BlocType.A, 1.0);
-        DenseMatrix ma2 = getMatrixByType(BlocType.A2, 1.0);
+        double invZtx = invX(rt, xt);
+        double invZty = invY(rt, xt);
 
-        DenseMatrix invZt = getInvZt(rt, xt);
-
-        DenseMatrix tmpaVd = ma.times(vdInit).toDense();
-        DenseMatrix mIc = invZt.times(tmpaVd).toDense();
+        double icx = mulX(invZtx, invZty, avx, avy);
+        double icy = mulY(invZtx, invZty, avx, avy);
 
         //
         //        -rt*(vdxi + vdyi*sqrt(3)) + xt*(vdxi*sqrt(3)-vdyi)
@@ -101,11 +99,12 @@ public class MonophasedShortCircuitCalculator extends AbstractShortCircuitCalcul
 
         //double icy = (-rt * (v1dxInit * Math.sqrt(3) - v1dyInit) + xt * (v1dxInit + v1dyInit * Math.sqrt(3))) / (2 * detZt);
 
-        DenseMatrix mIdiv3 = getMatrixByType(BlocType.I_D, 1. / 3.);
-
-        mIo = mIdiv3.times(mIc).toDense();
-        mId = ma2.times(mIo).toDense();
-        mIi = ma.times(mIo).toDense();
+        iox = ONE_THIRD * icx;
+        ioy = ONE_THIRD * icy;
+        idx = mulX(A2_X, A2_Y, iox, ioy);
+        idy = mulY(A2_X, A2_Y, iox, ioy);
+        iix = mulX(A_X, A_Y, iox, ioy);
+        iiy = mulY(A_X, A_Y, iox, ioy);
 
     }
 }
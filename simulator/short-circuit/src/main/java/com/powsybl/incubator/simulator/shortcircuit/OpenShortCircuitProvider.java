@@ -12,6 +12,8 @@ import com.powsybl.computation.ComputationManager;
 import com.powsybl.iidm.network.Bus;
 import com.powsybl.iidm.network.Network;
 import com.powsybl.incubator.simulator.util.FeedersAtBusResult;
+import com.powsybl.incubator.simulator.util.ShortCircuitNetworkContext;
+import com.powsybl.incubator.simulator.util.SimulatorMetrics;
 import com.powsybl.loadflow.LoadFlow;
 import com.powsybl.loadflow.LoadFlowParameters;
 import com.powsybl.loadflow.LoadFlowResult;
@@ -27,6 +29,7 @@ import org.slf4j.LoggerFactory;
 
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -37,14 +40,109 @@ public class OpenShortCircuitProvider implements ShortCircuitAnalysisProvider {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(OpenShortCircuitProvider.class);
 
+    public static final int DEFAULT_FAULT_CHUNK_SIZE = 100;
+
     private final MatrixFactory matrixFactory;
 
+    private final ShortCircuitEngineParameters.VoltageProfileType voltageProfile;
+
+    private int faultChunkSize = DEFAULT_FAULT_CHUNK_SIZE;
+
+    private boolean kronElimination = false;
+
+    private ShortCircuitEngineParameters.FeederScope feederScope = ShortCircuitEngineParameters.FeederScope.ALL;
+
+    private int feederNeighbourhoodDepth = 1;
+
+    private Set<String> feederVoltageLevelIds = Collections.emptySet();
+
+    private boolean preFaultStateReused = false;
+
     public OpenShortCircuitProvider() {
         this(new SparseMatrixFactory());
     }
 
     public OpenShortCircuitProvider(MatrixFactory matrixFactory) {
+        this(matrixFactory, ShortCircuitEngineParameters.VoltageProfileType.NOMINAL);
+    }
+
+    public OpenShortCircuitProvider(MatrixFactory matrixFactory, ShortCircuitEngineParameters.VoltageProfileType voltageProfile) {
         this.matrixFactory = Objects.requireNonNull(matrixFactory);
+        this.voltageProfile = Objects.requireNonNull(voltageProfile);
+    }
+
+    public int getFaultChunkSize() {
+        return faultChunkSize;
+    }
+
+    public OpenShortCircuitProvider setFaultChunkSize(int faultChunkSize) {
+        if (faultChunkSize <= 0) {
+            throw new IllegalArgumentException("Fault chunk size " + faultChunkSize + " must be strictly positive");
+        }
+        this.faultChunkSize = faultChunkSize;
+        return this;
+    }
+
+    public boolean isKronElimination() {
+        return kronElimination;
+    }
+
+    /**
+     * If true, radial antennas and star busses of three windings transformers are eliminated before the factorization
+     * of the admittance matrices.
+     */
+    public OpenShortCircuitProvider setKronElimination(boolean kronElimination) {
+        this.kronElimination = kronElimination;
+        return this;
+    }
+
+    public ShortCircuitEngineParameters.FeederScope getFeederScope() {
+        return feederScope;
+    }
+
+    /**
+     * Busses at which the feeder results of a fault are reported: all the busses of the network by default.
+     */
+    public OpenShortCircuitProvider setFeederScope(ShortCircuitEngineParameters.FeederScope feederScope) {
+        this.feederScope = Objects.requireNonNull(feederScope);
+        return this;
+    }
+
+    public int getFeederNeighbourhoodDepth() {
+        return feederNeighbourhoodDepth;
+    }
+
+    public OpenShortCircuitProvider setFeederNeighbourhoodDepth(int feederNeighbourhoodDepth) {
+        if (feederNeighbourhoodDepth < 0) {
+            throw new IllegalArgumentException("Feeder neighbourhood depth " + feederNeighbourhoodDepth + " must be positive");
+        }
+        this.feederNeighbourhoodDepth = feederNeighbourhoodDepth;
+        return this;
+    }
+
+    public Set<String> getFeederVoltageLevelIds() {
+        return feederVoltageLevelIds;
+    }
+
+    public OpenShortCircuitProvider setFeederVoltageLevelIds(Set<String> feederVoltageLevelIds) {
+        this.feederVoltageLevelIds = Objects.requireNonNull(feederVoltageLevelIds);
+        return this;
+    }
+
+    public boolean isPreFaultStateReused() {
+        return preFaultStateReused;
+    }
+
+    /**
+     * With a calculated voltage profile, if true the voltages already set on all the busses of the working variant are
+     * reused as pre-fault state instead of running a load flow. Only the presence of a voltage magnitude and angle at
+     * each bus is checked, the network not keeping the status of the load flow which set them: the caller must ensure
+     * they come from a converged load flow on this variant with its current topology and injections. False by default,
+     * a load flow being run before each analysis, warm started from the existing voltages if any.
+     */
+    public OpenShortCircuitProvider setPreFaultStateReused(boolean preFaultStateReused) {
+        this.preFaultStateReused = preFaultStateReused;
+        return this;
     }
 
     @Override
@@ -63,12 +161,26 @@ public class OpenShortCircuitProvider implements ShortCircuitAnalysisProvider {
 
         Objects.requireNonNull(network);
         Objects.requireNonNull(parameters);
-        Stopwatch stopwatch = Stopwatch.createStarted();
+        Objects.requireNonNull(computationManager);
+
+        // the network must not be modified until the returned future is completed
+        // the analysis is made on the working variant of the calling thread, which may differ from the one of the executor thread
+        Executor executor = computationManager.getExecutor();
+        String workingVariantId = network.getVariantManager().getWorkingVariantId();
+        return CompletableFuture.supplyAsync(() -> {
+            network.getVariantManager().setWorkingVariant(workingVariantId);
+            return runAnalysis(network, faults, executor);
+        }, executor);
+    }
 
-        LoadFlowParameters lfParameters = new LoadFlowParameters();
-        LoadFlow.Runner  loadFlowRunner = new LoadFlow.Runner(new OpenLoadFlowProvider(matrixFactory));
+    private ShortCircuitAnalysisResult runAnalysis(Network network, List<Fault> faults, Executor executor) {
+        Stopwatch stopwatch = Stopwatch.createStarted();
+        SimulatorMetrics metrics = new SimulatorMetrics();
 
-        LoadFlowResult lfResult = loadFlowRunner.run(network, lfParameters);
+        // the pre-fault state is only used to compute Eth with a calculated voltage profile
+        if (voltageProfile == ShortCircuitEngineParameters.VoltageProfileType.CALCULATED) {
+            runPreFaultLoadFlow(network, metrics);
+        }
 
         // building of fault lists
         List<ShortCircuitFault> faultsList = new ArrayList<>();
@@ -79,10 +191,6 @@ public class OpenShortCircuitProvider implements ShortCircuitAnalysisProvider {
         boolean existUnbalancedFaults = faultTypes.getValue();
 
         //Parameters that could be added in the short circuit provider API later:
-        // Voltage Profile
-        //ShortCircuitBalancedParameters.VoltageProfileType vp = ShortCircuitBalancedParameters.VoltageProfileType.CALCULATED;
-        ShortCircuitEngineParameters.VoltageProfileType voltageProfile = ShortCircuitEngineParameters.VoltageProfileType.NOMINAL;
-
         // Selective or Systematic short circuit analysis
         //ShortCircuitBalancedParameters.AnalysisType at = ShortCircuitBalancedParameters.AnalysisType.SYSTEMATIC;
         ShortCircuitEngineParameters.AnalysisType at = ShortCircuitEngineParameters.AnalysisType.SELECTIVE;
@@ -94,31 +202,86 @@ public class OpenShortCircuitProvider implements ShortCircuitAnalysisProvider {
         ShortCircuitNorm shortCircuitNorm = new ShortCircuitNormNone();
 
         ShortCircuitEngineParameters scbParameters = new ShortCircuitEngineParameters(loadFlowParameters, matrixFactory, at, faultsList, true, voltageProfile, false, periodType, shortCircuitNorm);
+        // faults are solved by chunks against a single factorization, the results of the chunks being processed on the executor
+        scbParameters.setFaultChunkSize(faultChunkSize);
+        scbParameters.setExecutor(executor);
+        scbParameters.setKronElimination(kronElimination);
+        scbParameters.setFeederScope(feederScope);
+        scbParameters.setFeederNeighbourhoodDepth(feederNeighbourhoodDepth);
+        scbParameters.setFeederVoltageLevelIds(feederVoltageLevelIds);
+
+        // LfNetworks are loaded once for both balanced and unbalanced engines
+        ShortCircuitNetworkContext context = new ShortCircuitNetworkContext(network, shortCircuitNorm.getNormExtensions(), metrics);
 
         // lists to store the results
         List<FaultResult> faultResults = new ArrayList<>();
         //List<LimitViolation> lvs = new ArrayList<>();
 
         if (existBalancedFaults) {
-            runBalancedAnalysis(network, scbParameters, scFaultToFault, faultResults);
+            metrics.add(runBalancedAnalysis(context, scbParameters, scFaultToFault, faultResults));
         }
 
         if (existUnbalancedFaults) {
-            runUnbalancedAnalysis(network, scbParameters, scFaultToFault, faultResults);
+            metrics.add(runUnbalancedAnalysis(context, scbParameters, scFaultToFault, faultResults));
         }
 
         LOGGER.info("Short circuit calculation done in {} ms", stopwatch.elapsed(TimeUnit.MILLISECONDS));
+        LOGGER.debug("Short circuit calculation metrics: {}", metrics);
+
+        ShortCircuitAnalysisResult result = new ShortCircuitAnalysisResult(faultResults);
+        result.addExtension(ShortCircuitMetricsExtension.class, new ShortCircuitMetricsExtension(metrics));
+        return result;
+    }
+
+    private void runPreFaultLoadFlow(Network network, SimulatorMetrics metrics) {
+        if (preFaultStateReused && hasVoltageState(network)) {
+            LOGGER.debug("Voltage state of network {} is reused, pre-fault load flow is skipped", network.getId());
+            return;
+        }
 
-        return CompletableFuture.completedFuture(new ShortCircuitAnalysisResult(faultResults));
+        LoadFlowParameters lfParameters = createPreFaultLoadFlowParameters(network);
+        LoadFlow.Runner loadFlowRunner = new LoadFlow.Runner(new OpenLoadFlowProvider(matrixFactory));
+        long start = metrics.start();
+        LoadFlowResult lfResult = loadFlowRunner.run(network, lfParameters);
+        if (!lfResult.isOk() && lfParameters.getVoltageInitMode() == LoadFlowParameters.VoltageInitMode.PREVIOUS_VALUES) {
+            // the existing voltages may be too far from the solution, started again from uniform values
+            LOGGER.debug("Pre-fault load flow on network {} failed from the existing voltages, run again from uniform values", network.getId());
+            lfResult = loadFlowRunner.run(network, lfParameters.setVoltageInitMode(LoadFlowParameters.VoltageInitMode.UNIFORM_VALUES));
+        }
+        metrics.stop(SimulatorMetrics.Phase.LOAD_FLOW, start);
+        if (!lfResult.isOk()) {
+            LOGGER.warn("Pre-fault load flow on network {} failed, the voltage profile may be inconsistent", network.getId());
+        }
     }
 
-    public void runUnbalancedAnalysis(Network network, ShortCircuitEngineParameters scbParameters, Map<ShortCircuitFault, Fault> scFaultToFault, List<FaultResult> faultResults) {
-        ShortCircuitUnbalancedEngine scuEngine = new ShortCircuitUnbalancedEngine(network, scbParameters);
+    /**
+     * Parameters of the pre-fault load flow, warm started from the voltages of the network if all its busses have one.
+     */
+    static LoadFlowParameters createPreFaultLoadFlowParameters(Network network) {
+        LoadFlowParameters lfParameters = new LoadFlowParameters();
+        if (hasVoltageState(network)) {
+            lfParameters.setVoltageInitMode(LoadFlowParameters.VoltageInitMode.PREVIOUS_VALUES);
+        }
+        return lfParameters;
+    }
+
+    // a state reused as is must at least give a voltage magnitude and angle to all the busses
+    private static boolean hasVoltageState(Network network) {
+        for (Bus bus : network.getBusView().getBuses()) {
+            if (Double.isNaN(bus.getV()) || Double.isNaN(bus.getAngle())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public SimulatorMetrics runUnbalancedAnalysis(ShortCircuitNetworkContext context, ShortCircuitEngineParameters scbParameters, Map<ShortCircuitFault, Fault> scFaultToFault, List<FaultResult> faultResults) {
+        ShortCircuitUnbalancedEngine scuEngine = new ShortCircuitUnbalancedEngine(context, scbParameters);
         scuEngine.run();
 
         // the results per faults might be inconsistent if many busses per voltage level
         // TODO : see how this could be improved by allowing results per electrical bus on the short circuit provider
-        for (Map.Entry<ShortCircuitFault, ShortCircuitResult> scResult : scuEngine.resultsPerFault.entrySet()) {
+        for (Map.Entry<ShortCircuitFault, ShortCircuitResult> scResult : scuEngine.getResultsPerFault().entrySet()) {
             ShortCircuitFault scFault = scResult.getKey();
 
             double iccMagnitude = scResult.getValue().getIcc().getKey();
@@ -133,15 +296,17 @@ public class OpenShortCircuitProvider implements ShortCircuitAnalysisProvider {
             FaultResult fr = new FaultResult(fault, 0., feederResults, limitViolations, current, FaultResult.Status.SUCCESS);
             faultResults.add(fr);
         }
+
+        return scuEngine.getMetrics();
     }
 
-    public void runBalancedAnalysis(Network network, ShortCircuitEngineParameters scbParameters, Map<ShortCircuitFault, Fault> scFaultToFault, List<FaultResult> faultResults) {
-        ShortCircuitBalancedEngine scbEngine = new ShortCircuitBalancedEngine(network, scbParameters);
+    public SimulatorMetrics runBalancedAnalysis(ShortCircuitNetworkContext context, ShortCircuitEngineParameters scbParameters, Map<ShortCircuitFault, Fault> scFaultToFault, List<FaultResult> faultResults) {
+        ShortCircuitBalancedEngine scbEngine = new ShortCircuitBalancedEngine(context, scbParameters);
         scbEngine.run();
 
         // the results per faults might be inconsistent if many busses per voltage level
         // TODO : see how this could be improved by allowing results per electrical bus on the short circuit provider
-        for (Map.Entry<ShortCircuitFault, ShortCircuitResult> scFaultResult : scbEngine.resultsPerFault.entrySet()) {
+        for (Map.Entry<ShortCircuitFault, ShortCircuitResult> scFaultResult : scbEngine.getResultsPerFault().entrySet()) {
             ShortCircuitFault scFault = scFaultResult.getKey();
             ShortCircuitResult scResult = scFaultResult.getValue();
 
@@ -160,9 +325,14 @@ public class OpenShortCircuitProvider implements ShortCircuitAnalysisProvider {
             FaultResult fr = new FaultResult(fault, pcc, feederResultsProvider, limitViolations, current, FaultResult.Status.SUCCESS);
             faultResults.add(fr);
         }
+
+        return scbEngine.getMetrics();
     }
 
     public void fillFeederResults(List<FeederResult> feederResultsProvider, ShortCircuitResult scResult) {
+        if (scResult.getFeedersAtBusResultsDirect() == null) {
+            return; // feeders are not computed for faults on branches
+        }
         for (Map.Entry<LfBus, FeedersAtBusResult> busAndFeedersAtBusResult : scResult.getFeedersAtBusResultsDirect().entrySet()) {
             LfBus lfBus = busAndFeedersAtBusResult.getKey();
             FeedersAtBusResult feedersAtBusResult = busAndFeedersAtBusResult.getValue();
@@ -190,8 +360,8 @@ public class OpenShortCircuitProvider implements ShortCircuitAnalysisProvider {
 
         for (Fault fault : faults) {
             ShortCircuitFault.ShortCircuitType scType = ShortCircuitFault.ShortCircuitType.TRIPHASED_GROUND; // Default type
-            if (fault.getType() == Fault.Type.BRANCH) {
-                LOGGER.warn("Short circuit of type BRANCH not yet supported, fault : {} is ignored", fault.getId());
+            if (fault.getType() == Fault.Type.BRANCH && fault.getFaultType() != Fault.FaultType.THREE_PHASE) {
+                LOGGER.warn("Short circuit of type BRANCH only supported for THREE_PHASE faults, fault : {} is ignored", fault.getId());
                 continue;
             }
 
@@ -216,6 +386,14 @@ public class OpenShortCircuitProvider implements ShortCircuitAnalysisProvider {
 
             double rFault = fault.getRToGround();
             double xFault = fault.getXToGround();
+            if (fault.getType() == Fault.Type.BRANCH) {
+                // the proportional location of the provider is given in percent of the branch from its side 1
+                ShortCircuitFault sc = new ShortCircuitFault(elementId, ((BranchFault) fault).getProportionalLocation() / 100., fault.getId(), rFault, xFault, scType);
+                balancedFaultsList.add(sc);
+                scFaultToFault.put(sc, fault);
+                continue;
+            }
+
             Bus bus = network.getBusBreakerView().getBus(elementId);
             String busId = bus.getId();
             ShortCircuitFault sc = new ShortCircuitFault(busId, busId, rFault, xFault, scType);
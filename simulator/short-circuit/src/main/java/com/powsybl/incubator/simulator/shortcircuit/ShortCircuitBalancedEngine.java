@@ -11,10 +11,22 @@ import com.powsybl.incubator.simulator.util.AdmittanceEquationSystem;
 import com.powsybl.incubator.simulator.util.CalculationLocation;
 import com.powsybl.incubator.simulator.util.ImpedanceLinearResolution;
 import com.powsybl.incubator.simulator.util.ImpedanceLinearResolutionParameters;
+import com.powsybl.incubator.simulator.util.MultiPortImpedanceLinearResolution;
+import com.powsybl.incubator.simulator.util.MultiPortImpedanceMatrix;
+import com.powsybl.incubator.simulator.util.ScreeningReactanceMatrix;
+import com.powsybl.incubator.simulator.util.ShortCircuitNetworkContext;
 import com.powsybl.math.matrix.DenseMatrix;
+import com.powsybl.math.matrix.MatrixException;
+import com.powsybl.openloadflow.network.LfBranch;
 import com.powsybl.openloadflow.network.LfBus;
 import com.powsybl.openloadflow.network.LfNetwork;
+import com.powsybl.openloadflow.network.PiModel;
+import org.apache.commons.math3.util.Pair;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -22,38 +34,214 @@ import java.util.Map;
  */
 public class ShortCircuitBalancedEngine extends AbstractShortCircuitEngine {
 
+    private Map<ShortCircuitFault, Pair<Double, Double>> screenedFaults = new LinkedHashMap<>(); // approximate Ik and its margin to the screening threshold in kA of the faults skipped by the screening
+
     public ShortCircuitBalancedEngine(Network network, ShortCircuitEngineParameters parameters) {
         super(network, parameters);
     }
 
+    public ShortCircuitBalancedEngine(ShortCircuitNetworkContext context, ShortCircuitEngineParameters parameters) {
+        super(context, parameters);
+    }
+
     @Override
-    public void run() { //can handle both selective and systematic analysis with one single matrix inversion
+    public synchronized void run() { //can handle both selective and systematic analysis with one single matrix inversion
         LfNetwork lfNetwork = lfNetworks.get(0);
 
-        // building a contingency list with all voltage levels
-        if (parameters.getAnalysisType() == ShortCircuitEngineParameters.AnalysisType.SYSTEMATIC) {
-            buildSystematicList(ShortCircuitFault.ShortCircuitType.TRIPHASED_GROUND);
+        // building a contingency list with all voltage levels in case of a systematic analysis
+        List<ShortCircuitFault> faults = initRun(ShortCircuitFault.ShortCircuitType.TRIPHASED_GROUND);
+
+        solverFaultList = buildFaultListsFromInputs(faults).getKey();
+
+        metrics.addFaultCount(solverFaultList.size() + solverBranchFaultList.size());
+        screenedFaults = new LinkedHashMap<>();
+
+        boolean runBusFaults = !solverFaultList.isEmpty() || solverBranchFaultList.isEmpty();
+        if (runBusFaults && !solverFaultList.isEmpty() && parameters.isScreening()) {
+            screenFaults();
+            runBusFaults = !solverFaultList.isEmpty();
+        }
+
+        if (runBusFaults) {
+            ImpedanceLinearResolutionParameters linearResolutionParameters = new ImpedanceLinearResolutionParameters(acLoadFlowParameters,
+                    parameters.getMatrixFactory(), solverFaultList, voltageUpdate, getAdmittanceVoltageProfileTypeFromParam(), getAdmittancePeriodTypeFromParam(), AdmittanceEquationSystem.AdmittanceType.ADM_THEVENIN,
+                    parameters.isIgnoreShunts());
+            setResolutionOptions(linearResolutionParameters);
+
+            ImpedanceLinearResolution directResolution = new ImpedanceLinearResolution(context.getNetworkData().get(0), linearResolutionParameters, metrics);
+
+            directResolution.run();
+
+            //Build the ShortCircuit results using the Thevenin computation results
+            processResults(() -> processAdmittanceLinearResolutionResults(lfNetwork, directResolution));
         }
 
-        solverFaultList = buildFaultListsFromInputs().getKey();
+        if (!solverBranchFaultList.isEmpty()) {
+            runBranchFaults(lfNetwork);
+        }
+    }
+
+    // A fault at a proportion k of a line from bus a (side 1) to bus b (side 2) is seen from the intermediate point p
+    // through the 2-port Thevenin equivalent of the line ends, the line series impedance zl being split into k * zl and (1 - k) * zl:
+    //     Zpp = (1-k)² * Zaa + k² * Zbb + k * (1-k) * (Zab + Zba) + k * (1-k) * zl
+    //     Zip = (1-k) * Zia + k * Zib  for any bus i
+    //     Ep = (1-k) * Ea + k * Eb
+    // All the branch faults are then solved with the columns of the line ends against a single factorization, without adding any node.
+    // The line shunt admittances are kept at the line ends.
+    private void runBranchFaults(LfNetwork lfNetwork) {
+        List<LfBranch> faultedBranches = new ArrayList<>(solverBranchFaultList.size());
+        List<List<LfBus>> faultSets = new ArrayList<>(solverBranchFaultList.size());
+        for (ShortCircuitFault scf : solverBranchFaultList) {
+            LfBranch branch = lfNetwork.getBranchById(scf.getBranchId());
+            if (branch == null || branch.getBus1() == null || branch.getBus2() == null) {
+                throw new IllegalArgumentException("Short circuit fault " + scf.getFaultId() + " : branch " + scf.getBranchId() + " not found or not connected at both sides");
+            }
+            if (branch.getBranchType() != LfBranch.BranchType.LINE) {
+                throw new IllegalArgumentException("Short circuit fault " + scf.getFaultId() + " : branch " + scf.getBranchId() + " is not a line");
+            }
+            if (scf.getType() != ShortCircuitFault.ShortCircuitType.TRIPHASED_GROUND) {
+                throw new IllegalArgumentException("Short circuit fault " + scf.getFaultId() + " : faults on branches are only supported for triphased faults");
+            }
+            faultedBranches.add(branch);
+            faultSets.add(List.of(branch.getBus1(), branch.getBus2()));
+        }
 
         ImpedanceLinearResolutionParameters linearResolutionParameters = new ImpedanceLinearResolutionParameters(acLoadFlowParameters,
-                parameters.getMatrixFactory(), solverFaultList, parameters.isVoltageUpdate(), getAdmittanceVoltageProfileTypeFromParam(), getAdmittancePeriodTypeFromParam(), AdmittanceEquationSystem.AdmittanceType.ADM_THEVENIN,
+                parameters.getMatrixFactory(), new ArrayList<>(), voltageUpdate, getAdmittanceVoltageProfileTypeFromParam(), getAdmittancePeriodTypeFromParam(), AdmittanceEquationSystem.AdmittanceType.ADM_THEVENIN,
                 parameters.isIgnoreShunts());
+        linearResolutionParameters.setKronElimination(parameters.isKronElimination());
+        MultiPortImpedanceLinearResolution lineEndsResolution = new MultiPortImpedanceLinearResolution(context.getNetworkData().get(0), linearResolutionParameters, faultSets, metrics);
+        lineEndsResolution.run();
 
-        ImpedanceLinearResolution directResolution = new ImpedanceLinearResolution(lfNetwork, linearResolutionParameters);
+        processResults(() -> {
+            for (int i = 0; i < solverBranchFaultList.size(); i++) {
+                processBranchFaultResult(lfNetwork, solverBranchFaultList.get(i), faultedBranches.get(i), lineEndsResolution.getResults().get(i));
+            }
+        });
+    }
 
-        directResolution.run();
+    /**
+     * First stage of the screening: approximate Thevenin reactances of all the fault busses with a reactance only matrix
+     * (see ScreeningReactanceMatrix), half the size of the exact admittance matrix and solved with a single column per
+     * bus, then approximate Ik computed with the Thevenin reactance only. The faults whose approximate Ik is under
+     * screeningFraction * screeningThreshold are removed from the solver fault list and kept in screenedFaults.
+     */
+    private void screenFaults() {
+        LfNetwork lfNetwork = lfNetworks.get(0);
+        List<CalculationLocation> exactFaultList = new ArrayList<>();
+        List<ShortCircuitFault> busFaults = new ArrayList<>();
+        List<LfBus> faultBusses = new ArrayList<>();
+        for (CalculationLocation calculationLocation : solverFaultList) {
+            ShortCircuitFault scf = (ShortCircuitFault) calculationLocation;
+            Pair<String, Integer> iidmBusInfo = iidmBusInfos.get(scf);
+            LfBus bus = iidmBusInfo != null ? ImpedanceLinearResolution.getLfBusFromIidmBranch(iidmBusInfo.getKey(), iidmBusInfo.getValue(), lfNetwork) : null;
+            if (bus == null) {
+                exactFaultList.add(scf); // left to the exact computation, which reports the faults it cannot locate
+            } else {
+                busFaults.add(scf);
+                faultBusses.add(bus);
+            }
+        }
+
+        if (busFaults.isEmpty()) {
+            return;
+        }
+
+        double[] xths;
+        try (ScreeningReactanceMatrix screeningMatrix = new ScreeningReactanceMatrix(context.getNetworkData().get(0), parameters.getMatrixFactory(),
+                getAdmittancePeriodTypeFromParam(), metrics)) {
+            xths = screeningMatrix.getTheveninReactances(faultBusses, parameters.getFaultChunkSize(), metrics);
+        } catch (MatrixException e) {
+            // no approximation without a grounded path in the reactance only network, all the faults are computed exactly
+            return;
+        }
+
+        boolean calculatedVoltages = getAdmittanceVoltageProfileTypeFromParam() == AdmittanceEquationSystem.AdmittanceVoltageProfileType.CALCULATED;
+        double threshold = parameters.getScreeningThreshold();
+        double screeningIk = parameters.getScreeningFraction() * threshold;
+        for (int i = 0; i < busFaults.size(); i++) {
+            ShortCircuitFault scf = busFaults.get(i);
+            LfBus bus = faultBusses.get(i);
+            double ethr = calculatedVoltages ? bus.getV() * Math.cos(bus.getAngle()) : 1.;
+            double ethi = calculatedVoltages ? bus.getV() * Math.sin(bus.getAngle()) : 0.;
 
-        //Build the ShortCircuit results using the Thevenin computation results
-        resultsPerFault.clear();
-        processAdmittanceLinearResolutionResults(lfNetwork, directResolution);
+            // If = Eth / j(xth + xf) gives ifr = ethi / (xth + xf) and ifi = -ethr / (xth + xf)
+            double x = xths[i] + scf.getZfi();
+            double ifr = ethi / x;
+            double ifi = -ethr / x;
+            double ik = Double.POSITIVE_INFINITY;
+            if (x > 0. && Double.isFinite(ifr) && Double.isFinite(ifi)) {
+                ShortCircuitResult approximateResult = new ShortCircuitResult(scf, bus, ifr, ifi, 0., xths[i],
+                        ethr, ethi, 0., 0., null, parameters.getNorm());
+                ik = approximateResult.getIk().getKey();
+            }
+
+            if (ik >= screeningIk) {
+                exactFaultList.add(scf);
+            } else {
+                // resistances, shunts and loads being neglected, the margin is the one of the approximate Ik, not a bound of
+                // the exact Ik
+                screenedFaults.put(scf, new Pair<>(ik, threshold - ik));
+            }
+        }
+        solverFaultList = exactFaultList;
+    }
 
+    /**
+     * Faults skipped by the screening of the last run, with their approximate Ik and its margin to the screening threshold
+     * (threshold - approximate Ik) in kA. The approximate Ik is neither an upper nor a lower bound of the exact Ik, the
+     * margin having to cover its error. Empty if no screening threshold is set.
+     */
+    public synchronized Map<ShortCircuitFault, Pair<Double, Double>> getScreenedFaults() {
+        return Collections.unmodifiableMap(screenedFaults);
+    }
+
+    private void processBranchFaultResult(LfNetwork lfNetwork, ShortCircuitFault scf, LfBranch branch, MultiPortImpedanceMatrix lineEnds) {
+        double kb = scf.getProportionalLocation();
+        double ka = 1. - kb;
+
+        PiModel piModel = branch.getPiModel();
+        double rth = ka * ka * lineEnds.getR(0, 0) + kb * kb * lineEnds.getR(1, 1) + ka * kb * (lineEnds.getR(0, 1) + lineEnds.getR(1, 0)) + ka * kb * piModel.getR();
+        double xth = ka * ka * lineEnds.getX(0, 0) + kb * kb * lineEnds.getX(1, 1) + ka * kb * (lineEnds.getX(0, 1) + lineEnds.getX(1, 0)) + ka * kb * piModel.getX();
+
+        double vxInit = ka * lineEnds.getEthx(0) + kb * lineEnds.getEthx(1);
+        double vyInit = ka * lineEnds.getEthy(0) + kb * lineEnds.getEthy(1);
+
+        // same fault current as for a bus: If = Eth / (Zth + Zf)
+        double rf = scf.getZfr();
+        double xf = scf.getZfi();
+        double denom = (rf + rth) * (rf + rth) + (xf + xth) * (xf + xth);
+        double ifr = (vyInit * (xf + xth) + vxInit * (rf + rth)) / denom;
+        double ifi = (vyInit * (rf + rth) - vxInit * (xf + xth)) / denom;
+        double dvr = -ifr * rth + ifi * xth;
+        double dvi = -ifr * xth - ifi * rth;
+
+        // the result is attached to the nearest line end, both ends having the same nominal voltage
+        LfBus bus = kb <= 0.5 ? branch.getBus1() : branch.getBus2();
+        ShortCircuitResult res = new ShortCircuitResult(scf, bus, ifr, ifi, rth, xth, vxInit, vyInit, dvr, dvi, null, parameters.getNorm());
+        if (voltageUpdate) {
+            // the voltage variations are given for all the busses, feeders are not computed as the faulted point is not a bus
+            res.setNetworkData(context.getNetworkData().get(0));
+            res.createEmptyFortescueVoltageVector(lfNetwork.getBuses().size());
+            Map<Integer, DenseMatrix> dvBus1 = lineEnds.getDv(0);
+            Map<Integer, DenseMatrix> dvBus2 = lineEnds.getDv(1);
+            for (Map.Entry<Integer, DenseMatrix> vd : dvBus1.entrySet()) {
+                int busNum = vd.getKey();
+                double edVr = ka * vd.getValue().get(0, 0) + kb * dvBus2.get(busNum).get(0, 0);
+                double edVi = ka * vd.getValue().get(1, 0) + kb * dvBus2.get(busNum).get(1, 0);
+
+                double deltaVr = -ifr * edVr + ifi * edVi;
+                double deltaVi = -ifr * edVi - ifi * edVr;
+
+                res.fillVoltageInFortescueVector(busNum, deltaVr, deltaVi);
+            }
+        }
+        resultsPerFault.put(scf, res);
     }
 
     protected void processAdmittanceLinearResolutionResults(LfNetwork lfNetwork, ImpedanceLinearResolution directResolution) {
 
-        for (ImpedanceLinearResolution.ImpedanceLinearResolutionResult linearResolutionResult : directResolution.results) {
+        for (ImpedanceLinearResolution.ImpedanceLinearResolutionResult linearResolutionResult : directResolution.getResults()) {
             LfBus bus = linearResolutionResult.getBus();
 
             // For each contingency that matches the given bus of the linear resolution we compute:
@@ -74,7 +262,7 @@ public class ShortCircuitBalancedEngine extends AbstractShortCircuitEngine {
             for (CalculationLocation calculationLocation : solverFaultList) {
                 ShortCircuitFault scfe = (ShortCircuitFault) calculationLocation;
                 ShortCircuitFault scf = null;
-                if (bus.getId().equals(scfe.getLfBusInfo())) {
+                if (directResolution.getLocationBus(scfe) == bus) {
                     scf = scfe;
                 }
 
@@ -95,9 +283,9 @@ public class ShortCircuitBalancedEngine extends AbstractShortCircuitEngine {
                 double dvi = -ifr * linearResolutionResult.getEnBus().get(1, 0) - ifi * linearResolutionResult.getEnBus().get(0, 0);
 
                 ShortCircuitResult res = new ShortCircuitResult(scf, bus, ifr, ifi, rth, xth, vxInit, vyInit, dvr, dvi, linearResolutionResult.getEqSysFeeders(), parameters.getNorm());
-                if (parameters.isVoltageUpdate()) {
+                if (voltageUpdate) {
                     //we get the lfNetwork to process the results
-                    res.setLfNetwork(lfNetwork);
+                    res.setNetworkData(context.getNetworkData().get(0));
 
                     res.setTrueVoltageProfileUpdate();
                     // The post-fault voltage values are computed as follow :
@@ -119,7 +307,7 @@ public class ShortCircuitBalancedEngine extends AbstractShortCircuitEngine {
                     }
                 }
 
-                res.updateFeedersResult(); // feeders are updated only if voltageUpdate is made
+                res.updateFeedersResult(parameters); // feeders are updated only if voltageUpdate is made
                 resultsPerFault.put(scf, res);
             }
         }
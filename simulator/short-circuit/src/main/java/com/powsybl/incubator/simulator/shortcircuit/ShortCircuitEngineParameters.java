@@ -6,13 +6,22 @@
  */
 package com.powsybl.incubator.simulator.shortcircuit;
 
+import com.powsybl.incubator.simulator.util.extensions.ShortCircuitNormExtensions;
 import com.powsybl.loadflow.LoadFlowParameters;
 import com.powsybl.math.matrix.MatrixFactory;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executor;
 
 /**
+ * Non impedant branches (reactance below the low impedance threshold of the LfNetwork) without ratio nor phase shift
+ * are merged into electrical nodes in the admittance matrices, the feeders of the busses of a node being computed over
+ * the whole node. Non impedant branches with a ratio or a phase shift are not supported: they are dropped from the
+ * admittance matrices with a warning, their sides being then disconnected in the short circuit computation.
+ *
  * @author Jean-Baptiste Heyberger <jbheyberger at gmail.com>
  */
 public class ShortCircuitEngineParameters {
@@ -32,6 +41,13 @@ public class ShortCircuitEngineParameters {
         SYSTEMATIC; // short circuit analysis for all busses of input grid
     }
 
+    public enum FeederScope {
+        ALL, // feeder contributions computed at all the busses of the grid
+        FAULTED_BUS, // feeder contributions computed at the faulted bus only
+        NEIGHBOURHOOD, // feeder contributions computed at the busses at most feederNeighbourhoodDepth branches away from the faulted bus
+        VOLTAGE_LEVELS; // feeder contributions computed at the busses of the voltage levels feederVoltageLevelIds
+    }
+
     private final LoadFlowParameters loadFlowParameters;
 
     private List<ShortCircuitFault> shortCircuitFaults;
@@ -50,6 +66,24 @@ public class ShortCircuitEngineParameters {
 
     private ShortCircuitNorm norm;
 
+    private ShortCircuitNormExtensions normExtensions; // if not null, used instead of the norm extensions of the norm
+
+    private int faultChunkSize = Integer.MAX_VALUE; // max number of faults solved at once with the same factorization
+
+    private Executor executor; // if not null, used to process the fault chunks in parallel
+
+    private boolean kronElimination = false; // if true, radial antennas and star busses are eliminated before the factorization
+
+    private double screeningThreshold = 0.; // Ik threshold in kA of the screening of bus faults, no screening if 0
+
+    private double screeningFraction = 0.8; // fraction of the threshold above which the approximate Ik of a bus fault requires the exact computation
+
+    private FeederScope feederScope = FeederScope.ALL;
+
+    private int feederNeighbourhoodDepth = 1;
+
+    private Set<String> feederVoltageLevelIds = Collections.emptySet();
+
     public ShortCircuitEngineParameters(LoadFlowParameters loadFlowParameters, MatrixFactory matrixFactory, AnalysisType analysisType, List<ShortCircuitFault> faults, boolean isVoltageExport, VoltageProfileType vProfile, boolean ignoreShunts, PeriodType periodType, ShortCircuitNorm norm) {
         this.loadFlowParameters = Objects.requireNonNull(loadFlowParameters);
         this.matrixFactory = Objects.requireNonNull(matrixFactory);
@@ -98,6 +132,21 @@ public class ShortCircuitEngineParameters {
         return norm;
     }
 
+    /**
+     * Norm coefficients used by the run: those given to setNormExtensions if any, the norm extensions of the norm otherwise.
+     */
+    public ShortCircuitNormExtensions getNormExtensions() {
+        return normExtensions != null ? normExtensions : norm.getNormExtensions();
+    }
+
+    /**
+     * Norm coefficients of this run only, typically computed by ShortCircuitNorm.computeNormExtensions, so that runs
+     * with different norms or parameters can share a norm instance and a network.
+     */
+    public void setNormExtensions(ShortCircuitNormExtensions normExtensions) {
+        this.normExtensions = Objects.requireNonNull(normExtensions);
+    }
+
     public boolean isVoltageUpdate() {
         return voltageUpdate;
     }
@@ -105,4 +154,90 @@ public class ShortCircuitEngineParameters {
     public void setVoltageUpdate(boolean bool) {
         voltageUpdate = bool;
     }
+
+    public int getFaultChunkSize() {
+        return faultChunkSize;
+    }
+
+    public void setFaultChunkSize(int faultChunkSize) {
+        if (faultChunkSize <= 0) {
+            throw new IllegalArgumentException("Fault chunk size " + faultChunkSize + " must be strictly positive");
+        }
+        this.faultChunkSize = faultChunkSize;
+    }
+
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    public boolean isKronElimination() {
+        return kronElimination;
+    }
+
+    public void setKronElimination(boolean kronElimination) {
+        this.kronElimination = kronElimination;
+    }
+
+    public double getScreeningThreshold() {
+        return screeningThreshold;
+    }
+
+    /**
+     * Enables the two-stage screening of the bus faults of the balanced engine: an approximate Ik is first computed for all
+     * the faults with a reactance only matrix, the exact computation being run only for those with an approximate Ik above
+     * screeningFraction * screeningThreshold. The approximation neglects resistances, shunts and loads: the fraction is a
+     * margin, not a guarantee that the exact Ik of a skipped fault is under the threshold.
+     */
+    public void setScreeningThreshold(double screeningThreshold) {
+        if (screeningThreshold < 0.) {
+            throw new IllegalArgumentException("Screening threshold " + screeningThreshold + " must be positive");
+        }
+        this.screeningThreshold = screeningThreshold;
+    }
+
+    public boolean isScreening() {
+        return screeningThreshold > 0.;
+    }
+
+    public double getScreeningFraction() {
+        return screeningFraction;
+    }
+
+    public void setScreeningFraction(double screeningFraction) {
+        if (screeningFraction <= 0. || screeningFraction > 1.) {
+            throw new IllegalArgumentException("Screening fraction " + screeningFraction + " must be in ]0, 1]");
+        }
+        this.screeningFraction = screeningFraction;
+    }
+
+    public FeederScope getFeederScope() {
+        return feederScope;
+    }
+
+    public void setFeederScope(FeederScope feederScope) {
+        this.feederScope = Objects.requireNonNull(feederScope);
+    }
+
+    public int getFeederNeighbourhoodDepth() {
+        return feederNeighbourhoodDepth;
+    }
+
+    public void setFeederNeighbourhoodDepth(int feederNeighbourhoodDepth) {
+        if (feederNeighbourhoodDepth < 0) {
+            throw new IllegalArgumentException("Feeder neighbourhood depth " + feederNeighbourhoodDepth + " must be positive");
+        }
+        this.feederNeighbourhoodDepth = feederNeighbourhoodDepth;
+    }
+
+    public Set<String> getFeederVoltageLevelIds() {
+        return feederVoltageLevelIds;
+    }
+
+    public void setFeederVoltageLevelIds(Set<String> feederVoltageLevelIds) {
+        this.feederVoltageLevelIds = Objects.requireNonNull(feederVoltageLevelIds);
+    }
 }
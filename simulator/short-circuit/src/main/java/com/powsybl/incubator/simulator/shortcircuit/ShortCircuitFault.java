@@ -14,20 +14,35 @@ import com.powsybl.incubator.simulator.util.CalculationLocation;
 public class ShortCircuitFault extends CalculationLocation {
 
     public ShortCircuitFault(String busLocation, String faultId, double zfr, double zfi, ShortCircuitType type) {
-        super(busLocation);
+        this(busLocation, "", faultId, zfr, zfi, type, null);
+    }
+
+    public ShortCircuitFault(String busLocation, String busLocationBiPhased, String faultId, double zfr, double zfi, ShortCircuitType type, ShortCircuitBiphasedType biphasedType) {
+        super(busLocation, busLocationBiPhased);
         this.zfr = zfr;
         this.zfi = zfi;
         this.type = type;
         this.faultId = faultId;
+        this.biphasedType = biphasedType;
+        this.branchId = null;
+        this.proportionalLocation = Double.NaN;
     }
 
-    public ShortCircuitFault(String busLocation, String busLocationBiPhased, String faultId, double zfr, double zfi, ShortCircuitType type, ShortCircuitBiphasedType biphasedType) {
-        super(busLocation, busLocationBiPhased);
+    /**
+     * Fault on a line, at the given proportion of its length from side 1 (0 for the bus at side 1, 1 for the bus at side 2).
+     */
+    public ShortCircuitFault(String branchId, double proportionalLocation, String faultId, double zfr, double zfi, ShortCircuitType type) {
+        super(branchId);
+        if (proportionalLocation < 0. || proportionalLocation > 1.) {
+            throw new IllegalArgumentException("Proportional location " + proportionalLocation + " of fault " + faultId + " must be between 0 and 1");
+        }
         this.zfr = zfr;
         this.zfi = zfi;
         this.type = type;
         this.faultId = faultId;
-        this.biphasedType = biphasedType;
+        this.biphasedType = null;
+        this.branchId = branchId;
+        this.proportionalLocation = proportionalLocation;
     }
 
 
@@ -45,14 +60,18 @@ public class ShortCircuitFault extends CalculationLocation {
         C1_A2;
     }
 
-    private String faultId;
+    private final String faultId;
 
-    private double zfr; //real part of the short circuit impedance Zf
-    private double zfi; //imaginary part of the short circuit impedance Zf
+    private final double zfr; //real part of the short circuit impedance Zf
+    private final double zfi; //imaginary part of the short circuit impedance Zf
 
-    private ShortCircuitType type;
+    private final ShortCircuitType type;
 
-    private ShortCircuitBiphasedType biphasedType;
+    private final ShortCircuitBiphasedType biphasedType;
+
+    private final String branchId; // null if the fault is at a bus
+
+    private final double proportionalLocation; // location of a branch fault from side 1, between 0 and 1, NaN if the fault is at a bus
 
     public ShortCircuitType getType() {
         return type;
@@ -73,4 +92,16 @@ public class ShortCircuitFault extends CalculationLocation {
     public String getFaultId() {
         return faultId;
     }
+
+    public boolean isBranchFault() {
+        return branchId != null;
+    }
+
+    public String getBranchId() {
+        return branchId;
+    }
+
+    public double getProportionalLocation() {
+        return proportionalLocation;
+    }
 }
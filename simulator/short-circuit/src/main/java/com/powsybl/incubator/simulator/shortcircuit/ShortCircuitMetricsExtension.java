@@ -0,0 +1,38 @@
+/**
+ * Copyright (c) 2022, Jean-Baptiste Heyberger & Geoffroy Jamgotchian
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.incubator.simulator.shortcircuit;
+
+import com.powsybl.commons.extensions.AbstractExtension;
+import com.powsybl.incubator.simulator.util.SimulatorMetrics;
+import com.powsybl.shortcircuit.ShortCircuitAnalysisResult;
+
+import java.util.Objects;
+
+/**
+ * Timers and counters of the run that produced a short circuit analysis result, attached by {@link OpenShortCircuitProvider}.
+ *
+ * @author Jean-Baptiste Heyberger <jbheyberger at gmail.com>
+ */
+public class ShortCircuitMetricsExtension extends AbstractExtension<ShortCircuitAnalysisResult> {
+
+    public static final String NAME = "openShortCircuitMetrics";
+
+    private final SimulatorMetrics metrics;
+
+    public ShortCircuitMetricsExtension(SimulatorMetrics metrics) {
+        this.metrics = Objects.requireNonNull(metrics);
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    public SimulatorMetrics getMetrics() {
+        return metrics;
+    }
+}
@@ -28,7 +28,7 @@ public interface ShortCircuitNorm {
     // Generators normalizers
     double getKg(Generator gen);
 
-    void setKg(Generator gen, double kg); // For now, this modifies the iidm extensions of the generators
+    void setKg(Generator gen, double kg); // modifies the norm extensions of this norm, not the iidm network
 
     // Two Windings Transformers normalizers
     double getKtT2W(TwoWindingsTransformer t2w);
@@ -36,9 +36,15 @@ public interface ShortCircuitNorm {
     // Three Windings Transformers normalizers
     T3wCoefs getKtT3Wi(ThreeWindingsTransformer t3w);
 
-    void setKtT3Wi(ThreeWindingsTransformer t3w); // For now, this modifies the iidm extensions of the 3 w transformers
+    void setKtT3Wi(ThreeWindingsTransformer t3w); // modifies the norm extensions of this norm, not the iidm network
 
-    void applyNormToNetwork(Network network);
+    /**
+     * Norm coefficients of the equipments of the network, computed without modifying the network nor this norm: several
+     * runs may use their own norm extensions concurrently on the same network (see ShortCircuitEngineParameters.setNormExtensions).
+     */
+    ShortCircuitNormExtensions computeNormExtensions(Network network);
+
+    void applyNormToNetwork(Network network); // replaces the norm extensions of this norm by computeNormExtensions(network)
 
     class T3wCoefs {
         public final double ktr1;
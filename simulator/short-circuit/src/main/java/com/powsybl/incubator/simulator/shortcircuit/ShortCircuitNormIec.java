@@ -9,7 +9,7 @@ package com.powsybl.incubator.simulator.shortcircuit;
 import com.powsybl.commons.PowsyblException;
 import com.powsybl.iidm.network.*;
 import com.powsybl.iidm.network.extensions.GeneratorShortCircuit;
-import com.powsybl.incubator.simulator.util.extensions.TwoWindingsTransformerNorm;
+import com.powsybl.incubator.simulator.util.extensions.ShortCircuitNormExtensions;
 import com.powsybl.incubator.simulator.util.extensions.iidm.*;
 
 import java.util.ArrayList;
@@ -345,29 +345,45 @@ public class ShortCircuitNormIec extends ShortCircuitNormNone {
         return kg;
     }
 
+    @Override
+    public ShortCircuitNormExtensions computeNormExtensions(Network network) {
+        // the generators associated with a transformer are kept local to the computation: neither the norm nor the network are modified
+        List<GeneratorWithTfo> gensWithTfo = getGeneratorsWithTfo(network);
+        ShortCircuitNormExtensions extensions = new ShortCircuitNormExtensions();
+        for (TwoWindingsTransformer t2w : network.getTwoWindingsTransformers()) {
+            putT2wNorm(extensions, t2w, getNormalizedKT(t2w, gensWithTfo));
+        }
+        for (Generator gen : network.getGenerators()) {
+            putGeneratorNorm(extensions, gen, getKg(gen, gensWithTfo));
+        }
+        computeT3wNorms(network, extensions);
+        return extensions;
+    }
+
+    @Override
+    public void applyNormToNetwork(Network network) {
+        buildGeneratorsWithTfoList(network); // kept for the calls to getKg and getNormalizedKT after the application of the norm
+        super.applyNormToNetwork(network);
+    }
+
     @Override
     public void applyNormToT2W(Network network) {
         // Work on two windings transformers
         buildGeneratorsWithTfoList(network);
 
         for (TwoWindingsTransformer t2w : network.getTwoWindingsTransformers()) {
-
-            double kNorm = getNormalizedKT(t2w);
-
-            TwoWindingsTransformerNorm t2wNormExtension = getNormExtensions().getNormExtension(t2w);
-            if (t2wNormExtension != null) {
-                t2wNormExtension.setkNorm(kNorm);
-            } else {
-                t2wNormExtension = new TwoWindingsTransformerNorm(kNorm);
-                getNormExtensions().setNormExtension(t2w, t2wNormExtension);
-            }
+            putT2wNorm(getNormExtensions(), t2w, getNormalizedKT(t2w));
         }
     }
 
     public double getNormalizedKT(TwoWindingsTransformer t2w) {
+        return getNormalizedKT(t2w, generatorsWithTfo);
+    }
+
+    private double getNormalizedKT(TwoWindingsTransformer t2w, List<GeneratorWithTfo> gensWithTfo) {
         double kt = getKtT2W(t2w);
 
-        for (GeneratorWithTfo genWithTfo : generatorsWithTfo) {
+        for (GeneratorWithTfo genWithTfo : gensWithTfo) {
             if (genWithTfo.getT2w() == t2w) {
                 kt = genWithTfo.getkNorm();
                 break;
@@ -380,17 +396,19 @@ public class ShortCircuitNormIec extends ShortCircuitNormNone {
     public void applyNormToGenerators(Network network) {
         // Work on generators
         for (Generator gen : network.getGenerators()) {
-            double kg2 = getKg(gen);
-            setKg(gen, kg2);
-
+            putGeneratorNorm(getNormExtensions(), gen, getKg(gen));
         }
 
     }
 
     public void buildGeneratorsWithTfoList(Network network) {
+        generatorsWithTfo = getGeneratorsWithTfo(network);
+    }
+
+    private List<GeneratorWithTfo> getGeneratorsWithTfo(Network network) {
 
         // build the info that are common to a generator and a transformer
-        generatorsWithTfo = new ArrayList<>();
+        List<GeneratorWithTfo> gensWithTfo = new ArrayList<>();
         for (TwoWindingsTransformer t2w : network.getTwoWindingsTransformers()) {
             Generator genTfo = getAssociatedGenerator(network, t2w);
             double kNorm;
@@ -398,13 +416,18 @@ public class ShortCircuitNormIec extends ShortCircuitNormNone {
 
                 kNorm = getKs(t2w, genTfo);
                 GeneratorWithTfo genWithTfo = new GeneratorWithTfo(genTfo, t2w, kNorm);
-                generatorsWithTfo.add(genWithTfo);
+                gensWithTfo.add(genWithTfo);
             }
         }
+        return gensWithTfo;
     }
 
     @Override
     public double getKg(Generator gen) {
+        return getKg(gen, generatorsWithTfo);
+    }
+
+    private double getKg(Generator gen, List<GeneratorWithTfo> gensWithTfo) {
         double kg = 1.;
 
         // Check if not feeder
@@ -422,8 +445,8 @@ public class ShortCircuitNormIec extends ShortCircuitNormNone {
         }
 
         // overload of kg if associated with a 2 windings transformer
-        if (generatorsWithTfo != null) {
-            for (GeneratorWithTfo genWithTfo : generatorsWithTfo) {
+        if (gensWithTfo != null) {
+            for (GeneratorWithTfo genWithTfo : gensWithTfo) {
                 if (genWithTfo.getGen() == gen) {
                     kg = genWithTfo.getkNorm();
                     break;
@@ -62,22 +62,37 @@ public class ShortCircuitNormNone implements ShortCircuitNorm {
 
     @Override
     public void setKg(Generator gen, double kg) {
+        putGeneratorNorm(normExtensions, gen, kg);
+    }
 
-        GeneratorNorm genNormExtension = normExtensions.getNormExtension(gen);
+    @Override
+    public void setKtT3Wi(ThreeWindingsTransformer t3w) {
+        putT3wNorm(normExtensions, t3w, getKtT3Wi(t3w));
+    }
+
+    // the norm extension already in the given extensions, if any, is updated so that it can be shared with a previous read
+    protected static void putGeneratorNorm(ShortCircuitNormExtensions extensions, Generator gen, double kg) {
+        GeneratorNorm genNormExtension = extensions.getNormExtension(gen);
         if (genNormExtension != null) {
             genNormExtension.setkG(kg);
         } else {
             genNormExtension = new GeneratorNorm(kg);
-            normExtensions.setNormExtension(gen, genNormExtension);
+            extensions.setNormExtension(gen, genNormExtension);
         }
-
     }
 
-    @Override
-    public void setKtT3Wi(ThreeWindingsTransformer t3w) {
-        T3wCoefs t3wCoefs = getKtT3Wi(t3w);
+    protected static void putT2wNorm(ShortCircuitNormExtensions extensions, TwoWindingsTransformer t2w, double kNorm) {
+        TwoWindingsTransformerNorm t2wNormExtension = extensions.getNormExtension(t2w);
+        if (t2wNormExtension != null) {
+            t2wNormExtension.setkNorm(kNorm);
+        } else {
+            t2wNormExtension = new TwoWindingsTransformerNorm(kNorm);
+            extensions.setNormExtension(t2w, t2wNormExtension);
+        }
+    }
 
-        ThreeWindingsTransformerNorm t3wExtensionNorm = normExtensions.getNormExtension(t3w);
+    protected static void putT3wNorm(ShortCircuitNormExtensions extensions, ThreeWindingsTransformer t3w, T3wCoefs t3wCoefs) {
+        ThreeWindingsTransformerNorm t3wExtensionNorm = extensions.getNormExtension(t3w);
         if (t3wExtensionNorm == null) {
             t3wExtensionNorm = new ThreeWindingsTransformerNorm();
         }
@@ -105,8 +120,7 @@ public class ShortCircuitNormNone implements ShortCircuitNorm {
             t3wExtensionNorm.getLeg3().setLegCoeffRoOverload(t3wCoefs.coefro3);
             t3wExtensionNorm.getLeg3().setLegCoeffXoOverload(t3wCoefs.coefxo3);
         }
-        normExtensions.setNormExtension(t3w, t3wExtensionNorm);
-
+        extensions.setNormExtension(t3w, t3wExtensionNorm);
     }
 
     @Override
@@ -120,21 +134,25 @@ public class ShortCircuitNormNone implements ShortCircuitNorm {
     }
 
     public void applyNormToT2W(Network network) {
+        computeT2wNorms(network, normExtensions);
+    }
+
+    public void applyNormToGenerators(Network network) {
+        computeGeneratorNorms(network, normExtensions);
+    }
+
+    public void applyNormToT3w(Network network) {
+        computeT3wNorms(network, normExtensions);
+    }
+
+    protected void computeT2wNorms(Network network, ShortCircuitNormExtensions extensions) {
         // Work on two windings transformers
         for (TwoWindingsTransformer t2w : network.getTwoWindingsTransformers()) {
-            double kNorm = getKtT2W(t2w);
-
-            TwoWindingsTransformerNorm t2wNormExtension = normExtensions.getNormExtension(t2w);
-            if (t2wNormExtension != null) {
-                t2wNormExtension.setkNorm(kNorm);
-            } else {
-                t2wNormExtension = new TwoWindingsTransformerNorm(kNorm);
-                normExtensions.setNormExtension(t2w, t2wNormExtension);
-            }
+            putT2wNorm(extensions, t2w, getKtT2W(t2w));
         }
     }
 
-    public void applyNormToGenerators(Network network) {
+    protected void computeGeneratorNorms(Network network, ShortCircuitNormExtensions extensions) {
         // Work on generators
         for (Generator gen : network.getGenerators()) {
 
@@ -145,28 +163,32 @@ public class ShortCircuitNormNone implements ShortCircuitNorm {
                     //adjustGenValuesWithFeederInputs(gen);
                 } else {
                     // this includes standard rotating machines
-                    double kg = getKg(gen);
-                    setKg(gen, kg);
+                    putGeneratorNorm(extensions, gen, getKg(gen));
                 }
             }
         }
     }
 
-    public void applyNormToT3w(Network network) {
+    protected void computeT3wNorms(Network network, ShortCircuitNormExtensions extensions) {
         // Work on three Windings transformers
         for (ThreeWindingsTransformer t3w : network.getThreeWindingsTransformers()) {
-            setKtT3Wi(t3w); // adjust coeffs to respect norm
+            putT3wNorm(extensions, t3w, getKtT3Wi(t3w)); // adjust coeffs to respect norm
         }
     }
 
     @Override
-    public void applyNormToNetwork(Network network) {
+    public ShortCircuitNormExtensions computeNormExtensions(Network network) {
+        ShortCircuitNormExtensions extensions = new ShortCircuitNormExtensions();
+        computeT2wNorms(network, extensions); // the application of the norm to t2w includes generators with t2w associated to them
+        computeGeneratorNorms(network, extensions);
+        computeT3wNorms(network, extensions);
+        return extensions;
+    }
 
+    @Override
+    public void applyNormToNetwork(Network network) {
         this.network = network;
-        this.normExtensions = new ShortCircuitNormExtensions();
-        applyNormToT2W(network); // the application of the norm to t2w includes generators with t2w associated to them
-        applyNormToGenerators(network);
-        applyNormToT3w(network);
+        this.normExtensions = computeNormExtensions(network);
     }
 
     public double getCheckedCoef(String id, double ztk, double zt) {
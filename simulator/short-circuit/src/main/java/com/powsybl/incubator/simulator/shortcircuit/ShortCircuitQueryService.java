@@ -0,0 +1,386 @@
+/**
+ * Copyright (c) 2022, Jean-Baptiste Heyberger & Geoffroy Jamgotchian
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.incubator.simulator.shortcircuit;
+
+import com.powsybl.iidm.network.Bus;
+import com.powsybl.iidm.network.DefaultNetworkListener;
+import com.powsybl.iidm.network.Identifiable;
+import com.powsybl.iidm.network.Network;
+import com.powsybl.iidm.network.NetworkListener;
+import com.powsybl.incubator.simulator.util.AdmittanceEquationSystem;
+import com.powsybl.incubator.simulator.util.FactorizedImpedanceMatrix;
+import com.powsybl.incubator.simulator.util.ImpedanceLinearResolutionParameters;
+import com.powsybl.incubator.simulator.util.MultiPortImpedanceMatrix;
+import com.powsybl.incubator.simulator.util.ShortCircuitNetworkContext;
+import com.powsybl.incubator.simulator.util.SimulatorMetrics;
+import com.powsybl.openloadflow.ac.outerloop.AcLoadFlowParameters;
+import com.powsybl.openloadflow.network.LfBus;
+import com.powsybl.openloadflow.network.LfNetwork;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static com.powsybl.incubator.simulator.shortcircuit.ComplexKernel.mulX;
+import static com.powsybl.incubator.simulator.shortcircuit.ComplexKernel.mulY;
+
+/**
+ * Long running short circuit service answering queries of a single fault at a bus: the direct admittance matrix of the
+ * network (and the homopolar one at the first fault to ground) is factorized once and kept in memory, each query only
+ * needing the solve of the columns of its bus, the equivalents of the most recently queried busses being cached.
+ * Queries may be made concurrently. Any change of the network (creation, removal or update of an equipment) invalidates
+ * the matrices, which are rebuilt from the current working variant at the next query.
+ * The fault list, analysis type and voltage update of the parameters are not used: no voltage profile nor feeders are computed.
+ * If a snapshot directory is given, the assembled matrices can be saved there (see saveSnapshots) and are restored from
+ * there at the next builds, even by another service after a restart, as long as the network data and parameters they
+ * have been saved from are unchanged.
+ *
+ * @author Jean-Baptiste Heyberger <jbheyberger at gmail.com>
+ */
+public class ShortCircuitQueryService implements AutoCloseable {
+
+    public static final int DEFAULT_CACHE_SIZE = 1000;
+
+    private final Network network;
+
+    private final ShortCircuitEngineParameters parameters;
+
+    private final int cacheSize;
+
+    private final AcLoadFlowParameters acLoadFlowParameters;
+
+    private final Path snapshotDirectory; // null if no snapshot
+
+    private final SimulatorMetrics metrics = new SimulatorMetrics();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock(); // queries share the read lock, rebuilds take the write lock
+
+    private final AtomicLong modificationCount = new AtomicLong(); // incremented by the network listener
+
+    private final NetworkListener networkListener = new DefaultNetworkListener() {
+
+        @Override
+        public void onCreation(Identifiable identifiable) {
+            invalidate();
+        }
+
+        @Override
+        public void afterRemoval(String id) {
+            invalidate();
+        }
+
+        @Override
+        public void onUpdate(Identifiable identifiable, String attribute, Object oldValue, Object newValue) {
+            invalidate();
+        }
+
+        @Override
+        public void onUpdate(Identifiable identifiable, String attribute, String variantId, Object oldValue, Object newValue) {
+            invalidate();
+        }
+    };
+
+    // state built from the network, guarded by the lock
+    private long builtModificationCount = -1;
+
+    private ShortCircuitNetworkContext context;
+
+    private Map<String, LfBus> lfBusPerBusId; // LfBus of each iidm bus breaker bus, iidm views not being safe for concurrent reads
+
+    private FactorizedImpedanceMatrix direct;
+
+    private FactorizedImpedanceMatrix homopolar; // built at the first fault to ground, guarded by this
+
+    private int buildCount = 0;
+
+    private final AtomicInteger restoredMatrixCount = new AtomicInteger(); // matrices restored from a snapshot
+
+    private boolean closed = false;
+
+    public ShortCircuitQueryService(Network network, ShortCircuitEngineParameters parameters) {
+        this(network, parameters, DEFAULT_CACHE_SIZE);
+    }
+
+    public ShortCircuitQueryService(Network network, ShortCircuitEngineParameters parameters, int cacheSize) {
+        this(network, parameters, cacheSize, null);
+    }
+
+    public ShortCircuitQueryService(Network network, ShortCircuitEngineParameters parameters, int cacheSize, Path snapshotDirectory) {
+        this.network = Objects.requireNonNull(network);
+        this.parameters = Objects.requireNonNull(parameters);
+        if (cacheSize < 0) {
+            throw new IllegalArgumentException("Cache size " + cacheSize + " must be positive");
+        }
+        this.cacheSize = cacheSize;
+        this.snapshotDirectory = snapshotDirectory;
+        this.acLoadFlowParameters = AbstractShortCircuitEngine.getAcLoadFlowParameters(parameters);
+        network.addListener(networkListener);
+    }
+
+    /**
+     * Marks the matrices as outdated, to be rebuilt at the next query. Called on each change of the network, and to be
+     * called after a change of the working variant.
+     */
+    public void invalidate() {
+        modificationCount.incrementAndGet();
+    }
+
+    public ShortCircuitResult query(String busId, ShortCircuitFault.ShortCircuitType type) {
+        return query(busId, type, 0., 0.);
+    }
+
+    /**
+     * Short circuit result of a fault of the given type and impedance at the given iidm bus breaker bus.
+     * Biphased common support faults are not supported.
+     */
+    public ShortCircuitResult query(String busId, ShortCircuitFault.ShortCircuitType type, double zfr, double zfi) {
+        Objects.requireNonNull(busId);
+        Objects.requireNonNull(type);
+        if (type == ShortCircuitFault.ShortCircuitType.BIPHASED_COMMON_SUPPORT) {
+            throw new IllegalArgumentException("Short circuit fault at bus " + busId + " : biphased common support faults are not supported by queries");
+        }
+
+        lock.readLock().lock();
+        try {
+            checkBuilt();
+
+            LfBus bus = lfBusPerBusId.get(busId);
+            if (bus == null) {
+                throw new IllegalArgumentException("Short circuit fault at bus " + busId + " : bus not found or not connected to the main network");
+            }
+            ShortCircuitFault scf = new ShortCircuitFault(busId, busId, zfr, zfi, type);
+            MultiPortImpedanceMatrix directEquivalent = direct.getEquivalent(bus);
+            if (type == ShortCircuitFault.ShortCircuitType.TRIPHASED_GROUND) {
+                return buildBalancedResult(scf, bus, directEquivalent.getR(0, 0), directEquivalent.getX(0, 0),
+                        directEquivalent.getEthx(0), directEquivalent.getEthy(0), parameters.getNorm());
+            }
+            // biphased faults (without ground) have no homopolar current
+            MultiPortImpedanceMatrix homopolarEquivalent = type != ShortCircuitFault.ShortCircuitType.BIPHASED ? getHomopolar().getEquivalent(bus) : null;
+            return buildUnbalancedResult(scf, bus, directEquivalent.getR(0, 0), directEquivalent.getX(0, 0),
+                    homopolarEquivalent != null ? homopolarEquivalent.getR(0, 0) : 0., homopolarEquivalent != null ? homopolarEquivalent.getX(0, 0) : 0.,
+                    directEquivalent.getEthx(0), directEquivalent.getEthy(0), parameters.getNorm());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rebuilds the matrices if outdated, to be called with the read lock held.
+     */
+    private void checkBuilt() {
+        checkNotClosed();
+        if (builtModificationCount != modificationCount.get()) {
+            lock.readLock().unlock();
+            lock.writeLock().lock();
+            try {
+                // the service may have been closed or the matrices rebuilt by a concurrent query in between
+                checkNotClosed();
+                if (builtModificationCount != modificationCount.get()) {
+                    build();
+                }
+            } finally {
+                lock.readLock().lock(); // downgrade, the read lock being held again whatever the outcome of the build
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private void checkNotClosed() {
+        if (closed) {
+            throw new IllegalStateException("Short circuit query service of network " + network.getId() + " is closed");
+        }
+    }
+
+    private void build() {
+        close(direct);
+        synchronized (this) {
+            close(homopolar);
+            homopolar = null;
+        }
+        direct = null;
+
+        // the count is read before the build: a change made during the build leaves the matrices outdated
+        long count = modificationCount.get();
+        context = new ShortCircuitNetworkContext(network, parameters.getNormExtensions(), metrics);
+        LfNetwork lfNetwork = context.getLfNetworks().get(0);
+        lfBusPerBusId = new HashMap<>();
+        for (Bus bus : network.getBusBreakerView().getBuses()) {
+            LfBus lfBus = AbstractShortCircuitEngine.getLfBus(lfNetwork, bus);
+            if (lfBus != null) {
+                lfBusPerBusId.put(bus.getId(), lfBus);
+            }
+        }
+        direct = createMatrix(AdmittanceEquationSystem.AdmittanceType.ADM_THEVENIN);
+        buildCount++;
+        builtModificationCount = count;
+    }
+
+    private synchronized FactorizedImpedanceMatrix getHomopolar() {
+        if (homopolar == null) {
+            homopolar = createMatrix(AdmittanceEquationSystem.AdmittanceType.ADM_THEVENIN_HOMOPOLAR);
+        }
+        return homopolar;
+    }
+
+    private FactorizedImpedanceMatrix createMatrix(AdmittanceEquationSystem.AdmittanceType admittanceType) {
+        FactorizedImpedanceMatrix matrix = new FactorizedImpedanceMatrix(context.getNetworkData().get(0), createLinearResolutionParameters(admittanceType),
+                cacheSize, metrics, getSnapshotFile(admittanceType));
+        if (matrix.isRestored()) {
+            restoredMatrixCount.incrementAndGet();
+        }
+        return matrix;
+    }
+
+    private Path getSnapshotFile(AdmittanceEquationSystem.AdmittanceType admittanceType) {
+        return snapshotDirectory != null ? snapshotDirectory.resolve(admittanceType.name().toLowerCase(Locale.ROOT) + ".snapshot") : null;
+    }
+
+    /**
+     * Saves the direct matrix, and the homopolar one if built, to the snapshot directory, the matrices being rebuilt
+     * first if outdated. Matrices with a Kron elimination cannot be saved.
+     */
+    public void saveSnapshots() {
+        if (snapshotDirectory == null) {
+            throw new IllegalStateException("Short circuit query service of network " + network.getId() + " has no snapshot directory");
+        }
+        lock.readLock().lock();
+        try {
+            checkBuilt();
+            direct.save(getSnapshotFile(AdmittanceEquationSystem.AdmittanceType.ADM_THEVENIN));
+            synchronized (this) {
+                if (homopolar != null) {
+                    homopolar.save(getSnapshotFile(AdmittanceEquationSystem.AdmittanceType.ADM_THEVENIN_HOMOPOLAR));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private ImpedanceLinearResolutionParameters createLinearResolutionParameters(AdmittanceEquationSystem.AdmittanceType admittanceType) {
+        ImpedanceLinearResolutionParameters linearResolutionParameters = new ImpedanceLinearResolutionParameters(acLoadFlowParameters,
+                parameters.getMatrixFactory(), new ArrayList<>(), false, AbstractShortCircuitEngine.getAdmittanceVoltageProfileType(parameters),
+                AbstractShortCircuitEngine.getAdmittancePeriodType(parameters), admittanceType, parameters.isIgnoreShunts());
+        linearResolutionParameters.setKronElimination(parameters.isKronElimination());
+        return linearResolutionParameters;
+    }
+
+    /**
+     * Result of a triphased fault at a bus of the given Thevenin equivalent, without voltage profile nor feeders.
+     */
+    static ShortCircuitResult buildBalancedResult(ShortCircuitFault scf, LfBus bus, double rth, double xth, double vxInit, double vyInit,
+                                                  ShortCircuitNorm norm) {
+        // If = Eth / (Zth + Zf), as in the balanced engine
+        double rf = scf.getZfr();
+        double xf = scf.getZfi();
+        double denom = (rf + rth) * (rf + rth) + (xf + xth) * (xf + xth);
+        double ifr = (vyInit * (xf + xth) + vxInit * (rf + rth)) / denom;
+        double ifi = (vyInit * (rf + rth) - vxInit * (xf + xth)) / denom;
+        double dvr = -ifr * rth + ifi * xth;
+        double dvi = -ifr * xth - ifi * rth;
+
+        return new ShortCircuitResult(scf, bus, ifr, ifi, rth, xth, vxInit, vyInit, dvr, dvi, null, norm);
+    }
+
+    /**
+     * Result of an unbalanced fault at a bus of the given direct and homopolar Thevenin impedances, without voltage
+     * profile nor feeders, the homopolar impedance being unused by biphased faults.
+     */
+    static ShortCircuitResult buildUnbalancedResult(ShortCircuitFault scf, LfBus bus, double rdf, double xdf, double rof, double xof,
+                                                    double v1dxInit, double v1dyInit, ShortCircuitNorm norm) {
+        double rf = scf.getZfr();
+        double xf = scf.getZfi();
+
+        AbstractShortCircuitCalculator calculator;
+        if (scf.getType() == ShortCircuitFault.ShortCircuitType.MONOPHASED) {
+            calculator = new MonophasedShortCircuitCalculator(rdf, xdf, rof, xof, rf, xf, v1dxInit, v1dyInit);
+        } else if (scf.getType() == ShortCircuitFault.ShortCircuitType.BIPHASED) {
+            calculator = new BiphasedShortCircuitCalculator(rdf, xdf, rof, xof, rf, xf, v1dxInit, v1dyInit);
+        } else {
+            calculator = new BiphasedGroundShortCircuitCalculator(rdf, xdf, rof, xof, rf, xf, v1dxInit, v1dyInit);
+        }
+        calculator.computeCurrents();
+        FortescueComponents i = calculator.getCurrents();
+
+        // same voltages at the faulted bus as in the unbalanced engine
+        FortescueComponents dv = new FortescueComponents(
+                -mulX(rof, xof, i.getHomopolarX(), i.getHomopolarY()), -mulY(rof, xof, i.getHomopolarX(), i.getHomopolarY()),
+                -mulX(rdf, xdf, i.getDirectX(), i.getDirectY()), -mulY(rdf, xdf, i.getDirectX(), i.getDirectY()),
+                -mulX(rdf, xdf, i.getInverseX(), i.getInverseY()), -mulY(rdf, xdf, i.getInverseX(), i.getInverseY()));
+
+        return new ShortCircuitResult(scf, bus, i, rdf, xdf, rof, xof, rdf, xdf, v1dxInit, v1dyInit, dv, null, null, norm);
+    }
+
+    /**
+     * Number of solves made by the direct matrix since its last build, a bus found in the cache needing no solve.
+     */
+    public int getDirectSolveCount() {
+        lock.readLock().lock();
+        try {
+            return direct != null ? direct.getSolveCount() : 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of matrices restored from a snapshot instead of being assembled.
+     */
+    public int getRestoredMatrixCount() {
+        return restoredMatrixCount.get();
+    }
+
+    /**
+     * Number of builds of the matrices, the first query making the first one.
+     */
+    public int getBuildCount() {
+        lock.readLock().lock();
+        try {
+            return buildCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Timers and counters of the builds of the matrices: LfNetwork loading, short circuit extensions, equation systems,
+     * matrices and LU decompositions.
+     */
+    public SimulatorMetrics getMetrics() {
+        return metrics;
+    }
+
+    private static void close(FactorizedImpedanceMatrix matrix) {
+        if (matrix != null) {
+            matrix.close();
+        }
+    }
+
+    @Override
+    public void close() {
+        network.removeListener(networkListener);
+        lock.writeLock().lock();
+        try {
+            close(direct);
+            direct = null;
+            synchronized (this) {
+                close(homopolar);
+                homopolar = null;
+            }
+            closed = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
@@ -7,11 +7,12 @@
 package com.powsybl.incubator.simulator.shortcircuit;
 
 import com.powsybl.incubator.simulator.util.*;
-import com.powsybl.math.matrix.DenseMatrix;
+import com.powsybl.incubator.simulator.util.extensions.BranchAdmittanceTable;
+import com.powsybl.incubator.simulator.util.extensions.ShortCircuitNetworkData;
+import com.powsybl.incubator.simulator.util.extensions.ZeroImpedanceContraction;
 import com.powsybl.openloadflow.network.LfBranch;
 import com.powsybl.openloadflow.network.LfBus;
 import com.powsybl.openloadflow.network.LfNetwork;
-import com.powsybl.openloadflow.network.PiModel;
 import org.apache.commons.math3.util.Pair;
 
 import java.util.*;
@@ -29,42 +30,32 @@ public class ShortCircuitResult {
 
         private double eth2y;
 
-        private DenseMatrix i2Fortescue; //fortescue vector of currents
+        private final FortescueComponents i2Fortescue; //fortescue vector of currents
 
-        private DenseMatrix v2Fortescue; //fortescue vector of voltages
+        private final FortescueComponents v2Fortescue; //fortescue vector of voltages
 
-        CommonSupportResult(LfBus lfBus2, double eth2x, double eth2y,
-                            double i2dx, double i2dy, double i2ox, double i2oy, double i2ix, double i2iy,
-                            double dv2dx, double dv2dy, double dv2ox, double dv2oy, double dv2ix, double dv2iy) {
+        CommonSupportResult(LfBus lfBus2, double eth2x, double eth2y, FortescueComponents i2, FortescueComponents dv2) {
             this.lfBus2 = lfBus2;
             this.eth2x = eth2x;
             this.eth2y = eth2y;
-
-            DenseMatrix mI2 = new DenseMatrix(6, 1);
-            mI2.add(0, 0, i2ox);
-            mI2.add(1, 0, i2oy);
-            mI2.add(2, 0, i2dx);
-            mI2.add(3, 0, i2dy);
-            mI2.add(4, 0, i2ix);
-            mI2.add(5, 0, i2iy);
-            this.i2Fortescue = mI2.toDense();
+            this.i2Fortescue = Objects.requireNonNull(i2);
 
             //construction of the fortescue vector vFortescue = t[Vh, Vd, Vi]
-            double vdx = eth2x + dv2dx;
-            double vdy = eth2y + dv2dy;
-            double vhx = dv2ox;
-            double vhy = dv2oy;
-            double vix = dv2ix;
-            double viy = dv2iy;
-
-            DenseMatrix mV2 = new DenseMatrix(6, 1);
-            mV2.add(0, 0, vhx);
-            mV2.add(1, 0, vhy);
-            mV2.add(2, 0, vdx);
-            mV2.add(3, 0, vdy);
-            mV2.add(4, 0, vix);
-            mV2.add(5, 0, viy);
-            this.v2Fortescue = mV2.toDense();
+            this.v2Fortescue = new FortescueComponents(dv2.getHomopolarX(), dv2.getHomopolarY(),
+                    eth2x + dv2.getDirectX(), eth2y + dv2.getDirectY(),
+                    dv2.getInverseX(), dv2.getInverseY());
+        }
+
+        public LfBus getLfBus2() {
+            return lfBus2;
+        }
+
+        public FortescueComponents getI2Fortescue() {
+            return i2Fortescue;
+        }
+
+        public FortescueComponents getV2Fortescue() {
+            return v2Fortescue;
         }
     }
 
@@ -72,6 +63,8 @@ public class ShortCircuitResult {
 
     private LfNetwork lfNetwork;
 
+    private ShortCircuitNetworkData networkData; // read from the properties of the LfNetwork at first feeders update if not given
+
     private ShortCircuitNorm norm;
 
     private double rd; // equivalent direct impedance
@@ -90,12 +83,12 @@ public class ShortCircuitResult {
 
     private double ethy;
 
-    private DenseMatrix iFortescue; //fortescue vector of currents
+    private FortescueComponents iFortescue; //fortescue vector of currents
 
-    private DenseMatrix vFortescue; //fortescue vector of voltages
+    private FortescueComponents vFortescue; //fortescue vector of voltages
 
     private boolean isVoltageProfileUpdated;
-    private List<DenseMatrix>  busNum2Dv;
+    private double[] busNum2Dv; // fortescue voltage variations t[dVh, dVd, dVi] of bus num n stored at index 6 * n
 
     private FeedersAtNetwork eqSysFeedersDirect;
 
@@ -128,48 +121,18 @@ public class ShortCircuitResult {
         this.ethx = ethr;
         this.ethy = ethi;
 
-        //construction of the fortescue vector iFortescue = t[Ih, Id, Ii]
-        double idx = ifr;
-        double idy = ifi;
-        double iix = 0.;
-        double iiy = 0.;
-        double ihx = 0.;
-        double ihy = 0.;
-
-        DenseMatrix mI = new DenseMatrix(6, 1);
-        mI.add(0, 0, ihx);
-        mI.add(1, 0, ihy);
-        mI.add(2, 0, idx);
-        mI.add(3, 0, idy);
-        mI.add(4, 0, iix);
-        mI.add(5, 0, iiy);
-        this.iFortescue = mI.toDense();
-
-        //construction of the fortescue vector vFortescue = t[Vh, Vd, Vi]
-        double vdx = ethr + dvr;
-        double vdy = ethi + dvi;
-        double vhx = 0.;
-        double vhy = 0.;
-        double vix = 0.;
-        double viy = 0.;
-
-        DenseMatrix mV = new DenseMatrix(6, 1);
-        mV.add(0, 0, vhx);
-        mV.add(1, 0, vhy);
-        mV.add(2, 0, vdx);
-        mV.add(3, 0, vdy);
-        mV.add(4, 0, vix);
-        mV.add(5, 0, viy);
-        this.vFortescue = mV.toDense();
+        //construction of the fortescue vectors iFortescue = t[Ih, Id, Ii] and vFortescue = t[Vh, Vd, Vi]
+        this.iFortescue = FortescueComponents.direct(ifr, ifi);
+        this.vFortescue = FortescueComponents.direct(ethr + dvr, ethi + dvi);
 
         isVoltageProfileUpdated = false;
 
     }
 
     public ShortCircuitResult(ShortCircuitFault shortCircuitFault, LfBus lfBus,
-                              double idx, double idy, double iox, double ioy, double iix, double iiy,
+                              FortescueComponents i,
                               double rd, double xd, double ro, double xo, double ri, double xi,
-                              double vdxinit, double vdyinit, double dvdx, double dvdy, double dvox, double dvoy, double dvix, double dviy,
+                              double vdxinit, double vdyinit, FortescueComponents dv,
                               FeedersAtNetwork eqSysFeedersDirect, FeedersAtNetwork eqSysFeedersHomopolar, ShortCircuitNorm norm) {
         this.lfBus = lfBus;
         this.eqSysFeedersDirect = eqSysFeedersDirect;
@@ -187,151 +150,235 @@ public class ShortCircuitResult {
         this.ethx = vdxinit;
         this.ethy = vdyinit;
 
-        //construction of the fortescue vector iFortescue = t[Ih, Id, Ii]
-        DenseMatrix mI = new DenseMatrix(6, 1);
-        mI.add(0, 0, iox);
-        mI.add(1, 0, ioy);
-        mI.add(2, 0, idx);
-        mI.add(3, 0, idy);
-        mI.add(4, 0, iix);
-        mI.add(5, 0, iiy);
-        this.iFortescue = mI.toDense();
-
-        //construction of the fortescue vector vFortescue = t[Vh, Vd, Vi]
-        double vdx = ethx + dvdx;
-        double vdy = ethy + dvdy;
-        double vhx = dvox;
-        double vhy = dvoy;
-        double vix = dvix;
-        double viy = dviy;
-
-        DenseMatrix mV = new DenseMatrix(6, 1);
-        mV.add(0, 0, vhx);
-        mV.add(1, 0, vhy);
-        mV.add(2, 0, vdx);
-        mV.add(3, 0, vdy);
-        mV.add(4, 0, vix);
-        mV.add(5, 0, viy);
-        this.vFortescue = mV.toDense();
+        //construction of the fortescue vectors iFortescue = t[Ih, Id, Ii] and vFortescue = t[Vh, Vd, Vi]
+        this.iFortescue = Objects.requireNonNull(i);
+        this.vFortescue = new FortescueComponents(dv.getHomopolarX(), dv.getHomopolarY(),
+                ethx + dv.getDirectX(), ethy + dv.getDirectY(),
+                dv.getInverseX(), dv.getInverseY());
 
         isVoltageProfileUpdated = false;
 
     }
 
     public ShortCircuitResult(ShortCircuitFault shortCircuitFault, LfBus lfBus,
-                              double idx, double idy, double iox, double ioy, double iix, double iiy,
+                              FortescueComponents i,
                               double rd, double xd, double ro, double xo, double ri, double xi,
-                              double vdxinit, double vdyinit, double dvdx, double dvdy, double dvox, double dvoy, double dvix, double dviy,
+                              double vdxinit, double vdyinit, FortescueComponents dv,
                               FeedersAtNetwork eqSysFeedersDirect, FeedersAtNetwork eqSysFeedersHomopolar, ShortCircuitNorm norm,
-                              double i2dx, double i2dy, double i2ox, double i2oy, double i2ix, double i2iy,
-                              double v2dxinit, double v2dyinit, double dv2dx, double dv2dy, double dv2ox, double dv2oy, double dv2ix, double dv2iy,
+                              FortescueComponents i2, double v2dxinit, double v2dyinit, FortescueComponents dv2,
                               LfBus lfBus2) {
         this(shortCircuitFault, lfBus,
-                idx, idy, iox, ioy, iix, iiy,
+                i,
                 rd, xd, ro, xo, ri, xi,
-                vdxinit, vdyinit, dvdx, dvdy, dvox, dvoy, dvix, dviy,
+                vdxinit, vdyinit, dv,
                 eqSysFeedersDirect, eqSysFeedersHomopolar, norm);
 
-        this.commonSupportResult = new CommonSupportResult(lfBus2, v2dxinit, v2dyinit,
-                i2dx, i2dy, i2ox, i2oy, i2ix,  i2iy,
-                dv2dx, dv2dy, dv2ox, dv2oy, dv2ix, dv2iy);
+        this.commonSupportResult = new CommonSupportResult(lfBus2, v2dxinit, v2dyinit, i2, dv2);
 
     }
 
     public void updateFeedersResult() {
+        updateFeedersResult(ShortCircuitEngineParameters.FeederScope.ALL, 0, Collections.emptySet());
+    }
+
+    /**
+     * Feeder contributions are only computed at the busses of the feeder scope of the parameters, from the voltage
+     * deltas of these busses and of their neighbours.
+     */
+    public void updateFeedersResult(ShortCircuitEngineParameters parameters) {
+        updateFeedersResult(parameters.getFeederScope(), parameters.getFeederNeighbourhoodDepth(), parameters.getFeederVoltageLevelIds());
+    }
+
+    private void updateFeedersResult(ShortCircuitEngineParameters.FeederScope feederScope, int neighbourhoodDepth, Set<String> voltageLevelIds) {
         //System.out.println(" VL name = " + shortCircuitVoltageLevelLocation);
         //System.out.println(" bus name = " + shortCircuitLfbusLocation);
         //System.out.println(" Icc = " + getIcc());
-        //System.out.println(" Ih = " + iFortescue.get(0, 0) + " + j(" + iFortescue.get(1, 0) + ")");
-        //System.out.println(" Id = " + iFortescue.get(2, 0) + " + j(" + iFortescue.get(3, 0) + ")");
-        //System.out.println(" Ii = " + iFortescue.get(4, 0) + " + j(" + iFortescue.get(5, 0) + ")");
-        //System.out.println(" Vh = " + vFortescue.get(0, 0) + " + j(" + vFortescue.get(1, 0) + ")");
-        //System.out.println(" Vd = " + vFortescue.get(2, 0) + " + j(" + vFortescue.get(3, 0) + ")");
-        //System.out.println(" Vi = " + vFortescue.get(4, 0) + " + j(" + vFortescue.get(5, 0) + ")");
+        //System.out.println(" I = " + iFortescue);
+        //System.out.println(" V = " + vFortescue);
         //System.out.println(" Eth = " + ethx + " + j(" + ethy + ")");
 
         if (isVoltageProfileUpdated) {
 
-            /*for (Map.Entry<Integer, DenseMatrix> vd : bus2dv.entrySet()) {
-                System.out.println(" dVd(" + vd.getKey() + ") = " + vd.getValue().get(2, 0) + " + j(" + vd.getValue().get(3, 0) + ")");
-                System.out.println(" dVo(" + vd.getKey() + ") = " + vd.getValue().get(0, 0) + " + j(" + vd.getValue().get(1, 0) + ")");
-                System.out.println(" dVi(" + vd.getKey() + ") = " + vd.getValue().get(4, 0) + " + j(" + vd.getValue().get(5, 0) + ")");
-            }*/
+            if (networkData == null) {
+                networkData = ShortCircuitNetworkData.build(lfNetwork);
+            }
+            BranchAdmittanceTable directAdmittances = networkData.getAdmittanceTable(false);
+            ZeroImpedanceContraction contraction = networkData.getZeroImpedanceContraction();
 
             // Building the structure to support the feeders result
-            feedersAtBusResultsDirect = new HashMap<>(); // TODO : homopolar
-            for (LfBus bus : lfNetwork.getBuses()) {
-                //int busNum = bus.getNum();
-                //double dvx = busNum2Dv.get(busNum).get(2, 0);
-                //double dvy = busNum2Dv.get(busNum).get(3, 0);
-                //double vx = dvx + ethx;
-                //double vy = dvy + ethy;
-
-                //System.out.println(" dVd(" + bus.getId() + ") = " + dvx + " + j(" + dvy + ")  Module = " + bus.getNominalV() * Math.sqrt(vx * vx + vy * vy));
-                //System.out.println(" dVo(" + bus.getId() + ") = " + bus2dv.get(busNum).get(0, 0) + " + j(" + bus2dv.get(busNum).get(1, 0) + ")");
-                //System.out.println(" dVi(" + bus.getId() + ") = " + bus2dv.get(busNum).get(4, 0) + " + j(" + bus2dv.get(busNum).get(5, 0) + ")");
-
-                // Init of feeder results
-                FeedersAtBus busFeeders = eqSysFeedersDirect.busToFeeders.get(bus);
-                FeedersAtBusResult feedersAtBusResult = new FeedersAtBusResult(busFeeders);
-                feedersAtBusResultsDirect.put(bus, feedersAtBusResult);  // TODO : homopolar
-
+            // the current of a non impedant branch merged into a node cannot be computed from the voltages of its sides:
+            // the feeders of a bus of the scope are computed over all the busses of its node
+            List<LfBus> scopeBuses = getFeederScopeBuses(feederScope, neighbourhoodDepth, voltageLevelIds);
+            Map<LfBus, FeedersAtBusResult> nodeFeedersResults = new LinkedHashMap<>();
+            for (LfBus scopeBus : scopeBuses) {
+                for (int busNum : contraction.getNodeBusNums(contraction.getRepresentative(scopeBus.getNum()))) {
+                    // Init of feeder results
+                    nodeFeedersResults.computeIfAbsent(lfNetwork.getBus(busNum), bus -> new FeedersAtBusResult(eqSysFeedersDirect.busToFeeders.get(bus)));
+                }
             }
 
             // Building the sum of currents at busses from branches
-            for (LfBranch branch : lfNetwork.getBranches()) {
+            List<LfBranch> branches = feederScope == ShortCircuitEngineParameters.FeederScope.ALL ? lfNetwork.getBranches() : getConnectedBranches(new ArrayList<>(nodeFeedersResults.keySet()));
+            for (LfBranch branch : branches) {
                 LfBus bus1 = branch.getBus1();
                 LfBus bus2 = branch.getBus2();
-                if (bus1 != null && bus2 != null) {
-                    DenseMatrix yd12 = getAdmittanceMatrixBranch(branch, AdmittanceEquationSystem.AdmittanceType.ADM_THEVENIN);
+                // the current of a non impedant branch merged into a node cannot be computed from the voltages of its sides
+                if (bus1 != null && bus2 != null && !contraction.isContracted(branch.getNum())) {
+                    directAdmittances.check(branch);
                     int busNum1 = bus1.getNum();
-                    double dvx1 = busNum2Dv.get(busNum1).get(2, 0);
-                    double dvy1 = busNum2Dv.get(busNum1).get(3, 0);
+                    double dvx1 = busNum2Dv[6 * busNum1 + 2];
+                    double dvy1 = busNum2Dv[6 * busNum1 + 3];
                     int busNum2 = bus2.getNum();
-                    double dvx2 = busNum2Dv.get(busNum2).get(2, 0);
-                    double dvy2 = busNum2Dv.get(busNum2).get(3, 0);
-                    DenseMatrix v12 = new DenseMatrix(4, 1);
-                    v12.add(0, 0, dvx1 + 0.); //TODO : replace 1. by initial value
-                    v12.add(1, 0, dvy1 + 0.); //TODO : replace 0. by initial value
-                    v12.add(2, 0, dvx2 + 0.); //TODO : replace 1. by initial value
-                    v12.add(3, 0, dvy2 + 0.); //TODO : replace 0. by initial value
-                    DenseMatrix i12 = yd12.times(v12).toDense();
-                    //System.out.println(" dI1d(" + branch.getId() + ") = " + i12.get(0, 0) + " + j(" + i12.get(1, 0) + ")  Module I1d = " + 1000. * 100. / bus1.getNominalV() * Math.sqrt((i12.get(0, 0) * i12.get(0, 0) + i12.get(1, 0) * i12.get(1, 0)) / 3));
-                    //System.out.println(" dI2d(" + branch.getId() + ") = " + i12.get(2, 0) + " + j(" + i12.get(3, 0) + ")  Module I2d = " + 1000. * 100. / bus2.getNominalV() * Math.sqrt((i12.get(2, 0) * i12.get(2, 0) + i12.get(3, 0) * i12.get(3, 0)) / 3));
+                    double dvx2 = busNum2Dv[6 * busNum2 + 2];
+                    double dvy2 = busNum2Dv[6 * busNum2 + 3];
+                    int branchNum = branch.getNum();
 
                     // Feeders :
-                    // compute the sum of currents from branches at each bus
-                    FeedersAtBusResult resultBus1Feeders = feedersAtBusResultsDirect.get(bus1); // TODO : homopolar
-                    FeedersAtBusResult resultBus2Feeders = feedersAtBusResultsDirect.get(bus2); // TODO : homopolar
-
-                    resultBus1Feeders.addIfeeders(i12.get(0, 0), i12.get(1, 0));
-                    resultBus2Feeders.addIfeeders(i12.get(2, 0), i12.get(3, 0));
-
+                    // compute the sum of currents from branches at each bus of the scope
+                    FeedersAtBusResult resultBus1Feeders = nodeFeedersResults.get(bus1); // TODO : homopolar
+                    FeedersAtBusResult resultBus2Feeders = nodeFeedersResults.get(bus2); // TODO : homopolar
+                    if (resultBus1Feeders != null) {
+                        double i1x = directAdmittances.getCurrent(branchNum, BranchAdmittanceTable.ROW_I1R, dvx1, dvy1, dvx2, dvy2); //TODO : add initial values to voltage deltas
+                        double i1y = directAdmittances.getCurrent(branchNum, BranchAdmittanceTable.ROW_I1I, dvx1, dvy1, dvx2, dvy2);
+                        resultBus1Feeders.addIfeeders(i1x, i1y);
+                    }
+                    if (resultBus2Feeders != null) {
+                        double i2x = directAdmittances.getCurrent(branchNum, BranchAdmittanceTable.ROW_I2R, dvx1, dvy1, dvx2, dvy2);
+                        double i2y = directAdmittances.getCurrent(branchNum, BranchAdmittanceTable.ROW_I2I, dvx1, dvy1, dvx2, dvy2);
+                        resultBus2Feeders.addIfeeders(i2x, i2y);
+                    }
                 }
             }
 
             // computing feeders contribution from the sum of currents at node and based on the admittance dispatch key of feeders
-            for (LfBus bus : lfNetwork.getBuses()) {
-                FeedersAtBusResult busFeeders = feedersAtBusResultsDirect.get(bus); // TODO : homopolar
-                busFeeders.updateContributions();
+            // of all the busses of the node, the currents of its non impedant branches following from the current law at each bus
+            feedersAtBusResultsDirect = new HashMap<>(); // TODO : homopolar
+            for (LfBus bus : scopeBuses) {
+                double ixSum = 0.;
+                double iySum = 0.;
+                double gSum = 0.;
+                double bSum = 0.;
+                for (int busNum : contraction.getNodeBusNums(contraction.getRepresentative(bus.getNum()))) {
+                    FeedersAtBusResult nodeBusFeeders = nodeFeedersResults.get(lfNetwork.getBus(busNum));
+                    ixSum += nodeBusFeeders.getIxFeedersSum();
+                    iySum += nodeBusFeeders.getIyFeedersSum();
+                    gSum += nodeBusFeeders.getFeedersG();
+                    bSum += nodeBusFeeders.getFeedersB();
+                }
+                FeedersAtBusResult busFeeders = nodeFeedersResults.get(bus);
+                busFeeders.updateContributions(ixSum, iySum, gSum, bSum);
+                feedersAtBusResultsDirect.put(bus, busFeeders);
             }
         }
     }
 
+    private List<LfBus> getFeederScopeBuses(ShortCircuitEngineParameters.FeederScope feederScope, int neighbourhoodDepth, Set<String> voltageLevelIds) {
+        switch (feederScope) {
+            case ALL:
+                return lfNetwork.getBuses();
+
+            case FAULTED_BUS:
+                return new ArrayList<>(getFaultedBuses());
+
+            case NEIGHBOURHOOD:
+                // breadth first search from the faulted busses through the connected branches
+                Set<LfBus> buses = getFaultedBuses();
+                List<LfBus> frontier = new ArrayList<>(buses);
+                for (int depth = 0; depth < neighbourhoodDepth && !frontier.isEmpty(); depth++) {
+                    List<LfBus> nextFrontier = new ArrayList<>();
+                    for (LfBus bus : frontier) {
+                        for (LfBranch branch : bus.getBranches()) {
+                            LfBus otherBus = branch.getBus1() == bus ? branch.getBus2() : branch.getBus1();
+                            if (branch.getBus1() != null && branch.getBus2() != null && buses.add(otherBus)) {
+                                nextFrontier.add(otherBus);
+                            }
+                        }
+                    }
+                    frontier = nextFrontier;
+                }
+                return new ArrayList<>(buses);
+
+            case VOLTAGE_LEVELS:
+                List<LfBus> voltageLevelBuses = new ArrayList<>();
+                for (LfBus bus : lfNetwork.getBuses()) {
+                    if (voltageLevelIds.contains(bus.getVoltageLevelId())) {
+                        voltageLevelBuses.add(bus);
+                    }
+                }
+                return voltageLevelBuses;
+
+            default:
+                throw new IllegalArgumentException("Feeder scope " + feederScope + " not yet handled");
+        }
+    }
+
+    private Set<LfBus> getFaultedBuses() {
+        Set<LfBus> faultedBuses = new LinkedHashSet<>();
+        faultedBuses.add(lfBus);
+        if (commonSupportResult != null) {
+            faultedBuses.add(commonSupportResult.getLfBus2());
+        }
+        return faultedBuses;
+    }
+
+    // branches connected to the busses, sorted by num so that the currents at a bus are summed in the same order for all scopes
+    private static List<LfBranch> getConnectedBranches(List<LfBus> buses) {
+        List<LfBranch> branches = new ArrayList<>();
+        for (LfBus bus : buses) {
+            branches.addAll(bus.getBranches());
+        }
+        branches.sort(Comparator.comparingInt(LfBranch::getNum));
+        List<LfBranch> distinctBranches = new ArrayList<>(branches.size());
+        for (LfBranch branch : branches) {
+            if (distinctBranches.isEmpty() || distinctBranches.get(distinctBranches.size() - 1) != branch) {
+                distinctBranches.add(branch);
+            }
+        }
+        return distinctBranches;
+    }
+
     public double getIdx() {
-        return iFortescue.get(2, 0);
+        return iFortescue.getDirectX();
     }
 
     public double getIdy() {
-        return iFortescue.get(3, 0);
+        return iFortescue.getDirectY();
     }
 
     public double getIox() {
-        return iFortescue.get(0, 0);
+        return iFortescue.getHomopolarX();
     }
 
     public double getIoy() {
-        return iFortescue.get(1, 0);
+        return iFortescue.getHomopolarY();
+    }
+
+    public double getRd() {
+        return rd;
+    }
+
+    public double getXd() {
+        return xd;
+    }
+
+    public double getRh() {
+        return rh;
+    }
+
+    public double getXh() {
+        return xh;
+    }
+
+    public FortescueComponents getIFortescue() {
+        return iFortescue;
+    }
+
+    public FortescueComponents getVFortescue() {
+        return vFortescue;
+    }
+
+    public CommonSupportResult getCommonSupportResult() {
+        return commonSupportResult;
     }
 
     public Map<LfBus, FeedersAtBusResult> getFeedersAtBusResultsDirect() {
@@ -365,6 +412,14 @@ public class ShortCircuitResult {
         return new Pair<>(icc.getKey() * norm.getCmaxVoltageFactor(lfBus.getNominalV()) / 1000., icc.getValue());
     }
 
+    public Pair<Double, Double> getIkMin() {
+        // Ik min = cmin / sqrt(3) * Eth(pu) / Zth(pu) * Sb / Vb
+        // the voltage factor only scales Eth: the minimum current is given by the Thevenin impedance of the maximum one,
+        // the impedance corrections of the norm being the same for both
+        Pair<Double, Double> icc = getIcc();
+        return new Pair<>(icc.getKey() * norm.getCminVoltageFactor(lfBus.getNominalV()) / 1000., icc.getValue());
+    }
+
     public double getPcc() {
         //Pcc = |Eth|*Icc*sqrt(3)
         return Math.sqrt(3) * getIcc().getKey() * lfBus.getV() * lfBus.getNominalV(); //TODO: check formula
@@ -375,97 +430,40 @@ public class ShortCircuitResult {
     }
 
     public void createEmptyFortescueVoltageVector(int nbBusses) {
-        List<DenseMatrix> busNum2Dv = new ArrayList<>();
-        for (int i = 0;  i < nbBusses; i++) {
-            DenseMatrix mdV = new DenseMatrix(6, 1);
-            busNum2Dv.add(mdV);
-        }
-        this.busNum2Dv = busNum2Dv;
+        this.busNum2Dv = new double[6 * nbBusses];
     }
 
     public void fillVoltageInFortescueVector(int busNum, double dVdx, double dVdy) {
-        this.busNum2Dv.get(busNum).add(2, 0, dVdx);
-        this.busNum2Dv.get(busNum).add(3, 0, dVdy);
+        int i = 6 * busNum;
+        busNum2Dv[i + 2] += dVdx;
+        busNum2Dv[i + 3] += dVdy;
     }
 
     public void fillVoltageInFortescueVector(int busNum, double dVdx, double dVdy, double dVox, double dVoy, double dVix, double dViy) {
-        this.busNum2Dv.get(busNum).add(0, 0, dVox);
-        this.busNum2Dv.get(busNum).add(1, 0, dVoy);
-        this.busNum2Dv.get(busNum).add(2, 0, dVdx);
-        this.busNum2Dv.get(busNum).add(3, 0, dVdy);
-        this.busNum2Dv.get(busNum).add(4, 0, dVix);
-        this.busNum2Dv.get(busNum).add(5, 0, dViy);
+        int i = 6 * busNum;
+        busNum2Dv[i] += dVox;
+        busNum2Dv[i + 1] += dVoy;
+        busNum2Dv[i + 2] += dVdx;
+        busNum2Dv[i + 3] += dVdy;
+        busNum2Dv[i + 4] += dVix;
+        busNum2Dv[i + 5] += dViy;
+    }
+
+    public FortescueComponents getBusDv(int busNum) {
+        int i = 6 * busNum;
+        return new FortescueComponents(busNum2Dv[i], busNum2Dv[i + 1], busNum2Dv[i + 2], busNum2Dv[i + 3], busNum2Dv[i + 4], busNum2Dv[i + 5]);
     }
 
     public void setLfNetwork(LfNetwork lfNetwork) {
         this.lfNetwork = lfNetwork;
     }
 
-    static DenseMatrix getAdmittanceMatrixBranch(LfBranch branch,
-                                                 AdmittanceEquationSystem.AdmittanceType admittanceType) {
-
-        // TODO : code duplicated with the admittance equation system, should be un-duplicated
-        PiModel piModel = branch.getPiModel();
-        if (piModel.getX() == 0) {
-            throw new IllegalArgumentException("Branch '" + branch.getId() + "' has reactance equal to zero");
-        }
-        double rho = piModel.getR1();
-        if (piModel.getZ() == 0) {
-            throw new IllegalArgumentException("Branch '" + branch.getId() + "' has Z equal to zero");
-        }
-        double zInvSquare = 1 / (piModel.getZ() * piModel.getZ());
-        double r = piModel.getR();
-        double x = piModel.getX();
-        double alpha = piModel.getA1();
-        double cosA = Math.cos(Math.toRadians(alpha));
-        double sinA = Math.sin(Math.toRadians(alpha));
-        double gPi1 = piModel.getG1();
-        double bPi1 = piModel.getB1();
-        double gPi2 = piModel.getG2();
-        double bPi2 = piModel.getB2();
-
-        double g12 = rho * zInvSquare * (r * cosA + x * sinA);
-        double b12 = -rho * zInvSquare * (x * cosA + r * sinA);
-        double g1g12sum = rho * rho * (gPi1 + r * zInvSquare);
-        double b1b12sum = rho * rho * (bPi1 - x * zInvSquare);
-        if (admittanceType == AdmittanceEquationSystem.AdmittanceType.ADM_THEVENIN_HOMOPOLAR) {
-            g12 = g12 * AdmittanceConstants.COEF_XO_XD; // Xo = 3 * Xd as a first approximation : TODO : improve when more data available
-            b12 = b12 * AdmittanceConstants.COEF_XO_XD;
-            g1g12sum = g1g12sum * AdmittanceConstants.COEF_XO_XD;
-            b1b12sum = b1b12sum * AdmittanceConstants.COEF_XO_XD;
-        }
-
-        double g21 = rho * zInvSquare * (r * cosA + x * sinA);
-        double b21 = rho * zInvSquare * (r * sinA - x * cosA);
-        double g2g21sum = r * zInvSquare + gPi2;
-        double b2b21sum = -x * zInvSquare + bPi2;
-        if (admittanceType == AdmittanceEquationSystem.AdmittanceType.ADM_THEVENIN_HOMOPOLAR) {
-            g21 = g21 * AdmittanceConstants.COEF_XO_XD; // Xo = 3 * Xd as a first approximation : TODO : improve when more data available
-            b21 = b21 * AdmittanceConstants.COEF_XO_XD;
-            g2g21sum = g2g21sum * AdmittanceConstants.COEF_XO_XD;
-            b2b21sum = b2b21sum * AdmittanceConstants.COEF_XO_XD;
-        }
-
-        DenseMatrix mAdmittance = new DenseMatrix(4, 4);
-        mAdmittance.add(0, 0, g1g12sum);
-        mAdmittance.add(0, 1, -b1b12sum);
-        mAdmittance.add(0, 2, -g12);
-        mAdmittance.add(0, 3, b12);
-        mAdmittance.add(1, 0, b1b12sum);
-        mAdmittance.add(1, 1, g1g12sum);
-        mAdmittance.add(1, 2, -b12);
-        mAdmittance.add(1, 3, -g12);
-        mAdmittance.add(2, 0, -g21);
-        mAdmittance.add(2, 1, b21);
-        mAdmittance.add(2, 2, g2g21sum);
-        mAdmittance.add(2, 3, -b2b21sum);
-        mAdmittance.add(3, 0, -b21);
-        mAdmittance.add(3, 1, -g21);
-        mAdmittance.add(3, 2, b2b21sum);
-        mAdmittance.add(3, 3, g2g21sum);
-
-        return mAdmittance.toDense();
-
+    /**
+     * Sets the LfNetwork of the short circuit data, whose branch admittances are shared by the feeders update of all the faults.
+     */
+    public void setNetworkData(ShortCircuitNetworkData networkData) {
+        this.networkData = Objects.requireNonNull(networkData);
+        this.lfNetwork = networkData.getNetwork();
     }
 
     // used for tests
@@ -474,6 +472,9 @@ public class ShortCircuitResult {
         for (LfBus bus : lfNetwork.getBuses()) {
             if (bus.getId().equals(busId)) {
                 FeedersAtBusResult resultFeeder = feedersAtBusResultsDirect.get(bus); // TODO : homopolar
+                if (resultFeeder == null) {
+                    continue; // bus out of the feeder scope
+                }
                 List<FeederResult> busFeedersResults = resultFeeder.getBusFeedersResult();
                 for (FeederResult feederResult : busFeedersResults) {
                     if (feederResult.getFeeder().getId().equals(feederId)) {
@@ -0,0 +1,288 @@
+/**
+ * Copyright (c) 2022, Jean-Baptiste Heyberger & Geoffroy Jamgotchian
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.incubator.simulator.shortcircuit;
+
+import com.powsybl.iidm.network.Bus;
+import com.powsybl.iidm.network.Network;
+import com.powsybl.iidm.network.VariantManager;
+import com.powsybl.incubator.simulator.util.AdmittanceEquationSystem;
+import com.powsybl.incubator.simulator.util.AdmittanceMatrixSnapshot;
+import com.powsybl.incubator.simulator.util.BaseImpedanceMatrix;
+import com.powsybl.incubator.simulator.util.ImpedanceLinearResolutionParameters;
+import com.powsybl.incubator.simulator.util.ShortCircuitNetworkContext;
+import com.powsybl.incubator.simulator.util.SimulatorMetrics;
+import com.powsybl.incubator.simulator.util.extensions.ShortCircuitNetworkData;
+import com.powsybl.openloadflow.ac.outerloop.AcLoadFlowParameters;
+import com.powsybl.openloadflow.network.LfBus;
+import com.powsybl.openloadflow.network.LfNetwork;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Short circuit results of the faults of the parameters over a sequence of variants of a network, for instance the
+ * hourly snapshots of a year. The variants with the same branches (same topology and branch parameters, see
+ * AdmittanceMatrixSnapshot.branchFingerprint) share a single factorized admittance matrix per sequence, built from the
+ * first of them: the other ones, whose matrices only differ in the shunts, loads and generators of some busses, get
+ * their Thevenin impedances by a low rank update of the shared matrix (see BaseImpedanceMatrix), unless they have more
+ * changed busses than the given maximum, which makes them factorize their own matrix. The variants may be
+ * computed concurrently by an executor, each task working on its own variant.
+ * As for queries, faults are only at busses, no voltage profile nor feeders are computed, the analysis type and the
+ * Kron elimination of the parameters are not used, and biphased common support faults are not supported.
+ *
+ * @author Jean-Baptiste Heyberger <jbheyberger at gmail.com>
+ */
+public class ShortCircuitTimeSeries {
+
+    private final Network network;
+
+    private final ShortCircuitEngineParameters parameters;
+
+    private final AcLoadFlowParameters acLoadFlowParameters;
+
+    private final int maxChangedBusCount;
+
+    private final int cacheSize;
+
+    private int factorizationCount = 0;
+
+    private int updatedVariantCount = 0; // variants with busses differing from the shared matrices
+
+    public ShortCircuitTimeSeries(Network network, ShortCircuitEngineParameters parameters) {
+        this(network, parameters, BaseImpedanceMatrix.DEFAULT_MAX_CHANGED_BUS_COUNT);
+    }
+
+    public ShortCircuitTimeSeries(Network network, ShortCircuitEngineParameters parameters, int maxChangedBusCount) {
+        this(network, parameters, maxChangedBusCount, BaseImpedanceMatrix.DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * The shared matrices keep the columns of their inverse of at most cacheSize busses (see BaseImpedanceMatrix), a
+     * cache size lower than the number of fault busses making each variant solve again the evicted ones.
+     */
+    public ShortCircuitTimeSeries(Network network, ShortCircuitEngineParameters parameters, int maxChangedBusCount, int cacheSize) {
+        this.network = Objects.requireNonNull(network);
+        this.parameters = Objects.requireNonNull(parameters);
+        if (maxChangedBusCount < 0) {
+            throw new IllegalArgumentException("Max changed bus count " + maxChangedBusCount + " must be positive");
+        }
+        if (cacheSize < 0) {
+            throw new IllegalArgumentException("Cache size " + cacheSize + " must be positive");
+        }
+        this.maxChangedBusCount = maxChangedBusCount;
+        this.cacheSize = cacheSize;
+        this.acLoadFlowParameters = AbstractShortCircuitEngine.getAcLoadFlowParameters(parameters);
+    }
+
+    /**
+     * Results of the faults per variant, in the order of the variants, a fault at a bus not connected to the main
+     * network of a variant having no result in this variant. Variants are computed by the given executor if not null,
+     * the network then having to allow multi thread access to its variants (see VariantManager.allowVariantMultiThreadAccess),
+     * and in the calling thread otherwise. The working variant of the calling thread is left unchanged.
+     */
+    public synchronized Map<String, Map<ShortCircuitFault, ShortCircuitResult>> run(List<String> variantIds, Executor executor) {
+        Objects.requireNonNull(variantIds);
+        VariantManager variantManager = network.getVariantManager();
+        if (new HashSet<>(variantIds).size() != variantIds.size()) {
+            throw new IllegalArgumentException("Variants of a short circuit time series must be distinct");
+        }
+        if (executor != null && !variantManager.isVariantMultiThreadAccessAllowed()) {
+            throw new IllegalArgumentException("Network " + network.getId() + " must allow multi thread access to its variants to compute a time series with an executor");
+        }
+        for (ShortCircuitFault scf : parameters.getShortCircuitFaults()) {
+            if (scf.isBranchFault() || scf.getType() == ShortCircuitFault.ShortCircuitType.BIPHASED_COMMON_SUPPORT) {
+                throw new IllegalArgumentException("Short circuit fault " + scf.getFaultId() + " : only faults at a bus are supported by time series");
+            }
+        }
+
+        factorizationCount = 0;
+        updatedVariantCount = 0;
+        Map<String, FutureTask<BaseImpedanceMatrix>> baseMatrices = new ConcurrentHashMap<>(); // by admittance type and branch fingerprint
+        String workingVariantId = variantManager.getWorkingVariantId();
+        List<FutureTask<VariantResults>> variantTasks = new ArrayList<>(variantIds.size());
+        try {
+            for (String variantId : variantIds) {
+                FutureTask<VariantResults> variantTask = new FutureTask<>(() -> runVariant(variantId, baseMatrices));
+                variantTasks.add(variantTask);
+                if (executor != null) {
+                    executor.execute(variantTask);
+                }
+            }
+
+            // results are gathered in the order of the variants
+            Map<String, Map<ShortCircuitFault, ShortCircuitResult>> resultsPerVariant = new LinkedHashMap<>();
+            for (int i = 0; i < variantIds.size(); i++) {
+                FutureTask<VariantResults> variantTask = variantTasks.get(i);
+                variantTask.run(); // does nothing if already done or running, otherwise avoids waiting for a saturated executor
+                VariantResults variantResults = get(variantTask);
+                resultsPerVariant.put(variantIds.get(i), Collections.unmodifiableMap(variantResults.resultsPerFault));
+                if (variantResults.updated) {
+                    updatedVariantCount++;
+                }
+                factorizationCount += variantResults.factorizationCount;
+            }
+            return resultsPerVariant;
+        } finally {
+            // after a failure, the variants not started are cancelled and the running ones awaited before closing the matrices
+            for (FutureTask<VariantResults> variantTask : variantTasks) {
+                variantTask.cancel(false);
+                awaitQuietly(variantTask);
+            }
+            for (FutureTask<BaseImpedanceMatrix> baseTask : baseMatrices.values()) {
+                baseTask.cancel(false); // no variant task is running anymore
+                BaseImpedanceMatrix baseMatrix = awaitQuietly(baseTask);
+                if (baseMatrix != null) {
+                    factorizationCount++;
+                    baseMatrix.close();
+                }
+            }
+            variantManager.setWorkingVariant(workingVariantId);
+        }
+    }
+
+    private static final class VariantResults {
+
+        private final Map<ShortCircuitFault, ShortCircuitResult> resultsPerFault = new LinkedHashMap<>();
+
+        private boolean updated = false;
+
+        private int factorizationCount = 0; // own matrices of the variant, factorized for too many changed busses
+    }
+
+    private VariantResults runVariant(String variantId, Map<String, FutureTask<BaseImpedanceMatrix>> baseMatrices) {
+        network.getVariantManager().setWorkingVariant(variantId);
+        ShortCircuitNetworkContext context = new ShortCircuitNetworkContext(network, parameters.getNormExtensions());
+        LfNetwork lfNetwork = context.getLfNetworks().get(0);
+        ShortCircuitNetworkData data = context.getNetworkData().get(0);
+
+        VariantResults variantResults = new VariantResults();
+        BaseImpedanceMatrix.Update direct = update(data, AdmittanceEquationSystem.AdmittanceType.ADM_THEVENIN, baseMatrices, variantResults);
+        BaseImpedanceMatrix.Update homopolar = null; // updated at the first fault to ground
+        try {
+            boolean calculatedVoltages = AbstractShortCircuitEngine.getAdmittanceVoltageProfileType(parameters) == AdmittanceEquationSystem.AdmittanceVoltageProfileType.CALCULATED;
+            for (ShortCircuitFault scf : parameters.getShortCircuitFaults()) {
+                Bus bus = network.getBusBreakerView().getBus(scf.getBusLocation());
+                LfBus lfBus = bus != null ? AbstractShortCircuitEngine.getLfBus(lfNetwork, bus) : null;
+                if (lfBus == null) {
+                    continue;
+                }
+
+                double[] zd = direct.getImpedance(lfBus);
+                double ethx = calculatedVoltages ? lfBus.getV() * Math.cos(lfBus.getAngle()) : 1.;
+                double ethy = calculatedVoltages ? lfBus.getV() * Math.sin(lfBus.getAngle()) : 0.;
+                ShortCircuitResult result;
+                if (scf.getType() == ShortCircuitFault.ShortCircuitType.TRIPHASED_GROUND) {
+                    result = ShortCircuitQueryService.buildBalancedResult(scf, lfBus, zd[0], zd[1], ethx, ethy, parameters.getNorm());
+                } else {
+                    double[] zo = {0., 0.};
+                    // biphased faults (without ground) have no homopolar current
+                    if (scf.getType() != ShortCircuitFault.ShortCircuitType.BIPHASED) {
+                        if (homopolar == null) {
+                            homopolar = update(data, AdmittanceEquationSystem.AdmittanceType.ADM_THEVENIN_HOMOPOLAR, baseMatrices, variantResults);
+                        }
+                        zo = homopolar.getImpedance(lfBus);
+                    }
+                    result = ShortCircuitQueryService.buildUnbalancedResult(scf, lfBus, zd[0], zd[1], zo[0], zo[1], ethx, ethy, parameters.getNorm());
+                }
+                variantResults.resultsPerFault.put(scf, result);
+            }
+        } finally {
+            // the updates release the matrices they have factorized
+            direct.close();
+            if (homopolar != null) {
+                homopolar.close();
+            }
+        }
+        return variantResults;
+    }
+
+    private BaseImpedanceMatrix.Update update(ShortCircuitNetworkData data, AdmittanceEquationSystem.AdmittanceType admittanceType,
+                                              Map<String, FutureTask<BaseImpedanceMatrix>> baseMatrices, VariantResults variantResults) {
+        ImpedanceLinearResolutionParameters linearResolutionParameters = new ImpedanceLinearResolutionParameters(acLoadFlowParameters,
+                parameters.getMatrixFactory(), new ArrayList<>(), false, AbstractShortCircuitEngine.getAdmittanceVoltageProfileType(parameters),
+                AbstractShortCircuitEngine.getAdmittancePeriodType(parameters), admittanceType, parameters.isIgnoreShunts());
+        // computed once per variant, for the key and the update
+        String branchFingerprint = AdmittanceMatrixSnapshot.branchFingerprint(data, linearResolutionParameters);
+        String key = admittanceType + "/" + branchFingerprint;
+
+        // the first variant of a branch fingerprint factorizes its matrix, the next ones wait for it
+        FutureTask<BaseImpedanceMatrix> baseTask = new FutureTask<>(() -> new BaseImpedanceMatrix(data, linearResolutionParameters, branchFingerprint,
+                maxChangedBusCount, cacheSize, new SimulatorMetrics()));
+        FutureTask<BaseImpedanceMatrix> existingTask = baseMatrices.putIfAbsent(key, baseTask);
+        if (existingTask != null) {
+            baseTask = existingTask;
+        }
+        baseTask.run();
+        BaseImpedanceMatrix.Update update = get(baseTask).update(data, branchFingerprint, new SimulatorMetrics());
+        if (update.isFactorized()) {
+            variantResults.factorizationCount++;
+        } else if (update.getChangedBusCount() > 0) {
+            variantResults.updated = true;
+        }
+        return update;
+    }
+
+    private static <T> T get(FutureTask<T> task) {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while computing a short circuit time series", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    // result of a task, null if failed or cancelled, the failure having been reported by the run
+    private static <T> T awaitQuietly(FutureTask<T> task) {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return task.get();
+                } catch (InterruptedException e) {
+                    interrupted = true; // the matrices cannot be closed before the end of the tasks using them
+                } catch (ExecutionException | CancellationException e) {
+                    return null;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Number of admittance matrices factorized by the last run: one per sequence and distinct branch fingerprint, and one
+     * per sequence of each variant with more changed busses than the maximum.
+     */
+    public synchronized int getFactorizationCount() {
+        return factorizationCount;
+    }
+
+    /**
+     * Number of variants of the last run whose matrices differ from the shared ones, their impedances being computed by
+     * a low rank update.
+     */
+    public synchronized int getUpdatedVariantCount() {
+        return updatedVariantCount;
+    }
+}
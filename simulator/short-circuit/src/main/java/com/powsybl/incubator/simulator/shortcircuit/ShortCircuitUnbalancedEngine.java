@@ -13,9 +13,10 @@ import com.powsybl.openloadflow.network.LfBus;
 import com.powsybl.openloadflow.network.LfNetwork;
 import org.apache.commons.math3.util.Pair;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
+
+import static com.powsybl.incubator.simulator.shortcircuit.ComplexKernel.mulX;
+import static com.powsybl.incubator.simulator.shortcircuit.ComplexKernel.mulY;
 
 /**
  * @author Jean-Baptiste Heyberger <jbheyberger at gmail.com>
@@ -26,77 +27,110 @@ public class ShortCircuitUnbalancedEngine extends AbstractShortCircuitEngine {
         super(network, parameters);
     }
 
+    public ShortCircuitUnbalancedEngine(ShortCircuitNetworkContext context, ShortCircuitEngineParameters parameters) {
+        super(context, parameters);
+    }
+
     @Override
-    public void run() {
+    public synchronized void run() {
         LfNetwork lfNetwork = lfNetworks.get(0);
 
-        if (parameters.getAnalysisType() == ShortCircuitEngineParameters.AnalysisType.SYSTEMATIC) {
-            buildSystematicList(ShortCircuitFault.ShortCircuitType.MONOPHASED); // TODO : by default it is monophased, could be changed to choose type of systematic default
-            // Biphased common support faults will not be supported yet in systematic
-        }
+        // TODO : by default systematic faults are monophased, could be changed to choose type of systematic default
+        // Biphased common support faults will not be supported yet in systematic
+        List<ShortCircuitFault> faults = initRun(ShortCircuitFault.ShortCircuitType.MONOPHASED);
 
         // We handle a pre-treatement of faults given in input:
         // - filtering of some inconsistencies on the bus identification
-        // - addition of info in each fault to ease the identification in LfNetwork of iidm info
-        Pair<List<CalculationLocation>, List<CalculationLocation>> faultLists = buildFaultListsFromInputs();
+        // - building of iidm info for each fault to ease the identification in LfNetwork
+        Pair<List<CalculationLocation>, List<CalculationLocation>> faultLists = buildFaultListsFromInputs(faults);
 
         solverFaultList = faultLists.getKey();
         solverBiphasedFaultList = faultLists.getValue();
+        if (!solverBranchFaultList.isEmpty()) {
+            throw new IllegalArgumentException("Short circuit fault " + solverBranchFaultList.get(0).getFaultId() + " : faults on branches are only supported for triphased faults");
+        }
+        metrics.addFaultCount(solverFaultList.size() + solverBiphasedFaultList.size());
 
-        ImpedanceLinearResolutionParameters admittanceLinearResolutionParametersHomopolar = new ImpedanceLinearResolutionParameters(acLoadFlowParameters,
-                parameters.getMatrixFactory(), solverFaultList, parameters.isVoltageUpdate(),
-                getAdmittanceVoltageProfileTypeFromParam(), getAdmittancePeriodTypeFromParam(), AdmittanceEquationSystem.AdmittanceType.ADM_THEVENIN_HOMOPOLAR,
-                parameters.isIgnoreShunts(), solverBiphasedFaultList);
-
+        // the direct matrix is needed by all the unbalanced faults, the homopolar one only by faults to ground
         ImpedanceLinearResolutionParameters admittanceLinearResolutionParametersDirect = new ImpedanceLinearResolutionParameters(acLoadFlowParameters,
-                parameters.getMatrixFactory(), solverFaultList, parameters.isVoltageUpdate(),
+                parameters.getMatrixFactory(), solverFaultList, voltageUpdate,
                 getAdmittanceVoltageProfileTypeFromParam(), getAdmittancePeriodTypeFromParam(), AdmittanceEquationSystem.AdmittanceType.ADM_THEVENIN,
                 parameters.isIgnoreShunts(), solverBiphasedFaultList);
-
-        ImpedanceLinearResolution directResolution = new ImpedanceLinearResolution(lfNetwork, admittanceLinearResolutionParametersDirect);
-        ImpedanceLinearResolution homopolarResolution = new ImpedanceLinearResolution(lfNetwork, admittanceLinearResolutionParametersHomopolar);
-
+        setResolutionOptions(admittanceLinearResolutionParametersDirect);
+        ImpedanceLinearResolution directResolution = new ImpedanceLinearResolution(context.getNetworkData().get(0), admittanceLinearResolutionParametersDirect, metrics);
         directResolution.run();
-        homopolarResolution.run();
+
+        ImpedanceLinearResolution homopolarResolution = null;
+        if (isHomopolarNeeded()) {
+            ImpedanceLinearResolutionParameters admittanceLinearResolutionParametersHomopolar = new ImpedanceLinearResolutionParameters(acLoadFlowParameters,
+                    parameters.getMatrixFactory(), solverFaultList, voltageUpdate,
+                    getAdmittanceVoltageProfileTypeFromParam(), getAdmittancePeriodTypeFromParam(), AdmittanceEquationSystem.AdmittanceType.ADM_THEVENIN_HOMOPOLAR,
+                    parameters.isIgnoreShunts(), solverBiphasedFaultList);
+            setResolutionOptions(admittanceLinearResolutionParametersHomopolar);
+            homopolarResolution = new ImpedanceLinearResolution(context.getNetworkData().get(0), admittanceLinearResolutionParametersHomopolar, metrics);
+            homopolarResolution.run();
+        }
 
         //Build the ShortCircuit results using the linear resolution computation results
-        resultsPerFault.clear();
-        processAdmittanceLinearResolutionResults(lfNetwork, directResolution, homopolarResolution, ShortCircuitFault.ShortCircuitType.MONOPHASED);
-        processAdmittanceLinearResolutionResults(lfNetwork, directResolution, homopolarResolution, ShortCircuitFault.ShortCircuitType.BIPHASED);
-        processAdmittanceLinearResolutionResults(lfNetwork, directResolution, homopolarResolution, ShortCircuitFault.ShortCircuitType.BIPHASED_GROUND);
-        processAdmittanceLinearResolutionResults(lfNetwork, directResolution, homopolarResolution, ShortCircuitFault.ShortCircuitType.BIPHASED_COMMON_SUPPORT);
+        ImpedanceLinearResolution finalHomopolarResolution = homopolarResolution;
+        processResults(() -> processAdmittanceLinearResolutionResults(lfNetwork, directResolution, finalHomopolarResolution));
     }
 
-    public void processAdmittanceLinearResolutionResults(LfNetwork lfNetwork, ImpedanceLinearResolution directResolution, ImpedanceLinearResolution homopolarResolution, ShortCircuitFault.ShortCircuitType shortCircuitType) {
+    // biphased faults (without ground) have no homopolar current and only need the direct matrix
+    private boolean isHomopolarNeeded() {
+        if (!solverBiphasedFaultList.isEmpty()) {
+            return true;
+        }
+        for (CalculationLocation calculationLocation : solverFaultList) {
+            ShortCircuitFault.ShortCircuitType type = ((ShortCircuitFault) calculationLocation).getType();
+            if (type == ShortCircuitFault.ShortCircuitType.MONOPHASED || type == ShortCircuitFault.ShortCircuitType.BIPHASED_GROUND) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Builds the results of all the faults in a single pass over the linear resolution results.
+     * The homopolar resolution may be null if there is no fault to ground.
+     */
+    public void processAdmittanceLinearResolutionResults(LfNetwork lfNetwork, ImpedanceLinearResolution directResolution, ImpedanceLinearResolution homopolarResolution) {
+
+        // faults indexed by their LfBus, in the order of the input lists
+        Map<LfBus, List<ShortCircuitFault>> faultsByBus = new HashMap<>();
+        for (CalculationLocation calculationLocation : solverFaultList) {
+            ShortCircuitFault scf = (ShortCircuitFault) calculationLocation;
+            LfBus bus = directResolution.getLocationBus(scf);
+            if (bus != null) {
+                faultsByBus.computeIfAbsent(bus, k -> new ArrayList<>()).add(scf);
+            }
+        }
+        for (CalculationLocation calculationLocation : solverBiphasedFaultList) {
+            ShortCircuitFault scf = (ShortCircuitFault) calculationLocation;
+            LfBus bus = directResolution.getLocationBus(scf);
+            if (bus != null) {
+                faultsByBus.computeIfAbsent(bus, k -> new ArrayList<>()).add(scf);
+            }
+        }
+
+        // results are gathered by type to be recorded type after type
+        Map<ShortCircuitFault.ShortCircuitType, Map<ShortCircuitFault, ShortCircuitResult>> resultsPerType = new LinkedHashMap<>();
+        resultsPerType.put(ShortCircuitFault.ShortCircuitType.MONOPHASED, new LinkedHashMap<>());
+        resultsPerType.put(ShortCircuitFault.ShortCircuitType.BIPHASED, new LinkedHashMap<>());
+        resultsPerType.put(ShortCircuitFault.ShortCircuitType.BIPHASED_GROUND, new LinkedHashMap<>());
+        resultsPerType.put(ShortCircuitFault.ShortCircuitType.BIPHASED_COMMON_SUPPORT, new LinkedHashMap<>());
 
         int numResult = 0;
-        for (ImpedanceLinearResolution.ImpedanceLinearResolutionResult directResult : directResolution.results) {
+        for (ImpedanceLinearResolution.ImpedanceLinearResolutionResult directResult : directResolution.getResults()) {
 
-            ImpedanceLinearResolution.ImpedanceLinearResolutionResult homopolarResult = homopolarResolution.results.get(numResult);
+            ImpedanceLinearResolution.ImpedanceLinearResolutionResult homopolarResult = homopolarResolution != null ? homopolarResolution.getResults().get(numResult) : null;
             numResult++;
 
             LfBus lfBus1 = directResult.getBus();
 
-            List<ShortCircuitFault> matchingFaultsAtBus1 = new ArrayList<>(); //We build a list of all faults with bus1 matching with bus1 of ImpedanceLinearResolutionResult
-
-            if (shortCircuitType == ShortCircuitFault.ShortCircuitType.MONOPHASED
-                    || shortCircuitType == ShortCircuitFault.ShortCircuitType.BIPHASED
-                    || shortCircuitType == ShortCircuitFault.ShortCircuitType.BIPHASED_GROUND) {
-                for (CalculationLocation calculationLocation : solverFaultList) {
-                    ShortCircuitFault scfe = (ShortCircuitFault) calculationLocation;
-                    if (lfBus1.getId().equals(scfe.getLfBusInfo()) && scfe.getType() == shortCircuitType) {
-                        matchingFaultsAtBus1.add(scfe);
-                    }
-                }
-            }
-
-            if (shortCircuitType == ShortCircuitFault.ShortCircuitType.BIPHASED_COMMON_SUPPORT) {
-                for (CalculationLocation calculationLocation : solverBiphasedFaultList) {
-                    ShortCircuitFault scfe = (ShortCircuitFault) calculationLocation;
-                    if (lfBus1.getId().equals(scfe.getLfBusInfo()) && scfe.getType() == shortCircuitType) {
-                        matchingFaultsAtBus1.add(scfe);
-                    }
-                }
+            List<ShortCircuitFault> faultsAtBus1 = faultsByBus.remove(lfBus1); // null if already processed for a previous result at this bus
+            if (faultsAtBus1 == null) {
+                continue;
             }
 
             double v1dxInit = directResult.getEthr();
@@ -105,55 +139,51 @@ public class ShortCircuitUnbalancedEngine extends AbstractShortCircuitEngine {
             double rdf = directResult.getRthz11();
             double xdf = directResult.getXthz12();
 
-            double rof = homopolarResult.getRthz11();
-            double xof = homopolarResult.getXthz12();
+            double rof = homopolarResult != null ? homopolarResult.getRthz11() : 0.;
+            double xof = homopolarResult != null ? homopolarResult.getXthz12() : 0.;
 
-            for (ShortCircuitFault scf : matchingFaultsAtBus1) {
+            for (ShortCircuitFault scf : faultsAtBus1) {
+
+                ShortCircuitFault.ShortCircuitType shortCircuitType = scf.getType();
+                Map<ShortCircuitFault, ShortCircuitResult> typeResults = resultsPerType.get(shortCircuitType);
+                if (typeResults == null) {
+                    continue; // not an unbalanced fault
+                }
 
                 double rf = scf.getZfr();
                 double xf = scf.getZfi();
 
-                DenseMatrix mIo = new DenseMatrix(2, 1);
-                DenseMatrix mId = new DenseMatrix(2, 1);
-                DenseMatrix mIi = new DenseMatrix(2, 1);
+                FortescueComponents i;
 
                 ShortCircuitResult res;
 
-                if (shortCircuitType == ShortCircuitFault.ShortCircuitType.MONOPHASED
-                        || shortCircuitType == ShortCircuitFault.ShortCircuitType.BIPHASED
-                        || shortCircuitType == ShortCircuitFault.ShortCircuitType.BIPHASED_GROUND) {
+                if (shortCircuitType != ShortCircuitFault.ShortCircuitType.BIPHASED_COMMON_SUPPORT) {
                     if (shortCircuitType == ShortCircuitFault.ShortCircuitType.MONOPHASED) {
                         MonophasedShortCircuitCalculator monophasedCalculator = new MonophasedShortCircuitCalculator(rdf, xdf, rof, xof, rf, xf, v1dxInit, v1dyInit);
                         monophasedCalculator.computeCurrents();
 
-                        mIo = monophasedCalculator.getmIo();
-                        mId = monophasedCalculator.getmId();
-                        mIi = monophasedCalculator.getmIi();
+                        i = monophasedCalculator.getCurrents();
 
                     } else if (shortCircuitType == ShortCircuitFault.ShortCircuitType.BIPHASED) {
                         BiphasedShortCircuitCalculator biphasedCalculator = new BiphasedShortCircuitCalculator(rdf, xdf, rof, xof, rf, xf, v1dxInit, v1dyInit);
                         biphasedCalculator.computeCurrents();
 
-                        mIo = biphasedCalculator.getmIo();
-                        mId = biphasedCalculator.getmId();
-                        mIi = biphasedCalculator.getmIi();
-                    } else if (shortCircuitType == ShortCircuitFault.ShortCircuitType.BIPHASED_GROUND) {
+                        i = biphasedCalculator.getCurrents();
+                    } else {
                         BiphasedGroundShortCircuitCalculator biphasedGrCalculator = new BiphasedGroundShortCircuitCalculator(rdf, xdf, rof, xof, rf, xf, v1dxInit, v1dyInit);
                         biphasedGrCalculator.computeCurrents();
 
-                        mIo = biphasedGrCalculator.getmIo();
-                        mId = biphasedGrCalculator.getmId();
-                        mIi = biphasedGrCalculator.getmIi();
+                        i = biphasedGrCalculator.getCurrents();
                     }
 
-                    res =  buildUnbalancedResult(mId, mIo, mIi, rdf, xdf, rof, xof,
+                    res =  buildUnbalancedResult(i, rdf, xdf, rof, xof,
                             directResult, homopolarResult,
                             scf, lfBus1, v1dxInit, v1dyInit, lfNetwork);
 
-                    res.updateFeedersResult(); // feeders are updated only if voltageUpdate is made. TODO : see if update of homopolar feeders are to be updated
-                    resultsPerFault.put(scf, res);
+                    res.updateFeedersResult(parameters); // feeders are updated only if voltageUpdate is made. TODO : see if update of homopolar feeders are to be updated
+                    typeResults.put(scf, res);
 
-                } else if (shortCircuitType == ShortCircuitFault.ShortCircuitType.BIPHASED_COMMON_SUPPORT) {
+                } else {
 
                     int numBiphasedResult = 0;
                     ImpedanceLinearResolution.ImpedanceLinearResolutionResult.ImpedanceLinearResolutionResultBiphased biphasedHomopolarResult;
@@ -162,7 +192,7 @@ public class ShortCircuitUnbalancedEngine extends AbstractShortCircuitEngine {
                         numBiphasedResult++;
 
                         LfBus lfBus2 = biphasedDirectResult.getBus2();
-                        if (lfBus2.getId().equals(scf.getLfBus2Info())) {
+                        if (lfBus2 == directResolution.getLocationBus2(scf)) {
 
                             double ro12 = biphasedHomopolarResult.getZ12txx();
                             double xo12 = -biphasedHomopolarResult.getZ12txy();
@@ -199,31 +229,23 @@ public class ShortCircuitUnbalancedEngine extends AbstractShortCircuitEngine {
                             }
 
                             //biphasedCommonCalculator.computeCurrents();
-                            mIo = biphasedCommonCalculator.getmIo();
-                            mId = biphasedCommonCalculator.getmId();
-                            mIi = biphasedCommonCalculator.getmIi();
-
-                            DenseMatrix mI2o = biphasedCommonCalculator.getmI2o();
-                            DenseMatrix mI2d = biphasedCommonCalculator.getmI2d();
-                            DenseMatrix mI2i = biphasedCommonCalculator.getmI2i();
+                            i = biphasedCommonCalculator.getCurrents();
+                            FortescueComponents i2 = biphasedCommonCalculator.getI2();
 
                             //biphasedCommonCalculator.computeVoltages();
-                            DenseMatrix mdVo = biphasedCommonCalculator.getmVo(); // Contains variations of voltages, without Vinit
-                            DenseMatrix mdVd = biphasedCommonCalculator.getmVd(); // each voltage vector contains [V1x; V1y; V2x; V2y]
-                            DenseMatrix mdVi = biphasedCommonCalculator.getmVi();
-
-                            //LfBus lfBus2 = biphasedDirectResult.getBus2();
+                            FortescueComponents dv1 = biphasedCommonCalculator.getDv1(); // Contains variations of voltages, without Vinit
+                            FortescueComponents dv2 = biphasedCommonCalculator.getDv2();
 
                             double v2dxInit = biphasedDirectResult.getV2x();
                             double v2dyInit = biphasedDirectResult.getV2y();
 
-                            res =  buildUnbalancedCommunSuppportResult(mId, mIo, mIi, mI2d, mI2o, mI2i, mdVd, mdVo, mdVi, rdf, xdf, rof, xof,
+                            res =  buildUnbalancedCommunSuppportResult(i, i2, dv1, dv2, rdf, xdf, rof, xof,
                                     directResult, homopolarResult, scf,
                                     lfBus1, v1dxInit, v1dyInit, lfNetwork,
                                     lfBus2, v2dxInit, v2dyInit, biphasedDirectResult, biphasedHomopolarResult);
 
-                            res.updateFeedersResult(); // feeders are updated only if voltageUpdate is made. TODO : see if update of homopolar feeders are to be updated
-                            resultsPerFault.put(scf, res);
+                            res.updateFeedersResult(parameters); // feeders are updated only if voltageUpdate is made. TODO : see if update of homopolar feeders are to be updated
+                            typeResults.put(scf, res);
 
                         } else {
                             throw new IllegalArgumentException(" Post-processing of short circuit type = " + shortCircuitType + "not yet implemented");
@@ -232,9 +254,13 @@ public class ShortCircuitUnbalancedEngine extends AbstractShortCircuitEngine {
                 }
             }
         }
+
+        for (Map<ShortCircuitFault, ShortCircuitResult> typeResults : resultsPerType.values()) {
+            resultsPerFault.putAll(typeResults);
+        }
     }
 
-    public ShortCircuitResult buildUnbalancedResult(DenseMatrix mId, DenseMatrix mIo, DenseMatrix mIi, double rdf, double xdf, double rof, double xof,
+    public ShortCircuitResult buildUnbalancedResult(FortescueComponents i, double rdf, double xdf, double rof, double xof,
                                                     ImpedanceLinearResolution.ImpedanceLinearResolutionResult directResult,
                                                     ImpedanceLinearResolution.ImpedanceLinearResolutionResult homopolarResult,
                                                     ShortCircuitFault scf, LfBus lfBus1, double v1dxInit, double v1dyInit,
@@ -244,30 +270,23 @@ public class ShortCircuitUnbalancedEngine extends AbstractShortCircuitEngine {
         // [vox]      [ rof  -xof ]   [ iox ]
         // [voy] = -  [ xof   rof ] * [ ioy ]
 
-        DenseMatrix zof = getZ(rof, xof);
-        DenseMatrix zdf = getZ(rdf, xdf);
-
-        DenseMatrix minusVo = zof.times(mIo).toDense();
-        DenseMatrix minusVd = zdf.times(mId).toDense();
-        DenseMatrix minusVi = zdf.times(mIi).toDense();
+        FortescueComponents dv = new FortescueComponents(
+                -mulX(rof, xof, i.getHomopolarX(), i.getHomopolarY()), -mulY(rof, xof, i.getHomopolarX(), i.getHomopolarY()),
+                -mulX(rdf, xdf, i.getDirectX(), i.getDirectY()), -mulY(rdf, xdf, i.getDirectX(), i.getDirectY()),
+                -mulX(rdf, xdf, i.getInverseX(), i.getInverseY()), -mulY(rdf, xdf, i.getInverseX(), i.getInverseY()));
 
         //record the results
         FeedersAtNetwork equationSystemFeedersDirect =  directResult.getEqSysFeeders();
-        FeedersAtNetwork equationSystemFeedersHomopolar =  homopolarResult.getEqSysFeeders();
+        FeedersAtNetwork equationSystemFeedersHomopolar =  homopolarResult != null ? homopolarResult.getEqSysFeeders() : null;
 
         ShortCircuitResult res = new ShortCircuitResult(scf, lfBus1,
-                mId.get(0, 0), mId.get(1, 0),
-                mIo.get(0, 0), mIo.get(1, 0),
-                mIi.get(0, 0), mIi.get(1, 0),
+                i,
                 rdf, xdf, rof, xof, rdf, xdf,
-                v1dxInit, v1dyInit,
-                -minusVd.get(0, 0), -minusVd.get(1, 0),
-                -minusVo.get(0, 0), -minusVo.get(1, 0),
-                -minusVi.get(0, 0), -minusVi.get(1, 0),
+                v1dxInit, v1dyInit, dv,
                 equationSystemFeedersDirect, equationSystemFeedersHomopolar, parameters.getNorm());
 
-        if (parameters.isVoltageUpdate()) {
-            res.setLfNetwork(lfNetwork);
+        if (voltageUpdate) {
+            res.setNetworkData(context.getNetworkData().get(0));
             res.setTrueVoltageProfileUpdate();
             // The post-fault voltage values for the network busses are computed as follow :
             // [ Vof ] = -inv(Yo) * M * [ Iof ]
@@ -286,25 +305,29 @@ public class ShortCircuitUnbalancedEngine extends AbstractShortCircuitEngine {
                 double edVr = vd.getValue().get(0, 0);
                 double edVi = vd.getValue().get(1, 0);
 
-                double idr = -mId.get(0, 0);
-                double idi = -mId.get(1, 0);
+                double idr = -i.getDirectX();
+                double idi = -i.getDirectY();
 
                 double deltaVdr = -idr * edVr + idi * edVi;
                 double deltaVdi = -idr * edVi - idi * edVr;
 
                 //inverse
-                double iir = -mIi.get(0, 0);
-                double iii = -mIi.get(1, 0);
+                double iir = -i.getInverseX();
+                double iii = -i.getInverseY();
 
                 double deltaVir = -iir * edVr + iii * edVi;
                 double deltaVii = -iir * edVi - iii * edVr;
 
-                //homopolar
-                double eoVr = homopolarResult.getDv().get(busNum).get(0, 0);
-                double eoVi = homopolarResult.getDv().get(busNum).get(1, 0);
+                //homopolar, no variation if there is no homopolar current
+                double eoVr = 0.;
+                double eoVi = 0.;
+                if (homopolarResult != null) {
+                    eoVr = homopolarResult.getDv().get(busNum).get(0, 0);
+                    eoVi = homopolarResult.getDv().get(busNum).get(1, 0);
+                }
 
-                double ior = -mIo.get(0, 0);
-                double ioi = -mIo.get(1, 0);
+                double ior = -i.getHomopolarX();
+                double ioi = -i.getHomopolarY();
 
                 double deltaVor = -ior * eoVr + ioi * eoVi;
                 double deltaVoi = -ior * eoVi - ioi * eoVr;
@@ -318,7 +341,7 @@ public class ShortCircuitUnbalancedEngine extends AbstractShortCircuitEngine {
         return res;
     }
 
-    public ShortCircuitResult buildUnbalancedCommunSuppportResult(DenseMatrix mId, DenseMatrix mIo, DenseMatrix mIi, DenseMatrix mI2d, DenseMatrix mI2o, DenseMatrix mI2i, DenseMatrix mVd, DenseMatrix mVo, DenseMatrix mVi, double rdf, double xdf, double rof, double xof,
+    public ShortCircuitResult buildUnbalancedCommunSuppportResult(FortescueComponents i, FortescueComponents i2, FortescueComponents dv1, FortescueComponents dv2, double rdf, double xdf, double rof, double xof,
                                                                   ImpedanceLinearResolution.ImpedanceLinearResolutionResult directResult,
                                                                   ImpedanceLinearResolution.ImpedanceLinearResolutionResult homopolarResult, ShortCircuitFault scf,
                                                                   LfBus lfBus1, double v1dxInit, double v1dyInit, LfNetwork lfNetwork,
@@ -331,26 +354,15 @@ public class ShortCircuitUnbalancedEngine extends AbstractShortCircuitEngine {
         FeedersAtNetwork equationSystemFeedersHomopolar =  homopolarResult.getEqSysFeeders();
 
         ShortCircuitResult res = new ShortCircuitResult(scf, lfBus1,
-                mId.toDense().get(0, 0), mId.toDense().get(1, 0),
-                mIo.toDense().get(0, 0), mIo.toDense().get(1, 0),
-                mIi.toDense().get(0, 0), mIi.toDense().get(1, 0),
+                i,
                 rdf, xdf, rof, xof, rdf, xdf,
-                v1dxInit, v1dyInit,
-                mVd.toDense().get(0, 0), mVd.toDense().get(1, 0),
-                mVo.toDense().get(0, 0), mVo.toDense().get(1, 0),
-                mVi.toDense().get(0, 0), mVi.toDense().get(1, 0),
+                v1dxInit, v1dyInit, dv1,
                 equationSystemFeedersDirect, equationSystemFeedersHomopolar, parameters.getNorm(),
-                mI2d.toDense().get(0, 0), mI2d.toDense().get(1, 0),
-                mI2o.toDense().get(0, 0), mI2o.toDense().get(1, 0),
-                mI2i.toDense().get(0, 0), mI2i.toDense().get(1, 0),
-                v2dxInit, v2dyInit,
-                mVd.toDense().get(2, 0), mVd.toDense().get(3, 0),
-                mVo.toDense().get(2, 0), mVo.toDense().get(3, 0),
-                mVi.toDense().get(2, 0), mVi.toDense().get(3, 0),
+                i2, v2dxInit, v2dyInit, dv2,
                 lfBus2);
 
-        if (parameters.isVoltageUpdate()) {
-            res.setLfNetwork(lfNetwork);
+        if (voltageUpdate) {
+            res.setNetworkData(context.getNetworkData().get(0));
             res.setTrueVoltageProfileUpdate();
             // The post-fault voltage values for the network busses are computed as follow :
             // [ Vof ] = -inv(Yo) * M * [ Iof ]
@@ -371,19 +383,19 @@ public class ShortCircuitUnbalancedEngine extends AbstractShortCircuitEngine {
                 double edV2r = biphasedDirectResult.getDv2().get(busNum).get(0, 0);
                 double edV2i = biphasedDirectResult.getDv2().get(busNum).get(1, 0);
 
-                double idr = -mId.toDense().get(0, 0);
-                double idi = -mId.toDense().get(1, 0);
-                double i2dr = -mI2d.toDense().get(0, 0);
-                double i2di = -mI2d.toDense().get(1, 0);
+                double idr = -i.getDirectX();
+                double idi = -i.getDirectY();
+                double i2dr = -i2.getDirectX();
+                double i2di = -i2.getDirectY();
 
                 double deltaVdr = -idr * edVr + idi * edVi - i2dr * edV2r + i2di * edV2i;
                 double deltaVdi = -idr * edVi - idi * edVr - i2dr * edV2i - i2di * edV2r;
 
                 //inverse
-                double iir = -mIi.toDense().get(0, 0);
-                double iii = -mIi.toDense().get(1, 0);
-                double i2ir = -mI2i.toDense().get(0, 0);
-                double i2ii = -mI2i.toDense().get(1, 0);
+                double iir = -i.getInverseX();
+                double iii = -i.getInverseY();
+                double i2ir = -i2.getInverseX();
+                double i2ii = -i2.getInverseY();
 
                 double deltaVir = -iir * edVr + iii * edVi - i2ir * edV2r - i2ii * edV2i;
                 double deltaVii = -iir * edVi - iii * edVr - i2ir * edV2i - i2ii * edV2r;
@@ -394,10 +406,10 @@ public class ShortCircuitUnbalancedEngine extends AbstractShortCircuitEngine {
                 double eoV2r = biphasedHomopolarResult.getDv2().get(busNum).get(0, 0);
                 double eoV2i = biphasedHomopolarResult.getDv2().get(busNum).get(1, 0);
 
-                double ior = -mIo.toDense().get(0, 0);
-                double ioi = -mIo.toDense().get(1, 0);
-                double i2or = -mI2o.toDense().get(0, 0);
-                double i2oi = -mI2o.toDense().get(1, 0);
+                double ior = -i.getHomopolarX();
+                double ioi = -i.getHomopolarY();
+                double i2or = -i2.getHomopolarX();
+                double i2oi = -i2.getHomopolarY();
 
                 double deltaVor = -ior * eoVr + ioi * eoVi - i2or * eoV2r + i2oi * eoV2i;
                 double deltaVoi = -ior * eoVi - ioi * eoVr - i2or * eoV2i - i2oi * eoV2r;
@@ -408,15 +420,4 @@ public class ShortCircuitUnbalancedEngine extends AbstractShortCircuitEngine {
 
         return res;
     }
-
-    public static DenseMatrix getZ(double r, double x) {
-        DenseMatrix z =  new DenseMatrix(2, 2);
-        z.add(0, 0, r);
-        z.add(0, 1, -x);
-        z.add(1, 0, x);
-        z.add(1, 1, r);
-
-        return z;
-    }
-
 }
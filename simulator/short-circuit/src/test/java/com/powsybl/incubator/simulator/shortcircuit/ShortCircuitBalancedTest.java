@@ -11,6 +11,8 @@ import com.powsybl.computation.local.LocalComputationManager;
 import com.powsybl.iidm.network.*;
 import com.powsybl.iidm.network.extensions.GeneratorShortCircuitAdder;
 import com.powsybl.incubator.simulator.util.ReferenceNetwork;
+import com.powsybl.incubator.simulator.util.ShortCircuitNetworkContext;
+import com.powsybl.incubator.simulator.util.SimulatorMetrics;
 import com.powsybl.incubator.simulator.util.extensions.ThreeWindingsTransformerNorm;
 import com.powsybl.incubator.simulator.util.extensions.iidm.ThreeWindingsTransformerFortescue;
 import com.powsybl.loadflow.LoadFlow;
@@ -20,13 +22,23 @@ import com.powsybl.math.matrix.DenseMatrixFactory;
 import com.powsybl.math.matrix.MatrixFactory;
 import com.powsybl.openloadflow.OpenLoadFlowProvider;
 import com.powsybl.shortcircuit.*;
+import org.apache.commons.math3.util.Pair;
 import org.joda.time.DateTime;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * @author Jean-Baptiste Heyberger <jbheyberger at gmail.com>
@@ -75,6 +87,330 @@ public class ShortCircuitBalancedTest {
 
     }
 
+    @Test
+    void feederScopeTest() {
+        Network nt2 = create2n(NetworkFactory.findDefault());
+        loadFlowRunner.run(nt2, parameters);
+
+        ShortCircuitFault sc2 = new ShortCircuitFault("B2", "sc2", 0., 0., ShortCircuitFault.ShortCircuitType.TRIPHASED_GROUND);
+        ShortCircuitEngineParameters scbParameters = new ShortCircuitEngineParameters(new LoadFlowParameters(), matrixFactory, ShortCircuitEngineParameters.AnalysisType.SELECTIVE,
+                List.of(sc2), true, ShortCircuitEngineParameters.VoltageProfileType.CALCULATED, false, ShortCircuitEngineParameters.PeriodType.TRANSIENT, new ShortCircuitNormNone());
+        ShortCircuitBalancedEngine scbEngine = new ShortCircuitBalancedEngine(nt2, scbParameters);
+        scbEngine.run();
+        ShortCircuitResult result = scbEngine.resultsPerFault.get(sc2);
+        assertEquals(2, result.getFeedersAtBusResultsDirect().size());
+
+        // feeders of the faulted bus only
+        scbParameters.setFeederScope(ShortCircuitEngineParameters.FeederScope.FAULTED_BUS);
+        result.updateFeedersResult(scbParameters);
+        assertEquals(1, result.getFeedersAtBusResultsDirect().size());
+        assertEquals("VL_2_0", result.getFeedersAtBusResultsDirect().keySet().iterator().next().getId());
+        assertEquals(0., result.getIxFeeder("VL_1_0", "G1"), 0.);
+
+        // feeders of the busses one branch away from the faulted bus
+        scbParameters.setFeederScope(ShortCircuitEngineParameters.FeederScope.NEIGHBOURHOOD);
+        result.updateFeedersResult(scbParameters);
+        assertEquals(2, result.getFeedersAtBusResultsDirect().size());
+        assertEquals(-0.5197272846952616, result.getIxFeeder("VL_1_0", "G1"), 0.000001);
+
+        // feeders of the busses of a voltage level
+        scbParameters.setFeederScope(ShortCircuitEngineParameters.FeederScope.VOLTAGE_LEVELS);
+        scbParameters.setFeederVoltageLevelIds(Set.of("VL_1"));
+        result.updateFeedersResult(scbParameters);
+        assertEquals(1, result.getFeedersAtBusResultsDirect().size());
+        assertEquals(-0.5197272846952616, result.getIxFeeder("VL_1_0", "G1"), 0.000001);
+
+        assertThrows(IllegalArgumentException.class, () -> scbParameters.setFeederNeighbourhoodDepth(-1));
+    }
+
+    @Test
+    void branchFaultTest() {
+        Network nt2 = create2n(NetworkFactory.findDefault());
+        loadFlowRunner.run(nt2, parameters);
+
+        ShortCircuitFault sc1 = new ShortCircuitFault("B1", "sc1", 0., 0., ShortCircuitFault.ShortCircuitType.TRIPHASED_GROUND);
+        ShortCircuitFault sc2 = new ShortCircuitFault("B2", "sc2", 0., 0., ShortCircuitFault.ShortCircuitType.TRIPHASED_GROUND);
+        ShortCircuitEngineParameters busParameters = new ShortCircuitEngineParameters(new LoadFlowParameters(), matrixFactory, ShortCircuitEngineParameters.AnalysisType.SELECTIVE,
+                List.of(sc1, sc2), false, ShortCircuitEngineParameters.VoltageProfileType.CALCULATED, false, ShortCircuitEngineParameters.PeriodType.TRANSIENT, new ShortCircuitNormNone());
+        ShortCircuitBalancedEngine busEngine = new ShortCircuitBalancedEngine(nt2, busParameters);
+        busEngine.run();
+
+        ShortCircuitFault lineStart = new ShortCircuitFault("B1_B2", 0., "lineStart", 0., 0., ShortCircuitFault.ShortCircuitType.TRIPHASED_GROUND);
+        ShortCircuitFault lineMiddle = new ShortCircuitFault("B1_B2", 0.5, "lineMiddle", 0., 0., ShortCircuitFault.ShortCircuitType.TRIPHASED_GROUND);
+        ShortCircuitFault lineEnd = new ShortCircuitFault("B1_B2", 1., "lineEnd", 0., 0., ShortCircuitFault.ShortCircuitType.TRIPHASED_GROUND);
+        ShortCircuitEngineParameters branchParameters = new ShortCircuitEngineParameters(new LoadFlowParameters(), matrixFactory, ShortCircuitEngineParameters.AnalysisType.SELECTIVE,
+                List.of(lineStart, lineMiddle, lineEnd), true, ShortCircuitEngineParameters.VoltageProfileType.CALCULATED, false, ShortCircuitEngineParameters.PeriodType.TRANSIENT, new ShortCircuitNormNone());
+        ShortCircuitBalancedEngine branchEngine = new ShortCircuitBalancedEngine(nt2, branchParameters);
+        branchEngine.run();
+
+        // all the branch faults are computed with a single factorization
+        assertEquals(1, branchEngine.getMetrics().getMatrixCount());
+        assertEquals(3, branchEngine.resultsPerFault.size());
+
+        // a fault at a line end is a fault at its bus
+        assertEquals(busEngine.resultsPerFault.get(sc1).getIdx(), branchEngine.resultsPerFault.get(lineStart).getIdx(), 0.000001);
+        assertEquals(busEngine.resultsPerFault.get(sc1).getIdy(), branchEngine.resultsPerFault.get(lineStart).getIdy(), 0.000001);
+        assertEquals(busEngine.resultsPerFault.get(sc2).getIdx(), branchEngine.resultsPerFault.get(lineEnd).getIdx(), 0.000001);
+        assertEquals(busEngine.resultsPerFault.get(sc2).getIdy(), branchEngine.resultsPerFault.get(lineEnd).getIdy(), 0.000001);
+
+        // the generator is behind bus 1: the fault current decreases along the line
+        double iMiddle = Math.hypot(branchEngine.resultsPerFault.get(lineMiddle).getIdx(), branchEngine.resultsPerFault.get(lineMiddle).getIdy());
+        assertTrue(iMiddle < Math.hypot(busEngine.resultsPerFault.get(sc1).getIdx(), busEngine.resultsPerFault.get(sc1).getIdy()));
+        assertTrue(iMiddle > Math.hypot(busEngine.resultsPerFault.get(sc2).getIdx(), busEngine.resultsPerFault.get(sc2).getIdy()));
+        assertNull(branchEngine.resultsPerFault.get(lineMiddle).getFeedersAtBusResultsDirect());
+
+        assertThrows(IllegalArgumentException.class, () -> new ShortCircuitFault("B1_B2", 1.5, "outside", 0., 0., ShortCircuitFault.ShortCircuitType.TRIPHASED_GROUND));
+    }
+
+    @Test
+    void zeroImpedanceBranchTest() {
+        Network nt2 = create2n(NetworkFactory.findDefault());
+        loadFlowRunner.run(nt2, parameters);
+        ShortCircuitFault sc2 = new ShortCircuitFault("B2", "sc2", 0., 0., ShortCircuitFault.ShortCircuitType.TRIPHASED_GROUND);
+        ShortCircuitEngineParameters scbParameters = new ShortCircuitEngineParameters(new LoadFlowParameters(), matrixFactory, ShortCircuitEngineParameters.AnalysisType.SELECTIVE,
+                List.of(sc2), true, ShortCircuitEngineParameters.VoltageProfileType.NOMINAL, false, ShortCircuitEngineParameters.PeriodType.TRANSIENT, new ShortCircuitNormNone());
+        ShortCircuitBalancedEngine scbEngine = new ShortCircuitBalancedEngine(nt2, scbParameters);
+        scbEngine.run();
+
+        // same network with a non impedant line from B2 to a new bus B2b
+        Network nt2b = create2n(NetworkFactory.findDefault());
+        VoltageLevel vl2 = nt2b.getVoltageLevel("VL_2");
+        vl2.getBusBreakerView().newBus()
+                .setId("B2b")
+                .add();
+        nt2b.newLine()
+                .setId("B2_B2b")
+                .setVoltageLevel1("VL_2")
+                .setBus1("B2")
+                .setConnectableBus1("B2")
+                .setVoltageLevel2("VL_2")
+                .setBus2("B2b")
+                .setConnectableBus2("B2b")
+                .setR(0.0)
+                .setX(0.0)
+                .setG1(0.0)
+                .setB1(0.0)
+                .setG2(0.0)
+                .setB2(0.0)
+                .add();
+        loadFlowRunner.run(nt2b, parameters);
+        ShortCircuitFault sc2b = new ShortCircuitFault("B2b", "sc2b", 0., 0., ShortCircuitFault.ShortCircuitType.TRIPHASED_GROUND);
+        ShortCircuitEngineParameters scbParametersB = new ShortCircuitEngineParameters(new LoadFlowParameters(), matrixFactory, ShortCircuitEngineParameters.AnalysisType.SELECTIVE,
+                List.of(sc2b), true, ShortCircuitEngineParameters.VoltageProfileType.NOMINAL, false, ShortCircuitEngineParameters.PeriodType.TRANSIENT, new ShortCircuitNormNone());
+        ShortCircuitBalancedEngine scbEngineB = new ShortCircuitBalancedEngine(nt2b, scbParametersB);
+        scbEngineB.run();
+
+        // B2 and B2b are merged into a single node: same matrix and same fault as at B2 without the non impedant line
+        assertEquals(scbEngine.getMetrics().getMatrixRowCount(), scbEngineB.getMetrics().getMatrixRowCount());
+        ShortCircuitResult result = scbEngine.resultsPerFault.get(sc2);
+        ShortCircuitResult resultB = scbEngineB.resultsPerFault.get(sc2b);
+        assertEquals(result.getIdx(), resultB.getIdx(), 0.000001);
+        assertEquals(result.getIdy(), resultB.getIdy(), 0.000001);
+        assertEquals(result.getIxFeeder("VL_1_0", "G1"), resultB.getIxFeeder("VL_1_0", "G1"), 0.000001);
+    }
+
+    @Test
+    void zeroImpedanceBranchFeedersTest() {
+        // a generator G2 at B2, and the same generator behind a non impedant line from B2 to a new bus B2b
+        Network nt2 = create2n(NetworkFactory.findDefault());
+        addGenerator2(nt2, "B2");
+        Network nt2b = create2n(NetworkFactory.findDefault());
+        nt2b.getVoltageLevel("VL_2").getBusBreakerView().newBus()
+                .setId("B2b")
+                .add();
+        nt2b.newLine()
+                .setId("B2_B2b")
+                .setVoltageLevel1("VL_2")
+                .setBus1("B2")
+                .setConnectableBus1("B2")
+                .setVoltageLevel2("VL_2")
+                .setBus2("B2b")
+                .setConnectableBus2("B2b")
+                .setR(0.0)
+                .setX(0.0)
+                .setG1(0.0)
+                .setB1(0.0)
+                .setG2(0.0)
+                .setB2(0.0)
+                .add();
+        addGenerator2(nt2b, "B2b");
+
+        ShortCircuitFault sc2 = new ShortCircuitFault("B2", "sc2", 0., 0., ShortCircuitFault.ShortCircuitType.TRIPHASED_GROUND);
+        ShortCircuitEngineParameters scbParameters = new ShortCircuitEngineParameters(new LoadFlowParameters(), matrixFactory, ShortCircuitEngineParameters.AnalysisType.SELECTIVE,
+                List.of(sc2), true, ShortCircuitEngineParameters.VoltageProfileType.NOMINAL, false, ShortCircuitEngineParameters.PeriodType.TRANSIENT, new ShortCircuitNormNone());
+        ShortCircuitBalancedEngine scbEngine = new ShortCircuitBalancedEngine(nt2, scbParameters);
+        scbEngine.run();
+        ShortCircuitBalancedEngine scbEngineB = new ShortCircuitBalancedEngine(nt2b, scbParameters);
+        scbEngineB.run();
+
+        // the current through the non impedant line is not computed from its voltages but follows from the current law
+        // at B2 and B2b: G2 feeds the fault with the same current, whether behind the line or not
+        ShortCircuitResult result = scbEngine.resultsPerFault.get(sc2);
+        ShortCircuitResult resultB = scbEngineB.resultsPerFault.get(sc2);
+        String busId2 = nt2.getVoltageLevel("VL_2").getBusView().getMergedBus("B2").getId();
+        String busId2b = nt2b.getVoltageLevel("VL_2").getBusView().getMergedBus("B2b").getId();
+        assertNotEquals(0., result.getIxFeeder(busId2, "G2"), 0.000001);
+        assertEquals(result.getIxFeeder(busId2, "G2"), resultB.getIxFeeder(busId2b, "G2"), 0.000001);
+        assertEquals(result.getIxFeeder("VL_1_0", "G1"), resultB.getIxFeeder("VL_1_0", "G1"), 0.000001);
+
+        assertEquals(result.getIxFeeder(busId2, busId2), resultB.getIxFeeder(busId2, busId2), 0.000001); // load of B2
+
+        // the feeders of the faulted bus B2 are still computed over its node when B2b is out of the feeder scope
+        scbParameters.setFeederScope(ShortCircuitEngineParameters.FeederScope.FAULTED_BUS);
+        resultB.updateFeedersResult(scbParameters);
+        assertEquals(1, resultB.getFeedersAtBusResultsDirect().size());
+        assertEquals(result.getIxFeeder(busId2, busId2), resultB.getIxFeeder(busId2, busId2), 0.000001);
+    }
+
+    private static void addGenerator2(Network network, String busId) {
+        Generator gen2 = network.getVoltageLevel("VL_2").newGenerator()
+                .setId("G2")
+                .setBus(busId)
+                .setMinP(0.0)
+                .setMaxP(150)
+                .setTargetP(0.)
+                .setTargetQ(0.)
+                .setVoltageRegulatorOn(false)
+                .add();
+        gen2.newExtension(GeneratorShortCircuitAdder.class)
+                .withDirectSubtransX(20)
+                .withDirectTransX(20)
+                .withStepUpTransformerX(0.)
+                .add();
+    }
+
+    @Test
+    void kronEliminationTest() {
+        ShortCircuitBalancedEngine scbEngine = runWithAntenna(false);
+        ShortCircuitBalancedEngine scbEngineKron = runWithAntenna(true);
+
+        // the antenna bus B5 is eliminated before the factorization
+        assertEquals(scbEngine.getMetrics().getMatrixRowCount() - 2, scbEngineKron.getMetrics().getMatrixRowCount());
+
+        // same results for all the faults, including the fault at the eliminated bus, and same voltages at all the busses
+        List<ShortCircuitResult> results = new ArrayList<>(scbEngine.resultsPerFault.values());
+        List<ShortCircuitResult> resultsKron = new ArrayList<>(scbEngineKron.resultsPerFault.values());
+        assertEquals(5, results.size());
+        assertEquals(results.size(), resultsKron.size());
+        for (int i = 0; i < results.size(); i++) {
+            ShortCircuitResult result = results.get(i);
+            ShortCircuitResult resultKron = resultsKron.get(i);
+            assertEquals(result.getIdx(), resultKron.getIdx(), 0.000001);
+            assertEquals(result.getIdy(), resultKron.getIdy(), 0.000001);
+            for (int busNum = 0; busNum < 5; busNum++) {
+                assertEquals(result.getBusDv(busNum).getDirectX(), resultKron.getBusDv(busNum).getDirectX(), 0.000001);
+                assertEquals(result.getBusDv(busNum).getDirectY(), resultKron.getBusDv(busNum).getDirectY(), 0.000001);
+            }
+        }
+    }
+
+    private ShortCircuitBalancedEngine runWithAntenna(boolean kronElimination) {
+        Network nt4 = create4n(NetworkFactory.findDefault());
+        // a radial antenna B4 - B5 with a load
+        VoltageLevel vl4 = nt4.getVoltageLevel("VL_4");
+        vl4.getBusBreakerView().newBus()
+                .setId("B5")
+                .add();
+        vl4.newLoad()
+                .setId("LOAD_5")
+                .setBus("B5")
+                .setConnectableBus("B5")
+                .setP0(10.0)
+                .setQ0(5.0)
+                .add();
+        nt4.newLine()
+                .setId("B4_B5")
+                .setVoltageLevel1("VL_4")
+                .setBus1("B4")
+                .setConnectableBus1("B4")
+                .setVoltageLevel2("VL_4")
+                .setBus2("B5")
+                .setConnectableBus2("B5")
+                .setR(0.1)
+                .setX(1.0)
+                .setG1(0.0)
+                .setB1(0.0001)
+                .setG2(0.0)
+                .setB2(0.0001)
+                .add();
+        loadFlowRunner.run(nt4, parameters);
+
+        List<ShortCircuitFault> faults = new ArrayList<>();
+        for (String busId : List.of("B1", "B2", "B3", "B4", "B5")) {
+            faults.add(new ShortCircuitFault(busId, "sc" + busId, 0., 0., ShortCircuitFault.ShortCircuitType.TRIPHASED_GROUND));
+        }
+        ShortCircuitEngineParameters scbParameters = new ShortCircuitEngineParameters(new LoadFlowParameters(), matrixFactory, ShortCircuitEngineParameters.AnalysisType.SELECTIVE,
+                faults, true, ShortCircuitEngineParameters.VoltageProfileType.NOMINAL, false, ShortCircuitEngineParameters.PeriodType.TRANSIENT, new ShortCircuitNormNone());
+        scbParameters.setKronElimination(kronElimination);
+        ShortCircuitBalancedEngine scbEngine = new ShortCircuitBalancedEngine(nt4, scbParameters);
+        scbEngine.run();
+        return scbEngine;
+    }
+
+    @Test
+    void screeningTest() {
+        ShortCircuitBalancedEngine scbEngine = runSystematic4n(0., 0.8);
+        assertEquals(4, scbEngine.resultsPerFault.size());
+        assertTrue(scbEngine.getScreenedFaults().isEmpty());
+        double maxIk = 0.;
+        for (ShortCircuitResult result : scbEngine.resultsPerFault.values()) {
+            maxIk = Math.max(maxIk, result.getIk().getKey());
+        }
+
+        // all the faults are under a very high threshold: none is computed exactly
+        ShortCircuitBalancedEngine scbEngineHigh = runSystematic4n(1000000., 0.8);
+        assertTrue(scbEngineHigh.resultsPerFault.isEmpty());
+        assertEquals(4, scbEngineHigh.getScreenedFaults().size());
+        for (Pair<Double, Double> ikAndMargin : scbEngineHigh.getScreenedFaults().values()) {
+            assertEquals(1000000., ikAndMargin.getKey() + ikAndMargin.getValue(), 0.000001);
+            assertTrue(ikAndMargin.getValue() > 0.2 * 1000000.);
+        }
+        // the screening matrix has one row per bus instead of two, and less than half of the non zeros of the exact one
+        assertEquals(1, scbEngineHigh.getMetrics().getMatrixCount());
+        assertEquals(scbEngine.getMetrics().getMatrixRowCount() / 2, scbEngineHigh.getMetrics().getMatrixRowCount());
+        assertTrue(2 * scbEngineHigh.getMetrics().getMatrixNonZeroCount() < scbEngine.getMetrics().getMatrixNonZeroCount());
+
+        // the approximate Ik are under the exact ones on this network, whose loads neglected by the approximation lower the
+        // exact Thevenin impedances by about a quarter: the approximate Ik is not a bound
+        Map<String, Double> exactIkPerBus = new HashMap<>();
+        for (Map.Entry<ShortCircuitFault, ShortCircuitResult> e : scbEngine.resultsPerFault.entrySet()) {
+            exactIkPerBus.put(e.getKey().getBusLocation(), e.getValue().getIk().getKey());
+        }
+        for (Map.Entry<ShortCircuitFault, Pair<Double, Double>> e : scbEngineHigh.getScreenedFaults().entrySet()) {
+            double exactIk = exactIkPerBus.get(e.getKey().getBusLocation());
+            assertTrue(e.getValue().getKey() < exactIk);
+            assertEquals(exactIk, e.getValue().getKey(), 0.3 * exactIk);
+        }
+
+        // threshold at the highest Ik: the faults computed exactly have the same results as without screening
+        ShortCircuitBalancedEngine scbEngineMax = runSystematic4n(maxIk, 0.9);
+        assertEquals(4, scbEngineMax.resultsPerFault.size() + scbEngineMax.getScreenedFaults().size());
+        Map<String, Double> ikPerBus = new HashMap<>();
+        for (Map.Entry<ShortCircuitFault, ShortCircuitResult> e : scbEngine.resultsPerFault.entrySet()) {
+            ikPerBus.put(e.getKey().getBusLocation(), e.getValue().getIk().getKey());
+        }
+        for (Map.Entry<ShortCircuitFault, ShortCircuitResult> e : scbEngineMax.resultsPerFault.entrySet()) {
+            assertEquals(ikPerBus.get(e.getKey().getBusLocation()), e.getValue().getIk().getKey(), 0.000001);
+        }
+        for (Pair<Double, Double> ikAndMargin : scbEngineMax.getScreenedFaults().values()) {
+            assertTrue(ikAndMargin.getKey() < 0.9 * maxIk);
+            assertEquals(maxIk - ikAndMargin.getKey(), ikAndMargin.getValue(), 0.000001);
+            assertTrue(ikAndMargin.getValue() > 0.1 * maxIk);
+        }
+    }
+
+    private ShortCircuitBalancedEngine runSystematic4n(double screeningThreshold, double screeningFraction) {
+        Network nt4 = create4n(NetworkFactory.findDefault());
+        loadFlowRunner.run(nt4, parameters);
+        ShortCircuitEngineParameters scbParameters = new ShortCircuitEngineParameters(new LoadFlowParameters(), matrixFactory, ShortCircuitEngineParameters.AnalysisType.SYSTEMATIC,
+                new ArrayList<>(), false, ShortCircuitEngineParameters.VoltageProfileType.NOMINAL, false, ShortCircuitEngineParameters.PeriodType.TRANSIENT, new ShortCircuitNormNone());
+        scbParameters.setScreeningThreshold(screeningThreshold);
+        scbParameters.setScreeningFraction(screeningFraction);
+        ShortCircuitBalancedEngine scbEngine = new ShortCircuitBalancedEngine(nt4, scbParameters);
+        scbEngine.run();
+        return scbEngine;
+    }
+
     @Test
     void openShortCircuitProvider2n() {
 
@@ -110,6 +446,110 @@ public class ShortCircuitBalancedTest {
 
     }
 
+    @Test
+    void openShortCircuitProviderMetrics() {
+        Network nt2 = create2n(NetworkFactory.findDefault());
+
+        ShortCircuitAnalysisProvider provider = new OpenShortCircuitProvider(new DenseMatrixFactory());
+        List<Fault> faults = new ArrayList<>();
+        faults.add(new BusFault("F1", "B1"));
+        faults.add(new BusFault("F2", "B2"));
+
+        ShortCircuitAnalysisResult scar = provider.run(nt2, faults, new ShortCircuitParameters(), LocalComputationManager.getDefault(), Collections.emptyList()).join();
+
+        SimulatorMetrics metrics = scar.getExtension(ShortCircuitMetricsExtension.class).getMetrics();
+        assertEquals(2, metrics.getFaultCount());
+        assertEquals(1, metrics.getMatrixCount());
+        assertEquals(4, metrics.getMatrixRowCount()); // 2 busses, real and imaginary parts
+        assertTrue(metrics.getMatrixNonZeroCount() >= metrics.getMatrixRowCount());
+        assertEquals(0, metrics.getTime(SimulatorMetrics.Phase.LOAD_FLOW, TimeUnit.NANOSECONDS)); // not needed with a nominal voltage profile
+        assertTrue(metrics.getTime(SimulatorMetrics.Phase.NETWORK_LOADING, TimeUnit.NANOSECONDS) > 0);
+        assertTrue(metrics.getTime(SimulatorMetrics.Phase.LU_DECOMPOSITION, TimeUnit.NANOSECONDS) > 0);
+    }
+
+    @Test
+    void openShortCircuitProviderPreFaultLoadFlow() {
+        OpenShortCircuitProvider provider = new OpenShortCircuitProvider(new DenseMatrixFactory(), ShortCircuitEngineParameters.VoltageProfileType.CALCULATED);
+        List<Fault> faults = new ArrayList<>();
+        faults.add(new BusFault("F1", "B1"));
+
+        // no voltage state: the provider runs the load flow from uniform values
+        Network nt2 = create2n(NetworkFactory.findDefault());
+        nt2.getBusBreakerView().getBus("B2").setV(Double.NaN);
+        assertEquals(LoadFlowParameters.VoltageInitMode.UNIFORM_VALUES, OpenShortCircuitProvider.createPreFaultLoadFlowParameters(nt2).getVoltageInitMode());
+        ShortCircuitAnalysisResult scar = provider.run(nt2, faults, new ShortCircuitParameters(), LocalComputationManager.getDefault(), Collections.emptyList()).join();
+        SimulatorMetrics metrics = scar.getExtension(ShortCircuitMetricsExtension.class).getMetrics();
+        assertTrue(metrics.getTime(SimulatorMetrics.Phase.LOAD_FLOW, TimeUnit.NANOSECONDS) > 0);
+        assertTrue(nt2.getBusView().getBusStream().noneMatch(bus -> Double.isNaN(bus.getV())));
+
+        // the existing state is not reused unless requested: the load flow is run again, warm started from it
+        assertEquals(LoadFlowParameters.VoltageInitMode.PREVIOUS_VALUES, OpenShortCircuitProvider.createPreFaultLoadFlowParameters(nt2).getVoltageInitMode());
+        ShortCircuitAnalysisResult scar2 = provider.run(nt2, faults, new ShortCircuitParameters(), LocalComputationManager.getDefault(), Collections.emptyList()).join();
+        assertTrue(scar2.getExtension(ShortCircuitMetricsExtension.class).getMetrics().getTime(SimulatorMetrics.Phase.LOAD_FLOW, TimeUnit.NANOSECONDS) > 0);
+        assertEquals(scar.getFaultResults().get(0).getCurrent().getDirectMagnitude(), scar2.getFaultResults().get(0).getCurrent().getDirectMagnitude(), 1e-6);
+
+        // the state of the previous run is reused
+        provider.setPreFaultStateReused(true);
+        ShortCircuitAnalysisResult scar3 = provider.run(nt2, faults, new ShortCircuitParameters(), LocalComputationManager.getDefault(), Collections.emptyList()).join();
+        SimulatorMetrics metrics3 = scar3.getExtension(ShortCircuitMetricsExtension.class).getMetrics();
+        assertEquals(0, metrics3.getTime(SimulatorMetrics.Phase.LOAD_FLOW, TimeUnit.NANOSECONDS));
+        assertEquals(scar.getFaultResults().get(0).getCurrent().getDirectMagnitude(), scar3.getFaultResults().get(0).getCurrent().getDirectMagnitude(), 1e-9);
+    }
+
+    @Test
+    void openShortCircuitProviderWorkingVariant() {
+        Network nt2 = create2n(NetworkFactory.findDefault());
+        String initialVariantId = nt2.getVariantManager().getWorkingVariantId();
+        nt2.getVariantManager().cloneVariant(initialVariantId, "H2");
+        nt2.getVariantManager().setWorkingVariant("H2");
+        nt2.getLoad("LOAD_2").setP0(2 * nt2.getLoad("LOAD_2").getP0());
+        List<Fault> faults = List.of(new BusFault("F2", "B2"));
+        OpenShortCircuitProvider provider = new OpenShortCircuitProvider(new DenseMatrixFactory());
+        ComputationManager cm = LocalComputationManager.getDefault();
+
+        nt2.getVariantManager().setWorkingVariant(initialVariantId);
+        double ikInitial = provider.run(nt2, faults, new ShortCircuitParameters(), cm, Collections.emptyList()).join()
+                .getFaultResults().get(0).getCurrent().getDirectMagnitude();
+        nt2.getVariantManager().setWorkingVariant("H2");
+        double ikH2 = provider.run(nt2, faults, new ShortCircuitParameters(), cm, Collections.emptyList()).join()
+                .getFaultResults().get(0).getCurrent().getDirectMagnitude();
+        assertNotEquals(ikInitial, ikH2, 0.000001);
+
+        // with multi thread access, the analysis is made on the working variant of the calling thread, not on the one of the executor thread
+        nt2.getVariantManager().allowVariantMultiThreadAccess(true);
+        nt2.getVariantManager().setWorkingVariant("H2");
+        double ikH2MultiThread = provider.run(nt2, faults, new ShortCircuitParameters(), cm, Collections.emptyList()).join()
+                .getFaultResults().get(0).getCurrent().getDirectMagnitude();
+        assertEquals(ikH2, ikH2MultiThread, 0.);
+        assertEquals("H2", nt2.getVariantManager().getWorkingVariantId());
+    }
+
+    @Test
+    void openShortCircuitProviderChunks() {
+        Network nt4 = create4n(NetworkFactory.findDefault());
+        List<Fault> faults = new ArrayList<>();
+        faults.add(new BusFault("F1", "B1"));
+        faults.add(new BusFault("F2", "B2"));
+        faults.add(new BusFault("F3", "B3"));
+        faults.add(new BusFault("F4", "B4"));
+
+        ComputationManager cm = LocalComputationManager.getDefault();
+        ShortCircuitAnalysisResult scar = new OpenShortCircuitProvider(new DenseMatrixFactory())
+                .run(nt4, faults, new ShortCircuitParameters(), cm, Collections.emptyList()).join();
+        // one fault per chunk, all chunks sharing the same factorization
+        ShortCircuitAnalysisResult scarChunks = new OpenShortCircuitProvider(new DenseMatrixFactory()).setFaultChunkSize(1)
+                .run(nt4, faults, new ShortCircuitParameters(), cm, Collections.emptyList()).join();
+
+        assertEquals(4, scarChunks.getFaultResults().size());
+        for (int i = 0; i < 4; i++) {
+            FaultResult faultResult = scar.getFaultResults().get(i);
+            FaultResult faultResultChunks = scarChunks.getFaultResults().get(i);
+            assertEquals(faultResult.getFault().getId(), faultResultChunks.getFault().getId());
+            assertEquals(faultResult.getCurrent().getDirectMagnitude(), faultResultChunks.getCurrent().getDirectMagnitude(), 0.);
+        }
+        assertEquals(1, scarChunks.getExtension(ShortCircuitMetricsExtension.class).getMetrics().getMatrixCount());
+    }
+
     @Test
     void openShortCircuitProvider4n() {
 
@@ -209,6 +649,109 @@ public class ShortCircuitBalancedTest {
 
     }
 
+    @Test
+    void shortCircuitSystematicMergedBusses() {
+        Network nt2 = create2n(NetworkFactory.findDefault());
+        // a second bus breaker bus coupled to B2: both are the same electrical node
+        VoltageLevel vl2 = nt2.getVoltageLevel("VL_2");
+        vl2.getBusBreakerView().newBus()
+                .setId("B2b")
+                .add();
+        vl2.getBusBreakerView().newSwitch()
+                .setId("B2_B2b")
+                .setBus1("B2")
+                .setBus2("B2b")
+                .setOpen(false)
+                .add();
+        loadFlowRunner.run(nt2, parameters);
+
+        ShortCircuitEngineParameters scbParameters = new ShortCircuitEngineParameters(new LoadFlowParameters(), matrixFactory, ShortCircuitEngineParameters.AnalysisType.SYSTEMATIC,
+                new ArrayList<>(), false, ShortCircuitEngineParameters.VoltageProfileType.NOMINAL, false, ShortCircuitEngineParameters.PeriodType.TRANSIENT, new ShortCircuitNormNone());
+        ShortCircuitBalancedEngine scbEngine = new ShortCircuitBalancedEngine(nt2, scbParameters);
+        scbEngine.run();
+
+        // one fault per electrical node, located at the bus connected to the line
+        assertEquals(2, scbEngine.resultsPerFault.size());
+        assertEquals(2, scbEngine.getMetrics().getFaultCount());
+        long loadingNanos = scbEngine.getMetrics().getTime(SimulatorMetrics.Phase.NETWORK_LOADING, TimeUnit.NANOSECONDS);
+        int matrixCount = scbEngine.getMetrics().getMatrixCount();
+
+        // the metrics of a second run only cover this run, the loading made at construction being kept
+        scbEngine.run();
+        assertEquals(2, scbEngine.getMetrics().getFaultCount());
+        assertEquals(matrixCount, scbEngine.getMetrics().getMatrixCount());
+        assertEquals(loadingNanos, scbEngine.getMetrics().getTime(SimulatorMetrics.Phase.NETWORK_LOADING, TimeUnit.NANOSECONDS));
+        ShortCircuitFault faultB2 = scbEngine.getSystematicFaultBusIds().keySet().stream()
+                .filter(scf -> scf.getBusLocation().equals("B2"))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(List.of("B2", "B2b"), scbEngine.getSystematicFaultBusIds().get(faultB2));
+        assertEquals(0.0999999987871081, scbEngine.resultsPerFault.get(faultB2).getIdx(), 0.00001);
+    }
+
+    @Test
+    void shortCircuitSharedContext() {
+        Network network = ReferenceNetwork.createShortCircuitReference();
+        MatrixFactory matrixFactory = new DenseMatrixFactory();
+        ShortCircuitNorm shortCircuitNorm = new ShortCircuitNormNone();
+        ShortCircuitNetworkContext context = new ShortCircuitNetworkContext(network, shortCircuitNorm.getNormExtensions());
+
+        List<Double> iccs = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            List<ShortCircuitFault> faultList = new ArrayList<>();
+            faultList.add(new ShortCircuitFault("B7", "sc1", 0., 0., ShortCircuitFault.ShortCircuitType.TRIPHASED_GROUND));
+            ShortCircuitEngineParameters scbParameters = new ShortCircuitEngineParameters(new LoadFlowParameters(), matrixFactory, ShortCircuitEngineParameters.AnalysisType.SELECTIVE, faultList, false, ShortCircuitEngineParameters.VoltageProfileType.NOMINAL, false, ShortCircuitEngineParameters.PeriodType.SUB_TRANSIENT, shortCircuitNorm);
+            ShortCircuitBalancedEngine scbEngine = new ShortCircuitBalancedEngine(context, scbParameters);
+            scbEngine.run();
+
+            assertEquals(0, scbEngine.getMetrics().getTime(SimulatorMetrics.Phase.NETWORK_LOADING, TimeUnit.NANOSECONDS));
+            iccs.add(scbEngine.getResultsPerFault().values().iterator().next().getIk().getKey());
+        }
+        assertEquals(iccs.get(0), iccs.get(1), 0.);
+
+        // the short circuit properties of the context depend on the norm extensions
+        ShortCircuitEngineParameters otherNormParameters = new ShortCircuitEngineParameters(new LoadFlowParameters(), matrixFactory, ShortCircuitEngineParameters.AnalysisType.SELECTIVE, new ArrayList<>(), false, ShortCircuitEngineParameters.VoltageProfileType.NOMINAL, false, ShortCircuitEngineParameters.PeriodType.SUB_TRANSIENT, new ShortCircuitNormNone());
+        assertThrows(IllegalArgumentException.class, () -> new ShortCircuitBalancedEngine(context, otherNormParameters));
+    }
+
+    @Test
+    void shortCircuitConcurrentEngines() throws Exception {
+        Network network = ReferenceNetwork.createShortCircuitReference();
+        MatrixFactory matrixFactory = new DenseMatrixFactory();
+        ShortCircuitNorm shortCircuitNorm = new ShortCircuitNormNone();
+        ShortCircuitNetworkContext context = new ShortCircuitNetworkContext(network, shortCircuitNorm.getNormExtensions());
+
+        // the same parameters are shared by engines running concurrently on the same context
+        List<ShortCircuitFault> faultList = new ArrayList<>();
+        ShortCircuitEngineParameters scbParameters = new ShortCircuitEngineParameters(new LoadFlowParameters(), matrixFactory, ShortCircuitEngineParameters.AnalysisType.SYSTEMATIC, faultList, true, ShortCircuitEngineParameters.VoltageProfileType.NOMINAL, false, ShortCircuitEngineParameters.PeriodType.SUB_TRANSIENT, shortCircuitNorm);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<Map<String, Double>>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                futures.add(executor.submit(() -> {
+                    ShortCircuitBalancedEngine scbEngine = new ShortCircuitBalancedEngine(context, scbParameters);
+                    scbEngine.run();
+                    Map<String, Double> ikPerBus = new HashMap<>();
+                    for (Map.Entry<ShortCircuitFault, ShortCircuitResult> e : scbEngine.getResultsPerFault().entrySet()) {
+                        ikPerBus.put(e.getKey().getBusLocation(), e.getValue().getIk().getKey());
+                    }
+                    return ikPerBus;
+                }));
+            }
+            Map<String, Double> ikPerBus = futures.get(0).get();
+            assertFalse(ikPerBus.isEmpty());
+            for (Future<Map<String, Double>> future : futures) {
+                assertEquals(ikPerBus, future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // the systematic runs left the parameters unchanged
+        assertTrue(scbParameters.isVoltageUpdate());
+        assertTrue(scbParameters.getShortCircuitFaults().isEmpty());
+    }
+
     @Test
     void shortCircuitSubTransientReference() {
 
@@ -271,6 +814,11 @@ public class ShortCircuitBalancedTest {
         // and I"k = 1/sqrt(3) * cmax * Un /(Zeq) and expected I"k = 34.62 kA
         assertEquals(34.62398968800272, val.get(0), 0.00001);
 
+        // minimum current of the same run at 400 V, with cmin = 0.95 instead of cmax = 1.05
+        ShortCircuitResult result = scbEngine.resultsPerFault.get(sc1);
+        assertEquals(34.62398968800272 * 0.95 / 1.05, result.getIkMin().getKey(), 0.00001);
+        assertEquals(result.getIk().getValue(), result.getIkMin().getValue(), 0.00001);
+
     }
 
     @Test
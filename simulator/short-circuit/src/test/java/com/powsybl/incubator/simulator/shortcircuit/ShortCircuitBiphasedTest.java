@@ -66,6 +66,7 @@ class ShortCircuitBiphasedTest {
         }
 
         assertEquals(67.51864695211795, val.get(0), 0.00001);
+        assertEquals(1, scbEngine.getMetrics().getMatrixCount()); // no homopolar matrix needed by biphased faults
 
     }
 
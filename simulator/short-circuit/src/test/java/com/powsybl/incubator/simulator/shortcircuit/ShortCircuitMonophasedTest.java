@@ -27,6 +27,7 @@ import org.junit.jupiter.api.Test;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * @author Jean-Baptiste Heyberger <jbheyberger at gmail.com>
@@ -79,6 +80,21 @@ public class ShortCircuitMonophasedTest {
 
     }
 
+    @Test
+    void shortCircuitIec31MonoQuery() {
+        LoadFlowParameters loadFlowParameters = LoadFlowParameters.load();
+        loadFlowParameters.setTwtSplitShuntAdmittance(true);
+
+        Network network = ReferenceNetwork.createShortCircuitIec31();
+
+        ShortCircuitEngineParameters scbParameters = new ShortCircuitEngineParameters(loadFlowParameters, new DenseMatrixFactory(), ShortCircuitEngineParameters.AnalysisType.SELECTIVE, new ArrayList<>(), false, ShortCircuitEngineParameters.VoltageProfileType.NOMINAL, false, ShortCircuitEngineParameters.PeriodType.SUB_TRANSIENT, new ShortCircuitNormIec());
+        try (ShortCircuitQueryService service = new ShortCircuitQueryService(network, scbParameters)) {
+            // same result as the unbalanced engine, the homopolar matrix being built at the first fault to ground
+            assertEquals(35.70435548244156, service.query("B3", ShortCircuitFault.ShortCircuitType.MONOPHASED).getIk().getKey(), 0.00001);
+            assertEquals(1, service.getBuildCount());
+        }
+    }
+
     @Test
     void shortCircuitIecTestNetworkMono() {
 
@@ -128,6 +144,84 @@ public class ShortCircuitMonophasedTest {
 
     }
 
+    @Test
+    void kronEliminationUnbalancedTest() {
+        ShortCircuitUnbalancedEngine scuEngine = runWithChainAntenna(false);
+        ShortCircuitUnbalancedEngine scuEngineKron = runWithChainAntenna(true);
+
+        // the star busses of the three windings transformers and the chain antenna B10 - B11 are eliminated from both matrices
+        assertEquals(2, scuEngine.getMetrics().getMatrixCount());
+        assertEquals(2, scuEngineKron.getMetrics().getMatrixCount());
+        assertTrue(scuEngineKron.getMetrics().getMatrixRowCount() <= scuEngine.getMetrics().getMatrixRowCount() - 2 * 2 * 4);
+
+        // same results for all the faults, including the faults at the eliminated busses
+        List<ShortCircuitResult> results = new ArrayList<>(scuEngine.resultsPerFault.values());
+        List<ShortCircuitResult> resultsKron = new ArrayList<>(scuEngineKron.resultsPerFault.values());
+        assertEquals(6, results.size());
+        assertEquals(results.size(), resultsKron.size());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(results.get(i).getIk().getKey(), resultsKron.get(i).getIk().getKey(), 0.000001);
+            assertEquals(results.get(i).getIk().getValue(), resultsKron.get(i).getIk().getValue(), 0.000001);
+        }
+    }
+
+    private ShortCircuitUnbalancedEngine runWithChainAntenna(boolean kronElimination) {
+        Network network = ReferenceNetwork.createShortCircuitIec31testNetwork();
+        // a radial chain antenna B3 - B10 - B11 with a load at its end
+        VoltageLevel vl3 = network.getVoltageLevel("VL_3");
+        vl3.getBusBreakerView().newBus()
+                .setId("B10")
+                .add();
+        vl3.getBusBreakerView().newBus()
+                .setId("B11")
+                .add();
+        vl3.newLoad()
+                .setId("LOAD_11")
+                .setBus("B11")
+                .setConnectableBus("B11")
+                .setP0(10.0)
+                .setQ0(5.0)
+                .add();
+        addChainLine(network, "B3", "B10", 0.4, 3.2);
+        addChainLine(network, "B10", "B11", 0.7, 4.5);
+
+        List<ShortCircuitFault> faults = new ArrayList<>();
+        faults.add(new ShortCircuitFault("B2", "sc1", 0., 0., ShortCircuitFault.ShortCircuitType.MONOPHASED));
+        faults.add(new ShortCircuitFault("B5", "sc2", 0., 0., ShortCircuitFault.ShortCircuitType.MONOPHASED));
+        faults.add(new ShortCircuitFault("B10", "sc3", 0., 0., ShortCircuitFault.ShortCircuitType.MONOPHASED));
+        faults.add(new ShortCircuitFault("B11", "sc4", 0., 0., ShortCircuitFault.ShortCircuitType.MONOPHASED));
+        faults.add(new ShortCircuitFault("B11", "sc5", 0., 0., ShortCircuitFault.ShortCircuitType.BIPHASED_GROUND));
+        faults.add(new ShortCircuitFault("B10", "sc6", 0., 0., ShortCircuitFault.ShortCircuitType.BIPHASED));
+        ShortCircuitEngineParameters scuParameters = new ShortCircuitEngineParameters(new LoadFlowParameters(), matrixFactory, ShortCircuitEngineParameters.AnalysisType.SELECTIVE,
+                faults, false, ShortCircuitEngineParameters.VoltageProfileType.NOMINAL, false, ShortCircuitEngineParameters.PeriodType.TRANSIENT, new ShortCircuitNormIec());
+        scuParameters.setKronElimination(kronElimination);
+        ShortCircuitUnbalancedEngine scuEngine = new ShortCircuitUnbalancedEngine(network, scuParameters);
+        scuEngine.run();
+        return scuEngine;
+    }
+
+    private static void addChainLine(Network network, String bus1, String bus2, double r, double x) {
+        Line line = network.newLine()
+                .setId(bus1 + "_" + bus2)
+                .setVoltageLevel1("VL_3")
+                .setBus1(bus1)
+                .setConnectableBus1(bus1)
+                .setVoltageLevel2("VL_3")
+                .setBus2(bus2)
+                .setConnectableBus2(bus2)
+                .setR(r)
+                .setX(x)
+                .setG1(0.0)
+                .setB1(0.0)
+                .setG2(0.0)
+                .setB2(0.0)
+                .add();
+        line.newExtension(LineFortescueAdder.class)
+                .withRo(3 * r)
+                .withXo(3 * x)
+                .add();
+    }
+
     @Test
     void shortCircuitProviderIecTestNetworkMono() {
 
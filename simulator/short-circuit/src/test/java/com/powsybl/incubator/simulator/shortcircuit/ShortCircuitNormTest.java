@@ -10,6 +10,7 @@ import com.powsybl.iidm.network.*;
 import com.powsybl.iidm.network.extensions.GeneratorShortCircuit;
 import com.powsybl.iidm.network.extensions.GeneratorShortCircuitAdder;
 import com.powsybl.incubator.simulator.util.extensions.GeneratorNorm;
+import com.powsybl.incubator.simulator.util.extensions.ShortCircuitNormExtensions;
 import com.powsybl.incubator.simulator.util.extensions.ThreeWindingsTransformerNorm;
 import com.powsybl.incubator.simulator.util.extensions.TwoWindingsTransformerNorm;
 import com.powsybl.incubator.simulator.util.extensions.iidm.*;
@@ -19,7 +20,12 @@ import com.powsybl.math.matrix.MatrixFactory;
 import org.joda.time.DateTime;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 /**
  * @author Jean-Baptiste Heyberger <jbheyberger at gmail.com>
@@ -190,6 +196,42 @@ public class ShortCircuitNormTest {
 
     }
 
+    @Test
+    void computeNormExtensionsTest() {
+        Network network = createNormNetwork();
+        Generator g1 = network.getGenerator("G1");
+        TwoWindingsTransformer t2w = network.getTwoWindingsTransformer("T12");
+
+        // the coefficients of each norm are computed into their own extensions, the norm itself is left unchanged
+        ShortCircuitNormIec shortCircuitNormIec = new ShortCircuitNormIec();
+        ShortCircuitNormExtensions iecExtensions = shortCircuitNormIec.computeNormExtensions(network);
+        ShortCircuitNormExtensions noneExtensions = new ShortCircuitNormNone().computeNormExtensions(network);
+        assertEquals(0.1950430724873738, iecExtensions.getNormExtension(g1).getkG(), 0.000001);
+        assertEquals(0.1950430724873738, iecExtensions.getNormExtension(t2w).getkNorm(), 0.000001);
+        assertEquals(1.0, noneExtensions.getNormExtension(g1).getkG(), 0.000001);
+        assertNull(shortCircuitNormIec.getNormExtensions().getNormExtension(g1));
+
+        // runs on the same network with the same norm instance and different norm extensions, the fault being at the bus fed
+        // by the generator and transformer whose coefficients differ (B3 is not connected to the rest of the network)
+        ShortCircuitFault sc = new ShortCircuitFault("B2", "sc2", 0., 0., ShortCircuitFault.ShortCircuitType.TRIPHASED_GROUND);
+        ShortCircuitEngineParameters iecParameters = new ShortCircuitEngineParameters(new LoadFlowParameters(), new DenseMatrixFactory(), ShortCircuitEngineParameters.AnalysisType.SELECTIVE,
+                List.of(sc), false, ShortCircuitEngineParameters.VoltageProfileType.NOMINAL, false, ShortCircuitEngineParameters.PeriodType.SUB_TRANSIENT, shortCircuitNormIec);
+        iecParameters.setNormExtensions(iecExtensions);
+        ShortCircuitBalancedEngine iecEngine = new ShortCircuitBalancedEngine(network, iecParameters);
+        iecEngine.run();
+
+        ShortCircuitEngineParameters noneParameters = new ShortCircuitEngineParameters(new LoadFlowParameters(), new DenseMatrixFactory(), ShortCircuitEngineParameters.AnalysisType.SELECTIVE,
+                List.of(sc), false, ShortCircuitEngineParameters.VoltageProfileType.NOMINAL, false, ShortCircuitEngineParameters.PeriodType.SUB_TRANSIENT, shortCircuitNormIec);
+        noneParameters.setNormExtensions(noneExtensions);
+        ShortCircuitBalancedEngine noneEngine = new ShortCircuitBalancedEngine(network, noneParameters);
+        noneEngine.run();
+
+        assertNotNull(iecEngine.getResultsPerFault().get(sc));
+        assertNotNull(noneEngine.getResultsPerFault().get(sc));
+        assertNotEquals(iecEngine.getResultsPerFault().get(sc).getIdx(), noneEngine.getResultsPerFault().get(sc).getIdx(), 0.000001);
+        assertNull(shortCircuitNormIec.getNormExtensions().getNormExtension(g1));
+    }
+
     public static Network createNormNetwork() {
 
         Network network = Network.create("ShortCircuit_Norm", "IEC_Norm");
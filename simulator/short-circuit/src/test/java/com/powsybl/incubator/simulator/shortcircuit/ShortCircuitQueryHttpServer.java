@@ -0,0 +1,139 @@
+/**
+ * Copyright (c) 2022, Jean-Baptiste Heyberger & Geoffroy Jamgotchian
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.incubator.simulator.shortcircuit;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.commons.math3.util.Pair;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+
+/**
+ * Local HTTP endpoint of a short circuit query service, a test helper not shipped with the module: bound to the loopback
+ * address, it answers GET /shortcircuit?bus=B1&type=MONOPHASED (type being TRIPHASED_GROUND by default) with a JSON object
+ * giving Ik in kA and its angle in rad, and the direct and homopolar Thevenin impedances in pu.
+ * Invalid queries are answered with a 400 status, and any other failure with a 500 status, both with a JSON error.
+ *
+ * @author Jean-Baptiste Heyberger <jbheyberger at gmail.com>
+ */
+public class ShortCircuitQueryHttpServer implements AutoCloseable {
+
+    public static final String PATH = "/shortcircuit";
+
+    private final ShortCircuitQueryService service;
+
+    private final HttpServer server;
+
+    /**
+     * Starts the endpoint on the given port, 0 for any free port, queries being served by the given executor
+     * (the calling thread of the server if null).
+     */
+    public ShortCircuitQueryHttpServer(ShortCircuitQueryService service, int port, Executor executor) {
+        this.service = Objects.requireNonNull(service);
+        try {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        server.createContext(PATH, this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            int status = 200;
+            String body;
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                status = 405;
+                body = error("Method " + exchange.getRequestMethod() + " not allowed");
+            } else {
+                try {
+                    body = answer(parseQuery(exchange.getRequestURI().getRawQuery()));
+                } catch (IllegalArgumentException e) {
+                    status = 400;
+                    body = error(e.getMessage());
+                } catch (RuntimeException e) {
+                    status = 500;
+                    body = error(e.getClass().getSimpleName() + ": " + e.getMessage());
+                }
+            }
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(bytes);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private String answer(Map<String, String> query) {
+        String busId = query.get("bus");
+        if (busId == null) {
+            throw new IllegalArgumentException("Missing bus parameter");
+        }
+        ShortCircuitFault.ShortCircuitType type = ShortCircuitFault.ShortCircuitType.valueOf(query.getOrDefault("type", ShortCircuitFault.ShortCircuitType.TRIPHASED_GROUND.name()));
+        ShortCircuitResult result = service.query(busId, type);
+        Pair<Double, Double> ik = result.getIk();
+        return String.format(Locale.ROOT, "{\"bus\":\"%s\",\"type\":\"%s\",\"ik\":%s,\"ikAngle\":%s,\"rd\":%s,\"xd\":%s,\"ro\":%s,\"xo\":%s}",
+                escape(busId), type, ik.getKey(), ik.getValue(), result.getRd(), result.getXd(), result.getRh(), result.getXh());
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery != null) {
+            for (String parameter : rawQuery.split("&")) {
+                int index = parameter.indexOf('=');
+                if (index > 0) {
+                    query.put(URLDecoder.decode(parameter.substring(0, index), StandardCharsets.UTF_8),
+                            URLDecoder.decode(parameter.substring(index + 1), StandardCharsets.UTF_8));
+                }
+            }
+        }
+        return query;
+    }
+
+    private static String error(String message) {
+        return "{\"error\":\"" + escape(String.valueOf(message)) + "\"}";
+    }
+
+    private static String escape(String value) {
+        StringBuilder sb = new StringBuilder(value.length());
+        for (char c : value.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < 0x20) {
+                sb.append(String.format(Locale.ROOT, "\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
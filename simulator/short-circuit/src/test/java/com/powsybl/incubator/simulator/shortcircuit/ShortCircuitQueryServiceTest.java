@@ -0,0 +1,201 @@
+/**
+ * Copyright (c) 2022, Jean-Baptiste Heyberger & Geoffroy Jamgotchian
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.incubator.simulator.shortcircuit;
+
+import com.powsybl.iidm.network.Network;
+import com.powsybl.iidm.network.NetworkFactory;
+import com.powsybl.incubator.simulator.util.SimulatorMetrics;
+import com.powsybl.loadflow.LoadFlow;
+import com.powsybl.loadflow.LoadFlowParameters;
+import com.powsybl.math.matrix.DenseMatrixFactory;
+import com.powsybl.math.matrix.MatrixFactory;
+import com.powsybl.openloadflow.OpenLoadFlowProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.powsybl.incubator.simulator.shortcircuit.ShortCircuitBalancedTest.create2n;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Jean-Baptiste Heyberger <jbheyberger at gmail.com>
+ */
+class ShortCircuitQueryServiceTest {
+
+    private LoadFlowParameters parameters;
+
+    private MatrixFactory matrixFactory;
+
+    private LoadFlow.Runner loadFlowRunner;
+
+    @BeforeEach
+    void setUp() {
+        parameters = new LoadFlowParameters();
+        matrixFactory = new DenseMatrixFactory();
+        loadFlowRunner = new LoadFlow.Runner(new OpenLoadFlowProvider(matrixFactory));
+    }
+
+    @Test
+    void shortCircuitQueryService() throws IOException {
+        Network nt2 = create2n(NetworkFactory.findDefault());
+        loadFlowRunner.run(nt2, parameters);
+
+        ShortCircuitFault sc1 = new ShortCircuitFault("B1", "sc1", 0., 0., ShortCircuitFault.ShortCircuitType.TRIPHASED_GROUND);
+        ShortCircuitFault sc2 = new ShortCircuitFault("B2", "sc2", 0., 0., ShortCircuitFault.ShortCircuitType.TRIPHASED_GROUND);
+        ShortCircuitEngineParameters scbParameters = new ShortCircuitEngineParameters(new LoadFlowParameters(), matrixFactory, ShortCircuitEngineParameters.AnalysisType.SELECTIVE,
+                List.of(sc1, sc2), false, ShortCircuitEngineParameters.VoltageProfileType.CALCULATED, false, ShortCircuitEngineParameters.PeriodType.TRANSIENT, new ShortCircuitNormNone());
+        ShortCircuitBalancedEngine scbEngine = new ShortCircuitBalancedEngine(nt2, scbParameters);
+        scbEngine.run();
+
+        try (ShortCircuitQueryService service = new ShortCircuitQueryService(nt2, scbParameters, 10)) {
+            // same results as the engine, each bus being solved once
+            assertEquals(scbEngine.resultsPerFault.get(sc1).getIk().getKey(), service.query("B1", ShortCircuitFault.ShortCircuitType.TRIPHASED_GROUND).getIk().getKey(), 0.000001);
+            double ikB2 = service.query("B2", ShortCircuitFault.ShortCircuitType.TRIPHASED_GROUND).getIk().getKey();
+            assertEquals(scbEngine.resultsPerFault.get(sc2).getIk().getKey(), ikB2, 0.000001);
+            assertEquals(ikB2, service.query("B2", ShortCircuitFault.ShortCircuitType.TRIPHASED_GROUND).getIk().getKey(), 0.);
+            assertEquals(1, service.getBuildCount());
+            assertEquals(2, service.getDirectSolveCount());
+            assertThrows(IllegalArgumentException.class, () -> service.query("UNKNOWN", ShortCircuitFault.ShortCircuitType.TRIPHASED_GROUND));
+
+            // a change of the network invalidates the matrices
+            nt2.getLine("B1_B2").setX(4.);
+            assertTrue(service.query("B2", ShortCircuitFault.ShortCircuitType.TRIPHASED_GROUND).getIk().getKey() < ikB2);
+            assertEquals(2, service.getBuildCount());
+
+            try (ShortCircuitQueryHttpServer server = new ShortCircuitQueryHttpServer(service, 0, null)) {
+                HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + server.getPort() + ShortCircuitQueryHttpServer.PATH + "?bus=B1").openConnection();
+                assertEquals(200, connection.getResponseCode());
+                try (InputStream is = connection.getInputStream()) {
+                    assertTrue(new String(is.readAllBytes(), StandardCharsets.UTF_8).startsWith("{\"bus\":\"B1\",\"type\":\"TRIPHASED_GROUND\",\"ik\":"));
+                }
+                connection = (HttpURLConnection) new URL("http://localhost:" + server.getPort() + ShortCircuitQueryHttpServer.PATH + "?bus=UNKNOWN").openConnection();
+                assertEquals(400, connection.getResponseCode());
+            }
+        }
+
+        // any other failure, here a query of a closed service, is answered with a server error
+        ShortCircuitQueryService closedService = new ShortCircuitQueryService(nt2, scbParameters, 10);
+        closedService.close();
+        try (ShortCircuitQueryHttpServer server = new ShortCircuitQueryHttpServer(closedService, 0, null)) {
+            HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + server.getPort() + ShortCircuitQueryHttpServer.PATH + "?bus=B1").openConnection();
+            assertEquals(500, connection.getResponseCode());
+            try (InputStream is = connection.getErrorStream()) {
+                assertTrue(new String(is.readAllBytes(), StandardCharsets.UTF_8).startsWith("{\"error\":\"IllegalStateException: "));
+            }
+        }
+    }
+
+    @Test
+    void shortCircuitQueryServiceCache() throws InterruptedException, ExecutionException {
+        Network nt2 = create2n(NetworkFactory.findDefault());
+        loadFlowRunner.run(nt2, parameters);
+        ShortCircuitEngineParameters scbParameters = new ShortCircuitEngineParameters(new LoadFlowParameters(), matrixFactory, ShortCircuitEngineParameters.AnalysisType.SELECTIVE,
+                new ArrayList<>(), false, ShortCircuitEngineParameters.VoltageProfileType.CALCULATED, false, ShortCircuitEngineParameters.PeriodType.TRANSIENT, new ShortCircuitNormNone());
+
+        // a single cached bus: the least recently used one is evicted by the next miss
+        try (ShortCircuitQueryService service = new ShortCircuitQueryService(nt2, scbParameters, 1)) {
+            double ikB1 = service.query("B1", ShortCircuitFault.ShortCircuitType.TRIPHASED_GROUND).getIk().getKey();
+            service.query("B2", ShortCircuitFault.ShortCircuitType.TRIPHASED_GROUND);
+            service.query("B2", ShortCircuitFault.ShortCircuitType.TRIPHASED_GROUND);
+            assertEquals(2, service.getDirectSolveCount());
+            assertEquals(ikB1, service.query("B1", ShortCircuitFault.ShortCircuitType.TRIPHASED_GROUND).getIk().getKey(), 0.);
+            assertEquals(3, service.getDirectSolveCount());
+        }
+
+        // concurrent queries of cached busses give the same results without any new solve
+        try (ShortCircuitQueryService service = new ShortCircuitQueryService(nt2, scbParameters, 10)) {
+            double ikB1 = service.query("B1", ShortCircuitFault.ShortCircuitType.TRIPHASED_GROUND).getIk().getKey();
+            double ikB2 = service.query("B2", ShortCircuitFault.ShortCircuitType.TRIPHASED_GROUND).getIk().getKey();
+            ExecutorService executor = Executors.newFixedThreadPool(4);
+            try {
+                List<Future<Boolean>> futures = new ArrayList<>();
+                for (int i = 0; i < 100; i++) {
+                    String busId = i % 2 == 0 ? "B1" : "B2";
+                    double expectedIk = i % 2 == 0 ? ikB1 : ikB2;
+                    futures.add(executor.submit(() -> service.query(busId, ShortCircuitFault.ShortCircuitType.TRIPHASED_GROUND).getIk().getKey() == expectedIk));
+                }
+                for (Future<Boolean> future : futures) {
+                    assertTrue(future.get());
+                }
+            } finally {
+                executor.shutdown();
+            }
+            assertEquals(2, service.getDirectSolveCount());
+        }
+    }
+
+    @Test
+    void shortCircuitQueryServiceSnapshot(@TempDir Path snapshotDirectory) throws IOException {
+        Network nt2 = create2n(NetworkFactory.findDefault());
+        loadFlowRunner.run(nt2, parameters);
+
+        ShortCircuitEngineParameters scbParameters = new ShortCircuitEngineParameters(new LoadFlowParameters(), matrixFactory, ShortCircuitEngineParameters.AnalysisType.SELECTIVE,
+                new ArrayList<>(), false, ShortCircuitEngineParameters.VoltageProfileType.CALCULATED, false, ShortCircuitEngineParameters.PeriodType.TRANSIENT, new ShortCircuitNormNone());
+
+        double ikB2;
+        try (ShortCircuitQueryService service = new ShortCircuitQueryService(nt2, scbParameters, 10, snapshotDirectory)) {
+            ikB2 = service.query("B2", ShortCircuitFault.ShortCircuitType.TRIPHASED_GROUND).getIk().getKey();
+            assertEquals(0, service.getRestoredMatrixCount());
+            assertTrue(service.getMetrics().getTime(SimulatorMetrics.Phase.EQUATION_SYSTEM, TimeUnit.NANOSECONDS) > 0);
+            service.saveSnapshots();
+        }
+        // the snapshot is moved to its name once complete, no temporary file is left
+        Path snapshot = snapshotDirectory.resolve("adm_thevenin.snapshot");
+        try (Stream<Path> files = Files.list(snapshotDirectory)) {
+            assertEquals(List.of(snapshot), files.collect(Collectors.toList()));
+        }
+        byte[] snapshotBytes = Files.readAllBytes(snapshot);
+
+        // a truncated or corrupted snapshot is not restored, the matrix is assembled
+        Files.write(snapshot, Arrays.copyOf(snapshotBytes, snapshotBytes.length - 1));
+        try (ShortCircuitQueryService service = new ShortCircuitQueryService(nt2, scbParameters, 10, snapshotDirectory)) {
+            assertEquals(ikB2, service.query("B2", ShortCircuitFault.ShortCircuitType.TRIPHASED_GROUND).getIk().getKey(), 0.000001);
+            assertEquals(0, service.getRestoredMatrixCount());
+        }
+        byte[] corruptedBytes = snapshotBytes.clone();
+        corruptedBytes[corruptedBytes.length / 2] ^= 1;
+        Files.write(snapshot, corruptedBytes);
+        try (ShortCircuitQueryService service = new ShortCircuitQueryService(nt2, scbParameters, 10, snapshotDirectory)) {
+            assertEquals(ikB2, service.query("B2", ShortCircuitFault.ShortCircuitType.TRIPHASED_GROUND).getIk().getKey(), 0.000001);
+            assertEquals(0, service.getRestoredMatrixCount());
+        }
+        Files.write(snapshot, snapshotBytes);
+
+        // a restarted service restores the matrix saved from the same network, without building its equation system
+        try (ShortCircuitQueryService service = new ShortCircuitQueryService(nt2, scbParameters, 10, snapshotDirectory)) {
+            assertEquals(ikB2, service.query("B2", ShortCircuitFault.ShortCircuitType.TRIPHASED_GROUND).getIk().getKey(), 0.000001);
+            assertEquals(1, service.getRestoredMatrixCount());
+            assertEquals(0, service.getMetrics().getTime(SimulatorMetrics.Phase.EQUATION_SYSTEM, TimeUnit.NANOSECONDS));
+
+            // the snapshot does not match the modified network, the matrix is assembled again
+            nt2.getLine("B1_B2").setX(4.);
+            assertTrue(service.query("B2", ShortCircuitFault.ShortCircuitType.TRIPHASED_GROUND).getIk().getKey() < ikB2);
+            assertEquals(1, service.getRestoredMatrixCount());
+            assertEquals(2, service.getBuildCount());
+        }
+    }
+}
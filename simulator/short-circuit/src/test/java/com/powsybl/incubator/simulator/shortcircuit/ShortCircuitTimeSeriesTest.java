@@ -0,0 +1,168 @@
+/**
+ * Copyright (c) 2022, Jean-Baptiste Heyberger & Geoffroy Jamgotchian
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.incubator.simulator.shortcircuit;
+
+import com.powsybl.iidm.network.Network;
+import com.powsybl.iidm.network.NetworkFactory;
+import com.powsybl.incubator.simulator.util.BaseImpedanceMatrix;
+import com.powsybl.loadflow.LoadFlow;
+import com.powsybl.loadflow.LoadFlowParameters;
+import com.powsybl.math.matrix.DenseMatrixFactory;
+import com.powsybl.math.matrix.MatrixFactory;
+import com.powsybl.openloadflow.OpenLoadFlowProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static com.powsybl.incubator.simulator.shortcircuit.ShortCircuitBalancedTest.create2n;
+import static com.powsybl.incubator.simulator.shortcircuit.ShortCircuitBalancedTest.create4n;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Jean-Baptiste Heyberger <jbheyberger at gmail.com>
+ */
+class ShortCircuitTimeSeriesTest {
+
+    private LoadFlowParameters parameters;
+
+    private MatrixFactory matrixFactory;
+
+    private LoadFlow.Runner loadFlowRunner;
+
+    @BeforeEach
+    void setUp() {
+        parameters = new LoadFlowParameters();
+        matrixFactory = new DenseMatrixFactory();
+        loadFlowRunner = new LoadFlow.Runner(new OpenLoadFlowProvider(matrixFactory));
+    }
+
+    @Test
+    void shortCircuitTimeSeries() throws InterruptedException {
+        Network nt2 = create2n(NetworkFactory.findDefault());
+        loadFlowRunner.run(nt2, parameters);
+        String initialVariantId = nt2.getVariantManager().getWorkingVariantId();
+        nt2.getVariantManager().cloneVariant(initialVariantId, List.of("H1", "H2"));
+        // only the load changes in H2: same branches, the matrix of H2 differing at B2
+        nt2.getVariantManager().setWorkingVariant("H2");
+        nt2.getLoad("LOAD_2").setP0(2 * nt2.getLoad("LOAD_2").getP0());
+        List<String> variantIds = List.of(initialVariantId, "H1", "H2");
+
+        ShortCircuitFault sc1 = new ShortCircuitFault("B1", "sc1", 0., 0., ShortCircuitFault.ShortCircuitType.TRIPHASED_GROUND);
+        ShortCircuitFault sc2 = new ShortCircuitFault("B2", "sc2", 0., 0., ShortCircuitFault.ShortCircuitType.TRIPHASED_GROUND);
+        ShortCircuitEngineParameters scbParameters = new ShortCircuitEngineParameters(new LoadFlowParameters(), matrixFactory, ShortCircuitEngineParameters.AnalysisType.SELECTIVE,
+                List.of(sc1, sc2), false, ShortCircuitEngineParameters.VoltageProfileType.NOMINAL, false, ShortCircuitEngineParameters.PeriodType.TRANSIENT, new ShortCircuitNormNone());
+
+        // reference: an engine run per variant
+        Map<String, Map<ShortCircuitFault, Double>> ikPerVariant = new HashMap<>();
+        for (String variantId : variantIds) {
+            nt2.getVariantManager().setWorkingVariant(variantId);
+            ShortCircuitBalancedEngine scbEngine = new ShortCircuitBalancedEngine(nt2, scbParameters);
+            scbEngine.run();
+            Map<ShortCircuitFault, Double> ikPerFault = new HashMap<>();
+            scbEngine.resultsPerFault.forEach((scf, result) -> ikPerFault.put(scf, result.getIk().getKey()));
+            ikPerVariant.put(variantId, ikPerFault);
+        }
+        nt2.getVariantManager().setWorkingVariant(initialVariantId);
+
+        ShortCircuitTimeSeries timeSeries = new ShortCircuitTimeSeries(nt2, scbParameters);
+        checkTimeSeries(ikPerVariant, timeSeries.run(variantIds, null));
+        assertEquals(initialVariantId, nt2.getVariantManager().getWorkingVariantId());
+        assertEquals(1, timeSeries.getFactorizationCount());
+        assertEquals(1, timeSeries.getUpdatedVariantCount());
+        assertThrows(IllegalArgumentException.class, () -> timeSeries.run(variantIds, Runnable::run));
+
+        // same results with the variants computed concurrently
+        nt2.getVariantManager().allowVariantMultiThreadAccess(true);
+        nt2.getVariantManager().setWorkingVariant(initialVariantId);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            checkTimeSeries(ikPerVariant, timeSeries.run(variantIds, executor));
+            assertEquals(1, timeSeries.getFactorizationCount());
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        }
+    }
+
+    @Test
+    void shortCircuitTimeSeriesFactorizedVariant() {
+        Network nt4 = create4n(NetworkFactory.findDefault());
+        loadFlowRunner.run(nt4, parameters);
+        String initialVariantId = nt4.getVariantManager().getWorkingVariantId();
+        nt4.getVariantManager().cloneVariant(initialVariantId, List.of("H1", "H2"));
+        // H1 changes the load of B3, H2 the loads of B3 and B4
+        nt4.getVariantManager().setWorkingVariant("H1");
+        nt4.getLoad("LOAD_3").setP0(2 * nt4.getLoad("LOAD_3").getP0());
+        nt4.getVariantManager().setWorkingVariant("H2");
+        nt4.getLoad("LOAD_3").setP0(0.5 * nt4.getLoad("LOAD_3").getP0());
+        nt4.getLoad("LOAD_4").setQ0(3 * nt4.getLoad("LOAD_4").getQ0());
+        List<String> variantIds = List.of(initialVariantId, "H1", "H2");
+
+        List<ShortCircuitFault> faults = new ArrayList<>();
+        for (String busId : List.of("B1", "B2", "B3", "B4")) {
+            faults.add(new ShortCircuitFault(busId, "sc_" + busId, 0., 0., ShortCircuitFault.ShortCircuitType.TRIPHASED_GROUND));
+        }
+        ShortCircuitEngineParameters scbParameters = new ShortCircuitEngineParameters(new LoadFlowParameters(), matrixFactory, ShortCircuitEngineParameters.AnalysisType.SELECTIVE,
+                faults, false, ShortCircuitEngineParameters.VoltageProfileType.NOMINAL, false, ShortCircuitEngineParameters.PeriodType.TRANSIENT, new ShortCircuitNormNone());
+
+        // reference: an engine run per variant
+        Map<String, Map<ShortCircuitFault, Double>> ikPerVariant = new HashMap<>();
+        for (String variantId : variantIds) {
+            nt4.getVariantManager().setWorkingVariant(variantId);
+            ShortCircuitBalancedEngine scbEngine = new ShortCircuitBalancedEngine(nt4, scbParameters);
+            scbEngine.run();
+            Map<ShortCircuitFault, Double> ikPerFault = new HashMap<>();
+            scbEngine.resultsPerFault.forEach((scf, result) -> ikPerFault.put(scf, result.getIk().getKey()));
+            ikPerVariant.put(variantId, ikPerFault);
+        }
+        nt4.getVariantManager().setWorkingVariant(initialVariantId);
+
+        // both changed variants are updated from the shared matrix
+        ShortCircuitTimeSeries timeSeries = new ShortCircuitTimeSeries(nt4, scbParameters);
+        checkTimeSeries(ikPerVariant, timeSeries.run(variantIds, null));
+        assertEquals(1, timeSeries.getFactorizationCount());
+        assertEquals(2, timeSeries.getUpdatedVariantCount());
+
+        // with at most one changed bus, H2 factorizes its own matrix, with the same results
+        ShortCircuitTimeSeries limitedTimeSeries = new ShortCircuitTimeSeries(nt4, scbParameters, 1);
+        checkTimeSeries(ikPerVariant, limitedTimeSeries.run(variantIds, null));
+        assertEquals(2, limitedTimeSeries.getFactorizationCount());
+        assertEquals(1, limitedTimeSeries.getUpdatedVariantCount());
+
+        // without any changed bus allowed, each changed variant is factorized
+        ShortCircuitTimeSeries factorizedTimeSeries = new ShortCircuitTimeSeries(nt4, scbParameters, 0);
+        checkTimeSeries(ikPerVariant, factorizedTimeSeries.run(variantIds, null));
+        assertEquals(3, factorizedTimeSeries.getFactorizationCount());
+        assertEquals(0, factorizedTimeSeries.getUpdatedVariantCount());
+
+        // with the columns of a single bus kept, the evicted columns are solved again with the same results
+        ShortCircuitTimeSeries boundedTimeSeries = new ShortCircuitTimeSeries(nt4, scbParameters, BaseImpedanceMatrix.DEFAULT_MAX_CHANGED_BUS_COUNT, 1);
+        checkTimeSeries(ikPerVariant, boundedTimeSeries.run(variantIds, null));
+        assertEquals(1, boundedTimeSeries.getFactorizationCount());
+        assertEquals(2, boundedTimeSeries.getUpdatedVariantCount());
+
+        assertThrows(IllegalArgumentException.class, () -> new ShortCircuitTimeSeries(nt4, scbParameters, -1));
+        assertThrows(IllegalArgumentException.class, () -> new ShortCircuitTimeSeries(nt4, scbParameters, 1, -1));
+    }
+
+    private static void checkTimeSeries(Map<String, Map<ShortCircuitFault, Double>> ikPerVariant, Map<String, Map<ShortCircuitFault, ShortCircuitResult>> resultsPerVariant) {
+        assertEquals(ikPerVariant.keySet(), resultsPerVariant.keySet());
+        for (Map.Entry<String, Map<ShortCircuitFault, Double>> e : ikPerVariant.entrySet()) {
+            Map<ShortCircuitFault, ShortCircuitResult> results = resultsPerVariant.get(e.getKey());
+            assertEquals(e.getValue().keySet(), results.keySet());
+            e.getValue().forEach((scf, ik) -> assertEquals(ik, results.get(scf).getIk().getKey(), 0.000001));
+        }
+    }
+}
@@ -6,15 +6,13 @@
  */
 package com.powsybl.incubator.simulator.util;
 
-import com.powsybl.incubator.simulator.util.extensions.ScTransfo3wKt;
-import com.powsybl.incubator.simulator.util.extensions.ShortCircuitExtensions;
+import com.powsybl.incubator.simulator.util.extensions.BranchAdmittanceTable;
 import com.powsybl.openloadflow.equations.AbstractElementEquationTerm;
 import com.powsybl.openloadflow.equations.Variable;
 import com.powsybl.openloadflow.equations.VariableSet;
 import com.powsybl.openloadflow.network.ElementType;
 import com.powsybl.openloadflow.network.LfBranch;
 import com.powsybl.openloadflow.network.LfBus;
-import com.powsybl.openloadflow.network.PiModel;
 
 import java.util.List;
 import java.util.Objects;
@@ -34,35 +32,22 @@ public abstract class AbstractAdmittanceEquationTerm extends AbstractElementEqua
 
     protected final List<Variable<VariableType>> variables;
 
-    protected double rho;
+    // coefficients of V1r, V1i, V2r and V2i, read from a row of the branch admittance matrix
+    private final double v1rCoefficient;
 
-    protected double zInvSquare;
+    private final double v1iCoefficient;
 
-    protected double r;
+    private final double v2rCoefficient;
 
-    protected double x;
+    private final double v2iCoefficient;
 
-    protected double cosA;
-
-    protected double sinA;
-
-    protected double cos2A;
-
-    protected double sin2A;
-
-    protected double gPi1;
-
-    protected double bPi1;
-
-    protected double gPi2;
-
-    protected double bPi2;
-
-    protected AbstractAdmittanceEquationTerm(LfBranch branch, LfBus bus1, LfBus bus2, VariableSet<VariableType> variableSet) {
+    protected AbstractAdmittanceEquationTerm(LfBranch branch, LfBus bus1, LfBus bus2, VariableSet<VariableType> variableSet,
+                                             BranchAdmittanceTable admittanceTable, int row) {
         super(branch);
         Objects.requireNonNull(bus1);
         Objects.requireNonNull(bus2);
         Objects.requireNonNull(variableSet);
+        Objects.requireNonNull(admittanceTable);
 
         v1rVar = variableSet.getVariable(bus1.getNum(), VariableType.BUS_VR);
         v2rVar = variableSet.getVariable(bus2.getNum(), VariableType.BUS_VR);
@@ -71,61 +56,26 @@ public abstract class AbstractAdmittanceEquationTerm extends AbstractElementEqua
 
         variables = List.of(v1rVar, v2rVar, v1iVar, v2iVar);
 
-        PiModel piModel = branch.getPiModel();
-        if (piModel.getX() == 0) {
-            throw new IllegalArgumentException("Branch '" + branch.getId() + "' has reactance equal to zero");
-        }
-        rho = piModel.getR1();
-        if (piModel.getZ() == 0) {
-            throw new IllegalArgumentException("Branch '" + branch.getId() + "' has Z equal to zero");
-        }
+        admittanceTable.check(branch);
+        v1rCoefficient = admittanceTable.get(branch.getNum(), row, BranchAdmittanceTable.COL_V1R);
+        v1iCoefficient = admittanceTable.get(branch.getNum(), row, BranchAdmittanceTable.COL_V1I);
+        v2rCoefficient = admittanceTable.get(branch.getNum(), row, BranchAdmittanceTable.COL_V2R);
+        v2iCoefficient = admittanceTable.get(branch.getNum(), row, BranchAdmittanceTable.COL_V2I);
+    }
 
-        double kTr = 1.;
-        double kTx = 1.;
-        if (branch.getBranchType() == LfBranch.BranchType.TRANSFO_2) {
-            // branch is a 2 windings transformer
-            if (branch.getProperty(ShortCircuitExtensions.PROPERTY_SHORT_CIRCUIT_NORM) != null) {
-                kTx = (Double) branch.getProperty(ShortCircuitExtensions.PROPERTY_SHORT_CIRCUIT_NORM);
-                kTr = kTx;
-            }
-        } else if (branch.getBranchType() == LfBranch.BranchType.TRANSFO_3_LEG_1
-                || branch.getBranchType() == LfBranch.BranchType.TRANSFO_3_LEG_2
-                || branch.getBranchType() == LfBranch.BranchType.TRANSFO_3_LEG_3) {
-            // branch is leg1 of a 3 windings transformer and homopolar data available
-            ScTransfo3wKt scTransfoKt = (ScTransfo3wKt) branch.getProperty(ShortCircuitExtensions.PROPERTY_SHORT_CIRCUIT_NORM);
-            if (scTransfoKt != null) {
-                if (branch.getBranchType() == LfBranch.BranchType.TRANSFO_3_LEG_1) {
-                    kTr = scTransfoKt.getLeg1().getkTr();
-                    kTx = scTransfoKt.getLeg1().getkTx();
-                } else if (branch.getBranchType() == LfBranch.BranchType.TRANSFO_3_LEG_2) {
-                    kTr = scTransfoKt.getLeg2().getkTr();
-                    kTx = scTransfoKt.getLeg2().getkTx();
-                } else if (branch.getBranchType() == LfBranch.BranchType.TRANSFO_3_LEG_3) {
-                    kTr = scTransfoKt.getLeg3().getkTr();
-                    kTx = scTransfoKt.getLeg3().getkTx();
-                } else {
-                    throw new IllegalArgumentException("Branch " + branch.getId() + " has unknown 3-winding leg number");
-                }
-            }
+    @Override
+    public double getCoefficient(Variable<VariableType> variable) {
+        if (variable.equals(v1rVar)) {
+            return v1rCoefficient;
+        } else if (variable.equals(v2rVar)) {
+            return v2rCoefficient;
+        } else if (variable.equals(v1iVar)) {
+            return v1iCoefficient;
+        } else if (variable.equals(v2iVar)) {
+            return v2iCoefficient;
+        } else {
+            throw new IllegalArgumentException("Unknown variable " + variable);
         }
-
-        r = piModel.getR() * kTr;
-        x = piModel.getX() * kTx;
-
-        double zk = Math.sqrt(r * r + x * x);
-
-        zInvSquare = 1 / (zk * zk);
-
-        double alpha = piModel.getA1();
-        cosA = Math.cos(Math.toRadians(alpha));
-        sinA = Math.sin(Math.toRadians(alpha));
-        cos2A = Math.cos(Math.toRadians(2 * alpha));
-        sin2A = Math.sin(Math.toRadians(2 * alpha));
-
-        gPi1 = piModel.getG1() / kTr;
-        bPi1 = piModel.getB1() / kTx;
-        gPi2 = piModel.getG2() / kTr;
-        bPi2 = piModel.getB2() / kTx;
     }
 
     @Override
@@ -6,9 +6,9 @@
  */
 package com.powsybl.incubator.simulator.util;
 
-import com.powsybl.incubator.simulator.util.extensions.ShortCircuitExtensions;
-import com.powsybl.incubator.simulator.util.extensions.ScGenerator;
-import com.powsybl.incubator.simulator.util.extensions.ScLoad;
+import com.powsybl.incubator.simulator.util.extensions.BranchAdmittanceTable;
+import com.powsybl.incubator.simulator.util.extensions.ShortCircuitNetworkData;
+import com.powsybl.incubator.simulator.util.extensions.ZeroImpedanceContraction;
 import com.powsybl.openloadflow.ac.outerloop.AcLoadFlowContext;
 import com.powsybl.openloadflow.ac.outerloop.AcLoadFlowParameters;
 import com.powsybl.openloadflow.ac.outerloop.AcloadFlowEngine;
@@ -22,6 +22,8 @@ import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 /**
  * @author Jean-Baptiste Heyberger <jbheyberger at gmail.com>
@@ -39,20 +41,20 @@ public final class AdmittanceEquationSystem {
 
     //Equations are created based on the branches connections
     private static void createImpedantBranch(VariableSet<VariableType> variableSet, EquationSystem<VariableType, EquationType> equationSystem,
-                                             LfBranch branch, LfBus bus1, LfBus bus2, AdmittanceType admittanceType) {
+                                             LfBranch branch, LfBus bus1, LfBus bus2, BranchAdmittanceTable admittanceTable) {
         if (bus1 != null && bus2 != null) {
             // Equation system Y*V = I (expressed in cartesian coordinates x,y)
             equationSystem.createEquation(bus1.getNum(), EquationType.BUS_YR)
-                    .addTerm(new AdmittanceEquationTermX1(branch, bus1, bus2, variableSet, admittanceType));
+                    .addTerm(new AdmittanceEquationTermX1(branch, bus1, bus2, variableSet, admittanceTable));
 
             equationSystem.createEquation(bus1.getNum(), EquationType.BUS_YI)
-                    .addTerm(new AdmittanceEquationTermY1(branch, bus1, bus2, variableSet, admittanceType));
+                    .addTerm(new AdmittanceEquationTermY1(branch, bus1, bus2, variableSet, admittanceTable));
 
             equationSystem.createEquation(bus2.getNum(), EquationType.BUS_YR)
-                    .addTerm(new AdmittanceEquationTermX2(branch, bus1, bus2, variableSet, admittanceType));
+                    .addTerm(new AdmittanceEquationTermX2(branch, bus1, bus2, variableSet, admittanceTable));
 
             equationSystem.createEquation(bus2.getNum(), EquationType.BUS_YI)
-                    .addTerm(new AdmittanceEquationTermY2(branch, bus1, bus2, variableSet, admittanceType));
+                    .addTerm(new AdmittanceEquationTermY2(branch, bus1, bus2, variableSet, admittanceTable));
         }
     }
 
@@ -75,22 +77,94 @@ public final class AdmittanceEquationSystem {
         ADM_STEADY_STATE,
     }
 
-    private static void createBranches(LfNetwork network, VariableSet<VariableType> variableSet, EquationSystem<VariableType, EquationType> equationSystem, AdmittanceType admittanceType) {
+    /**
+     * Nodes of non impedant branches merged in the admittance matrix of the given type, null if the busses are not merged:
+     * only the short circuit admittance matrices are contracted, the reduction keeping one equation per bus.
+     */
+    public static ZeroImpedanceContraction getZeroImpedanceContraction(AdmittanceType admittanceType, ShortCircuitNetworkData data) {
+        if (admittanceType == AdmittanceType.ADM_THEVENIN || admittanceType == AdmittanceType.ADM_THEVENIN_HOMOPOLAR) {
+            return data.getZeroImpedanceContraction();
+        }
+        return null;
+    }
+
+    private static LfBus getRepresentative(LfNetwork network, LfBus bus, ZeroImpedanceContraction contraction) {
+        if (bus == null || contraction == null) {
+            return bus;
+        }
+        return network.getBus(contraction.getRepresentative(bus.getNum()));
+    }
+
+    private static void createBranches(LfNetwork network, VariableSet<VariableType> variableSet, EquationSystem<VariableType, EquationType> equationSystem, AdmittanceType admittanceType,
+                                       ShortCircuitNetworkData data, KronElimination elimination) {
+        BranchAdmittanceTable admittanceTable = data.getAdmittanceTable(admittanceType == AdmittanceType.ADM_THEVENIN_HOMOPOLAR);
+        ZeroImpedanceContraction contraction = getZeroImpedanceContraction(admittanceType, data);
         for (LfBranch branch : network.getBranches()) {
-            LfBus bus1 = branch.getBus1();
-            LfBus bus2 = branch.getBus2();
+            if (contraction != null && contraction.isContracted(branch.getNum())) {
+                continue; // both sides are the same node of the matrix
+            }
+            // equations and variables of a bus merged into a node are those of the representative bus of the node
+            LfBus bus1 = getRepresentative(network, branch.getBus1(), contraction);
+            LfBus bus2 = getRepresentative(network, branch.getBus2(), contraction);
             PiModel piModel = branch.getPiModel();
             if (FastMath.abs(piModel.getX()) < LfNetworkParameters.LOW_IMPEDANCE_THRESHOLD_DEFAULT_VALUE) {
+                // non impedant branches are merged into nodes (see getZeroImpedanceContraction) only without ratio nor phase shift
                 if (bus1 != null && bus2 != null) {
-                    LOGGER.warn("Warning: Branch = {} : Non impedant lines not supported in the current version of the reduction method",
-                            branch.getId());
+                    LOGGER.warn("Warning: Branch = {} : non impedant branch {}, dropped from the admittance matrix",
+                            branch.getId(), contraction != null ? "with a ratio or a phase shift not supported" : "not supported by this admittance type");
                 }
+            } else if (bus1 != null && bus1 == bus2) {
+                createInternalBranch(variableSet, equationSystem, branch, bus1, admittanceTable, elimination);
+            } else if (elimination != null) {
+                addBranchToElimination(branch, bus1, bus2, admittanceTable, elimination);
             } else {
-                createImpedantBranch(variableSet, equationSystem, branch, bus1, bus2, admittanceType);
+                createImpedantBranch(variableSet, equationSystem, branch, bus1, bus2, admittanceTable);
             }
         }
     }
 
+    private static void addBranchToElimination(LfBranch branch, LfBus bus1, LfBus bus2, BranchAdmittanceTable admittanceTable, KronElimination elimination) {
+        if (bus1 != null && bus2 != null) {
+            admittanceTable.check(branch);
+            int num = branch.getNum();
+            int node1 = bus1.getNum();
+            int node2 = bus2.getNum();
+            // each complex term Yij = g + j.b is read from the first column of its block [ g -b ; b g ]
+            elimination.addShunt(node1, admittanceTable.get(num, BranchAdmittanceTable.ROW_I1R, BranchAdmittanceTable.COL_V1R),
+                    admittanceTable.get(num, BranchAdmittanceTable.ROW_I1I, BranchAdmittanceTable.COL_V1R));
+            elimination.addCoupling(node1, node2, admittanceTable.get(num, BranchAdmittanceTable.ROW_I1R, BranchAdmittanceTable.COL_V2R),
+                    admittanceTable.get(num, BranchAdmittanceTable.ROW_I1I, BranchAdmittanceTable.COL_V2R));
+            elimination.addCoupling(node2, node1, admittanceTable.get(num, BranchAdmittanceTable.ROW_I2R, BranchAdmittanceTable.COL_V1R),
+                    admittanceTable.get(num, BranchAdmittanceTable.ROW_I2I, BranchAdmittanceTable.COL_V1R));
+            elimination.addShunt(node2, admittanceTable.get(num, BranchAdmittanceTable.ROW_I2R, BranchAdmittanceTable.COL_V2R),
+                    admittanceTable.get(num, BranchAdmittanceTable.ROW_I2I, BranchAdmittanceTable.COL_V2R));
+        }
+    }
+
+    // A branch with both sides in the same node only carries the current of its shunt admittances:
+    // with V1 = V2 = V, I1 + I2 = (Y11 + Y12 + Y21 + Y22) * V
+    private static void createInternalBranch(VariableSet<VariableType> variableSet, EquationSystem<VariableType, EquationType> equationSystem,
+                                             LfBranch branch, LfBus bus, BranchAdmittanceTable admittanceTable, KronElimination elimination) {
+        admittanceTable.check(branch);
+        int num = branch.getNum();
+        double g = 0.;
+        double b = 0.;
+        for (int row : new int[] {BranchAdmittanceTable.ROW_I1R, BranchAdmittanceTable.ROW_I2R}) {
+            g += admittanceTable.get(num, row, BranchAdmittanceTable.COL_V1R) + admittanceTable.get(num, row, BranchAdmittanceTable.COL_V2R);
+        }
+        for (int row : new int[] {BranchAdmittanceTable.ROW_I1I, BranchAdmittanceTable.ROW_I2I}) {
+            b += admittanceTable.get(num, row, BranchAdmittanceTable.COL_V1R) + admittanceTable.get(num, row, BranchAdmittanceTable.COL_V2R);
+        }
+        if (elimination != null) {
+            elimination.addShunt(bus.getNum(), g, b);
+        } else if (Math.abs(g) > EPSILON || Math.abs(b) > EPSILON) {
+            equationSystem.createEquation(bus.getNum(), EquationType.BUS_YR)
+                    .addTerm(new AdmittanceEquationTermShunt(g, b, bus, variableSet, true));
+            equationSystem.createEquation(bus.getNum(), EquationType.BUS_YI)
+                    .addTerm(new AdmittanceEquationTermShunt(g, b, bus, variableSet, false));
+        }
+    }
+
     private static double getBfromShunt(LfBus bus) {
         List<Feeder> feederList = new ArrayList<>();
         return getBfromShunt(bus, feederList);
@@ -116,19 +190,20 @@ public final class AdmittanceEquationSystem {
         return tmpB;
     }
 
-    private static Pair<Double, Double> getYtransfromRdXd(LfBus bus, AdmittancePeriodType admittancePeriodType, List<Feeder> feederList, AdmittanceType admittanceType) {
+    private static Pair<Double, Double> getYtransfromRdXd(LfBus bus, AdmittancePeriodType admittancePeriodType, List<Feeder> feederList, AdmittanceType admittanceType,
+                                                          ShortCircuitNetworkData data) {
         double vnomVl = bus.getNominalV();
 
         double tmpG = 0.;
         double tmpB = 0.;
-        for (LfGenerator lfgen : bus.getGenerators()) { //compute R'd or R"d from generators at bus
-            ScGenerator scGen = (ScGenerator) lfgen.getProperty(ShortCircuitExtensions.PROPERTY_SHORT_CIRCUIT);
-            double kG = (Double) lfgen.getProperty(ShortCircuitExtensions.PROPERTY_SHORT_CIRCUIT_NORM);
-            double r = (scGen.getTransRd() + scGen.getStepUpTfoR()) * kG;
-            double x = (scGen.getTransXd() + scGen.getStepUpTfoX()) * kG;
+        data.checkBus(bus);
+        for (int i = data.getGeneratorStart(bus.getNum()); i < data.getGeneratorEnd(bus.getNum()); i++) { //compute R'd or R"d from generators at bus
+            double kG = data.getGeneratorKg(i);
+            double r = (data.getGeneratorTransRd(i) + data.getGeneratorStepUpTfoR(i)) * kG;
+            double x = (data.getGeneratorTransXd(i) + data.getGeneratorStepUpTfoX(i)) * kG;
             if (admittancePeriodType == AdmittancePeriodType.ADM_SUB_TRANSIENT) {
-                x = (scGen.getSubTransXd() + scGen.getStepUpTfoX()) * kG;
-                r = (scGen.getSubTransRd() + scGen.getStepUpTfoR()) * kG;
+                x = (data.getGeneratorSubTransXd(i) + data.getGeneratorStepUpTfoX(i)) * kG;
+                r = (data.getGeneratorSubTransRd(i) + data.getGeneratorStepUpTfoR(i)) * kG;
             }
 
             if (admittanceType == AdmittanceType.ADM_THEVENIN_HOMOPOLAR) {
@@ -136,9 +211,9 @@ public final class AdmittanceEquationSystem {
                 // further improvement might be needed if xo and ro are different for transient and subTransient short circuit analysis
                 r = 0.;
                 x = 0.;
-                if (scGen.isGrounded()) {
-                    r = scGen.getRo();
-                    x = scGen.getXo();
+                if (data.isGeneratorGrounded(i)) {
+                    r = data.getGeneratorRo(i);
+                    x = data.getGeneratorXo(i);
                 }
             }
 
@@ -148,7 +223,7 @@ public final class AdmittanceEquationSystem {
                 double bGen = -(vnomVl * vnomVl / SB) * x / (r * r + x * x);
                 tmpG = tmpG + gGen;
                 tmpB = tmpB + bGen; // TODO: check: for now X'd = 0 not allowed
-                Feeder shuntFeeder = new Feeder(bGen, gGen, lfgen.getId(), Feeder.FeederType.GENERATOR);
+                Feeder shuntFeeder = new Feeder(bGen, gGen, data.getGeneratorId(i), Feeder.FeederType.GENERATOR);
                 feederList.add(shuntFeeder);
             }
         }
@@ -158,100 +233,151 @@ public final class AdmittanceEquationSystem {
 
     private static void createShunts(LfNetwork network, VariableSet<VariableType> variableSet, EquationSystem<VariableType, EquationType> equationSystem, AdmittanceType admittanceType,
                                      AdmittanceVoltageProfileType admittanceVoltageProfileType, AdmittancePeriodType admittancePeriodType,
-                                     boolean isShuntsIgnore, FeedersAtNetwork feeders) {
+                                     boolean isShuntsIgnore, FeedersAtNetwork feeders, ShortCircuitNetworkData data, KronElimination elimination) {
+        ZeroImpedanceContraction contraction = getZeroImpedanceContraction(admittanceType, data);
         for (LfBus bus : network.getBuses()) {
+            Pair<Double, Double> gAndB = getBusShunt(bus, admittanceType, admittanceVoltageProfileType, admittancePeriodType, isShuntsIgnore, feeders, data);
+            double g = gAndB.getKey();
+            double b = gAndB.getValue();
+
+            // the shunts of the busses of a node are summed at its representative bus, the feeders being kept at their own bus
+            LfBus nodeBus = getRepresentative(network, bus, contraction);
+            if (elimination != null) {
+                elimination.addShunt(nodeBus.getNum(), g, b);
+            } else if (Math.abs(g) > EPSILON || Math.abs(b) > EPSILON) {
+                equationSystem.createEquation(nodeBus.getNum(), EquationType.BUS_YR)
+                        .addTerm(new AdmittanceEquationTermShunt(g, b, nodeBus, variableSet, true));
+                equationSystem.createEquation(nodeBus.getNum(), EquationType.BUS_YI)
+                        .addTerm(new AdmittanceEquationTermShunt(g, b, nodeBus, variableSet, false));
+            }
+        }
+    }
 
-            //total shunt at bus to be integrated in the admittance matrix
-            double g = 0.;
-            double b = 0.;
-
-            //shunts created to represent the equivalence of loads and to be integrated in the total admittance matrix shunt at bus
-            double gLoadEq = 0.;
-            double bLoadEq = 0.;
-
-            //shunts created to represent the equivalence of generating units sand to be integrated in the total admittance matrix shunt at bus
-            double gGenEq = 0.;
-            double bGenEq = 0.;
+    // total shunt {g, b} of the bus in the admittance matrix: physical shunts and equivalent shunts of its loads and
+    // generators, the feeders of the bus being added to feeders if not null
+    private static Pair<Double, Double> getBusShunt(LfBus bus, AdmittanceType admittanceType, AdmittanceVoltageProfileType admittanceVoltageProfileType,
+                                                    AdmittancePeriodType admittancePeriodType, boolean isShuntsIgnore, FeedersAtNetwork feeders,
+                                                    ShortCircuitNetworkData data) {
+        //total shunt at bus to be integrated in the admittance matrix
+        double g = 0.;
+        double b = 0.;
+
+        //shunts created to represent the equivalence of loads and to be integrated in the total admittance matrix shunt at bus
+        double gLoadEq = 0.;
+        double bLoadEq = 0.;
+
+        //shunts created to represent the equivalence of generating units sand to be integrated in the total admittance matrix shunt at bus
+        double gGenEq = 0.;
+        double bGenEq = 0.;
+
+        //choice of vbase to be used to transform power injections into equivalent shunts
+        double vr = bus.getV() * Math.cos(bus.getAngle());
+        double vi = bus.getV() * Math.sin(bus.getAngle());
+        if (admittanceVoltageProfileType == AdmittanceVoltageProfileType.NOMINAL) {
+            vr = 1.0;
+            vi = 0.;
+        }
+        boolean isBusPv = bus.isVoltageControlled();
 
-            //choice of vbase to be used to transform power injections into equivalent shunts
-            double vr = bus.getV() * Math.cos(bus.getAngle());
-            double vi = bus.getV() * Math.sin(bus.getAngle());
-            if (admittanceVoltageProfileType == AdmittanceVoltageProfileType.NOMINAL) {
-                vr = 1.0;
-                vi = 0.;
+        if (admittanceType == AdmittanceType.ADM_SHUNT) {
+            if (!isShuntsIgnore) {
+                b = getBfromShunt(bus); // Handling shunts that physically exist
+            }
+        } else if (admittanceType == AdmittanceType.ADM_ADMIT) {
+            if (!isShuntsIgnore) {
+                b = getBfromShunt(bus); // Handling shunts that physically exist
             }
-            boolean isBusPv = bus.isVoltageControlled();
-
-            if (admittanceType == AdmittanceType.ADM_SHUNT) {
-                if (!isShuntsIgnore) {
-                    b = getBfromShunt(bus); // Handling shunts that physically exist
-                }
-            } else if (admittanceType == AdmittanceType.ADM_ADMIT) {
-                if (!isShuntsIgnore) {
-                    b = getBfromShunt(bus); // Handling shunts that physically exist
-                }
 
-                ScLoad scLoad = (ScLoad) bus.getProperty(ShortCircuitExtensions.PROPERTY_SHORT_CIRCUIT);
-                gLoadEq = scLoad.getGdEquivalent() / (vr * vr + vi * vi);
-                bLoadEq = scLoad.getBdEquivalent() / (vr * vr + vi * vi);
+            data.checkBus(bus);
+            gLoadEq = data.getBusLoadG(bus.getNum()) / (vr * vr + vi * vi);
+            bLoadEq = data.getBusLoadB(bus.getNum()) / (vr * vr + vi * vi);
 
-                // Handling transformation of generators into equivalent shunts
-                // Warning !!! : evaluation of power injections mandatory
-                gGenEq = -bus.getP().eval() / (vr * vr + vi * vi) - gLoadEq; // full nodal P injection without the load
+            // Handling transformation of generators into equivalent shunts
+            // Warning !!! : evaluation of power injections mandatory
+            gGenEq = -bus.getP().eval() / (vr * vr + vi * vi) - gLoadEq; // full nodal P injection without the load
 
-                if (isBusPv) {
-                    bGenEq = bus.getQ().eval() / (vr * vr + vi * vi) + bLoadEq; // full nodal Q injection without the load
-                } else {
-                    bGenEq = bus.getGenerationTargetQ() / (vr * vr + vi * vi);
-                }
-            } else if (admittanceType == AdmittanceType.ADM_THEVENIN) {
+            if (isBusPv) {
+                bGenEq = bus.getQ().eval() / (vr * vr + vi * vi) + bLoadEq; // full nodal Q injection without the load
+            } else {
+                bGenEq = bus.getGenerationTargetQ() / (vr * vr + vi * vi);
+            }
+        } else if (admittanceType == AdmittanceType.ADM_THEVENIN) {
 
-                List<Feeder> feederList = new ArrayList<>();
+            List<Feeder> feederList = new ArrayList<>();
 
-                if (!isShuntsIgnore) {
-                    // Handling shunts that physically exist
-                    b = getBfromShunt(bus, feederList); // ! updates feederList
-                }
+            if (!isShuntsIgnore) {
+                // Handling shunts that physically exist
+                b = getBfromShunt(bus, feederList); // ! updates feederList
+            }
 
-                ScLoad scLoad = (ScLoad) bus.getProperty(ShortCircuitExtensions.PROPERTY_SHORT_CIRCUIT);
-                gLoadEq = scLoad.getGdEquivalent() / (vr * vr + vi * vi);
-                bLoadEq = scLoad.getBdEquivalent() / (vr * vr + vi * vi);
+            data.checkBus(bus);
+            gLoadEq = data.getBusLoadG(bus.getNum()) / (vr * vr + vi * vi);
+            bLoadEq = data.getBusLoadB(bus.getNum()) / (vr * vr + vi * vi);
 
-                Feeder shuntFeeder = new Feeder(bLoadEq, gLoadEq, bus.getId(), Feeder.FeederType.LOAD);
-                feederList.add(shuntFeeder);
+            Feeder shuntFeeder = new Feeder(bLoadEq, gLoadEq, bus.getId(), Feeder.FeederType.LOAD);
+            feederList.add(shuntFeeder);
 
-                Pair<Double, Double> bAndG = getYtransfromRdXd(bus, admittancePeriodType, feederList, admittanceType); // ! updates feederList
-                bGenEq = bAndG.getValue(); //TODO : check how to verify that the generators are operating
-                gGenEq = bAndG.getKey();
+            Pair<Double, Double> bAndG = getYtransfromRdXd(bus, admittancePeriodType, feederList, admittanceType, data); // ! updates feederList
+            bGenEq = bAndG.getValue(); //TODO : check how to verify that the generators are operating
+            gGenEq = bAndG.getKey();
 
+            if (feeders != null) {
                 FeedersAtBus shortCircuitEquationSystemBusFeeders = new FeedersAtBus(feederList, bus);
                 feeders.busToFeeders.put(bus, shortCircuitEquationSystemBusFeeders);
+            }
 
-            } else if (admittanceType == AdmittanceType.ADM_THEVENIN_HOMOPOLAR) {
+        } else if (admittanceType == AdmittanceType.ADM_THEVENIN_HOMOPOLAR) {
 
-                List<Feeder> feederList = new ArrayList<>(); // not used yet in homopolar
+            List<Feeder> feederList = new ArrayList<>(); // not used yet in homopolar
 
-                Pair<Double, Double> bAndG = getYtransfromRdXd(bus, admittancePeriodType, feederList, admittanceType); // ! updates feederList
-                bGenEq = bAndG.getValue(); //TODO : check how to verify that the generators are operating
-                gGenEq = bAndG.getKey();
+            Pair<Double, Double> bAndG = getYtransfromRdXd(bus, admittancePeriodType, feederList, admittanceType, data); // ! updates feederList
+            bGenEq = bAndG.getValue(); //TODO : check how to verify that the generators are operating
+            gGenEq = bAndG.getKey();
 
-            }
+        }
 
-            g = g + gLoadEq + gGenEq;
-            b = b + bLoadEq + bGenEq;
+        g = g + gLoadEq + gGenEq;
+        b = b + bLoadEq + bGenEq;
+
+        return Pair.create(g, b);
+    }
 
+    /**
+     * Total shunts {g, b} of the nodes of the Thevenin admittance matrix of the given type, without building its equation
+     * system: elements 2 * num (g) and 2 * num + 1 (b) for the representative bus num of each node, 0 for the other
+     * busses. As in the matrix, the shunts of the busses of a node are summed at its representative bus, and a bus whose
+     * shunt is under the threshold of the matrix is ignored. These shunts are the only terms of the diagonal blocks
+     * [ g -b ; b g ] of the nodes which do not depend on the branches.
+     */
+    public static double[] getNodeShunts(LfNetwork network, AdmittanceType admittanceType, AdmittanceVoltageProfileType admittanceVoltageProfileType,
+                                         AdmittancePeriodType admittancePeriodType, boolean isShuntsIgnore, ShortCircuitNetworkData data) {
+        if (admittanceType != AdmittanceType.ADM_THEVENIN && admittanceType != AdmittanceType.ADM_THEVENIN_HOMOPOLAR) {
+            throw new IllegalArgumentException("Node shunts are only available for Thevenin admittance types, not " + admittanceType);
+        }
+        ZeroImpedanceContraction contraction = getZeroImpedanceContraction(admittanceType, data);
+        double[] shunts = new double[2 * network.getBuses().size()];
+        for (LfBus bus : network.getBuses()) {
+            Pair<Double, Double> gAndB = getBusShunt(bus, admittanceType, admittanceVoltageProfileType, admittancePeriodType, isShuntsIgnore, null, data);
+            double g = gAndB.getKey();
+            double b = gAndB.getValue();
             if (Math.abs(g) > EPSILON || Math.abs(b) > EPSILON) {
-                equationSystem.createEquation(bus.getNum(), EquationType.BUS_YR)
-                        .addTerm(new AdmittanceEquationTermShunt(g, b, bus, variableSet, true));
-                equationSystem.createEquation(bus.getNum(), EquationType.BUS_YI)
-                        .addTerm(new AdmittanceEquationTermShunt(g, b, bus, variableSet, false));
+                int nodeNum = getRepresentative(network, bus, contraction).getNum();
+                shunts[2 * nodeNum] += g;
+                shunts[2 * nodeNum + 1] += b;
             }
         }
+        return shunts;
     }
 
     public static EquationSystem<VariableType, EquationType> create(LfNetwork network, VariableSet<VariableType> variableSet,
                                                                     AdmittanceType admittanceType, AdmittanceVoltageProfileType admittanceVoltageProfileType,
                                                                     AcLoadFlowParameters acLoadFlowParameters) {
+        return create(network, variableSet, admittanceType, admittanceVoltageProfileType, acLoadFlowParameters, ShortCircuitNetworkData.build(network));
+    }
+
+    public static EquationSystem<VariableType, EquationType> create(LfNetwork network, VariableSet<VariableType> variableSet,
+                                                                    AdmittanceType admittanceType, AdmittanceVoltageProfileType admittanceVoltageProfileType,
+                                                                    AcLoadFlowParameters acLoadFlowParameters, ShortCircuitNetworkData data) {
 
         // Following data Not needed for reduction methods
         AdmittanceEquationSystem.AdmittancePeriodType admittancePeriodType = AdmittanceEquationSystem.AdmittancePeriodType.ADM_TRANSIENT;
@@ -260,13 +386,42 @@ public final class AdmittanceEquationSystem {
 
         return create(network, variableSet,
                 admittanceType, admittanceVoltageProfileType, admittancePeriodType, isShuntsIgnore,
-                equationsSystemFeeders, acLoadFlowParameters);
+                equationsSystemFeeders, acLoadFlowParameters, data);
     }
 
     public static EquationSystem<VariableType, EquationType> create(LfNetwork network, VariableSet<VariableType> variableSet,
                                                                     AdmittanceType admittanceType, AdmittanceVoltageProfileType admittanceVoltageProfileType,
                                                                     AdmittancePeriodType admittancePeriodType, boolean isShuntsIgnore, FeedersAtNetwork feeders,
                                                                     AcLoadFlowParameters acLoadFlowParameters) {
+        return create(network, variableSet, admittanceType, admittanceVoltageProfileType, admittancePeriodType, isShuntsIgnore, feeders,
+                acLoadFlowParameters, ShortCircuitNetworkData.build(network));
+    }
+
+    /**
+     * The short circuit data of the network, if already read (see ShortCircuitExtensions.add), avoids reading again the
+     * short circuit properties of its elements.
+     */
+    public static EquationSystem<VariableType, EquationType> create(LfNetwork network, VariableSet<VariableType> variableSet,
+                                                                    AdmittanceType admittanceType, AdmittanceVoltageProfileType admittanceVoltageProfileType,
+                                                                    AdmittancePeriodType admittancePeriodType, boolean isShuntsIgnore, FeedersAtNetwork feeders,
+                                                                    AcLoadFlowParameters acLoadFlowParameters, ShortCircuitNetworkData data) {
+        return create(network, variableSet, admittanceType, admittanceVoltageProfileType, admittancePeriodType, isShuntsIgnore, feeders,
+                acLoadFlowParameters, data, null);
+    }
+
+    /**
+     * If an elimination is given, the radial antennas and the star busses of three windings transformers are eliminated
+     * from the short circuit admittance matrices (see KronElimination): the equations are only created for the remaining
+     * busses and the elimination is filled to be given to the AdmittanceMatrix of the equations.
+     */
+    public static EquationSystem<VariableType, EquationType> create(LfNetwork network, VariableSet<VariableType> variableSet,
+                                                                    AdmittanceType admittanceType, AdmittanceVoltageProfileType admittanceVoltageProfileType,
+                                                                    AdmittancePeriodType admittancePeriodType, boolean isShuntsIgnore, FeedersAtNetwork feeders,
+                                                                    AcLoadFlowParameters acLoadFlowParameters, ShortCircuitNetworkData data,
+                                                                    KronElimination elimination) {
+        if (data.getNetwork() != network) {
+            throw new IllegalArgumentException("Short circuit data has been read from another LfNetwork");
+        }
 
         EquationSystem<VariableType, EquationType> equationSystem = new EquationSystem<>();
 
@@ -277,12 +432,70 @@ public final class AdmittanceEquationSystem {
             }
         }
 
-        createBranches(network, variableSet, equationSystem, admittanceType);
+        // only the short circuit admittance matrices, whose busses are already merged into nodes, are eliminated
+        ZeroImpedanceContraction contraction = getZeroImpedanceContraction(admittanceType, data);
+        KronElimination nodeElimination = contraction != null ? elimination : null;
+        if (nodeElimination != null) {
+            nodeElimination.init(network.getBuses().size());
+        }
+
+        createBranches(network, variableSet, equationSystem, admittanceType, data, nodeElimination);
         if (admittanceType != AdmittanceType.ADM_INJ) { //shunts created in the admittance matrix are only those that really exist in the network
-            createShunts(network, variableSet, equationSystem, admittanceType, admittanceVoltageProfileType, admittancePeriodType, isShuntsIgnore, feeders);
+            createShunts(network, variableSet, equationSystem, admittanceType, admittanceVoltageProfileType, admittancePeriodType, isShuntsIgnore, feeders, data, nodeElimination);
+        }
+
+        if (nodeElimination != null) {
+            createEliminatedSystem(network, variableSet, equationSystem, contraction, nodeElimination);
         }
 
         return equationSystem;
     }
 
+    private static void createEliminatedSystem(LfNetwork network, VariableSet<VariableType> variableSet, EquationSystem<VariableType, EquationType> equationSystem,
+                                               ZeroImpedanceContraction contraction, KronElimination elimination) {
+        int busCount = network.getBuses().size();
+        boolean[] nodes = new boolean[busCount];
+        boolean[] starNodes = new boolean[busCount];
+        for (int num = 0; num < busCount; num++) {
+            nodes[num] = contraction.isRepresentative(num);
+        }
+        for (LfBranch branch : network.getBranches()) {
+            LfBranch.BranchType branchType = branch.getBranchType();
+            if (branch.getBus2() != null && (branchType == LfBranch.BranchType.TRANSFO_3_LEG_1
+                    || branchType == LfBranch.BranchType.TRANSFO_3_LEG_2 || branchType == LfBranch.BranchType.TRANSFO_3_LEG_3)) {
+                starNodes[contraction.getRepresentative(branch.getBus2().getNum())] = true; // the star bus is at side 2 of the legs
+            }
+        }
+
+        elimination.eliminate(nodes, starNodes);
+
+        // equations of the remaining nodes, the terms of the eliminated nodes being included in their diagonal and off-diagonal terms
+        for (int num = 0; num < busCount; num++) {
+            if (!nodes[num] || elimination.isEliminated(num)) {
+                continue;
+            }
+            LfBus bus = network.getBus(num);
+            double g = elimination.getDiagonalG(num);
+            double b = elimination.getDiagonalB(num);
+            // the diagonal also holds the branch terms, kept whatever their magnitude as without elimination (for instance the
+            // infinite impedance admittance of the homopolar delta windings, which is the only term of the bus at their side)
+            if (g != 0. || b != 0.) {
+                equationSystem.createEquation(num, EquationType.BUS_YR)
+                        .addTerm(new AdmittanceEquationTermShunt(g, b, bus, variableSet, true));
+                equationSystem.createEquation(num, EquationType.BUS_YI)
+                        .addTerm(new AdmittanceEquationTermShunt(g, b, bus, variableSet, false));
+            }
+            for (Map.Entry<Integer, double[]> e : new TreeMap<>(elimination.getOffDiagonals(num)).entrySet()) {
+                LfBus otherBus = network.getBus(e.getKey());
+                double gij = e.getValue()[0];
+                double bij = e.getValue()[1];
+                equationSystem.createEquation(num, EquationType.BUS_YR)
+                        .addTerm(new AdmittanceEquationTermCoupling(gij, bij, bus, otherBus, variableSet, true));
+                equationSystem.createEquation(num, EquationType.BUS_YI)
+                        .addTerm(new AdmittanceEquationTermCoupling(gij, bij, bus, otherBus, variableSet, false));
+            }
+        }
+        elimination.releaseAdmittances();
+    }
+
 }
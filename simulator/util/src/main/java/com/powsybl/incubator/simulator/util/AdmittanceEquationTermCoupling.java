@@ -0,0 +1,106 @@
+/**
+ * Copyright (c) 2022, Jean-Baptiste Heyberger & Geoffroy Jamgotchian
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.incubator.simulator.util;
+
+import com.powsybl.openloadflow.equations.AbstractElementEquationTerm;
+import com.powsybl.openloadflow.equations.Variable;
+import com.powsybl.openloadflow.equations.VariableSet;
+import com.powsybl.openloadflow.network.ElementType;
+import com.powsybl.openloadflow.network.LfBus;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Off-diagonal term Yij = g + j.b of the admittance matrix not coming from a single branch, e.g. after the elimination
+ * of a bus linked to both busses i and j.
+ *
+ * @author Jean-Baptiste Heyberger <jbheyberger at gmail.com>
+ */
+public class AdmittanceEquationTermCoupling extends AbstractElementEquationTerm<LfBus, VariableType, EquationType> implements LinearEquationTerm {
+
+    protected final Variable<VariableType> v2rVar;
+
+    protected final Variable<VariableType> v2iVar;
+
+    protected final List<Variable<VariableType>> variables;
+
+    protected final double g;
+
+    protected final double b;
+
+    protected final boolean isReal;
+    //          v2r   v2i
+    //           |     |
+    //Eq1r - [ y1r2r y1r2i ]   [ g  -b ]
+    //Eq1i - [ y1i2r y1i2i ] = [ b   g ]
+
+    public AdmittanceEquationTermCoupling(double g, double b, LfBus bus1, LfBus bus2, VariableSet<VariableType> variableSet, boolean isReal) {
+        super(bus1);
+        Objects.requireNonNull(bus2);
+        Objects.requireNonNull(variableSet);
+
+        v2rVar = variableSet.getVariable(bus2.getNum(), VariableType.BUS_VR);
+        v2iVar = variableSet.getVariable(bus2.getNum(), VariableType.BUS_VI);
+
+        variables = List.of(v2rVar, v2iVar);
+
+        this.g = g;
+        this.b = b;
+        this.isReal = isReal;
+    }
+
+    @Override
+    public ElementType getElementType() {
+        return ElementType.BUS;
+    }
+
+    @Override
+    public int getElementNum() {
+        return element.getNum();
+    }
+
+    public List<Variable<VariableType>> getVariables() {
+        return variables;
+    }
+
+    @Override
+    public double eval() {
+        throw new UnsupportedOperationException("Not needed");
+    }
+
+    @Override
+    public double der(Variable<VariableType> variable) {
+        throw new UnsupportedOperationException("Not needed");
+    }
+
+    @Override
+    public boolean hasRhs() {
+        return false;
+    }
+
+    @Override
+    public double rhs() {
+        return 0;
+    }
+
+    @Override
+    public double getCoefficient(Variable<VariableType> variable) {
+        if (variable.equals(v2rVar)) {
+            return isReal ? g : b;
+        } else if (variable.equals(v2iVar)) {
+            return isReal ? -b : g;
+        } else {
+            throw new IllegalArgumentException("Unknown variable " + variable);
+        }
+    }
+
+    @Override
+    protected String getName() {
+        return "ycoupling";
+    }
+}
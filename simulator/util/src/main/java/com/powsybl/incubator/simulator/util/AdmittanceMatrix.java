@@ -6,6 +6,7 @@
  */
 package com.powsybl.incubator.simulator.util;
 
+import com.powsybl.incubator.simulator.util.extensions.ZeroImpedanceContraction;
 import com.powsybl.math.matrix.DenseMatrix;
 import com.powsybl.math.matrix.LUDecomposition;
 import com.powsybl.math.matrix.Matrix;
@@ -88,22 +89,58 @@ public class AdmittanceMatrix implements AutoCloseable {
 
     private LUDecomposition lu;
 
+    private int nonZeroCount;
+
     private Set<LfBus> rowBusses;
 
     private Set<LfBus> columnBusses;
 
     private AdmittanceSystem admSys;
 
+    private ZeroImpedanceContraction contraction; // null if each bus has its own equations
+
+    private KronElimination elimination; // null if no bus has been eliminated from the equations
+
+    private int coreRowCount; // rows of the factorized matrix, the eliminated busses having the next rows of the vectors
+
+    // rows and columns of each bus num in the vectors, including the eliminated busses, used by the substitutions
+    private int[] busRowR;
+    private int[] busRowI;
+    private int[] busColR;
+    private int[] busColI;
+
     private List<Integer> busNumToRowR; //given a number of bus, provides the Row and Column to the matrix
     private List<Integer> busNumToColR;
     private List<Integer> busNumToRowI; //given a number of bus, provides the Row and Column to the matrix
     private List<Integer> busNumToColI;
 
     public AdmittanceMatrix(EquationSystem<VariableType, EquationType> equationSystem, MatrixFactory matrixFactory, LfNetwork network) {
+        this(equationSystem, matrixFactory, network, null);
+    }
+
+    /**
+     * Admittance matrix of an equation system whose busses linked by non impedant branches have been merged (see
+     * AdmittanceEquationSystem.getZeroImpedanceContraction): the rows, columns and voltage variations of a merged bus
+     * are those of the representative bus of its node.
+     */
+    public AdmittanceMatrix(EquationSystem<VariableType, EquationType> equationSystem, MatrixFactory matrixFactory, LfNetwork network,
+                            ZeroImpedanceContraction contraction) {
+        this(equationSystem, matrixFactory, network, contraction, null);
+    }
+
+    /**
+     * Admittance matrix of an equation system built with a Kron elimination (see AdmittanceEquationSystem.create): only the
+     * remaining busses are factorized, the vectors given to the solves having 2 more rows per eliminated bus, after the
+     * rows of the factorized matrix. The eliminated busses are solved by substitution at each solve.
+     */
+    public AdmittanceMatrix(EquationSystem<VariableType, EquationType> equationSystem, MatrixFactory matrixFactory, LfNetwork network,
+                            ZeroImpedanceContraction contraction, KronElimination elimination) {
         this.equationSystem = Objects.requireNonNull(equationSystem);
         this.matrixFactory = Objects.requireNonNull(matrixFactory);
         this.admSys = new AdmittanceSystem();
         this.lfNetwork = Objects.requireNonNull(network);
+        this.contraction = contraction;
+        this.elimination = elimination != null && !elimination.isEmpty() ? elimination : null;
         initAdmittanceSystem();
     }
 
@@ -117,6 +154,32 @@ public class AdmittanceMatrix implements AutoCloseable {
         initAdmittanceSystem();
     }
 
+    /**
+     * Admittance matrix restored from a snapshot (see AdmittanceMatrixSnapshot): the transposed of Y is given with the
+     * rows and columns of each bus num, merged busses already having those of their representative bus. Such a matrix
+     * has no equation system, so that it can only be factorized and solved, without voltage vectors nor updates.
+     */
+    AdmittanceMatrix(MatrixFactory matrixFactory, LfNetwork network, Matrix matrix, int nonZeroCount,
+                     int[] rowR, int[] rowI, int[] colR, int[] colI) {
+        this.equationSystem = null;
+        this.matrixFactory = Objects.requireNonNull(matrixFactory);
+        this.lfNetwork = Objects.requireNonNull(network);
+        this.matrix = Objects.requireNonNull(matrix);
+        this.nonZeroCount = nonZeroCount;
+        this.admSys = new AdmittanceSystem();
+        coreRowCount = matrix.getRowCount();
+        busNumToRowR = new ArrayList<>();
+        busNumToColR = new ArrayList<>();
+        busNumToRowI = new ArrayList<>();
+        busNumToColI = new ArrayList<>();
+        for (int busNum = 0; busNum < network.getBuses().size(); busNum++) {
+            busNumToRowR.add(rowR[busNum]);
+            busNumToRowI.add(rowI[busNum]);
+            busNumToColR.add(colR[busNum]);
+            busNumToColI.add(colI[busNum]);
+        }
+    }
+
     public AdmittanceSystem getAdmSys() {
         return admSys;
     }
@@ -125,6 +188,12 @@ public class AdmittanceMatrix implements AutoCloseable {
         return equationSystem;
     }
 
+    private void checkEquationSystem() {
+        if (equationSystem == null) {
+            throw new IllegalStateException("Admittance matrix restored from a snapshot: no equation system to compute voltages");
+        }
+    }
+
     private void clear() {
         matrix = null;
         if (lu != null) {
@@ -133,7 +202,10 @@ public class AdmittanceMatrix implements AutoCloseable {
         lu = null;
     }
 
-    public int getRowCount() {
+    private int getMatrixRowCount() {
+        if (equationSystem == null) {
+            return matrix.getRowCount();
+        }
         int rowCount = equationSystem.getIndex().getSortedEquationsToSolve().size();
         if (admSys.isSubAdmittance) {
             rowCount = admSys.eqToRowNum.size();
@@ -141,7 +213,10 @@ public class AdmittanceMatrix implements AutoCloseable {
         return rowCount;
     }
 
-    public int getColCount() {
+    private int getMatrixColCount() {
+        if (equationSystem == null) {
+            return matrix.getColumnCount();
+        }
         int columnCount = equationSystem.getIndex().getSortedVariablesToFind().size();
         if (admSys.isSubAdmittance) {
             columnCount = admSys.varToColNum.size();
@@ -149,6 +224,24 @@ public class AdmittanceMatrix implements AutoCloseable {
         return columnCount;
     }
 
+    /**
+     * Size of the vectors given to the solves: rows of the matrix, plus 2 per eliminated bus.
+     */
+    public int getRowCount() {
+        return elimination != null ? coreRowCount + 2 * elimination.getEliminatedCount() : getMatrixRowCount();
+    }
+
+    public int getColCount() {
+        return elimination != null ? coreRowCount + 2 * elimination.getEliminatedCount() : getMatrixColCount();
+    }
+
+    /**
+     * Rows of the factorized matrix, smaller than getRowCount() if busses have been eliminated.
+     */
+    public int getFactorizedRowCount() {
+        return getMatrixRowCount();
+    }
+
     private Map<Variable<VariableType>, List<EquationTerm<VariableType, EquationType>>> indexTermsByVariable(Equation<VariableType, EquationType> eq) {
         Map<Variable<VariableType>, List<EquationTerm<VariableType, EquationType>>> termsByVariable = new TreeMap<>();
         for (EquationTerm<VariableType, EquationType> term : eq.getTerms()) {
@@ -162,8 +255,9 @@ public class AdmittanceMatrix implements AutoCloseable {
 
     private void initAdmittanceSystem() {
         //if if no busses specified in input, we build the admittance of the full system
-        int rowCount = getRowCount();
-        int columnCount = getColCount();
+        int rowCount = getMatrixRowCount();
+        int columnCount = getMatrixColCount();
+        coreRowCount = rowCount;
 
         //intialization of accessors
         busNumToRowR = new ArrayList<>();
@@ -203,6 +297,7 @@ public class AdmittanceMatrix implements AutoCloseable {
                         yColumn = admSys.varToColNum.get(v); // the matrix is the transposed of the admittance matrix
                     }
                     if (!admSys.isSubAdmittance || admSys.varToColNum.containsKey(v)) {
+                        nonZeroCount++; // terms of a same variable are summed in a single element
                         for (EquationTerm<VariableType, EquationType> equationTerm : e2.getValue()) {
                             double value = ((LinearEquationTerm) equationTerm).getCoefficient(v);
                             matrix.add(yColumn, yRow, value); //matrix is here the transposed of Y
@@ -228,9 +323,47 @@ public class AdmittanceMatrix implements AutoCloseable {
             }
         }
 
+        //Eliminated busses have the rows and columns following those of the matrix
+        if (elimination != null) {
+            for (int step = 0; step < elimination.getStepCount(); step++) {
+                int busNum = elimination.getStepNode(step);
+                busNumToRowR.set(busNum, coreRowCount + 2 * step);
+                busNumToRowI.set(busNum, coreRowCount + 2 * step + 1);
+                busNumToColR.set(busNum, coreRowCount + 2 * step);
+                busNumToColI.set(busNum, coreRowCount + 2 * step + 1);
+            }
+        }
+
+        //Merged busses are accessed through the representative bus of their node
+        if (contraction != null && contraction.getContractedBusCount() > 0) {
+            for (int busNum = 0; busNum < lfNetwork.getBuses().size(); busNum++) {
+                int nodeNum = contraction.getRepresentative(busNum);
+                if (nodeNum != busNum) {
+                    busNumToRowR.set(busNum, busNumToRowR.get(nodeNum));
+                    busNumToRowI.set(busNum, busNumToRowI.get(nodeNum));
+                    busNumToColR.set(busNum, busNumToColR.get(nodeNum));
+                    busNumToColI.set(busNum, busNumToColI.get(nodeNum));
+                }
+            }
+        }
+
+        if (elimination != null) {
+            int busCount = lfNetwork.getBuses().size();
+            busRowR = new int[busCount];
+            busRowI = new int[busCount];
+            busColR = new int[busCount];
+            busColI = new int[busCount];
+            for (int busNum = 0; busNum < busCount; busNum++) {
+                busRowR[busNum] = busNumToRowR.get(busNum);
+                busRowI[busNum] = busNumToRowI.get(busNum);
+                busColR[busNum] = busNumToColR.get(busNum);
+                busColI[busNum] = busNumToColI.get(busNum);
+            }
+        }
     }
 
     private double[] createStateVector(LfNetwork network, VoltageInitializer initializer) {
+        checkEquationSystem();
         double[] x = new double[equationSystem.getIndex().getSortedVariablesToFind().size()];
         for (Variable<VariableType> v : equationSystem.getIndex().getSortedVariablesToFind()) {
             switch (v.getType()) {
@@ -251,7 +384,7 @@ public class AdmittanceMatrix implements AutoCloseable {
 
     private Matrix initVoltageVector(LfNetwork network, VoltageInitializer voltageInitializer) {
         //if if no busses specified in input, we build the voltage vector of the full system
-        int columnCount = getColCount();
+        int columnCount = getMatrixColCount();
 
         double[] sv = createStateVector(network, voltageInitializer);
         double[] vPart = new double[columnCount];
@@ -273,6 +406,7 @@ public class AdmittanceMatrix implements AutoCloseable {
     }
 
     public Map<Integer, DenseMatrix> getDeltaV(DenseMatrix m, int numColumn) {
+        checkEquationSystem();
         Map<Integer, DenseMatrix> tmpV = new HashMap<>();
         for (Variable<VariableType> v : equationSystem.getIndex().getSortedVariablesToFind()) {
             int row = v.getRow();
@@ -300,10 +434,32 @@ public class AdmittanceMatrix implements AutoCloseable {
 
         }
 
+        for (int step = 0; elimination != null && step < elimination.getStepCount(); step++) {
+            int busNum = elimination.getStepNode(step);
+            int row = coreRowCount + 2 * step;
+            DenseMatrix tmpMat = this.matrixFactory.create(2, 2, 4).toDense();
+            tmpMat.add(0, 0, m.get(row, 2 * numColumn));
+            tmpMat.add(0, 1, m.get(row, 2 * numColumn + 1));
+            tmpMat.add(1, 0, m.get(row + 1, 2 * numColumn));
+            tmpMat.add(1, 1, m.get(row + 1, 2 * numColumn + 1));
+            tmpV.put(busNum, tmpMat);
+        }
+
+        // the busses merged into a node share the voltage variation of its representative bus
+        if (contraction != null && contraction.getContractedBusCount() > 0) {
+            for (int busNum = 0; busNum < lfNetwork.getBuses().size(); busNum++) {
+                DenseMatrix nodeDv = tmpV.get(contraction.getRepresentative(busNum));
+                if (!contraction.isRepresentative(busNum) && nodeDv != null) {
+                    tmpV.put(busNum, nodeDv);
+                }
+            }
+        }
+
         return tmpV;
     }
 
     public List<DenseMatrix> getDeltaVFortescue(List<DenseMatrix> busNum2Dv,  DenseMatrix md, DenseMatrix mo, DenseMatrix mi) {
+        checkEquationSystem();
         for (Variable<VariableType> v : equationSystem.getIndex().getSortedVariablesToFind()) {
             int row = v.getRow();
             VariableType type = v.getType();
@@ -329,6 +485,29 @@ public class AdmittanceMatrix implements AutoCloseable {
 
         }
 
+        for (int step = 0; elimination != null && step < elimination.getStepCount(); step++) {
+            int busNum = elimination.getStepNode(step);
+            int row = coreRowCount + 2 * step;
+            busNum2Dv.get(busNum).add(0, 0, mo.get(row, 0));
+            busNum2Dv.get(busNum).add(2, 0, md.get(row, 0));
+            busNum2Dv.get(busNum).add(4, 0, mi.get(row, 0));
+            busNum2Dv.get(busNum).add(1, 0, mo.get(row + 1, 0));
+            busNum2Dv.get(busNum).add(3, 0, md.get(row + 1, 0));
+            busNum2Dv.get(busNum).add(5, 0, mi.get(row + 1, 0));
+        }
+
+        // the busses merged into a node share the voltage variation of its representative bus
+        if (contraction != null && contraction.getContractedBusCount() > 0) {
+            for (int busNum = 0; busNum < lfNetwork.getBuses().size(); busNum++) {
+                int nodeNum = contraction.getRepresentative(busNum);
+                if (nodeNum != busNum) {
+                    for (int i = 0; i < 6; i++) {
+                        busNum2Dv.get(busNum).add(i, 0, busNum2Dv.get(nodeNum).get(i, 0));
+                    }
+                }
+            }
+        }
+
         return busNum2Dv;
     }
 
@@ -354,6 +533,14 @@ public class AdmittanceMatrix implements AutoCloseable {
         return yColumn; //TODO : send an exception when bus is not found in var set
     }
 
+    public int getBusCount() {
+        return lfNetwork.getBuses().size();
+    }
+
+    public int getNonZeroCount() {
+        return nonZeroCount;
+    }
+
     public Matrix getMatrix() {
         return matrix;
     }
@@ -369,12 +556,47 @@ public class AdmittanceMatrix implements AutoCloseable {
         return lu;
     }
 
+    public void decomposeLU() {
+        getLUDecomposition();
+    }
+
     public void solveTransposed(double[] b) {
-        getLUDecomposition().solveTransposed(b);
+        if (elimination == null) {
+            getLUDecomposition().solveTransposed(b);
+            return;
+        }
+        DenseMatrix bMatrix = new DenseMatrix(b.length, 1);
+        for (int i = 0; i < b.length; i++) {
+            bMatrix.set(i, 0, b[i]);
+        }
+        solveTransposed(bMatrix);
+        for (int i = 0; i < b.length; i++) {
+            b[i] = bMatrix.get(i, 0);
+        }
     }
 
     public void solveTransposed(DenseMatrix b) {
-        getLUDecomposition().solveTransposed(b);
+        if (elimination == null) {
+            getLUDecomposition().solveTransposed(b);
+            return;
+        }
+
+        // the currents of the eliminated busses are moved to the factorized busses, then the voltages of the eliminated
+        // busses are computed from the solved ones
+        elimination.forward(b, busRowR, busRowI);
+        DenseMatrix core = new DenseMatrix(coreRowCount, b.getColumnCount());
+        for (int col = 0; col < b.getColumnCount(); col++) {
+            for (int row = 0; row < coreRowCount; row++) {
+                core.set(row, col, b.get(row, col));
+            }
+        }
+        getLUDecomposition().solveTransposed(core);
+        for (int col = 0; col < b.getColumnCount(); col++) {
+            for (int row = 0; row < coreRowCount; row++) {
+                b.set(row, col, core.get(row, col));
+            }
+        }
+        elimination.backward(b, busColR, busColI);
     }
 
     public DenseMatrix transpose() {
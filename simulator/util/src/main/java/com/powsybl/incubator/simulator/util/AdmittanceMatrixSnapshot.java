@@ -0,0 +1,397 @@
+/**
+ * Copyright (c) 2022, Jean-Baptiste Heyberger & Geoffroy Jamgotchian
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.incubator.simulator.util;
+
+import com.powsybl.incubator.simulator.util.extensions.HomopolarModel;
+import com.powsybl.incubator.simulator.util.extensions.ShortCircuitNetworkData;
+import com.powsybl.math.matrix.Matrix;
+import com.powsybl.math.matrix.MatrixFactory;
+import com.powsybl.openloadflow.network.LfBranch;
+import com.powsybl.openloadflow.network.LfBus;
+import com.powsybl.openloadflow.network.LfNetwork;
+import com.powsybl.openloadflow.network.LfShunt;
+import com.powsybl.openloadflow.network.PiModel;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Objects;
+import java.util.zip.CRC32;
+
+/**
+ * Snapshot of an assembled admittance matrix saved to a memory mapped file, to restore the matrix at a restart without
+ * building its equation system nor assembling it: the non zero values of the transposed of Y (in the order of their
+ * columns), the rows and columns of each bus num, and the fingerprint of the network data and parameters the matrix
+ * has been built from. The matrix still has to be factorized once restored, the factors of a LU decomposition not
+ * being accessible.
+ *
+ * File layout (big endian): magic, version, fingerprint (length and UTF-8 bytes), bus count, matrix row and column
+ * counts, non zero count of the assembly, rows R and I then columns R and I of each bus num, value count, then
+ * row, column and value of each non zero value, and a trailer: magic again and CRC32 of all the previous bytes.
+ *
+ * A snapshot is written to a temporary file of the same directory then moved to its final name, so that a crash
+ * during the write never leaves a partial snapshot at that name. Files whose trailer is missing or whose checksum
+ * does not match, as a truncated or corrupted file, are not matched and cannot be read.
+ *
+ * @author Jean-Baptiste Heyberger <jbheyberger at gmail.com>
+ */
+public final class AdmittanceMatrixSnapshot {
+
+    private static final int MAGIC = 0x50534359; // "PSCY"
+
+    private static final int VERSION = 2;
+
+    private static final int HEADER_BYTES = 2 * Integer.BYTES;
+
+    private static final int TRAILER_BYTES = Integer.BYTES + Long.BYTES;
+
+    private AdmittanceMatrixSnapshot() {
+    }
+
+    /**
+     * SHA-256 fingerprint of everything the admittance matrix of the parameters is built from: the parameters, and the
+     * busses (voltages if calculated, shunts, loads and generators) and branches (pi models, norm coefficients and
+     * homopolar models) of the network data.
+     */
+    public static String fingerprint(ShortCircuitNetworkData data, ImpedanceLinearResolutionParameters parameters) {
+        Objects.requireNonNull(data);
+        Objects.requireNonNull(parameters);
+        Digest digest = new Digest();
+        addBranchPart(digest, data, parameters);
+        for (LfBus bus : data.getNetwork().getBuses()) {
+            if (parameters.getTheveninVoltageProfileType() == AdmittanceEquationSystem.AdmittanceVoltageProfileType.CALCULATED) {
+                // the equivalent shunts of the loads are computed with the voltage of the bus
+                digest.add(bus.getV());
+                digest.add(bus.getAngle());
+            }
+            digest.add(bus.getShunt().map(LfShunt::getB).orElse(0.));
+            digest.add(bus.getControllerShunt().map(LfShunt::getB).orElse(0.));
+            digest.add(data.getBusLoadG(bus.getNum()));
+            digest.add(data.getBusLoadB(bus.getNum()));
+            for (int index = data.getGeneratorStart(bus.getNum()); index < data.getGeneratorEnd(bus.getNum()); index++) {
+                digest.add(data.getGeneratorId(index));
+                digest.add(data.getGeneratorTransRd(index));
+                digest.add(data.getGeneratorTransXd(index));
+                digest.add(data.getGeneratorSubTransRd(index));
+                digest.add(data.getGeneratorSubTransXd(index));
+                digest.add(data.getGeneratorStepUpTfoR(index));
+                digest.add(data.getGeneratorStepUpTfoX(index));
+                digest.add(data.getGeneratorRo(index));
+                digest.add(data.getGeneratorXo(index));
+                digest.add(data.getGeneratorKg(index));
+                digest.add(data.isGeneratorGrounded(index));
+            }
+        }
+        return digest.toHex();
+    }
+
+    /**
+     * SHA-256 fingerprint of the branch part of the admittance matrix of the parameters: the parameters, the busses and
+     * the branches of the network data. Two network data with the same branch fingerprint have admittance matrices with
+     * the same rows and columns, only differing in the diagonal blocks of their busses.
+     */
+    public static String branchFingerprint(ShortCircuitNetworkData data, ImpedanceLinearResolutionParameters parameters) {
+        Objects.requireNonNull(data);
+        Objects.requireNonNull(parameters);
+        Digest digest = new Digest();
+        addBranchPart(digest, data, parameters);
+        return digest.toHex();
+    }
+
+    private static void addBranchPart(Digest digest, ShortCircuitNetworkData data, ImpedanceLinearResolutionParameters parameters) {
+        digest.add(parameters.getAdmittanceType().name());
+        digest.add(parameters.getTheveninVoltageProfileType().name());
+        digest.add(parameters.getTheveninPeriodType().name());
+        digest.add(parameters.isTheveninIgnoreShunts());
+        digest.add(parameters.isKronElimination());
+
+        LfNetwork network = data.getNetwork();
+        digest.add(network.getBuses().size());
+        for (LfBus bus : network.getBuses()) {
+            digest.add(bus.getId());
+            digest.add(bus.getNominalV());
+        }
+
+        digest.add(network.getBranches().size());
+        for (LfBranch branch : network.getBranches()) {
+            digest.add(branch.getId());
+            digest.add(branch.getBus1() != null ? branch.getBus1().getNum() : -1);
+            digest.add(branch.getBus2() != null ? branch.getBus2().getNum() : -1);
+            PiModel piModel = branch.getPiModel();
+            digest.add(piModel.getR());
+            digest.add(piModel.getX());
+            digest.add(piModel.getG1());
+            digest.add(piModel.getB1());
+            digest.add(piModel.getG2());
+            digest.add(piModel.getB2());
+            digest.add(piModel.getR1());
+            digest.add(piModel.getA1());
+            digest.add(data.getBranchKtR(branch.getNum()));
+            digest.add(data.getBranchKtX(branch.getNum()));
+            HomopolarModel homopolarModel = data.getHomopolarModel(branch.getNum());
+            digest.add(homopolarModel != null);
+            if (homopolarModel != null) {
+                digest.add(homopolarModel.getRo());
+                digest.add(homopolarModel.getXo());
+                digest.add(homopolarModel.getGom());
+                digest.add(homopolarModel.getBom());
+                digest.add(homopolarModel.getRga());
+                digest.add(homopolarModel.getXga());
+                digest.add(homopolarModel.getRgb());
+                digest.add(homopolarModel.getXgb());
+                digest.add(String.valueOf(homopolarModel.getLeg1ConnectionType()));
+                digest.add(String.valueOf(homopolarModel.getLeg2ConnectionType()));
+                digest.add(homopolarModel.isFreeFluxes());
+            }
+        }
+    }
+
+    /**
+     * Saves the given admittance matrix with the fingerprint of its network data and parameters.
+     * Matrices with eliminated busses or restricted to a subset of busses cannot be saved.
+     */
+    public static void write(AdmittanceMatrix y, String fingerprint, Path file) {
+        Objects.requireNonNull(y);
+        Objects.requireNonNull(fingerprint);
+        Objects.requireNonNull(file);
+        if (y.getAdmSys().isSubAdmittance || y.getRowCount() != y.getFactorizedRowCount()) {
+            throw new IllegalArgumentException("Only admittance matrices of all the busses without elimination can be saved");
+        }
+        Matrix matrix = y.getMatrix();
+        int busCount = y.getBusCount();
+        int[] valueCount = new int[1];
+        matrix.iterateNonZeroValue((i, j, value) -> valueCount[0]++);
+
+        byte[] fingerprintBytes = fingerprint.getBytes(StandardCharsets.UTF_8);
+        long size = HEADER_BYTES + Integer.BYTES + fingerprintBytes.length + 4L * Integer.BYTES
+                + 4L * busCount * Integer.BYTES + Integer.BYTES + (long) valueCount[0] * (2 * Integer.BYTES + Double.BYTES) + TRAILER_BYTES;
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Admittance matrix too large for a snapshot: " + size + " bytes");
+        }
+
+        Path directory = file.toAbsolutePath().getParent();
+        Path tmpFile = null;
+        try {
+            tmpFile = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            writeBuffer(y, fingerprintBytes, valueCount[0], size, tmpFile);
+            Files.move(tmpFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            deleteQuietly(tmpFile);
+        }
+    }
+
+    private static void deleteQuietly(Path tmpFile) {
+        if (tmpFile != null) {
+            try {
+                Files.deleteIfExists(tmpFile);
+            } catch (IOException e) {
+                // nothing more can be done, the temporary file is left in the directory
+            }
+        }
+    }
+
+    private static void writeBuffer(AdmittanceMatrix y, byte[] fingerprintBytes, int valueCount, long size, Path tmpFile) throws IOException {
+        Matrix matrix = y.getMatrix();
+        int busCount = y.getBusCount();
+        try (FileChannel channel = FileChannel.open(tmpFile, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.putInt(MAGIC);
+            buffer.putInt(VERSION);
+            buffer.putInt(fingerprintBytes.length);
+            buffer.put(fingerprintBytes);
+            buffer.putInt(busCount);
+            buffer.putInt(matrix.getRowCount());
+            buffer.putInt(matrix.getColumnCount());
+            buffer.putInt(y.getNonZeroCount());
+            for (int busNum = 0; busNum < busCount; busNum++) {
+                buffer.putInt(y.getRowBus(busNum, EquationType.BUS_YR));
+            }
+            for (int busNum = 0; busNum < busCount; busNum++) {
+                buffer.putInt(y.getRowBus(busNum, EquationType.BUS_YI));
+            }
+            for (int busNum = 0; busNum < busCount; busNum++) {
+                buffer.putInt(y.getColBus(busNum, VariableType.BUS_VR));
+            }
+            for (int busNum = 0; busNum < busCount; busNum++) {
+                buffer.putInt(y.getColBus(busNum, VariableType.BUS_VI));
+            }
+            buffer.putInt(valueCount);
+            matrix.iterateNonZeroValue((i, j, value) -> {
+                buffer.putInt(i);
+                buffer.putInt(j);
+                buffer.putDouble(value);
+            });
+            buffer.putInt(MAGIC);
+            buffer.putLong(checksum(buffer, buffer.position() - Integer.BYTES));
+            buffer.force();
+        }
+    }
+
+    // CRC32 of the first length bytes of the buffer
+    private static long checksum(ByteBuffer buffer, int length) {
+        ByteBuffer bytes = buffer.duplicate();
+        bytes.position(0);
+        bytes.limit(length);
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return crc.getValue();
+    }
+
+    // mapped content of the file, or null if its trailer is missing or its checksum does not match
+    private static ByteBuffer map(FileChannel channel) throws IOException {
+        long size = channel.size();
+        if (size < HEADER_BYTES + TRAILER_BYTES || size > Integer.MAX_VALUE) {
+            return null;
+        }
+        ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        int length = (int) size - TRAILER_BYTES;
+        if (buffer.getInt(length) != MAGIC || buffer.getLong(length + Integer.BYTES) != checksum(buffer, length)) {
+            return null;
+        }
+        return buffer;
+    }
+
+    /**
+     * True if the file is a complete snapshot, its checksum matching, saved with the given fingerprint.
+     */
+    public static boolean matches(Path file, String fingerprint) {
+        Objects.requireNonNull(file);
+        Objects.requireNonNull(fingerprint);
+        if (!Files.isRegularFile(file)) {
+            return false;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = map(channel);
+            return buffer != null && fingerprint.equals(readFingerprint(buffer));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Restores the admittance matrix saved in the file, which must have been saved with the given fingerprint from a
+     * network data of the given LfNetwork.
+     */
+    public static AdmittanceMatrix read(Path file, String fingerprint, MatrixFactory matrixFactory, LfNetwork network) {
+        Objects.requireNonNull(file);
+        Objects.requireNonNull(fingerprint);
+        Objects.requireNonNull(matrixFactory);
+        Objects.requireNonNull(network);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = map(channel);
+            if (buffer == null) {
+                throw new IllegalArgumentException("Admittance matrix snapshot " + file + " is truncated or corrupted");
+            }
+            String savedFingerprint = readFingerprint(buffer);
+            if (!fingerprint.equals(savedFingerprint)) {
+                throw new IllegalArgumentException("Admittance matrix snapshot " + file + " has not been saved from the same network data and parameters");
+            }
+            int busCount = buffer.getInt();
+            if (busCount != network.getBuses().size()) {
+                throw new IllegalArgumentException("Admittance matrix snapshot " + file + " has " + busCount + " busses, network " + network + " has " + network.getBuses().size());
+            }
+            int rowCount = buffer.getInt();
+            int columnCount = buffer.getInt();
+            int nonZeroCount = buffer.getInt();
+            int[] rowR = readInts(buffer, busCount);
+            int[] rowI = readInts(buffer, busCount);
+            int[] colR = readInts(buffer, busCount);
+            int[] colI = readInts(buffer, busCount);
+            int valueCount = buffer.getInt();
+            // values are added in the order of their columns, as needed by sparse matrices
+            Matrix matrix = matrixFactory.create(rowCount, columnCount, valueCount);
+            for (int k = 0; k < valueCount; k++) {
+                int i = buffer.getInt();
+                int j = buffer.getInt();
+                matrix.add(i, j, buffer.getDouble());
+            }
+            return new AdmittanceMatrix(matrixFactory, network, matrix, nonZeroCount, rowR, rowI, colR, colI);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String readFingerprint(ByteBuffer buffer) {
+        if (buffer.remaining() < HEADER_BYTES + Integer.BYTES || buffer.getInt() != MAGIC) {
+            return null;
+        }
+        if (buffer.getInt() != VERSION) {
+            return null;
+        }
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int[] readInts(ByteBuffer buffer, int count) {
+        int[] values = new int[count];
+        for (int k = 0; k < count; k++) {
+            values[k] = buffer.getInt();
+        }
+        return values;
+    }
+
+    private static final class Digest {
+
+        private final MessageDigest messageDigest;
+
+        private final ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES);
+
+        private Digest() {
+            try {
+                messageDigest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private void add(String value) {
+            byte[] bytes = String.valueOf(value).getBytes(StandardCharsets.UTF_8);
+            add(bytes.length);
+            messageDigest.update(bytes);
+        }
+
+        private void add(int value) {
+            buffer.clear();
+            buffer.putInt(value);
+            messageDigest.update(buffer.array(), 0, Integer.BYTES);
+        }
+
+        private void add(double value) {
+            buffer.clear();
+            buffer.putLong(Double.doubleToLongBits(value));
+            messageDigest.update(buffer.array(), 0, Long.BYTES);
+        }
+
+        private void add(boolean value) {
+            add(value ? 1 : 0);
+        }
+
+        private String toHex() {
+            StringBuilder hex = new StringBuilder();
+            for (byte b : messageDigest.digest()) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        }
+    }
+}
@@ -0,0 +1,403 @@
+/**
+ * Copyright (c) 2022, Jean-Baptiste Heyberger & Geoffroy Jamgotchian
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.incubator.simulator.util;
+
+import com.powsybl.incubator.simulator.util.extensions.ShortCircuitNetworkData;
+import com.powsybl.math.matrix.DenseMatrix;
+import com.powsybl.math.matrix.LUDecomposition;
+import com.powsybl.openloadflow.network.LfBus;
+import com.powsybl.openloadflow.network.LfNetwork;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Admittance matrix of a base snapshot kept factorized, to get the Thevenin impedances of the busses of other
+ * snapshots of the same branch fingerprint (see AdmittanceMatrixSnapshot.branchFingerprint) without factorizing their
+ * own matrices. The matrix Y of such a snapshot only differs from the base one Y0 in the diagonal blocks of some busses
+ * U (shunts, loads and generators): Y = Y0 + Ur * C * Uc' with C the block diagonal matrix of these differences, so that
+ * with Z0 = inv(Y0) the Woodbury identity gives the diagonal block of bus k of inv(Y):
+ *
+ *     Zkk = Z0kk - Z0kU * inv(I + C * Z0UU) * C * Z0Uk
+ *
+ * The differences C are computed from the shunts of the network data (see AdmittanceEquationSystem.getNodeShunts),
+ * without building the equation system of the snapshot. The columns of Z0 of the most recently used busses are solved
+ * with the factorized base matrix and kept in a LRU cache shared by all the snapshots, each of them holding 4 times the
+ * bus count values, so that a snapshot only costs the inversion of a matrix of twice the size of U.
+ * As this inversion and the solves of the columns of U grow with the size of U, a snapshot with more changed busses
+ * than the maximum of the base matrix assembles and factorizes its own matrix instead.
+ * Kron elimination is not used, the eliminated busses having no rows in the factorized matrix.
+ *
+ * @author Jean-Baptiste Heyberger <jbheyberger at gmail.com>
+ */
+public class BaseImpedanceMatrix implements AutoCloseable {
+
+    public static final int DEFAULT_MAX_CHANGED_BUS_COUNT = 100;
+
+    public static final int DEFAULT_CACHE_SIZE = 200;
+
+    private final ImpedanceLinearResolutionParameters parameters;
+
+    private final int maxChangedBusCount;
+
+    private final int cacheSize;
+
+    private final String branchFingerprint;
+
+    private final AdmittanceMatrix y0;
+
+    private final double[] shunts0; // shunts {g, b} of the nodes in Y0
+
+    private final Map<Integer, CachedColumns> columns = new ConcurrentHashMap<>(); // LRU cache of the columns of Z0 by bus num
+
+    private final AtomicLong accessCount = new AtomicLong(); // clock of the accesses to the cache
+
+    private int solveCount = 0;
+
+    private static final class CachedColumns {
+
+        private final DenseMatrix columns;
+
+        private volatile long lastAccess;
+
+        private CachedColumns(DenseMatrix columns, long lastAccess) {
+            this.columns = columns;
+            this.lastAccess = lastAccess;
+        }
+    }
+
+    public BaseImpedanceMatrix(ShortCircuitNetworkData data, ImpedanceLinearResolutionParameters parameters, SimulatorMetrics metrics) {
+        this(data, parameters, DEFAULT_MAX_CHANGED_BUS_COUNT, DEFAULT_CACHE_SIZE, metrics);
+    }
+
+    /**
+     * Factorizes the admittance matrix of the given network data, the parameters having no Kron elimination. Updates
+     * with more than maxChangedBusCount changed busses factorize their own matrix, and the columns of Z0 of at most
+     * cacheSize busses are kept.
+     */
+    public BaseImpedanceMatrix(ShortCircuitNetworkData data, ImpedanceLinearResolutionParameters parameters, int maxChangedBusCount, int cacheSize,
+                               SimulatorMetrics metrics) {
+        this(data, parameters, AdmittanceMatrixSnapshot.branchFingerprint(data, parameters), maxChangedBusCount, cacheSize, metrics);
+    }
+
+    /**
+     * Same as above, the branch fingerprint of the network data and parameters being already computed by the caller.
+     */
+    public BaseImpedanceMatrix(ShortCircuitNetworkData data, ImpedanceLinearResolutionParameters parameters, String branchFingerprint,
+                               int maxChangedBusCount, int cacheSize, SimulatorMetrics metrics) {
+        Objects.requireNonNull(data);
+        this.parameters = Objects.requireNonNull(parameters);
+        this.branchFingerprint = Objects.requireNonNull(branchFingerprint);
+        Objects.requireNonNull(metrics);
+        if (parameters.isKronElimination()) {
+            throw new IllegalArgumentException("Kron elimination is not supported by base impedance matrices");
+        }
+        if (maxChangedBusCount < 0) {
+            throw new IllegalArgumentException("Max changed bus count " + maxChangedBusCount + " must be positive");
+        }
+        if (cacheSize < 0) {
+            throw new IllegalArgumentException("Cache size " + cacheSize + " must be positive");
+        }
+        this.maxChangedBusCount = maxChangedBusCount;
+        this.cacheSize = cacheSize;
+        y0 = FactorizedImpedanceMatrix.assemble(data, parameters, metrics);
+        metrics.addMatrix(y0.getFactorizedRowCount(), y0.getNonZeroCount());
+        shunts0 = getNodeShunts(data);
+
+        long start = metrics.start();
+        y0.decomposeLU();
+        metrics.stop(SimulatorMetrics.Phase.LU_DECOMPOSITION, start);
+    }
+
+    public String getBranchFingerprint() {
+        return branchFingerprint;
+    }
+
+    public int getMaxChangedBusCount() {
+        return maxChangedBusCount;
+    }
+
+    private double[] getNodeShunts(ShortCircuitNetworkData data) {
+        return AdmittanceEquationSystem.getNodeShunts(data.getNetwork(), parameters.getAdmittanceType(), parameters.getTheveninVoltageProfileType(),
+                parameters.getTheveninPeriodType(), parameters.isTheveninIgnoreShunts(), data);
+    }
+
+    /**
+     * Columns of Z0 of the bus: inv(Y0) * En, En being the extraction matrix of the bus.
+     */
+    private DenseMatrix getColumns(LfBus bus) {
+        CachedColumns cached = columns.get(bus.getNum());
+        if (cached != null) {
+            cached.lastAccess = accessCount.incrementAndGet();
+            return cached.columns;
+        }
+        return solveColumns(bus);
+    }
+
+    private synchronized DenseMatrix solveColumns(LfBus bus) {
+        // the bus may have been solved by a concurrent miss in between
+        CachedColumns cached = columns.get(bus.getNum());
+        if (cached != null) {
+            cached.lastAccess = accessCount.incrementAndGet();
+            return cached.columns;
+        }
+        DenseMatrix en = ImpedanceLinearResolution.createExtractionMatrix(y0, List.of(bus));
+        y0.solveTransposed(en);
+        solveCount++;
+        if (cacheSize > 0) {
+            if (columns.size() >= cacheSize) {
+                evictLeastRecentlyUsed();
+            }
+            columns.put(bus.getNum(), new CachedColumns(en, accessCount.incrementAndGet()));
+        }
+        return en;
+    }
+
+    // only called on a miss, whose solve costs much more than this scan of the cache
+    private void evictLeastRecentlyUsed() {
+        Integer eldestBusNum = null;
+        long eldestAccess = Long.MAX_VALUE;
+        for (Map.Entry<Integer, CachedColumns> e : columns.entrySet()) {
+            long lastAccess = e.getValue().lastAccess;
+            if (lastAccess < eldestAccess) {
+                eldestAccess = lastAccess;
+                eldestBusNum = e.getKey();
+            }
+        }
+        if (eldestBusNum != null) {
+            columns.remove(eldestBusNum);
+        }
+    }
+
+    /**
+     * Number of solves of columns of Z0 made since the factorization, a bus found in the cache needing no solve.
+     */
+    public synchronized int getSolveCount() {
+        return solveCount;
+    }
+
+    public int getCachedBusCount() {
+        return columns.size();
+    }
+
+    // element (var of bus u, injection of bus v) of Z0, var and injection being 0 for the real part and 1 for the imaginary one
+    private double getZ0(LfBus u, int var, DenseMatrix columnsOfV, int injection) {
+        return getZ(y0, u, var, columnsOfV, injection);
+    }
+
+    // same element of the inverse of the given matrix, columnsOfV being solved with it
+    private static double getZ(AdmittanceMatrix y, LfBus u, int var, DenseMatrix columnsOfV, int injection) {
+        return columnsOfV.get(y.getColBus(u.getNum(), var == 0 ? VariableType.BUS_VR : VariableType.BUS_VI), injection);
+    }
+
+    /**
+     * Update of the base matrix to the given network data, which must have the branch fingerprint of the base matrix.
+     * The update must be closed, to release the matrix it has factorized if any.
+     */
+    public Update update(ShortCircuitNetworkData data, SimulatorMetrics metrics) {
+        return update(data, AdmittanceMatrixSnapshot.branchFingerprint(data, parameters), metrics);
+    }
+
+    /**
+     * Same as above, the branch fingerprint of the network data with the parameters of the base matrix being already
+     * computed by the caller.
+     */
+    public Update update(ShortCircuitNetworkData data, String branchFingerprint, SimulatorMetrics metrics) {
+        return new Update(data, branchFingerprint, metrics);
+    }
+
+    /**
+     * Thevenin impedances of the busses of a snapshot, computed from the base matrix, or from the own matrix of the
+     * snapshot if it has more changed busses than the maximum of the base matrix.
+     */
+    public final class Update implements AutoCloseable {
+
+        private final LfNetwork network;
+
+        private final int changedBusCount;
+
+        private final AdmittanceMatrix y; // own factorized matrix of the snapshot, null if computed from the base matrix
+
+        private final List<LfBus> changedBusses = new ArrayList<>(); // busses U of the snapshot network
+
+        private final List<DenseMatrix> changedColumns = new ArrayList<>(); // columns of Z0 of the busses U
+
+        private DenseMatrix g; // inv(I + C * Z0UU) * C, null if the matrices are equal
+
+        private Update(ShortCircuitNetworkData data, String snapshotBranchFingerprint, SimulatorMetrics metrics) {
+            Objects.requireNonNull(data);
+            Objects.requireNonNull(metrics);
+            if (!branchFingerprint.equals(snapshotBranchFingerprint)) {
+                throw new IllegalArgumentException("Network " + data.getNetwork() + " has not the branches of the base impedance matrix");
+            }
+            network = data.getNetwork();
+            // the branches being the same, only the shunts of the nodes differ in the diagonal blocks
+            long start = metrics.start();
+            double[] shunts = getNodeShunts(data);
+            metrics.stop(SimulatorMetrics.Phase.MATRIX_ASSEMBLY, start);
+
+            List<Integer> changedBusNums = new ArrayList<>(); // representative busses of the changed nodes
+            for (int busNum = 0; busNum < network.getBuses().size(); busNum++) {
+                if (shunts[2 * busNum] != shunts0[2 * busNum] || shunts[2 * busNum + 1] != shunts0[2 * busNum + 1]) {
+                    changedBusNums.add(busNum);
+                }
+            }
+            changedBusCount = changedBusNums.size();
+            if (changedBusCount > maxChangedBusCount) {
+                // too many changed busses for the low rank update to be cheaper than a factorization
+                AdmittanceMatrix ySnapshot = FactorizedImpedanceMatrix.assemble(data, parameters, metrics);
+                metrics.addMatrix(ySnapshot.getFactorizedRowCount(), ySnapshot.getNonZeroCount());
+                start = metrics.start();
+                try {
+                    ySnapshot.decomposeLU();
+                } catch (RuntimeException e) {
+                    ySnapshot.close();
+                    throw e;
+                }
+                metrics.stop(SimulatorMetrics.Phase.LU_DECOMPOSITION, start);
+                y = ySnapshot;
+                return;
+            }
+            y = null;
+
+            start = metrics.start();
+            int m = 2 * changedBusCount;
+            if (m > 0) {
+                // diagonal blocks [ dg -db ; db dg ] of the shunt differences, rows being the equations and columns the variables
+                DenseMatrix c = new DenseMatrix(m, m);
+                for (int i = 0; i < changedBusNums.size(); i++) {
+                    int busNum = changedBusNums.get(i);
+                    LfBus bus = network.getBus(busNum);
+                    changedBusses.add(bus);
+                    changedColumns.add(getColumns(bus));
+                    double dg = shunts[2 * busNum] - shunts0[2 * busNum];
+                    double db = shunts[2 * busNum + 1] - shunts0[2 * busNum + 1];
+                    c.set(2 * i, 2 * i, dg);
+                    c.set(2 * i, 2 * i + 1, -db);
+                    c.set(2 * i + 1, 2 * i, db);
+                    c.set(2 * i + 1, 2 * i + 1, dg);
+                }
+
+                // I + C * Z0UU, C being block diagonal, stored transposed to be solved with solveTransposed
+                DenseMatrix mt = new DenseMatrix(m, m);
+                for (int i = 0; i < changedBusses.size(); i++) {
+                    for (int j = 0; j < changedBusses.size(); j++) {
+                        for (int eq = 0; eq < 2; eq++) {
+                            for (int injection = 0; injection < 2; injection++) {
+                                double value = 0.;
+                                for (int var = 0; var < 2; var++) {
+                                    value += c.get(2 * i + eq, 2 * i + var) * getZ0(changedBusses.get(i), var, changedColumns.get(j), injection);
+                                }
+                                if (i == j && eq == injection) {
+                                    value += 1.;
+                                }
+                                mt.set(2 * j + injection, 2 * i + eq, value);
+                            }
+                        }
+                    }
+                }
+                g = c;
+                try (LUDecomposition lu = mt.decomposeLU()) {
+                    lu.solveTransposed(g);
+                }
+            }
+            metrics.stop(SimulatorMetrics.Phase.SOLVE, start);
+        }
+
+        public int getChangedBusCount() {
+            return changedBusCount;
+        }
+
+        /**
+         * True if the snapshot has factorized its own matrix, having more changed busses than the maximum of the base matrix.
+         */
+        public boolean isFactorized() {
+            return y != null;
+        }
+
+        /**
+         * Thevenin impedance {rth, xth} of the given bus of the snapshot network.
+         */
+        public double[] getImpedance(LfBus bus) {
+            Objects.requireNonNull(bus);
+            if (bus.getNum() >= network.getBuses().size() || network.getBus(bus.getNum()) != bus) {
+                throw new IllegalArgumentException("Bus " + bus.getId() + " does not belong to the network of the update");
+            }
+            if (y != null) {
+                DenseMatrix en = ImpedanceLinearResolution.createExtractionMatrix(y, List.of(bus));
+                y.solveTransposed(en);
+                double[][] zkk = new double[2][2];
+                for (int var = 0; var < 2; var++) {
+                    for (int injection = 0; injection < 2; injection++) {
+                        zkk[var][injection] = getZ(y, bus, var, en, injection);
+                    }
+                }
+                ImpedanceLinearResolution.checkBlocConsistency(zkk[0][0], zkk[1][1], zkk[0][1], zkk[1][0], bus, bus);
+                return new double[] {zkk[0][0], -zkk[0][1]};
+            }
+
+            DenseMatrix columnsOfK = getColumns(bus);
+            // Z0kk
+            double[][] zkk = new double[2][2];
+            for (int var = 0; var < 2; var++) {
+                for (int injection = 0; injection < 2; injection++) {
+                    zkk[var][injection] = getZ0(bus, var, columnsOfK, injection);
+                }
+            }
+
+            if (g != null) {
+                int m = 2 * changedBusses.size();
+                // G * Z0Uk
+                double[][] gzuk = new double[m][2];
+                for (int row = 0; row < m; row++) {
+                    for (int injection = 0; injection < 2; injection++) {
+                        double value = 0.;
+                        for (int j = 0; j < changedBusses.size(); j++) {
+                            for (int var = 0; var < 2; var++) {
+                                value += g.get(row, 2 * j + var) * getZ0(changedBusses.get(j), var, columnsOfK, injection);
+                            }
+                        }
+                        gzuk[row][injection] = value;
+                    }
+                }
+                // Zkk = Z0kk - Z0kU * G * Z0Uk
+                for (int var = 0; var < 2; var++) {
+                    for (int injection = 0; injection < 2; injection++) {
+                        double value = 0.;
+                        for (int i = 0; i < changedBusses.size(); i++) {
+                            for (int eq = 0; eq < 2; eq++) {
+                                value += getZ0(bus, var, changedColumns.get(i), eq) * gzuk[2 * i + eq][injection];
+                            }
+                        }
+                        zkk[var][injection] -= value;
+                    }
+                }
+            }
+
+            // same block consistency as the impedances extracted from inv(Y)
+            ImpedanceLinearResolution.checkBlocConsistency(zkk[0][0], zkk[1][1], zkk[0][1], zkk[1][0], bus, bus);
+            return new double[] {zkk[0][0], -zkk[0][1]};
+        }
+
+        @Override
+        public void close() {
+            if (y != null) {
+                y.close();
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        columns.clear();
+        y0.close();
+    }
+}
@@ -6,11 +6,12 @@
  */
 package com.powsybl.incubator.simulator.util;
 
-import org.apache.commons.math3.util.Pair;
-
 import java.util.Objects;
 
 /**
+ * Bus (or pair of busses) at which a computation is requested, identified by iidm bus breaker bus ids. Locations are
+ * immutable: the LfBus of a location is given by the linear resolution it is computed by.
+ *
  * @author Jean-Baptiste Heyberger <jbheyberger at gmail.com>
  */
 public class CalculationLocation {
@@ -19,14 +20,6 @@ public class CalculationLocation {
 
     private final String bus2Location; // used in case computations need 2 busses in input: for example in biphased common support short circuit computations
 
-    private Pair<String, Integer > iidmBusInfo; // additional iidm info to make the correspondence between iidm info and lfNetwork info
-
-    private Pair<String, Integer > iidmBus2Info; // additional iidm info to make the correspondence between iidm info and lfNetwork info in case of a biphased common support fault
-
-    private String lfBusInfo; // additional info to have the correspondence between iidm and lfNetwork
-
-    private String lfBus2Info; // additional info to have the correspondence between iidm and lfNetwork for bus 2
-
     public CalculationLocation(String busLocation) {
         this(busLocation, "");
     }
@@ -43,37 +36,4 @@ public class CalculationLocation {
     public String getBus2Location() {
         return bus2Location;
     }
-
-    public void setIidmBusInfo(Pair<String, Integer> iidmBusInfo) {
-        this.iidmBusInfo = iidmBusInfo;
-    }
-
-    public void setIidmBus2Info(Pair<String, Integer> iidmBus2Info) {
-        this.iidmBus2Info = iidmBus2Info;
-    }
-
-    public Pair<String, Integer> getIidmBus2Info() {
-        return iidmBus2Info;
-    }
-
-    public Pair<String, Integer> getIidmBusInfo() {
-        return iidmBusInfo;
-    }
-
-    public void setLfBusInfo(String lfBusInfo) {
-        this.lfBusInfo = lfBusInfo;
-    }
-
-    public void setLfBus2Info(String lfBus2Info) {
-        this.lfBus2Info = lfBus2Info;
-    }
-
-    public String getLfBusInfo() {
-        return lfBusInfo;
-    }
-
-    public String getLfBus2Info() {
-        return lfBus2Info;
-    }
-
 }
@@ -0,0 +1,221 @@
+/**
+ * Copyright (c) 2022, Jean-Baptiste Heyberger & Geoffroy Jamgotchian
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.incubator.simulator.util;
+
+import com.powsybl.incubator.simulator.util.extensions.ShortCircuitNetworkData;
+import com.powsybl.math.matrix.DenseMatrix;
+import com.powsybl.openloadflow.equations.EquationSystem;
+import com.powsybl.openloadflow.equations.VariableSet;
+import com.powsybl.openloadflow.network.LfBus;
+import com.powsybl.openloadflow.network.LfNetwork;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Admittance matrix (direct or homopolar, depending on the admittance type of the parameters) of a LfNetwork kept
+ * factorized in memory, to get the Thevenin equivalent of any bus on demand with a single solve of its pair of columns.
+ * The equivalents of the most recently used busses are kept in a LRU cache indexed by bus num, read without lock so that
+ * concurrent cache hits do not wait for each other. Only the solves of the cache misses are serialized, as a LU
+ * decomposition cannot be shared between concurrent solves.
+ * The calculation locations of the parameters are not used and the voltage variations are not computed.
+ * The assembled matrix can be saved to a snapshot file (see AdmittanceMatrixSnapshot) to be restored at a restart
+ * instead of being assembled again, the LU decomposition being done in both cases.
+ *
+ * @author Jean-Baptiste Heyberger <jbheyberger at gmail.com>
+ */
+public class FactorizedImpedanceMatrix implements AutoCloseable {
+
+    private final ShortCircuitNetworkData data;
+
+    private final LfNetwork network;
+
+    private final ImpedanceLinearResolutionParameters parameters;
+
+    private final AdmittanceMatrix y;
+
+    private final int cacheSize;
+
+    private final Map<Integer, CachedEquivalent> equivalents = new ConcurrentHashMap<>(); // LRU cache of the one port equivalents by bus num
+
+    private final AtomicLong accessCount = new AtomicLong(); // clock of the accesses to the cache
+
+    private final boolean restored; // true if the matrix has been read from a snapshot
+
+    private String fingerprint; // computed at the first use
+
+    private int solveCount = 0;
+
+    public FactorizedImpedanceMatrix(ShortCircuitNetworkData data, ImpedanceLinearResolutionParameters parameters, int cacheSize) {
+        this(data, parameters, cacheSize, new SimulatorMetrics());
+    }
+
+    public FactorizedImpedanceMatrix(ShortCircuitNetworkData data, ImpedanceLinearResolutionParameters parameters, int cacheSize, SimulatorMetrics metrics) {
+        this(data, parameters, cacheSize, metrics, null);
+    }
+
+    /**
+     * The admittance matrix is read from the snapshot file if not null, existing and saved from the same network data
+     * and parameters, and assembled otherwise (isRestored() telling which). Matrices with a Kron elimination are always assembled.
+     */
+    public FactorizedImpedanceMatrix(ShortCircuitNetworkData data, ImpedanceLinearResolutionParameters parameters, int cacheSize, SimulatorMetrics metrics,
+                                     Path snapshot) {
+        this.data = Objects.requireNonNull(data);
+        this.parameters = Objects.requireNonNull(parameters);
+        Objects.requireNonNull(metrics);
+        if (cacheSize < 0) {
+            throw new IllegalArgumentException("Cache size " + cacheSize + " must be positive");
+        }
+        this.cacheSize = cacheSize;
+        network = data.getNetwork();
+
+        if (snapshot != null && !parameters.isKronElimination() && AdmittanceMatrixSnapshot.matches(snapshot, getFingerprint())) {
+            long start = metrics.start();
+            y = AdmittanceMatrixSnapshot.read(snapshot, getFingerprint(), parameters.getMatrixFactory(), network);
+            metrics.stop(SimulatorMetrics.Phase.MATRIX_ASSEMBLY, start);
+            restored = true;
+        } else {
+            y = assemble(data, parameters, metrics);
+            restored = false;
+        }
+        metrics.addMatrix(y.getFactorizedRowCount(), y.getNonZeroCount());
+
+        long start = metrics.start();
+        y.decomposeLU();
+        metrics.stop(SimulatorMetrics.Phase.LU_DECOMPOSITION, start);
+    }
+
+    /**
+     * Admittance matrix of the parameters assembled from its equation system, not factorized.
+     */
+    static AdmittanceMatrix assemble(ShortCircuitNetworkData data, ImpedanceLinearResolutionParameters parameters, SimulatorMetrics metrics) {
+        LfNetwork network = data.getNetwork();
+        long start = metrics.start();
+        KronElimination elimination = parameters.isKronElimination() ? new KronElimination() : null;
+        EquationSystem<VariableType, EquationType> equationSystem
+                = AdmittanceEquationSystem.create(network, new VariableSet<>(), parameters.getAdmittanceType(), parameters.getTheveninVoltageProfileType(), parameters.getTheveninPeriodType(), parameters.isTheveninIgnoreShunts(), new FeedersAtNetwork(), parameters.getAcLoadFlowParameters(), data, elimination);
+        metrics.stop(SimulatorMetrics.Phase.EQUATION_SYSTEM, start);
+
+        start = metrics.start();
+        AdmittanceMatrix y = new AdmittanceMatrix(equationSystem, parameters.getMatrixFactory(), network,
+                AdmittanceEquationSystem.getZeroImpedanceContraction(parameters.getAdmittanceType(), data), elimination);
+        metrics.stop(SimulatorMetrics.Phase.MATRIX_ASSEMBLY, start);
+        return y;
+    }
+
+    public LfNetwork getNetwork() {
+        return network;
+    }
+
+    public boolean isRestored() {
+        return restored;
+    }
+
+    /**
+     * Fingerprint of the network data and parameters of the matrix, see AdmittanceMatrixSnapshot.fingerprint.
+     */
+    public synchronized String getFingerprint() {
+        if (fingerprint == null) {
+            fingerprint = AdmittanceMatrixSnapshot.fingerprint(data, parameters);
+        }
+        return fingerprint;
+    }
+
+    /**
+     * Saves the assembled matrix to the snapshot file, replaced if existing.
+     */
+    public synchronized void save(Path snapshot) {
+        Objects.requireNonNull(snapshot);
+        AdmittanceMatrixSnapshot.write(y, getFingerprint(), snapshot);
+    }
+
+    private static final class CachedEquivalent {
+
+        private final MultiPortImpedanceMatrix equivalent;
+
+        private volatile long lastAccess;
+
+        private CachedEquivalent(MultiPortImpedanceMatrix equivalent, long lastAccess) {
+            this.equivalent = equivalent;
+            this.lastAccess = lastAccess;
+        }
+    }
+
+    /**
+     * One port Thevenin equivalent of the given bus, solved with the factorized matrix unless already in the cache.
+     */
+    public MultiPortImpedanceMatrix getEquivalent(LfBus bus) {
+        Objects.requireNonNull(bus);
+        if (bus.getNum() >= network.getBuses().size() || network.getBus(bus.getNum()) != bus) {
+            throw new IllegalArgumentException("Bus " + bus.getId() + " does not belong to the network of the factorized matrix");
+        }
+        CachedEquivalent cached = equivalents.get(bus.getNum());
+        if (cached != null) {
+            cached.lastAccess = accessCount.incrementAndGet();
+            return cached.equivalent;
+        }
+        return solveEquivalent(bus);
+    }
+
+    private synchronized MultiPortImpedanceMatrix solveEquivalent(LfBus bus) {
+        // the bus may have been solved by a concurrent miss in between
+        CachedEquivalent cached = equivalents.get(bus.getNum());
+        if (cached != null) {
+            cached.lastAccess = accessCount.incrementAndGet();
+            return cached.equivalent;
+        }
+        List<LfBus> ports = List.of(bus);
+        DenseMatrix en = ImpedanceLinearResolution.createExtractionMatrix(y, ports);
+        y.solveTransposed(en);
+        solveCount++;
+        MultiPortImpedanceMatrix equivalent = MultiPortImpedanceMatrix.extract(y, en, ports, new int[] {0}, parameters.getTheveninVoltageProfileType(), false);
+        if (cacheSize > 0) {
+            if (equivalents.size() >= cacheSize) {
+                evictLeastRecentlyUsed();
+            }
+            equivalents.put(bus.getNum(), new CachedEquivalent(equivalent, accessCount.incrementAndGet()));
+        }
+        return equivalent;
+    }
+
+    // only called on a miss, whose solve costs much more than this scan of the cache
+    private void evictLeastRecentlyUsed() {
+        Integer eldestBusNum = null;
+        long eldestAccess = Long.MAX_VALUE;
+        for (Map.Entry<Integer, CachedEquivalent> e : equivalents.entrySet()) {
+            long lastAccess = e.getValue().lastAccess;
+            if (lastAccess < eldestAccess) {
+                eldestAccess = lastAccess;
+                eldestBusNum = e.getKey();
+            }
+        }
+        if (eldestBusNum != null) {
+            equivalents.remove(eldestBusNum);
+        }
+    }
+
+    /**
+     * Number of solves made since the factorization, a bus found in the cache needing no solve.
+     */
+    public synchronized int getSolveCount() {
+        return solveCount;
+    }
+
+    public int getCachedBusCount() {
+        return equivalents.size();
+    }
+
+    @Override
+    public synchronized void close() {
+        equivalents.clear();
+        y.close();
+    }
+}
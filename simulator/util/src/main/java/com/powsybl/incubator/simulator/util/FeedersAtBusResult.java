@@ -41,22 +41,48 @@ public class FeedersAtBusResult {
         this.iyFeedersSum = iy + this.iyFeedersSum;
     }
 
-    public void updateContributions() {
-        double bSum = 0.;
+    public double getIxFeedersSum() {
+        return ixFeedersSum;
+    }
+
+    public double getIyFeedersSum() {
+        return iyFeedersSum;
+    }
+
+    public double getFeedersG() {
         double gSum = 0.;
+        for (FeederResult feederResult : busFeedersResult) {
+            gSum = gSum + feederResult.getFeeder().getG();
+        }
+        return gSum;
+    }
 
+    public double getFeedersB() {
+        double bSum = 0.;
         for (FeederResult feederResult : busFeedersResult) {
             bSum = bSum + feederResult.getFeeder().getB();
-            gSum = gSum + feederResult.getFeeder().getG();
         }
+        return bSum;
+    }
+
+    public void updateContributions() {
+        updateContributions(ixFeedersSum, iyFeedersSum, getFeedersG(), getFeedersB());
+    }
 
+    /**
+     * Dispatches the given current among the feeders of the bus with the admittance key of the given total admittance.
+     * Used for a bus merged with others into a node by non impedant branches: the feeders of all the busses of the node
+     * share the same voltage, so the current entering the node from its impedant branches is dispatched among all of
+     * them, the current through the non impedant branches following from the current law at each bus.
+     */
+    public void updateContributions(double ixSum, double iySum, double gSum, double bSum) {
         if (Math.abs(gSum) > EPSILON || Math.abs(bSum) > EPSILON) {
             double det = 1 / (gSum * gSum + bSum * bSum);
             for (FeederResult feederResult : busFeedersResult) {
                 double gk = feederResult.getFeeder().getG();
                 double bk = feederResult.getFeeder().getB();
-                double ixk = det * ((gk * gSum + bk * bSum) * ixFeedersSum + (gk * bSum - gSum * bk) * iyFeedersSum);
-                double iyk = det * ((-gk * bSum + gSum * bk) * ixFeedersSum + (gk * gSum + bk * bSum) * iyFeedersSum);
+                double ixk = det * ((gk * gSum + bk * bSum) * ixSum + (gk * bSum - gSum * bk) * iySum);
+                double iyk = det * ((-gk * bSum + gSum * bk) * ixSum + (gk * gSum + bk * bSum) * iySum);
 
                 feederResult.updateIcontribution(ixk, iyk);
                 feederResult.printContributions(feedersAtBus.getFeedersBus());
@@ -6,6 +6,7 @@
  */
 package com.powsybl.incubator.simulator.util;
 
+import com.powsybl.incubator.simulator.util.extensions.ShortCircuitNetworkData;
 import com.powsybl.math.matrix.DenseMatrix;
 import com.powsybl.openloadflow.equations.EquationSystem;
 import com.powsybl.openloadflow.equations.VariableSet;
@@ -15,9 +16,16 @@ import com.powsybl.openloadflow.network.LfNetwork;
 import org.apache.commons.math3.util.Pair;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
 
 /**
  * @author Jean-Baptiste Heyberger <jbheyberger at gmail.com>
@@ -38,11 +46,49 @@ public  class ImpedanceLinearResolution {
 
     private final ImpedanceLinearResolutionParameters parameters;
 
-    public final List<ImpedanceLinearResolutionResult> results = new ArrayList<>();
+    private final SimulatorMetrics metrics;
+
+    private ShortCircuitNetworkData data; // read from the network properties at first run if not given
+
+    private final List<ImpedanceLinearResolutionResult> results = new ArrayList<>();
+
+    // LfBus of each calculation location found in the network at last run, locations being kept unchanged
+    private final Map<CalculationLocation, LfBus> locationBusses = new HashMap<>();
+
+    private final Map<CalculationLocation, LfBus> locationBusses2 = new HashMap<>(); // second bus of biphased calculation locations
 
     public ImpedanceLinearResolution(LfNetwork network, ImpedanceLinearResolutionParameters parameters) {
+        this(network, parameters, new SimulatorMetrics());
+    }
+
+    public ImpedanceLinearResolution(LfNetwork network, ImpedanceLinearResolutionParameters parameters, SimulatorMetrics metrics) {
         this.network = Objects.requireNonNull(network);
         this.parameters = Objects.requireNonNull(parameters);
+        this.metrics = Objects.requireNonNull(metrics);
+    }
+
+    public ImpedanceLinearResolution(ShortCircuitNetworkData data, ImpedanceLinearResolutionParameters parameters, SimulatorMetrics metrics) {
+        this(data.getNetwork(), parameters, metrics);
+        this.data = data;
+    }
+
+    public SimulatorMetrics getMetrics() {
+        return metrics;
+    }
+
+    public List<ImpedanceLinearResolutionResult> getResults() {
+        return Collections.unmodifiableList(results);
+    }
+
+    /**
+     * LfBus of the given calculation location at last run, null if the location has not been found in the network.
+     */
+    public LfBus getLocationBus(CalculationLocation calculationLocation) {
+        return locationBusses.get(calculationLocation);
+    }
+
+    public LfBus getLocationBus2(CalculationLocation calculationLocation) {
+        return locationBusses2.get(calculationLocation);
     }
 
     public class ImpedanceLinearResolutionResult {
@@ -317,20 +363,34 @@ public  class ImpedanceLinearResolution {
 
     public void run() {
 
+        results.clear();
+        locationBusses.clear();
+        locationBusses2.clear();
+
+        long start = metrics.start();
+        if (data == null) {
+            data = ShortCircuitNetworkData.build(network);
+        }
         FeedersAtNetwork equationsSystemFeeders = new FeedersAtNetwork();
+        KronElimination elimination = parameters.isKronElimination() ? new KronElimination() : null;
         EquationSystem<VariableType, EquationType> equationSystem
-                = AdmittanceEquationSystem.create(network, new VariableSet<>(), parameters.getAdmittanceType(), parameters.getTheveninVoltageProfileType(), parameters.getTheveninPeriodType(), parameters.isTheveninIgnoreShunts(), equationsSystemFeeders, parameters.getAcLoadFlowParameters());
+                = AdmittanceEquationSystem.create(network, new VariableSet<>(), parameters.getAdmittanceType(), parameters.getTheveninVoltageProfileType(), parameters.getTheveninPeriodType(), parameters.isTheveninIgnoreShunts(), equationsSystemFeeders, parameters.getAcLoadFlowParameters(), data, elimination);
+        metrics.stop(SimulatorMetrics.Phase.EQUATION_SYSTEM, start);
 
         //Get bus by voltage level
         List<LfBus> inputBusses = new ArrayList<>();
         for (CalculationLocation faultBranchLocationInfo : parameters.getCalculationLocations()) {
-            String iidmBranchId = faultBranchLocationInfo.getIidmBusInfo().getKey();
-            int branchSide = faultBranchLocationInfo.getIidmBusInfo().getValue();
+            Pair<String, Integer> iidmBusInfo = parameters.getIidmBusInfo(faultBranchLocationInfo);
+            if (iidmBusInfo == null) {
+                continue;
+            }
+            String iidmBranchId = iidmBusInfo.getKey();
+            int branchSide = iidmBusInfo.getValue();
 
             LfBus bus = getLfBusFromIidmBranch(iidmBranchId, branchSide, network);
             if (bus != null) {
                 inputBusses.add(bus);
-                faultBranchLocationInfo.setLfBusInfo(bus.getId());
+                locationBusses.put(faultBranchLocationInfo, bus);
             }
         }
 
@@ -339,11 +399,16 @@ public  class ImpedanceLinearResolution {
         if (parameters.getBiphasedCalculationLocations() != null) {
             for (CalculationLocation biphasedFaultBranchLocationInfo : parameters.getBiphasedCalculationLocations()) {
 
-                String iidmBranchId = biphasedFaultBranchLocationInfo.getIidmBusInfo().getKey();
-                int branchSide = biphasedFaultBranchLocationInfo.getIidmBusInfo().getValue();
+                Pair<String, Integer> iidmBusInfo = parameters.getIidmBusInfo(biphasedFaultBranchLocationInfo);
+                Pair<String, Integer> iidmBus2Info = parameters.getIidmBus2Info(biphasedFaultBranchLocationInfo);
+                if (iidmBusInfo == null || iidmBus2Info == null) {
+                    continue;
+                }
+                String iidmBranchId = iidmBusInfo.getKey();
+                int branchSide = iidmBusInfo.getValue();
 
-                String iidmBranch2Id = biphasedFaultBranchLocationInfo.getIidmBus2Info().getKey();
-                int branch2Side = biphasedFaultBranchLocationInfo.getIidmBus2Info().getValue();
+                String iidmBranch2Id = iidmBus2Info.getKey();
+                int branch2Side = iidmBus2Info.getValue();
 
                 LfBus bus1 = getLfBusFromIidmBranch(iidmBranchId, branchSide, network);
                 LfBus bus2 = getLfBusFromIidmBranch(iidmBranch2Id, branch2Side, network);
@@ -351,30 +416,140 @@ public  class ImpedanceLinearResolution {
                 if (bus1 != null && bus2 != null) {
                     Pair<LfBus, LfBus> bussesPair = new Pair<>(bus1, bus2);
                     biphasedinputBusses.add(bussesPair);
-                    biphasedFaultBranchLocationInfo.setLfBusInfo(bus1.getId());
-                    biphasedFaultBranchLocationInfo.setLfBus2Info(bus2.getId());
+                    locationBusses.put(biphasedFaultBranchLocationInfo, bus1);
+                    locationBusses2.put(biphasedFaultBranchLocationInfo, bus2);
                 }
             }
         }
 
-        // Addition of biphased faults in the inputBusses
+        // Addition of biphased faults in the inputBusses, the index of the first occurrence of a bus in inputBusses being stored by bus num
+        int[] busIndexes = new int[network.getBuses().size()];
+        Arrays.fill(busIndexes, -1);
+        for (int index = 0; index < inputBusses.size(); index++) {
+            int busNum = inputBusses.get(index).getNum();
+            if (busIndexes[busNum] < 0) {
+                busIndexes[busNum] = index;
+            }
+        }
         for (Pair<LfBus, LfBus> pairBusses : biphasedinputBusses) {
-            LfBus bus1 = pairBusses.getKey();
-            LfBus bus2 = pairBusses.getValue();
-            if (!inputBusses.contains(bus1)) {
-                inputBusses.add(bus1);
+            for (LfBus bus : List.of(pairBusses.getKey(), pairBusses.getValue())) {
+                if (busIndexes[bus.getNum()] < 0) {
+                    busIndexes[bus.getNum()] = inputBusses.size();
+                    inputBusses.add(bus);
+                }
             }
-            if (!inputBusses.contains(bus2)) {
-                inputBusses.add(bus2);
+        }
+
+        // Step 1 : build the matrix and its LU decomposition, shared by all the chunks of calculation locations
+        start = metrics.start();
+        try (AdmittanceMatrix yd = new AdmittanceMatrix(equationSystem, parameters.getMatrixFactory(), network,
+                AdmittanceEquationSystem.getZeroImpedanceContraction(parameters.getAdmittanceType(), data), elimination)) {
+            metrics.stop(SimulatorMetrics.Phase.MATRIX_ASSEMBLY, start);
+            metrics.addMatrix(yd.getFactorizedRowCount(), yd.getNonZeroCount());
+
+            start = metrics.start();
+            yd.decomposeLU();
+            metrics.stop(SimulatorMetrics.Phase.LU_DECOMPOSITION, start);
+
+            // The locations are solved by chunks to bound the size of [En], the results of a chunk being extracted
+            // on the executor (if any) while the next chunk is solved. Solves stay on this thread as a LU decomposition
+            // cannot be shared between concurrent solves.
+            // A biphased common support fault needs the columns of its both busses: everything is solved at once in that case.
+            int chunkSize = biphasedinputBusses.isEmpty() ? parameters.getChunkSize() : Integer.MAX_VALUE;
+            Executor executor = parameters.getExecutor();
+            List<FutureTask<ChunkResults>> chunkTasks = new ArrayList<>();
+            try {
+                int fromIndex = 0;
+                while (fromIndex < inputBusses.size()) {
+                    int toIndex = inputBusses.size() - fromIndex > chunkSize ? fromIndex + chunkSize : inputBusses.size();
+                    List<LfBus> chunkBusses = inputBusses.subList(fromIndex, toIndex);
+
+                    DenseMatrix en = createExtractionMatrix(yd, chunkBusses);
+
+                    //Step 3 : use the LU inversion of Y to get Rth and Xth
+                    start = metrics.start();
+                    yd.solveTransposed(en);
+                    metrics.stop(SimulatorMetrics.Phase.SOLVE, start);
+
+                    FutureTask<ChunkResults> chunkTask = new FutureTask<>(() -> extractResults(yd, en, chunkBusses, biphasedinputBusses, busIndexes, equationsSystemFeeders));
+                    chunkTasks.add(chunkTask);
+                    if (executor != null) {
+                        executor.execute(chunkTask);
+                    } else {
+                        chunkTask.run();
+                    }
+                    fromIndex = toIndex;
+                }
+
+                // results are gathered in the order of the locations
+                for (FutureTask<ChunkResults> chunkTask : chunkTasks) {
+                    chunkTask.run(); // does nothing if already done or running, otherwise avoids waiting for a saturated executor
+                    ChunkResults chunkResults = getChunkResults(chunkTask);
+                    results.addAll(chunkResults.results);
+                    metrics.addTime(SimulatorMetrics.Phase.FEEDERS_UPDATE, chunkResults.feedersNanos);
+                    metrics.addTime(SimulatorMetrics.Phase.POST_PROCESSING, chunkResults.postProcessingNanos);
+                }
+            } finally {
+                // after a failure, the chunks not started are cancelled and the running ones awaited before closing the matrix
+                for (FutureTask<ChunkResults> chunkTask : chunkTasks) {
+                    chunkTask.cancel(false);
+                    awaitQuietly(chunkTask);
+                }
             }
         }
+    }
+
+    private static final class ChunkResults {
+
+        private final List<ImpedanceLinearResolutionResult> results = new ArrayList<>();
 
+        private long feedersNanos;
+
+        private long postProcessingNanos;
+    }
+
+    private static ChunkResults getChunkResults(FutureTask<ChunkResults> chunkTask) {
+        try {
+            return chunkTask.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while extracting linear resolution results", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    // the failure of a task, if any, having been reported by getChunkResults
+    private static void awaitQuietly(FutureTask<ChunkResults> chunkTask) {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    chunkTask.get();
+                    return;
+                } catch (InterruptedException e) {
+                    interrupted = true; // the matrix cannot be closed before the end of the chunks using it
+                } catch (ExecutionException | CancellationException e) {
+                    return;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    static DenseMatrix createExtractionMatrix(AdmittanceMatrix yd, List<LfBus> chunkBusses) {
         // Build of the structure of the extraction matrices
         //               <------------------->  N
         //          ^ [ .....   0    0   ..... ]
         //          | [         0    0         ]
         //          | [                        ]     M = y.getRowCount()
-        // [En] = M | [         1    0         ]     N = 2 * inputBusses.size()
+        // [En] = M | [         1    0         ]     N = 2 * chunkBusses.size()
         //          | [         0    1         ]
         //          | [                        ]
         //          | [         0    0         ]
@@ -385,161 +560,110 @@ public  class ImpedanceLinearResolution {
         //
         //  - En_x_k is the vector t[ 0 0 ... 0 0 1 0 0 0 ... 0 0 ] where 1 corresponds to the line/column of the bus k where the real part of Z matrix is modelled
         //  - En_y_k is the vector t[ 0 0 ... 0 0 0 1 0 0 ... 0 0 ] where 1 corresponds to the line/column of the bus k where the imaginary part of Z matrix is modelled
+        DenseMatrix en = new DenseMatrix(yd.getRowCount(), 2 * chunkBusses.size());
+        int numBusFault = 0;
+        for (LfBus lfBus : chunkBusses) {
+            int yRowx = yd.getRowBus(lfBus.getNum(), EquationType.BUS_YR);
+            int yRowy = yd.getRowBus(lfBus.getNum(), EquationType.BUS_YI);
+
+            //Step 2: fill the extraction matrices based on each extraction vector
+            // [En_x][i,1]= 1 if i = yRowRth and 0 else
+            // [En_y][i,1]= 1 if i = yRowXth and 0 else
+            // the transposed extraction matrix tEn is not built as it is very sparse: the elements rth and xth are directly read in inv(Y) * En
+            en.add(yRowx, 2 * numBusFault, 1.0);
+            en.add(yRowy, 2 * numBusFault + 1, 1.0);
+
+            numBusFault++;
+        }
+        return en;
+    }
 
-        // Step 1 : build the extraction vectors
-        try (AdmittanceMatrix yd = new AdmittanceMatrix(equationSystem, parameters.getMatrixFactory(), network)) {
-
-            DenseMatrix en = new DenseMatrix(yd.getRowCount(), 2 * inputBusses.size());
-            List<Integer> tEn2Col = new ArrayList<>();
-
-            int numBusFault = 0;
-            for (LfBus lfBus : inputBusses) {
-
-                int yRowx = yd.getRowBus(lfBus.getNum(), EquationType.BUS_YR);
-                int yColx = yd.getColBus(lfBus.getNum(), VariableType.BUS_VR);
-                int yRowy = yd.getRowBus(lfBus.getNum(), EquationType.BUS_YI);
-                int yColy = yd.getColBus(lfBus.getNum(), VariableType.BUS_VI);
-
-                //Step 2: fill the extraction matrices based on each extraction vector
-                // [tEn_x][1,j]= 1 if j = yColRth and 0 else
-                // [tEn_y][1,j]= 1 if j = yColXth and 0 else
-                //tEn.add(2 * numBusFault, yColx, 1.0);
-                //tEn.add(2 * numBusFault + 1, yColy, 1.0);
-
-                //the extraction matrix tEn is replaced by a list to directly get the elements rth and xth in inv(Y) * En as tEn is very sparse
-                tEn2Col.add(yColx);
-                tEn2Col.add(yColy);
-
-                // [En_x][i,1]= 1 if i = yRowRth and 0 else
-                // [En_y][i,1]= 1 if i = yRowXth and 0 else
-                en.add(yRowx, 2 * numBusFault, 1.0);
-                en.add(yRowy, 2 * numBusFault + 1, 1.0);
-
-                numBusFault++;
+    // extraction of the results of a chunk from en = inv(Y) * En, including the optional voltage and feeders update, timed apart
+    // biphased common support faults are only possible when all the busses are in a single chunk, then the column of a bus in en is busIndexes[bus num]
+    private ChunkResults extractResults(AdmittanceMatrix yd, DenseMatrix en, List<LfBus> chunkBusses, List<Pair<LfBus, LfBus>> biphasedinputBusses,
+                                        int[] busIndexes, FeedersAtNetwork equationsSystemFeeders) {
+        long start = System.nanoTime();
+        ChunkResults chunkResults = new ChunkResults();
+        double ethx = 1.0;
+        double ethy = 0.0;
+        int numBusFault = 0;
+        for (LfBus lfBus : chunkBusses) {
+
+            int yRow1x = yd.getRowBus(lfBus.getNum(), EquationType.BUS_YR);
+            int yRow1y = yd.getRowBus(lfBus.getNum(), EquationType.BUS_YI);
+            int yCol1x = yd.getColBus(lfBus.getNum(), VariableType.BUS_VR);
+            int yCol1y = yd.getColBus(lfBus.getNum(), VariableType.BUS_VI);
+
+            if (parameters.getTheveninVoltageProfileType() == AdmittanceEquationSystem.AdmittanceVoltageProfileType.CALCULATED) {
+                ethx = lfBus.getV() * Math.cos(lfBus.getAngle());
+                ethy = lfBus.getV() * Math.sin(lfBus.getAngle());
             }
 
-            //Step 3 : use the LU inversion of Y to get Rth and Xth
-            yd.solveTransposed(en);
-
             // Each diagonal bloc of tEn * inv(Y) * En is:
             //     [Zkk] = [ r -x ]
             //             [ x  r ]
+            //this is equivalent to get the diagonal blocks of tEn * inv(Y) * En but taking advantage of the sparsity of tEn
+            ImpedanceLinearResolutionResult res = new ImpedanceLinearResolutionResult(lfBus,
+                    en.get(yCol1x, 2 * numBusFault),
+                    en.get(yCol1y, 1 + 2 * numBusFault),
+                    -en.get(yCol1x, 1 + 2 * numBusFault),
+                    en.get(yCol1y, 2 * numBusFault),
+                    ethx,
+                    ethy);
+
+            //step 4 : add deltaVoltage vectors if required
+            //extract values at the faulting bus that will be used to compute the post-fault voltage delta at bus
+            // This equivalent to compute  t[En]*inv(Y)*[En] in :
+            // [ Vx ]                        [ Ix ]           [ Vx_init ]
+            // [ Vy ] = -t[En]*inv(Y)*[En] * [ Iy ] + t[En] * [ Vy_init ]
+            double enBusxx = en.get(yRow1x, 2 * numBusFault);
+            double enBusyx = en.get(yRow1x, 2 * numBusFault + 1);
+            double enBusxy = en.get(yRow1y, 2 * numBusFault);
+            double enBusyy = en.get(yRow1y, 2 * numBusFault + 1);
+
+            res.updateEnBus(enBusxx, enBusyx, enBusxy, enBusyy);
+
+            // handle biphased common support faults extra data
+            for (Pair<LfBus, LfBus> pairBusses : biphasedinputBusses) {
+                LfBus bus1 = pairBusses.getKey();
+                if (bus1 == lfBus) {
+                    // lfbus is also the first bus for a biphased common support, we store as an extension necessary additional data for the linear resolution post-processing
+                    // taken from the 2-port Thevenin equivalent of [lfBus, bus2]
+                    LfBus bus2 = pairBusses.getValue();
+                    int numBus2Fault = busIndexes[bus2.getNum()]; // get the right column of extraction matrix of bus2
+                    if (numBus2Fault < 0 || numBus2Fault >= chunkBusses.size() || chunkBusses.get(numBus2Fault) != bus2) {
+                        throw new IllegalArgumentException(" Biphased fault second bus = " + bus2.getId() + " : not found in the extraction matrix");
+                    }
 
-            //DenseMatrix z = (DenseMatrix) tEn.times(en);
-
-            double ethx = 1.0;
-            double ethy = 0.0;
-            numBusFault = 0;
-            for (LfBus lfBus : inputBusses) {
-
-                int yRow1x = yd.getRowBus(lfBus.getNum(), EquationType.BUS_YR);
-                int yRow1y = yd.getRowBus(lfBus.getNum(), EquationType.BUS_YI);
-
-                if (parameters.getTheveninVoltageProfileType() == AdmittanceEquationSystem.AdmittanceVoltageProfileType.CALCULATED) {
-                    ethx = lfBus.getV() * Math.cos(lfBus.getAngle());
-                    ethy = lfBus.getV() * Math.sin(lfBus.getAngle());
-                }
+                    MultiPortImpedanceMatrix twoPort = MultiPortImpedanceMatrix.extract(yd, en, List.of(lfBus, bus2), new int[] {numBusFault, numBus2Fault},
+                            parameters.getTheveninVoltageProfileType(), false);
 
-                //this is equivalent to get the diagonal blocks of tEn * inv(Y) * En but taking advantage of the sparsity of tEn
-                ImpedanceLinearResolutionResult res = new ImpedanceLinearResolutionResult(lfBus,
-                        en.get(tEn2Col.get(2 * numBusFault), 2 * numBusFault),
-                        en.get(tEn2Col.get(1 + 2 * numBusFault), 1 + 2 * numBusFault),
-                        -en.get(tEn2Col.get(2 * numBusFault), 1 + 2 * numBusFault),
-                        en.get(tEn2Col.get(1 + 2 * numBusFault), 2 * numBusFault),
-                        ethx,
-                        ethy);
-
-                //step 4 : add deltaVoltage vectors if required
-                //extract values at the faulting bus that will be used to compute the post-fault voltage delta at bus
-                // This equivalent to compute  t[En]*inv(Y)*[En] in :
-                // [ Vx ]                        [ Ix ]           [ Vx_init ]
-                // [ Vy ] = -t[En]*inv(Y)*[En] * [ Iy ] + t[En] * [ Vy_init ]
-                double enBusxx = en.get(yRow1x, 2 * numBusFault);
-                double enBusyx = en.get(yRow1x, 2 * numBusFault + 1);
-                double enBusxy = en.get(yRow1y, 2 * numBusFault);
-                double enBusyy = en.get(yRow1y, 2 * numBusFault + 1);
-
-                res.updateEnBus(enBusxx, enBusyx, enBusxy, enBusyy);
-
-                // handle biphased common support faults extra data
-                for (Pair<LfBus, LfBus> pairBusses : biphasedinputBusses) {
-                    LfBus bus1 = pairBusses.getKey();
-                    if (bus1 == lfBus) {
-                        // lfbus is also the first bus for a biphased common support, we store as an extension necessary additional data for the linear resolution post-processing
-                        LfBus bus2 = pairBusses.getValue();
-                        int yCol1x = yd.getColBus(lfBus.getNum(), VariableType.BUS_VR);
-                        int yCol1y = yd.getColBus(lfBus.getNum(), VariableType.BUS_VI);
-                        int yCol2x = yd.getColBus(bus2.getNum(), VariableType.BUS_VR);
-                        int yCol2y = yd.getColBus(bus2.getNum(), VariableType.BUS_VI);
-
-                        int numBus2Fault = 0; // get the right column of extraction matrix of bus2
-                        boolean bus2found = false;
-                        for (LfBus lfBus2 : inputBusses) {
-                            if (lfBus2 == bus2) {
-                                bus2found = true;
-                                break;
-                            }
-                            numBus2Fault++;
-                        }
-
-                        if (!bus2found) {
-                            throw new IllegalArgumentException(" Biphased fault second bus = " + bus2.getId() + " : not found in the extraction matrix");
-                        }
-
-                        double enZ22txx = en.get(yCol2x, 2 * numBus2Fault);
-                        double enZ22tyx = en.get(yCol2y, 2 * numBus2Fault);
-                        double enZ22txy = en.get(yCol2x, 2 * numBus2Fault + 1);
-                        double enZ22tyy = en.get(yCol2y, 2 * numBus2Fault + 1);
-
-                        double enZ21txx = en.get(yCol2x, 2 * numBusFault);
-                        double enZ21tyx = en.get(yCol2y, 2 * numBusFault);
-                        double enZ21txy = en.get(yCol2x, 2 * numBusFault + 1);
-                        double enZ21tyy = en.get(yCol2y, 2 * numBusFault + 1);
-
-                        double enZ12txx = en.get(yCol1x, 2 * numBus2Fault);
-                        double enZ12tyx = en.get(yCol1y, 2 * numBus2Fault);
-                        double enZ12txy = en.get(yCol1x, 2 * numBus2Fault + 1);
-                        double enZ12tyy = en.get(yCol1y, 2 * numBus2Fault + 1);
-
-                        // By construction we have for each block
-                        //
-                        // Zij = [ rij  -xij ]
-                        //       [ xij   rij ]
-                        //
-                        // We need to check consistency of terms for each block
-                        checkBlocConsistency(enZ22txx, enZ22tyy, enZ22txy, enZ22tyx, lfBus, bus2);
-                        checkBlocConsistency(enZ21txx, enZ21tyy, enZ21txy, enZ21tyx, lfBus, bus2);
-                        checkBlocConsistency(enZ12txx, enZ12tyy, enZ12txy, enZ12tyx, lfBus, bus2);
-
-                        double eth2x = 1.0;
-                        double eth2y = 0.;
-                        if (parameters.getTheveninVoltageProfileType() == AdmittanceEquationSystem.AdmittanceVoltageProfileType.CALCULATED) {
-                            eth2x = bus2.getV() * Math.cos(lfBus.getAngle());
-                            eth2y = bus2.getV() * Math.sin(lfBus.getAngle());
-                        }
-
-                        res.addBiphasedResult(bus2, eth2x, eth2y, enZ22txx, enZ22txy, enZ21txx, enZ21txy, enZ12txx, enZ12txy, numBus2Fault);
-                    }
+                    res.addBiphasedResult(bus2, twoPort.getEthx(1), twoPort.getEthy(1),
+                            twoPort.getR(1, 1), -twoPort.getX(1, 1), twoPort.getR(1, 0), -twoPort.getX(1, 0), twoPort.getR(0, 1), -twoPort.getX(0, 1), numBus2Fault);
                 }
+            }
 
-                //if required, do the same for all busses from the grid
-                if (parameters.isVoltageUpdate()) {
-                    // This equivalent to store  inv(Y)*[En]
-                    res.updateWithVoltagesdelta(yd, en, numBusFault, equationsSystemFeeders);
-                    if (res.biphasedResultsAtBus != null) {
-                        // update for each biphased common support fault
-                        for (ImpedanceLinearResolutionResult.ImpedanceLinearResolutionResultBiphased biphasedResultPart : res.biphasedResultsAtBus) {
-                            biphasedResultPart.updateWithVoltagesdelta2(yd, en);
-                        }
+            //if required, do the same for all busses from the grid
+            if (parameters.isVoltageUpdate()) {
+                long feedersStart = System.nanoTime();
+                // This equivalent to store  inv(Y)*[En]
+                res.updateWithVoltagesdelta(yd, en, numBusFault, equationsSystemFeeders);
+                if (res.biphasedResultsAtBus != null) {
+                    // update for each biphased common support fault
+                    for (ImpedanceLinearResolutionResult.ImpedanceLinearResolutionResultBiphased biphasedResultPart : res.biphasedResultsAtBus) {
+                        biphasedResultPart.updateWithVoltagesdelta2(yd, en);
                     }
                 }
+                chunkResults.feedersNanos += System.nanoTime() - feedersStart;
+            }
 
-                //res.printResult();
+            //res.printResult();
 
-                this.results.add(res);
-                numBusFault++;
-            }
+            chunkResults.results.add(res);
+            numBusFault++;
         }
+        chunkResults.postProcessingNanos = System.nanoTime() - start - chunkResults.feedersNanos;
+        return chunkResults;
     }
 
 }
@@ -8,9 +8,13 @@ package com.powsybl.incubator.simulator.util;
 
 import com.powsybl.math.matrix.MatrixFactory;
 import com.powsybl.openloadflow.ac.outerloop.AcLoadFlowParameters;
+import org.apache.commons.math3.util.Pair;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.Executor;
 
 /**
  * @author Jean-Baptiste Heyberger <jbheyberger at gmail.com>
@@ -48,6 +52,17 @@ public class ImpedanceLinearResolutionParameters {
 
     private final AdmittanceEquationSystem.AdmittanceType admittanceType;
 
+    private int chunkSize = Integer.MAX_VALUE; // max number of calculation locations solved at once with the same factorization
+
+    private Executor executor; // if not null, the results of the chunks are extracted on this executor while the next chunk is solved
+
+    private boolean kronElimination = false; // if true, radial antennas and three windings transformer star busses are eliminated before the factorization
+
+    // iidm bus of each calculation location: (iidm bus id, iidm bus side), the same location may be given to several resolutions
+    private Map<CalculationLocation, Pair<String, Integer>> iidmBusInfos = Collections.emptyMap();
+
+    private Map<CalculationLocation, Pair<String, Integer>> iidmBus2Infos = Collections.emptyMap(); // second bus of biphased calculation locations
+
     public ImpedanceLinearResolutionParameters(AcLoadFlowParameters acLoadFlowParameters, MatrixFactory matrixFactory, List<CalculationLocation> calculationLocations, boolean voltageUpdate,
                                                AdmittanceEquationSystem.AdmittanceVoltageProfileType theveninVoltageProfileType, AdmittanceEquationSystem.AdmittancePeriodType theveninPeriodType, AdmittanceEquationSystem.AdmittanceType admittanceType,
                                                boolean theveninIgnoreShunts) {
@@ -104,4 +119,44 @@ public class ImpedanceLinearResolutionParameters {
     public AdmittanceEquationSystem.AdmittanceType getAdmittanceType() {
         return admittanceType;
     }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size " + chunkSize + " must be strictly positive");
+        }
+        this.chunkSize = chunkSize;
+    }
+
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    public boolean isKronElimination() {
+        return kronElimination;
+    }
+
+    public void setKronElimination(boolean kronElimination) {
+        this.kronElimination = kronElimination;
+    }
+
+    public Pair<String, Integer> getIidmBusInfo(CalculationLocation calculationLocation) {
+        return iidmBusInfos.get(calculationLocation);
+    }
+
+    public Pair<String, Integer> getIidmBus2Info(CalculationLocation calculationLocation) {
+        return iidmBus2Infos.get(calculationLocation);
+    }
+
+    public void setIidmBusInfos(Map<CalculationLocation, Pair<String, Integer>> iidmBusInfos, Map<CalculationLocation, Pair<String, Integer>> iidmBus2Infos) {
+        this.iidmBusInfos = Objects.requireNonNull(iidmBusInfos);
+        this.iidmBus2Infos = Objects.requireNonNull(iidmBus2Infos);
+    }
 }
@@ -0,0 +1,259 @@
+/**
+ * Copyright (c) 2022, Jean-Baptiste Heyberger & Geoffroy Jamgotchian
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.incubator.simulator.util;
+
+import com.powsybl.math.matrix.DenseMatrix;
+
+import java.util.*;
+
+/**
+ * Busses eliminated from an admittance matrix before its factorization (Kron reduction): radial antennas (busses linked
+ * to a single other bus, recursively) and star busses of three windings transformers.
+ * Eliminating a bus k linked to the busses j of N(k) replaces, for all i and j of N(k):
+ *
+ *     Yij by Yij - Yik * Ykj / Ykk
+ *
+ * so that only the remaining core of the network is factorized. The eliminated busses are solved on demand with the core:
+ *  - forward, in the elimination order: Ij = Ij - Yjk / Ykk * Ik for j in N(k)
+ *  - core solve
+ *  - backward, in the reverse order: Vk = (Ik - sum of Ykj * Vj for j in N(k)) / Ykk
+ *
+ * An instance is given empty to AdmittanceEquationSystem.create, which fills it while building the equations of the core,
+ * then to the AdmittanceMatrix of these equations.
+ *
+ * @author Jean-Baptiste Heyberger <jbheyberger at gmail.com>
+ */
+public final class KronElimination {
+
+    private static final double EPSILON = 0.00000001;
+
+    private static final int MAX_STAR_DEGREE = 3;
+
+    private static final class Step {
+
+        private final int node;
+
+        private final double invYkkR; // 1 / Ykk
+
+        private final double invYkkI;
+
+        private final int[] neighbours;
+
+        private final double[] ykj; // Ykj for each neighbour j, real and imaginary parts
+
+        private final double[] fjk; // Yjk / Ykk for each neighbour j, real and imaginary parts
+
+        private Step(int node, double invYkkR, double invYkkI, int neighbourCount) {
+            this.node = node;
+            this.invYkkR = invYkkR;
+            this.invYkkI = invYkkI;
+            neighbours = new int[neighbourCount];
+            ykj = new double[2 * neighbourCount];
+            fjk = new double[2 * neighbourCount];
+        }
+    }
+
+    private final List<Step> steps = new ArrayList<>();
+
+    private int[] stepOfNode = new int[0]; // index of the step eliminating a node, -1 if the node is kept in the core
+
+    // working admittances of the nodes, only used during the build of the equations
+    private double[] diagonals;
+
+    private List<Map<Integer, double[]>> offDiagonals; // Yij indexed by i then j
+
+    public boolean isEmpty() {
+        return steps.isEmpty();
+    }
+
+    public int getEliminatedCount() {
+        return steps.size();
+    }
+
+    public boolean isEliminated(int node) {
+        return node < stepOfNode.length && stepOfNode[node] >= 0;
+    }
+
+    void init(int nodeCount) {
+        steps.clear();
+        stepOfNode = new int[nodeCount];
+        Arrays.fill(stepOfNode, -1);
+        diagonals = new double[2 * nodeCount];
+        offDiagonals = new ArrayList<>(nodeCount);
+        for (int i = 0; i < nodeCount; i++) {
+            offDiagonals.add(new HashMap<>());
+        }
+    }
+
+    void addShunt(int node, double g, double b) {
+        diagonals[2 * node] += g;
+        diagonals[2 * node + 1] += b;
+    }
+
+    void addCoupling(int node1, int node2, double g, double b) {
+        double[] y = offDiagonals.get(node1).computeIfAbsent(node2, k -> new double[2]);
+        y[0] += g;
+        y[1] += b;
+    }
+
+    double getDiagonalG(int node) {
+        return diagonals[2 * node];
+    }
+
+    double getDiagonalB(int node) {
+        return diagonals[2 * node + 1];
+    }
+
+    Map<Integer, double[]> getOffDiagonals(int node) {
+        return offDiagonals.get(node);
+    }
+
+    /**
+     * Eliminates the star busses (with at most 3 neighbours) then the radial antennas among the given nodes, a node being
+     * kept if its diagonal term is null or if it is the last node of its connected component.
+     */
+    void eliminate(boolean[] nodes, boolean[] starNodes) {
+        for (int k = 0; k < nodes.length; k++) {
+            int degree = offDiagonals.get(k).size();
+            if (nodes[k] && starNodes[k] && degree > 0 && degree <= MAX_STAR_DEGREE) {
+                eliminate(k);
+            }
+        }
+
+        Deque<Integer> antennas = new ArrayDeque<>();
+        for (int k = 0; k < nodes.length; k++) {
+            if (nodes[k] && !isEliminated(k) && offDiagonals.get(k).size() == 1) {
+                antennas.add(k);
+            }
+        }
+        while (!antennas.isEmpty()) {
+            int k = antennas.poll();
+            if (isEliminated(k) || offDiagonals.get(k).size() != 1) {
+                continue;
+            }
+            int j = offDiagonals.get(k).keySet().iterator().next();
+            if (eliminate(k) && offDiagonals.get(j).size() == 1) {
+                antennas.add(j);
+            }
+        }
+    }
+
+    private boolean eliminate(int k) {
+        double ykkR = diagonals[2 * k];
+        double ykkI = diagonals[2 * k + 1];
+        double norm = ykkR * ykkR + ykkI * ykkI;
+        if (norm < EPSILON * EPSILON) {
+            return false;
+        }
+        Map<Integer, double[]> row = offDiagonals.get(k);
+        Step step = new Step(k, ykkR / norm, -ykkI / norm, row.size());
+        int n = 0;
+        for (Map.Entry<Integer, double[]> e : row.entrySet()) {
+            int j = e.getKey();
+            double[] yjk = offDiagonals.get(j).remove(k);
+            step.neighbours[n] = j;
+            step.ykj[2 * n] = e.getValue()[0];
+            step.ykj[2 * n + 1] = e.getValue()[1];
+            step.fjk[2 * n] = yjk[0] * step.invYkkR - yjk[1] * step.invYkkI;
+            step.fjk[2 * n + 1] = yjk[0] * step.invYkkI + yjk[1] * step.invYkkR;
+            n++;
+        }
+        row.clear();
+
+        // Yij = Yij - Yik / Ykk * Ykj
+        for (int a = 0; a < n; a++) {
+            int i = step.neighbours[a];
+            double fikR = step.fjk[2 * a];
+            double fikI = step.fjk[2 * a + 1];
+            for (int c = 0; c < n; c++) {
+                int j = step.neighbours[c];
+                double ykjR = step.ykj[2 * c];
+                double ykjI = step.ykj[2 * c + 1];
+                double dR = fikR * ykjR - fikI * ykjI;
+                double dI = fikR * ykjI + fikI * ykjR;
+                if (i == j) {
+                    diagonals[2 * i] -= dR;
+                    diagonals[2 * i + 1] -= dI;
+                } else {
+                    addCoupling(i, j, -dR, -dI);
+                }
+            }
+        }
+
+        stepOfNode[k] = steps.size();
+        steps.add(step);
+        return true;
+    }
+
+    /**
+     * Releases the working admittances once the equations of the core have been built.
+     */
+    void releaseAdmittances() {
+        diagonals = null;
+        offDiagonals = null;
+    }
+
+    int getStepCount() {
+        return steps.size();
+    }
+
+    int getStepNode(int step) {
+        return steps.get(step).node;
+    }
+
+    /**
+     * Forward substitution of the currents of the eliminated nodes into their neighbours, for each column of b,
+     * the real and imaginary rows of the nodes being given by rowR and rowI.
+     */
+    void forward(DenseMatrix b, int[] rowR, int[] rowI) {
+        for (Step step : steps) {
+            int rkR = rowR[step.node];
+            int rkI = rowI[step.node];
+            for (int col = 0; col < b.getColumnCount(); col++) {
+                double ikR = b.get(rkR, col);
+                double ikI = b.get(rkI, col);
+                if (ikR == 0. && ikI == 0.) {
+                    continue;
+                }
+                for (int n = 0; n < step.neighbours.length; n++) {
+                    int j = step.neighbours[n];
+                    double fR = step.fjk[2 * n];
+                    double fI = step.fjk[2 * n + 1];
+                    b.add(rowR[j], col, -(fR * ikR - fI * ikI));
+                    b.add(rowI[j], col, -(fR * ikI + fI * ikR));
+                }
+            }
+        }
+    }
+
+    /**
+     * Backward substitution of the voltages of the eliminated nodes once the core is solved: the currents of the eliminated
+     * nodes (rows colR and colI of the nodes, as rows and columns of an eliminated node are the same) are replaced by their voltages.
+     */
+    void backward(DenseMatrix x, int[] colR, int[] colI) {
+        for (int s = steps.size() - 1; s >= 0; s--) {
+            Step step = steps.get(s);
+            int ckR = colR[step.node];
+            int ckI = colI[step.node];
+            for (int col = 0; col < x.getColumnCount(); col++) {
+                double sR = x.get(ckR, col);
+                double sI = x.get(ckI, col);
+                for (int n = 0; n < step.neighbours.length; n++) {
+                    int j = step.neighbours[n];
+                    double vjR = x.get(colR[j], col);
+                    double vjI = x.get(colI[j], col);
+                    double yR = step.ykj[2 * n];
+                    double yI = step.ykj[2 * n + 1];
+                    sR -= yR * vjR - yI * vjI;
+                    sI -= yR * vjI + yI * vjR;
+                }
+                x.set(ckR, col, step.invYkkR * sR - step.invYkkI * sI);
+                x.set(ckI, col, step.invYkkR * sI + step.invYkkI * sR);
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/**
+ * Copyright (c) 2022, Jean-Baptiste Heyberger & Geoffroy Jamgotchian
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.incubator.simulator.util;
+
+import com.powsybl.incubator.simulator.util.extensions.ShortCircuitNetworkData;
+import com.powsybl.math.matrix.DenseMatrix;
+import com.powsybl.openloadflow.equations.EquationSystem;
+import com.powsybl.openloadflow.equations.VariableSet;
+import com.powsybl.openloadflow.network.LfBus;
+import com.powsybl.openloadflow.network.LfNetwork;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Computes the multi-port Thevenin equivalents of sets of simultaneously faulted busses:
+ * the admittance matrix (direct or homopolar, depending on the admittance type of the parameters) is factorized once
+ * and solved once for the distinct busses of all the sets, each set giving a k x k matrix for its k busses.
+ * The calculation locations of the parameters are not used, the busses being given by the fault sets.
+ *
+ * @author Jean-Baptiste Heyberger <jbheyberger at gmail.com>
+ */
+public class MultiPortImpedanceLinearResolution {
+
+    private final ShortCircuitNetworkData data;
+
+    private final ImpedanceLinearResolutionParameters parameters;
+
+    private final List<List<LfBus>> faultSets;
+
+    private final SimulatorMetrics metrics;
+
+    private final List<MultiPortImpedanceMatrix> results = new ArrayList<>(); // in the order of the fault sets
+
+    public MultiPortImpedanceLinearResolution(ShortCircuitNetworkData data, ImpedanceLinearResolutionParameters parameters, List<List<LfBus>> faultSets) {
+        this(data, parameters, faultSets, new SimulatorMetrics());
+    }
+
+    public MultiPortImpedanceLinearResolution(ShortCircuitNetworkData data, ImpedanceLinearResolutionParameters parameters, List<List<LfBus>> faultSets,
+                                              SimulatorMetrics metrics) {
+        this.data = Objects.requireNonNull(data);
+        this.parameters = Objects.requireNonNull(parameters);
+        this.faultSets = Objects.requireNonNull(faultSets);
+        this.metrics = Objects.requireNonNull(metrics);
+    }
+
+    public SimulatorMetrics getMetrics() {
+        return metrics;
+    }
+
+    public List<MultiPortImpedanceMatrix> getResults() {
+        return Collections.unmodifiableList(results);
+    }
+
+    public void run() {
+        results.clear();
+        LfNetwork network = data.getNetwork();
+
+        // distinct busses of all the fault sets, the pair of columns of a bus in [En] being indexed by its num
+        List<LfBus> busses = new ArrayList<>();
+        int[] busColumns = new int[network.getBuses().size()];
+        Arrays.fill(busColumns, -1);
+        List<int[]> portColumnsPerSet = new ArrayList<>(faultSets.size());
+        for (List<LfBus> faultSet : faultSets) {
+            int[] portColumns = new int[faultSet.size()];
+            for (int p = 0; p < faultSet.size(); p++) {
+                LfBus bus = faultSet.get(p);
+                if (bus.getNum() >= network.getBuses().size() || network.getBus(bus.getNum()) != bus) {
+                    throw new IllegalArgumentException("Faulted bus " + bus.getId() + " does not belong to the network of the short circuit data");
+                }
+                if (busColumns[bus.getNum()] < 0) {
+                    busColumns[bus.getNum()] = busses.size();
+                    busses.add(bus);
+                }
+                portColumns[p] = busColumns[bus.getNum()];
+                for (int q = 0; q < p; q++) {
+                    if (portColumns[q] == portColumns[p]) {
+                        throw new IllegalArgumentException("Bus " + bus.getId() + " appears twice in the same fault set");
+                    }
+                }
+            }
+            portColumnsPerSet.add(portColumns);
+        }
+
+        long start = metrics.start();
+        KronElimination elimination = parameters.isKronElimination() ? new KronElimination() : null;
+        EquationSystem<VariableType, EquationType> equationSystem
+                = AdmittanceEquationSystem.create(network, new VariableSet<>(), parameters.getAdmittanceType(), parameters.getTheveninVoltageProfileType(), parameters.getTheveninPeriodType(), parameters.isTheveninIgnoreShunts(), new FeedersAtNetwork(), parameters.getAcLoadFlowParameters(), data, elimination);
+        metrics.stop(SimulatorMetrics.Phase.EQUATION_SYSTEM, start);
+
+        start = metrics.start();
+        try (AdmittanceMatrix y = new AdmittanceMatrix(equationSystem, parameters.getMatrixFactory(), network,
+                AdmittanceEquationSystem.getZeroImpedanceContraction(parameters.getAdmittanceType(), data), elimination)) {
+            metrics.stop(SimulatorMetrics.Phase.MATRIX_ASSEMBLY, start);
+            metrics.addMatrix(y.getFactorizedRowCount(), y.getNonZeroCount());
+
+            start = metrics.start();
+            y.decomposeLU();
+            metrics.stop(SimulatorMetrics.Phase.LU_DECOMPOSITION, start);
+
+            // the cross terms of a set need the columns of all its busses: everything is solved at once
+            DenseMatrix en = ImpedanceLinearResolution.createExtractionMatrix(y, busses);
+            start = metrics.start();
+            y.solveTransposed(en);
+            metrics.stop(SimulatorMetrics.Phase.SOLVE, start);
+
+            start = metrics.start();
+            for (int s = 0; s < faultSets.size(); s++) {
+                results.add(MultiPortImpedanceMatrix.extract(y, en, faultSets.get(s), portColumnsPerSet.get(s),
+                        parameters.getTheveninVoltageProfileType(), parameters.isVoltageUpdate()));
+            }
+            metrics.stop(SimulatorMetrics.Phase.POST_PROCESSING, start);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+/**
+ * Copyright (c) 2022, Jean-Baptiste Heyberger & Geoffroy Jamgotchian
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.incubator.simulator.util;
+
+import com.powsybl.math.matrix.DenseMatrix;
+import com.powsybl.openloadflow.network.LfBus;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Multi-port Thevenin equivalent of the network seen from k simultaneously faulted busses (the ports):
+ *
+ * [ V1 ]     [ Z11 ... Z1k ]   [ I1 ]   [ E1 ]
+ * [ .. ] = - [ ..  ...  .. ] * [ .. ] + [ .. ]
+ * [ Vk ]     [ Zk1 ... Zkk ]   [ Ik ]   [ Ek ]
+ *
+ * Each complex term Zij = rij + j.xij is the block [ rij -xij ] of t[En] * inv(Y) * [En] at the lines of port i
+ *                                                  [ xij  rij ]
+ * and the columns of port j. The k x k matrix is direct or homopolar depending on the admittance matrix it is extracted from.
+ *
+ * @author Jean-Baptiste Heyberger <jbheyberger at gmail.com>
+ */
+public final class MultiPortImpedanceMatrix {
+
+    private final List<LfBus> ports;
+
+    private final double[] r; // k * k terms, row by row
+
+    private final double[] x;
+
+    private final double[] ethx; // Thevenin voltage at each port
+
+    private final double[] ethy;
+
+    private final List<Map<Integer, DenseMatrix>> dv; // for each port, inv(Y) * [En] at all the busses, null if voltages are not updated
+
+    private MultiPortImpedanceMatrix(List<LfBus> ports, List<Map<Integer, DenseMatrix>> dv) {
+        this.ports = Collections.unmodifiableList(new ArrayList<>(ports));
+        int k = ports.size();
+        r = new double[k * k];
+        x = new double[k * k];
+        ethx = new double[k];
+        ethy = new double[k];
+        this.dv = dv;
+    }
+
+    /**
+     * Extracts the matrix of the ports from en = inv(Y) * [En], the pair of columns of port p in en being 2 * portColumns[p] and 2 * portColumns[p] + 1.
+     */
+    static MultiPortImpedanceMatrix extract(AdmittanceMatrix y, DenseMatrix en, List<LfBus> ports, int[] portColumns,
+                                            AdmittanceEquationSystem.AdmittanceVoltageProfileType voltageProfileType, boolean voltageUpdate) {
+        int k = ports.size();
+        List<Map<Integer, DenseMatrix>> dv = null;
+        if (voltageUpdate) {
+            dv = new ArrayList<>(k);
+            for (int p = 0; p < k; p++) {
+                dv.add(y.getDeltaV(en, portColumns[p]));
+            }
+        }
+        MultiPortImpedanceMatrix matrix = new MultiPortImpedanceMatrix(ports, dv);
+        for (int i = 0; i < k; i++) {
+            LfBus busi = ports.get(i);
+            int yColix = y.getColBus(busi.getNum(), VariableType.BUS_VR);
+            int yColiy = y.getColBus(busi.getNum(), VariableType.BUS_VI);
+            for (int j = 0; j < k; j++) {
+                int colj = 2 * portColumns[j];
+                double zxx = en.get(yColix, colj);
+                double zyx = en.get(yColiy, colj);
+                double zxy = en.get(yColix, colj + 1);
+                double zyy = en.get(yColiy, colj + 1);
+
+                // By construction we have for each block
+                //
+                // Zij = [ rij  -xij ]
+                //       [ xij   rij ]
+                //
+                // We need to check consistency of terms for each block
+                ImpedanceLinearResolution.checkBlocConsistency(zxx, zyy, zxy, zyx, busi, ports.get(j));
+
+                matrix.r[i * k + j] = zxx;
+                matrix.x[i * k + j] = -zxy;
+            }
+
+            if (voltageProfileType == AdmittanceEquationSystem.AdmittanceVoltageProfileType.CALCULATED) {
+                matrix.ethx[i] = busi.getV() * Math.cos(busi.getAngle());
+                matrix.ethy[i] = busi.getV() * Math.sin(busi.getAngle());
+            } else {
+                matrix.ethx[i] = 1.0;
+                matrix.ethy[i] = 0.;
+            }
+        }
+        return matrix;
+    }
+
+    public int getPortCount() {
+        return ports.size();
+    }
+
+    public List<LfBus> getPorts() {
+        return ports;
+    }
+
+    public LfBus getPort(int port) {
+        return ports.get(port);
+    }
+
+    public double getR(int i, int j) {
+        return r[i * ports.size() + j];
+    }
+
+    public double getX(int i, int j) {
+        return x[i * ports.size() + j];
+    }
+
+    public double getEthx(int port) {
+        return ethx[port];
+    }
+
+    public double getEthy(int port) {
+        return ethy[port];
+    }
+
+    /**
+     * inv(Y) * [En] at all the busses for the columns of the given port, to compute the voltage variations of the network.
+     */
+    public Map<Integer, DenseMatrix> getDv(int port) {
+        if (dv == null) {
+            throw new IllegalArgumentException("Voltage variations of the multi-port equivalent have not been computed: voltage update is disabled");
+        }
+        return dv.get(port);
+    }
+}
@@ -0,0 +1,180 @@
+/**
+ * Copyright (c) 2022, Jean-Baptiste Heyberger & Geoffroy Jamgotchian
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.incubator.simulator.util;
+
+import com.powsybl.incubator.simulator.util.extensions.ShortCircuitNetworkData;
+import com.powsybl.incubator.simulator.util.extensions.ZeroImpedanceContraction;
+import com.powsybl.math.matrix.DenseMatrix;
+import com.powsybl.math.matrix.LUDecomposition;
+import com.powsybl.math.matrix.Matrix;
+import com.powsybl.math.matrix.MatrixFactory;
+import com.powsybl.openloadflow.network.LfBranch;
+import com.powsybl.openloadflow.network.LfBus;
+import com.powsybl.openloadflow.network.LfNetwork;
+import com.powsybl.openloadflow.network.LfNetworkParameters;
+import com.powsybl.openloadflow.network.PiModel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Reactance only admittance matrix of a network, used to screen short circuit faults before their exact computation.
+ * Resistances, phase shifts, branch shunts, shunts and loads are neglected, so that Y = -j * M with M a real symmetric
+ * matrix with one row per node (instead of the real and imaginary rows of each bus of the exact admittance matrix):
+ *
+ *     Mii = sum of 1 / x of the branches and generators at i (times the square of the ratio at side 1 of the branches)
+ *     Mij = - rho / x for a branch between i and j
+ *
+ * The Thevenin reactance of a bus k is then inv(M)kk, solved with a single right hand side column per bus (two for the
+ * exact matrix). The resulting reactances are approximations, neither upper nor lower bounds of the exact impedances.
+ *
+ * @author Jean-Baptiste Heyberger <jbheyberger at gmail.com>
+ */
+public class ScreeningReactanceMatrix implements AutoCloseable {
+
+    private static final double SB = 100.;
+
+    private final LfNetwork network;
+
+    private final ZeroImpedanceContraction contraction;
+
+    private final int[] rowOfNode; // row of each representative bus num, -1 for the other busses
+
+    private final int rowCount;
+
+    private final int nonZeroCount;
+
+    private final LUDecomposition lu;
+
+    public ScreeningReactanceMatrix(ShortCircuitNetworkData data, MatrixFactory matrixFactory, AdmittanceEquationSystem.AdmittancePeriodType periodType,
+                                    SimulatorMetrics metrics) {
+        Objects.requireNonNull(data);
+        Objects.requireNonNull(matrixFactory);
+        Objects.requireNonNull(periodType);
+        Objects.requireNonNull(metrics);
+        network = data.getNetwork();
+        contraction = data.getZeroImpedanceContraction();
+
+        long start = metrics.start();
+        int busCount = network.getBuses().size();
+        rowOfNode = new int[busCount];
+        int nodeCount = 0;
+        for (int num = 0; num < busCount; num++) {
+            rowOfNode[num] = contraction.isRepresentative(num) ? nodeCount++ : -1;
+        }
+        rowCount = nodeCount;
+
+        // terms are gathered per column then set in column order, as expected by sparse matrices
+        List<Map<Integer, Double>> columns = new ArrayList<>(rowCount);
+        for (int row = 0; row < rowCount; row++) {
+            columns.add(new TreeMap<>());
+        }
+        for (LfBranch branch : network.getBranches()) {
+            PiModel piModel = branch.getPiModel();
+            if (branch.getBus1() == null || branch.getBus2() == null || contraction.isContracted(branch.getNum())
+                    || Math.abs(piModel.getX()) < LfNetworkParameters.LOW_IMPEDANCE_THRESHOLD_DEFAULT_VALUE) {
+                continue; // same node at both sides, or non impedant branch dropped as in the exact matrix
+            }
+            int row1 = rowOfNode[contraction.getRepresentative(branch.getBus1().getNum())];
+            int row2 = rowOfNode[contraction.getRepresentative(branch.getBus2().getNum())];
+            double x = piModel.getX() * data.getBranchKtX(branch.getNum());
+            double rho = piModel.getR1();
+            add(columns, row1, row1, rho * rho / x);
+            add(columns, row2, row2, 1. / x);
+            if (row1 != row2) {
+                add(columns, row1, row2, -rho / x);
+                add(columns, row2, row1, -rho / x);
+            }
+        }
+        for (LfBus bus : network.getBuses()) {
+            data.checkBus(bus);
+            int row = rowOfNode[contraction.getRepresentative(bus.getNum())];
+            double vnom = bus.getNominalV();
+            for (int i = data.getGeneratorStart(bus.getNum()); i < data.getGeneratorEnd(bus.getNum()); i++) {
+                double xd = periodType == AdmittanceEquationSystem.AdmittancePeriodType.ADM_SUB_TRANSIENT
+                        ? data.getGeneratorSubTransXd(i) : data.getGeneratorTransXd(i);
+                double x = (xd + data.getGeneratorStepUpTfoX(i)) * data.getGeneratorKg(i);
+                if (Math.abs(x) > 0.0000001) {
+                    add(columns, row, row, vnom * vnom / SB / x);
+                }
+            }
+        }
+
+        int count = 0;
+        for (Map<Integer, Double> column : columns) {
+            count += column.size();
+        }
+        nonZeroCount = count;
+        Matrix m = matrixFactory.create(rowCount, rowCount, nonZeroCount);
+        for (int col = 0; col < rowCount; col++) {
+            for (Map.Entry<Integer, Double> e : columns.get(col).entrySet()) {
+                m.set(e.getKey(), col, e.getValue());
+            }
+        }
+        metrics.stop(SimulatorMetrics.Phase.MATRIX_ASSEMBLY, start);
+        metrics.addMatrix(rowCount, nonZeroCount);
+
+        start = metrics.start();
+        lu = m.decomposeLU();
+        metrics.stop(SimulatorMetrics.Phase.LU_DECOMPOSITION, start);
+    }
+
+    private static void add(List<Map<Integer, Double>> columns, int row, int col, double value) {
+        columns.get(col).merge(row, value, Double::sum);
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public int getNonZeroCount() {
+        return nonZeroCount;
+    }
+
+    /**
+     * Thevenin reactances in per unit of the given busses of the network, solved by chunks of at most chunkSize busses
+     * to bound the size of the right hand side.
+     */
+    public double[] getTheveninReactances(List<LfBus> busses, int chunkSize, SimulatorMetrics metrics) {
+        Objects.requireNonNull(busses);
+        Objects.requireNonNull(metrics);
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size " + chunkSize + " must be strictly positive");
+        }
+        double[] xth = new double[busses.size()];
+        for (int fromIndex = 0; fromIndex < busses.size(); fromIndex += chunkSize) {
+            int toIndex = Math.min(fromIndex + chunkSize, busses.size());
+            int[] rows = new int[toIndex - fromIndex];
+            DenseMatrix b = new DenseMatrix(rowCount, rows.length);
+            for (int i = 0; i < rows.length; i++) {
+                LfBus bus = busses.get(fromIndex + i);
+                if (bus.getNum() >= rowOfNode.length || network.getBus(bus.getNum()) != bus) {
+                    throw new IllegalArgumentException("Bus " + bus.getId() + " does not belong to the network of the matrix");
+                }
+                rows[i] = rowOfNode[contraction.getRepresentative(bus.getNum())];
+                b.set(rows[i], i, 1.);
+            }
+
+            long start = metrics.start();
+            lu.solve(b);
+            metrics.stop(SimulatorMetrics.Phase.SOLVE, start);
+
+            for (int i = 0; i < rows.length; i++) {
+                xth[fromIndex + i] = b.get(rows[i], i);
+            }
+        }
+        return xth;
+    }
+
+    @Override
+    public void close() {
+        lu.close();
+    }
+}
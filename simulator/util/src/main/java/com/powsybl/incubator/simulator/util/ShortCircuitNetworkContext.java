@@ -0,0 +1,105 @@
+/**
+ * Copyright (c) 2022, Jean-Baptiste Heyberger & Geoffroy Jamgotchian
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.incubator.simulator.util;
+
+import com.powsybl.iidm.network.Network;
+import com.powsybl.incubator.simulator.util.extensions.ShortCircuitExtensions;
+import com.powsybl.incubator.simulator.util.extensions.ShortCircuitNetworkData;
+import com.powsybl.incubator.simulator.util.extensions.ShortCircuitNormExtensions;
+import com.powsybl.openloadflow.network.LfNetwork;
+import com.powsybl.openloadflow.network.LfNetworkParameters;
+import com.powsybl.openloadflow.network.impl.LfNetworkLoaderImpl;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * LfNetworks of a network variant, loaded once with their short circuit properties and homopolar models,
+ * to be shared by the short circuit engines, the Thevenin equivalent and the reduction engine run on this variant.
+ * The network must not be modified while the context is in use: the LfNetworks are a copy of the variant at loading time.
+ *
+ * @author Jean-Baptiste Heyberger <jbheyberger at gmail.com>
+ */
+public class ShortCircuitNetworkContext {
+
+    private final Network network;
+
+    private final String variantId;
+
+    private final ShortCircuitNormExtensions normExtensions;
+
+    private final List<LfNetwork> lfNetworks;
+
+    private final List<ShortCircuitNetworkData> networkData; // in the order of the LfNetworks
+
+    public ShortCircuitNetworkContext(Network network) {
+        this(network, new ShortCircuitNormExtensions());
+    }
+
+    public ShortCircuitNetworkContext(Network network, ShortCircuitNormExtensions normExtensions) {
+        this(network, normExtensions, new SimulatorMetrics());
+    }
+
+    /**
+     * Loading of the LfNetworks and addition of the short circuit extensions are timed in the given metrics.
+     */
+    public ShortCircuitNetworkContext(Network network, ShortCircuitNormExtensions normExtensions, SimulatorMetrics metrics) {
+        this.network = Objects.requireNonNull(network);
+        this.normExtensions = Objects.requireNonNull(normExtensions);
+        Objects.requireNonNull(metrics);
+        this.variantId = network.getVariantManager().getWorkingVariantId();
+
+        long start = metrics.start();
+        this.lfNetworks = LfNetwork.load(network, new LfNetworkLoaderImpl(), new LfNetworkParameters());
+        metrics.stop(SimulatorMetrics.Phase.NETWORK_LOADING, start);
+
+        start = metrics.start();
+        this.networkData = ShortCircuitExtensions.add(network, lfNetworks, normExtensions);
+        metrics.stop(SimulatorMetrics.Phase.EXTENSIONS, start);
+    }
+
+    public Network getNetwork() {
+        return network;
+    }
+
+    public String getVariantId() {
+        return variantId;
+    }
+
+    public ShortCircuitNormExtensions getNormExtensions() {
+        return normExtensions;
+    }
+
+    public List<LfNetwork> getLfNetworks() {
+        return lfNetworks;
+    }
+
+    public List<ShortCircuitNetworkData> getNetworkData() {
+        return networkData;
+    }
+
+    /**
+     * Checks that the context has been built on the current working variant of its network.
+     */
+    public void checkVariant() {
+        String workingVariantId = network.getVariantManager().getWorkingVariantId();
+        if (!variantId.equals(workingVariantId)) {
+            throw new IllegalArgumentException("Short circuit context built on variant " + variantId + " cannot be used on variant " + workingVariantId);
+        }
+    }
+
+    /**
+     * Checks that the context has been built on the current working variant with the given norm extensions,
+     * the short circuit properties of the LfNetworks depending on them.
+     */
+    public void check(ShortCircuitNormExtensions normExtensions) {
+        checkVariant();
+        if (this.normExtensions != normExtensions) {
+            throw new IllegalArgumentException("Short circuit context of network " + network.getId() + " has been built with other norm extensions");
+        }
+    }
+}
@@ -0,0 +1,170 @@
+/**
+ * Copyright (c) 2022, Jean-Baptiste Heyberger & Geoffroy Jamgotchian
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.incubator.simulator.util;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timers per phase and counters of a simulator run.
+ * A phase is timed with:
+ *     long start = metrics.start();
+ *     ...
+ *     metrics.stop(Phase.SOLVE, start);
+ * and the time of a phase accumulates over all its occurrences (for instance the direct and homopolar matrices of an unbalanced run).
+ *
+ * @author Jean-Baptiste Heyberger <jbheyberger at gmail.com>
+ */
+public class SimulatorMetrics {
+
+    public enum Phase {
+        LOAD_FLOW,
+        NETWORK_LOADING,
+        EXTENSIONS,
+        EQUATION_SYSTEM,
+        MATRIX_ASSEMBLY,
+        LU_DECOMPOSITION,
+        SOLVE,
+        POST_PROCESSING,
+        FEEDERS_UPDATE
+    }
+
+    private final long[] phaseNanos = new long[Phase.values().length];
+
+    private int matrixCount;
+
+    private long matrixRowCount; // summed over all the matrices
+
+    private long matrixNonZeroCount; // summed over all the matrices
+
+    private int faultCount;
+
+    private long resultBytes;
+
+    public long start() {
+        return System.nanoTime();
+    }
+
+    public void stop(Phase phase, long startNanos) {
+        phaseNanos[phase.ordinal()] += System.nanoTime() - startNanos;
+    }
+
+    public void addTime(Phase phase, long nanos) {
+        phaseNanos[phase.ordinal()] += nanos;
+    }
+
+    public long getTime(Phase phase, TimeUnit unit) {
+        return unit.convert(phaseNanos[phase.ordinal()], TimeUnit.NANOSECONDS);
+    }
+
+    public long getTotalTime(TimeUnit unit) {
+        long totalNanos = 0;
+        for (long nanos : phaseNanos) {
+            totalNanos += nanos;
+        }
+        return unit.convert(totalNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void addMatrix(int rowCount, int nonZeroCount) {
+        matrixCount++;
+        matrixRowCount += rowCount;
+        matrixNonZeroCount += nonZeroCount;
+    }
+
+    public int getMatrixCount() {
+        return matrixCount;
+    }
+
+    public long getMatrixRowCount() {
+        return matrixRowCount;
+    }
+
+    public long getMatrixNonZeroCount() {
+        return matrixNonZeroCount;
+    }
+
+    public void addFaultCount(int faultCount) {
+        this.faultCount += faultCount;
+    }
+
+    public int getFaultCount() {
+        return faultCount;
+    }
+
+    public void addResultBytes(long resultBytes) {
+        this.resultBytes += resultBytes;
+    }
+
+    public long getResultBytes() {
+        return resultBytes;
+    }
+
+    /**
+     * Resets the timers and counters of a run, to be called at the start of each run of an engine so that its metrics
+     * only cover its last run. The LfNetwork loading and extensions timers are kept, as they are made once at the
+     * construction of the engine and not redone by its runs.
+     */
+    public void resetRun() {
+        for (Phase phase : Phase.values()) {
+            if (phase != Phase.NETWORK_LOADING && phase != Phase.EXTENSIONS) {
+                phaseNanos[phase.ordinal()] = 0;
+            }
+        }
+        matrixCount = 0;
+        matrixRowCount = 0;
+        matrixNonZeroCount = 0;
+        faultCount = 0;
+        resultBytes = 0;
+    }
+
+    /**
+     * Adds the timers and counters of another run, for instance the ones of each engine run by a provider.
+     */
+    public void add(SimulatorMetrics other) {
+        Objects.requireNonNull(other);
+        for (int i = 0; i < phaseNanos.length; i++) {
+            phaseNanos[i] += other.phaseNanos[i];
+        }
+        matrixCount += other.matrixCount;
+        matrixRowCount += other.matrixRowCount;
+        matrixNonZeroCount += other.matrixNonZeroCount;
+        faultCount += other.faultCount;
+        resultBytes += other.resultBytes;
+    }
+
+    /**
+     * Bytes allocated so far by the current thread, or -1 if the JVM does not provide it.
+     * The difference of two calls gives the bytes allocated in between.
+     */
+    public static long getCurrentThreadAllocatedBytes() {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        if (threadMXBean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean sunThreadMXBean = (com.sun.management.ThreadMXBean) threadMXBean;
+            if (sunThreadMXBean.isThreadAllocatedMemorySupported() && sunThreadMXBean.isThreadAllocatedMemoryEnabled()) {
+                return sunThreadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("SimulatorMetrics(");
+        for (Phase phase : Phase.values()) {
+            sb.append(phase).append("=").append(getTime(phase, TimeUnit.MILLISECONDS)).append(" ms, ");
+        }
+        sb.append("matrices=").append(matrixCount)
+                .append(", matrixRows=").append(matrixRowCount)
+                .append(", matrixNonZeros=").append(matrixNonZeroCount)
+                .append(", faults=").append(faultCount)
+                .append(", resultBytes=").append(resultBytes)
+                .append(")");
+        return sb.toString();
+    }
+}
@@ -0,0 +1,336 @@
+/**
+ * Copyright (c) 2022, Jean-Baptiste Heyberger & Geoffroy Jamgotchian
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.incubator.simulator.util;
+
+import com.powsybl.iidm.network.*;
+import com.powsybl.iidm.network.extensions.GeneratorShortCircuitAdder;
+import com.powsybl.incubator.simulator.util.extensions.iidm.*;
+import org.joda.time.DateTime;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Builds meshed 400/225/63 kV networks of any size, with short circuit extensions on all generators, lines and transformers.
+ * The network only depends on the number of busses and on the seed, so that it can be rebuilt identically by benchmarks and scaling tests.
+ *
+ * Substations are created one after the other until the requested number of busses is reached:
+ * - every 8th substation holds a 400/225/63 kV three windings transformer (3 busses)
+ * - the other ones hold a 400/63 kV or 225/63 kV two windings transformer (2 busses)
+ * - if only one bus is missing, the last substation is a single 225 kV bus
+ * The 400 kV and 225 kV busses are chained by lines and randomly meshed, the 63 kV busses are fed by their transformer
+ * and randomly tied to the 63 kV bus of the previous substation.
+ * Loads are connected to 63 kV busses and generators to randomly chosen 400 kV and 225 kV busses, the total generation
+ * being set slightly above the total load.
+ *
+ * @author Jean-Baptiste Heyberger <jbheyberger at gmail.com>
+ */
+public final class SyntheticNetworkFactory {
+
+    private static final double VNOM_EHV = 400.;
+    private static final double VNOM_HV = 225.;
+    private static final double VNOM_MV = 63.;
+
+    private static final double MESHING_PROBABILITY = 0.3; // probability for a 400 or 225 kV bus to get a second line to a random bus of the same voltage
+    private static final double MV_TIE_PROBABILITY = 0.2; // probability for a 63 kV bus to be tied to the 63 kV bus of the previous substation
+    private static final double GENERATOR_PROBABILITY = 0.3; // probability for a substation to have a generator on its highest voltage bus
+
+    private SyntheticNetworkFactory() {
+    }
+
+    private static final class BusLists {
+        private final List<Bus> ehvBusses = new ArrayList<>();
+        private final List<Bus> hvBusses = new ArrayList<>();
+        private final List<Bus> mvBusses = new ArrayList<>();
+        private final List<Bus> generatorBusses = new ArrayList<>();
+    }
+
+    public static Network create(int busCount, long seed) {
+        if (busCount < 3) {
+            throw new IllegalArgumentException("A synthetic network must have at least 3 busses, " + busCount + " requested");
+        }
+
+        Random random = new Random(seed);
+        Network network = Network.create("Synthetic_" + busCount + "_" + seed, "synthetic");
+        network.setCaseDate(DateTime.parse("2022-01-01T00:00:00.000+01:00"));
+
+        BusLists busLists = new BusLists();
+        int busNum = 0;
+        int substationNum = 0;
+        while (busNum < busCount) {
+            int remainingBusCount = busCount - busNum;
+            Substation substation = network.newSubstation()
+                    .setId("S" + substationNum)
+                    .setCountry(Country.FR)
+                    .add();
+            Bus highestVoltageBus;
+            if (substationNum % 8 == 0 && remainingBusCount >= 3) {
+                Bus ehvBus = createBus(substation, VNOM_EHV);
+                Bus hvBus = createBus(substation, VNOM_HV);
+                Bus mvBus = createBus(substation, VNOM_MV);
+                createThreeWindingsTransformer(substation, ehvBus, hvBus, mvBus);
+                busLists.ehvBusses.add(ehvBus);
+                busLists.hvBusses.add(hvBus);
+                busLists.mvBusses.add(mvBus);
+                highestVoltageBus = ehvBus;
+                busNum += 3;
+            } else if (remainingBusCount >= 2) {
+                double vNom = substationNum % 4 == 0 ? VNOM_EHV : VNOM_HV;
+                Bus bus = createBus(substation, vNom);
+                Bus mvBus = createBus(substation, VNOM_MV);
+                createTwoWindingsTransformer(substation, bus, mvBus);
+                (vNom == VNOM_EHV ? busLists.ehvBusses : busLists.hvBusses).add(bus);
+                busLists.mvBusses.add(mvBus);
+                highestVoltageBus = bus;
+                busNum += 2;
+            } else {
+                highestVoltageBus = createBus(substation, VNOM_HV);
+                busLists.hvBusses.add(highestVoltageBus);
+                busNum++;
+            }
+
+            // the first substation always has a generator so that the network has at least one
+            if (substationNum == 0 || random.nextDouble() < GENERATOR_PROBABILITY) {
+                busLists.generatorBusses.add(highestVoltageBus);
+            }
+            substationNum++;
+        }
+
+        createMeshedLines(network, busLists.ehvBusses, random);
+        createMeshedLines(network, busLists.hvBusses, random);
+        for (int i = 1; i < busLists.mvBusses.size(); i++) {
+            if (random.nextDouble() < MV_TIE_PROBABILITY) {
+                createLine(network, busLists.mvBusses.get(i - 1), busLists.mvBusses.get(i), random);
+            }
+        }
+
+        double totalLoad = 0.;
+        for (Bus mvBus : busLists.mvBusses) {
+            double p0 = 20. + 60. * random.nextDouble();
+            mvBus.getVoltageLevel().newLoad()
+                    .setId(mvBus.getId() + "_LOAD")
+                    .setBus(mvBus.getId())
+                    .setConnectableBus(mvBus.getId())
+                    .setP0(p0)
+                    .setQ0(0.3 * p0)
+                    .add();
+            totalLoad += p0;
+        }
+
+        double targetP = 1.02 * totalLoad / busLists.generatorBusses.size();
+        for (Bus bus : busLists.generatorBusses) {
+            createGenerator(bus, targetP);
+        }
+
+        return network;
+    }
+
+    private static Bus createBus(Substation substation, double vNom) {
+        String vlId = substation.getId() + "_" + (int) vNom;
+        VoltageLevel vl = substation.newVoltageLevel()
+                .setId(vlId)
+                .setNominalV(vNom)
+                .setLowVoltageLimit(0)
+                .setHighVoltageLimit(2 * vNom)
+                .setTopologyKind(TopologyKind.BUS_BREAKER)
+                .add();
+        Bus bus = vl.getBusBreakerView().newBus()
+                .setId("B_" + vlId)
+                .add();
+        bus.setV(vNom).setAngle(0.);
+        return bus;
+    }
+
+    // busses of a same voltage are first chained to ensure connectivity and then meshed with lines to random previous busses
+    private static void createMeshedLines(Network network, List<Bus> busses, Random random) {
+        for (int i = 1; i < busses.size(); i++) {
+            createLine(network, busses.get(i - 1), busses.get(i), random);
+        }
+        for (int i = 2; i < busses.size(); i++) {
+            if (random.nextDouble() < MESHING_PROBABILITY) {
+                createLine(network, busses.get(random.nextInt(i - 1)), busses.get(i), random);
+            }
+        }
+    }
+
+    private static void createLine(Network network, Bus bus1, Bus bus2, Random random) {
+        // typical per km characteristics of overhead lines
+        double vNom = bus1.getVoltageLevel().getNominalV();
+        double rPerKm;
+        double xPerKm;
+        double bPerKm;
+        double length;
+        if (vNom == VNOM_EHV) {
+            rPerKm = 0.03;
+            xPerKm = 0.3;
+            bPerKm = 4e-6;
+            length = 20. + 80. * random.nextDouble();
+        } else if (vNom == VNOM_HV) {
+            rPerKm = 0.06;
+            xPerKm = 0.4;
+            bPerKm = 3e-6;
+            length = 10. + 50. * random.nextDouble();
+        } else {
+            rPerKm = 0.12;
+            xPerKm = 0.4;
+            bPerKm = 2.5e-6;
+            length = 5. + 20. * random.nextDouble();
+        }
+        double r = rPerKm * length;
+        double x = xPerKm * length;
+
+        Line line = network.newLine()
+                .setId("L_" + bus1.getId() + "_" + bus2.getId())
+                .setVoltageLevel1(bus1.getVoltageLevel().getId())
+                .setBus1(bus1.getId())
+                .setConnectableBus1(bus1.getId())
+                .setVoltageLevel2(bus2.getVoltageLevel().getId())
+                .setBus2(bus2.getId())
+                .setConnectableBus2(bus2.getId())
+                .setR(r)
+                .setX(x)
+                .setG1(0.0)
+                .setB1(bPerKm * length / 2)
+                .setG2(0.0)
+                .setB2(bPerKm * length / 2)
+                .add();
+
+        line.newExtension(LineFortescueAdder.class)
+                .withRo(3. * r)
+                .withXo(3. * x)
+                .add();
+    }
+
+    private static void createTwoWindingsTransformer(Substation substation, Bus bus1, Bus bus2) {
+        // impedances on side 2 with ukr = 12% and X/R = 40
+        double ratedS = 200.;
+        double ratedU2 = bus2.getVoltageLevel().getNominalV();
+        double x = 0.12 * ratedU2 * ratedU2 / ratedS;
+        double r = x / 40.;
+
+        TwoWindingsTransformer t2w = substation.newTwoWindingsTransformer()
+                .setId("T_" + bus1.getId() + "_" + bus2.getId())
+                .setVoltageLevel1(bus1.getVoltageLevel().getId())
+                .setBus1(bus1.getId())
+                .setConnectableBus1(bus1.getId())
+                .setRatedU1(bus1.getVoltageLevel().getNominalV())
+                .setVoltageLevel2(bus2.getVoltageLevel().getId())
+                .setBus2(bus2.getId())
+                .setConnectableBus2(bus2.getId())
+                .setRatedU2(ratedU2)
+                .setR(r)
+                .setX(x)
+                .setG(0.0D)
+                .setB(0.0D)
+                .setRatedS(ratedS)
+                .add();
+
+        t2w.newExtension(TwoWindingsTransformerFortescueAdder.class)
+                .withRo(r)
+                .withXo(x)
+                .withLeg1ConnectionType(LegConnectionType.DELTA)
+                .withLeg2ConnectionType(LegConnectionType.Y_GROUNDED)
+                .add();
+    }
+
+    private static void createThreeWindingsTransformer(Substation substation, Bus bus1, Bus bus2, Bus bus3) {
+        // star impedances given at the 400 kV rated voltage
+        double ratedU0 = VNOM_EHV;
+        double ratedS = 500.;
+        double zBase = ratedU0 * ratedU0 / ratedS;
+        double x1 = 0.08 * zBase;
+        double x2 = 0.04 * zBase;
+        double x3 = 0.10 * zBase;
+
+        ThreeWindingsTransformer t3w = substation.newThreeWindingsTransformer()
+                .setId("T3_" + substation.getId())
+                .setRatedU0(ratedU0)
+                .newLeg1()
+                .setR(x1 / 50.)
+                .setX(x1)
+                .setG(0.)
+                .setB(0.)
+                .setRatedU(bus1.getVoltageLevel().getNominalV())
+                .setRatedS(ratedS)
+                .setVoltageLevel(bus1.getVoltageLevel().getId())
+                .setBus(bus1.getId())
+                .add()
+                .newLeg2()
+                .setR(x2 / 50.)
+                .setX(x2)
+                .setG(0.)
+                .setB(0.)
+                .setRatedU(bus2.getVoltageLevel().getNominalV())
+                .setRatedS(ratedS)
+                .setVoltageLevel(bus2.getVoltageLevel().getId())
+                .setBus(bus2.getId())
+                .add()
+                .newLeg3()
+                .setR(x3 / 50.)
+                .setX(x3)
+                .setG(0.)
+                .setB(0.)
+                .setRatedU(bus3.getVoltageLevel().getNominalV())
+                .setRatedS(ratedS)
+                .setVoltageLevel(bus3.getVoltageLevel().getId())
+                .setBus(bus3.getId())
+                .add()
+                .add();
+
+        t3w.newExtension(ThreeWindingsTransformerFortescueAdder.class)
+                .withLeg1ConnectionType(LegConnectionType.Y_GROUNDED)
+                .withLeg2ConnectionType(LegConnectionType.Y)
+                .withLeg3ConnectionType(LegConnectionType.DELTA)
+                .withLeg1Ro(t3w.getLeg1().getR())
+                .withLeg1Xo(t3w.getLeg1().getX())
+                .withLeg2Ro(t3w.getLeg2().getR())
+                .withLeg2Xo(t3w.getLeg2().getX())
+                .withLeg3Ro(t3w.getLeg3().getR())
+                .withLeg3Xo(t3w.getLeg3().getX())
+                .add();
+    }
+
+    private static void createGenerator(Bus bus, double targetP) {
+        double vNom = bus.getVoltageLevel().getNominalV();
+        double maxP = 2. * targetP + 100.;
+
+        Generator generator = bus.getVoltageLevel().newGenerator()
+                .setId(bus.getId() + "_GEN")
+                .setBus(bus.getId())
+                .setConnectableBus(bus.getId())
+                .setMinP(0.0)
+                .setMaxP(maxP)
+                .setTargetP(targetP)
+                .setTargetV(vNom)
+                .setVoltageRegulatorOn(true)
+                .add();
+
+        // machine impedances in ohms with x"d = 20% and x'd = 30% on the machine rating
+        double zBase = vNom * vNom / (1.2 * maxP);
+        double subtransX = 0.2 * zBase;
+        double transX = 0.3 * zBase;
+
+        generator.newExtension(GeneratorShortCircuitAdder.class)
+                .withDirectSubtransX(subtransX)
+                .withDirectTransX(transX)
+                .withStepUpTransformerX(0.)
+                .add();
+
+        generator.newExtension(GeneratorShortCircuitAdder2.class)
+                .withSubTransRd(0.05 * subtransX)
+                .withTransRd(0.05 * transX)
+                .withRatedU(vNom)
+                .add();
+
+        generator.newExtension(GeneratorFortescueAdder.class)
+                .withToGround(true)
+                .withRo(0.05 * subtransX)
+                .withXo(0.5 * subtransX)
+                .add();
+    }
+}
@@ -10,17 +10,16 @@ import com.powsybl.iidm.network.Branch;
 import com.powsybl.iidm.network.Bus;
 import com.powsybl.iidm.network.Network;
 import com.powsybl.iidm.network.ThreeWindingsTransformer;
-import com.powsybl.incubator.simulator.util.extensions.ShortCircuitExtensions;
 import com.powsybl.openloadflow.ac.outerloop.AcLoadFlowParameters;
 import com.powsybl.openloadflow.network.LfNetwork;
-import com.powsybl.openloadflow.network.LfNetworkParameters;
-import com.powsybl.openloadflow.network.impl.LfNetworkLoaderImpl;
 import org.apache.commons.math3.util.Pair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 /**
@@ -37,11 +36,15 @@ public class TheveninEquivalent {
     private final ImpedanceLinearResolution impedanceLinearResolution;
 
     public TheveninEquivalent(Network network, TheveninEquivalentParameters parameters) {
-        lfNetworks = LfNetwork.load(network, new LfNetworkLoaderImpl(), new LfNetworkParameters());
-        ShortCircuitExtensions.add(network, lfNetworks);
+        this(new ShortCircuitNetworkContext(network), parameters);
+    }
+
+    public TheveninEquivalent(ShortCircuitNetworkContext context, TheveninEquivalentParameters parameters) {
+        Objects.requireNonNull(context);
+        context.checkVariant();
+        lfNetworks = context.getLfNetworks();
         this.parameters = Objects.requireNonNull(parameters);
-        LfNetwork lfNetwork = lfNetworks.get(0);
-        impedanceLinearResolution = new ImpedanceLinearResolution(lfNetwork, generateAdmittanceLinearResolutionParam(network, parameters));
+        impedanceLinearResolution = new ImpedanceLinearResolution(context.getNetworkData().get(0), generateAdmittanceLinearResolutionParam(context.getNetwork(), parameters), new SimulatorMetrics());
     }
 
     public ImpedanceLinearResolution getImpedanceLinearResolution() {
@@ -134,6 +137,7 @@ public class TheveninEquivalent {
         }
 
         List<CalculationLocation> locations = new ArrayList<>();
+        Map<CalculationLocation, Pair<String, Integer>> iidmBusInfos = new HashMap<>();
         for (CalculationLocation calculationLocation : parameters.getLocations()) {
             String busName = calculationLocation.getBusLocation();
             Pair<String, Integer > branchFaultInfo = buildFaultBranchFromBusId(busName, network);
@@ -143,12 +147,14 @@ public class TheveninEquivalent {
                 branchFaultInfo = buildFaultT3WbranchFromBusId(busName, network);
             }
 
-            calculationLocation.setIidmBusInfo(branchFaultInfo);
+            iidmBusInfos.put(calculationLocation, branchFaultInfo);
             locations.add(calculationLocation);
         }
 
-        return new ImpedanceLinearResolutionParameters(acLoadFlowParameters, parameters.getMatrixFactory(),
+        ImpedanceLinearResolutionParameters linearResolutionParameters = new ImpedanceLinearResolutionParameters(acLoadFlowParameters, parameters.getMatrixFactory(),
                 locations, voltageUpdate, admittanceVoltageProfileType, periodType,
                 AdmittanceEquationSystem.AdmittanceType.ADM_THEVENIN, parameters.isTheveninIgnoreShunts());
+        linearResolutionParameters.setIidmBusInfos(iidmBusInfos, Map.of());
+        return linearResolutionParameters;
     }
 }
@@ -0,0 +1,196 @@
+/**
+ * Copyright (c) 2022, Jean-Baptiste Heyberger & Geoffroy Jamgotchian
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.incubator.simulator.util.extensions;
+
+import com.powsybl.incubator.simulator.util.AdmittanceConstants;
+import com.powsybl.math.matrix.DenseMatrix;
+import com.powsybl.openloadflow.network.LfBranch;
+import com.powsybl.openloadflow.network.PiModel;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Direct or homopolar admittance matrices of all the branches of a LfNetwork, computed once and shared by the
+ * admittance equation terms, the feeders computation and the network reduction.
+ * The matrix of a branch links currents and voltages at its two sides in cartesian coordinates:
+ *
+ * [I1r]   [ g1+g12 -b1-b12   -g12    b12  ]   [V1r]
+ * [I1i]   [ b1+b12 g1+g12    -b12   -g12  ]   [V1i]
+ * [I2r] = [ -g21    b21    g2+g21 -b2-b21 ] * [V2r]
+ * [I2i]   [ -b21    -g21   b2+b21  g2+g21 ]   [V2i]
+ *
+ * The matrix of a branch that cannot be modelled (zero reactance, type not handled in homopolar...) is NaN and the
+ * error is only raised by check(branch), so that branches not used by a consumer do not make it fail.
+ *
+ * @author Jean-Baptiste Heyberger <jbheyberger at gmail.com>
+ */
+public final class BranchAdmittanceTable {
+
+    public static final int ROW_I1R = 0;
+    public static final int ROW_I1I = 1;
+    public static final int ROW_I2R = 2;
+    public static final int ROW_I2I = 3;
+
+    public static final int COL_V1R = 0;
+    public static final int COL_V1I = 1;
+    public static final int COL_V2R = 2;
+    public static final int COL_V2I = 3;
+
+    private static final int SIZE = 16;
+
+    private final boolean homopolar;
+
+    private final double[] admittances; // 16 values per branch num, row by row
+
+    private final String[] errors; // null if the matrix of the branch num has been computed
+
+    private BranchAdmittanceTable(int branchCount, boolean homopolar) {
+        this.homopolar = homopolar;
+        admittances = new double[SIZE * branchCount];
+        errors = new String[branchCount];
+    }
+
+    static BranchAdmittanceTable build(ShortCircuitNetworkData data, boolean homopolar) {
+        List<LfBranch> branches = data.getNetwork().getBranches();
+        BranchAdmittanceTable table = new BranchAdmittanceTable(branches.size(), homopolar);
+        for (LfBranch branch : branches) {
+            String error = table.compute(branch, data);
+            if (error != null) {
+                table.errors[branch.getNum()] = error;
+                Arrays.fill(table.admittances, SIZE * branch.getNum(), SIZE * (branch.getNum() + 1), Double.NaN);
+            }
+        }
+        return table;
+    }
+
+    private String compute(LfBranch branch, ShortCircuitNetworkData data) {
+        PiModel piModel = branch.getPiModel();
+        if (piModel.getX() == 0) {
+            return "Branch '" + branch.getId() + "' has reactance equal to zero";
+        }
+        double rho = piModel.getR1();
+        if (piModel.getZ() == 0) {
+            return "Branch '" + branch.getId() + "' has Z equal to zero";
+        }
+
+        // norm coefficients of transformers, 1 for other branches
+        double kTr = data.getBranchKtR(branch.getNum());
+        double kTx = data.getBranchKtX(branch.getNum());
+
+        double r = piModel.getR() * kTr;
+        double x = piModel.getX() * kTx;
+        double zk = Math.sqrt(r * r + x * x);
+        double zInvSquare = 1 / (zk * zk);
+
+        double alpha = piModel.getA1();
+        double cosA = Math.cos(Math.toRadians(alpha));
+        double sinA = Math.sin(Math.toRadians(alpha));
+
+        double gPi1 = piModel.getG1() / kTr;
+        double bPi1 = piModel.getB1() / kTx;
+        double gPi2 = piModel.getG2() / kTr;
+        double bPi2 = piModel.getB2() / kTx;
+
+        if (!homopolar) {
+            double g12 = rho * zInvSquare * (r * cosA + x * sinA);
+            double b12 = -rho * zInvSquare * (x * cosA + r * sinA);
+            double g1g12sum = rho * rho * (gPi1 + r * zInvSquare);
+            double b1b12sum = rho * rho * (bPi1 - x * zInvSquare);
+            double g21 = rho * zInvSquare * (r * cosA + x * sinA);
+            double b21 = rho * zInvSquare * (r * sinA - x * cosA);
+            double g2g21sum = r * zInvSquare + gPi2;
+            double b2b21sum = -x * zInvSquare + bPi2;
+            set(branch.getNum(), g12, b12, g1g12sum, b1b12sum, g21, b21, g2g21sum, b2b21sum);
+            return null;
+        }
+
+        HomopolarModel homopolarModel = data.getHomopolarModel(branch.getNum());
+        if (branch.getBranchType() == LfBranch.BranchType.LINE) {
+            if (homopolarModel == null) {
+                return "Branch '" + branch.getId() + "' has no homopolar model";
+            }
+            double zoInvSquare = homopolarModel.getZoInvSquare();
+            double ro = homopolarModel.getRo();
+            double xo = homopolarModel.getXo();
+            double g12 = rho * zoInvSquare * (ro * cosA + xo * sinA);
+            double b12 = -rho * zoInvSquare * (xo * cosA + ro * sinA);
+            double g1g12sum = rho * rho * (homopolarModel.getGom() + ro * zoInvSquare);
+            double b1b12sum = rho * rho * (homopolarModel.getBom() - xo * zoInvSquare);
+            double g21 = rho * zoInvSquare * (ro * cosA + xo * sinA);
+            double b21 = rho * zoInvSquare * (ro * sinA - xo * cosA);
+            double g2g21sum = ro * zoInvSquare + gPi2 * AdmittanceConstants.COEF_XO_XD;
+            double b2b21sum = -xo * zoInvSquare + bPi2 * AdmittanceConstants.COEF_XO_XD;
+            set(branch.getNum(), g12, b12, g1g12sum, b1b12sum, g21, b21, g2g21sum, b2b21sum);
+        } else if (branch.getBranchType() == LfBranch.BranchType.TRANSFO_2
+                || branch.getBranchType() == LfBranch.BranchType.TRANSFO_3_LEG_1
+                || branch.getBranchType() == LfBranch.BranchType.TRANSFO_3_LEG_2
+                || branch.getBranchType() == LfBranch.BranchType.TRANSFO_3_LEG_3) {
+            if (homopolarModel == null) {
+                return "Branch '" + branch.getId() + "' has no homopolar model";
+            }
+            // case where branch is part of a transformer
+            DenseMatrix mo = homopolarModel.computeHomopolarAdmittanceMatrix();
+            int offset = SIZE * branch.getNum();
+            for (int row = 0; row < 4; row++) {
+                for (int col = 0; col < 4; col++) {
+                    admittances[offset + 4 * row + col] = mo.get(row, col);
+                }
+            }
+        } else {
+            return "branch type not yet handled";
+        }
+        return null;
+    }
+
+    private void set(int branchNum, double g12, double b12, double g1g12sum, double b1b12sum,
+                     double g21, double b21, double g2g21sum, double b2b21sum) {
+        int offset = SIZE * branchNum;
+        admittances[offset] = g1g12sum;
+        admittances[offset + 1] = -b1b12sum;
+        admittances[offset + 2] = -g12;
+        admittances[offset + 3] = b12;
+        admittances[offset + 4] = b1b12sum;
+        admittances[offset + 5] = g1g12sum;
+        admittances[offset + 6] = -b12;
+        admittances[offset + 7] = -g12;
+        admittances[offset + 8] = -g21;
+        admittances[offset + 9] = b21;
+        admittances[offset + 10] = g2g21sum;
+        admittances[offset + 11] = -b2b21sum;
+        admittances[offset + 12] = -b21;
+        admittances[offset + 13] = -g21;
+        admittances[offset + 14] = b2b21sum;
+        admittances[offset + 15] = g2g21sum;
+    }
+
+    public boolean isHomopolar() {
+        return homopolar;
+    }
+
+    /**
+     * Throws the error met while computing the matrix of the branch, if any.
+     */
+    public void check(LfBranch branch) {
+        String error = errors[branch.getNum()];
+        if (error != null) {
+            throw new IllegalArgumentException(error);
+        }
+    }
+
+    public double get(int branchNum, int row, int col) {
+        return admittances[SIZE * branchNum + 4 * row + col];
+    }
+
+    /**
+     * Current of the given row (see ROW_xxx) flowing into the branch for the given side voltages.
+     */
+    public double getCurrent(int branchNum, int row, double v1r, double v1i, double v2r, double v2i) {
+        int offset = SIZE * branchNum + 4 * row;
+        return admittances[offset] * v1r + admittances[offset + 1] * v1i + admittances[offset + 2] * v2r + admittances[offset + 3] * v2i;
+    }
+}
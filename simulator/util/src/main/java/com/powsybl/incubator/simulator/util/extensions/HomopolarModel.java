@@ -107,6 +107,12 @@ public class HomopolarModel {
 
     public static HomopolarModel build(LfBranch branch) {
         Objects.requireNonNull(branch);
+        return build(branch, branch.getProperty(ShortCircuitExtensions.PROPERTY_SHORT_CIRCUIT), branch.getProperty(ShortCircuitExtensions.PROPERTY_SHORT_CIRCUIT_NORM));
+    }
+
+    // builds the model from the short circuit and norm properties of the branch, whether or not they are already attached to it
+    static HomopolarModel build(LfBranch branch, Object shortCircuitProperty, Object shortCircuitNormProperty) {
+        Objects.requireNonNull(branch);
 
         var piModel = branch.getPiModel();
         double r = piModel.getR();
@@ -125,7 +131,7 @@ public class HomopolarModel {
 
         if (branch.getBranchType() == LfBranch.BranchType.LINE) {
             // branch is a line and homopolar data available
-            ScLine scLine = (ScLine) branch.getProperty(ShortCircuitExtensions.PROPERTY_SHORT_CIRCUIT);
+            ScLine scLine = (ScLine) shortCircuitProperty;
             if (scLine != null) {
                 double epsilon = 0.0000001;
                 double r0 = scLine.getRo();
@@ -149,12 +155,12 @@ public class HomopolarModel {
             }
         } else if (branch.getBranchType() == LfBranch.BranchType.TRANSFO_2) {
             // branch is a 2 windings transformer and homopolar data available
-            ScTransfo2W scTransfo = (ScTransfo2W) branch.getProperty(ShortCircuitExtensions.PROPERTY_SHORT_CIRCUIT);
+            ScTransfo2W scTransfo = (ScTransfo2W) shortCircuitProperty;
             if (scTransfo != null) {
 
                 double kT = 1.0;
-                if (branch.getProperty(ShortCircuitExtensions.PROPERTY_SHORT_CIRCUIT_NORM) != null) {
-                    kT = (Double) branch.getProperty(ShortCircuitExtensions.PROPERTY_SHORT_CIRCUIT_NORM);
+                if (shortCircuitNormProperty != null) {
+                    kT = (Double) shortCircuitNormProperty;
                 }
 
                 double ro = scTransfo.getRo();
@@ -187,8 +193,8 @@ public class HomopolarModel {
                 || branch.getBranchType() == LfBranch.BranchType.TRANSFO_3_LEG_2
                 || branch.getBranchType() == LfBranch.BranchType.TRANSFO_3_LEG_3) {
             // branch is leg1 of a 3 windings transformer and homopolar data available
-            ScTransfo3W scTransfo = (ScTransfo3W) branch.getProperty(ShortCircuitExtensions.PROPERTY_SHORT_CIRCUIT);
-            ScTransfo3wKt scTransfoKt = (ScTransfo3wKt) branch.getProperty(ShortCircuitExtensions.PROPERTY_SHORT_CIRCUIT_NORM);
+            ScTransfo3W scTransfo = (ScTransfo3W) shortCircuitProperty;
+            ScTransfo3wKt scTransfoKt = (ScTransfo3wKt) shortCircuitNormProperty;
             if (scTransfoKt != null && scTransfo != null) {
                 double ro;
                 double xo;
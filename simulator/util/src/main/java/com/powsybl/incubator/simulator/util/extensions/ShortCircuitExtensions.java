@@ -12,8 +12,12 @@ import com.powsybl.incubator.simulator.util.extensions.iidm.*;
 import com.powsybl.openloadflow.network.*;
 import org.apache.commons.math3.util.Pair;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static com.powsybl.incubator.simulator.util.extensions.iidm.ShortCircuitConstants.*;
 import static com.powsybl.incubator.simulator.util.extensions.iidm.FortescueConstants.*;
@@ -27,6 +31,9 @@ public final class ShortCircuitExtensions {
     public static final String PROPERTY_HOMOPOLAR_MODEL = "HomopolarModel";
     public static final String PROPERTY_SHORT_CIRCUIT_NORM = "ShortCircuitNorm";
 
+    // below this number of busses and branches, properties are computed sequentially
+    public static final int PARALLEL_MIN_ELEMENT_COUNT = 5000;
+
     private static final double SB = 100.;
 
     private static final double EPSILON = 0.00000001;
@@ -34,53 +41,162 @@ public final class ShortCircuitExtensions {
     private ShortCircuitExtensions() {
     }
 
-    public static void add(Network network, List<LfNetwork> lfNetworks) {
-        add(network, lfNetworks, new ShortCircuitNormExtensions());
+    public static List<ShortCircuitNetworkData> add(Network network, List<LfNetwork> lfNetworks) {
+        return add(network, lfNetworks, new ShortCircuitNormExtensions());
+    }
+
+    public static List<ShortCircuitNetworkData> add(Network network, List<LfNetwork> lfNetworks, ShortCircuitNormExtensions shortCircuitNormExtensions) {
+        Objects.requireNonNull(lfNetworks);
+        int elementCount = 0;
+        for (LfNetwork lfNetwork : lfNetworks) {
+            elementCount += lfNetwork.getBuses().size() + lfNetwork.getBranches().size();
+        }
+        return add(network, lfNetworks, shortCircuitNormExtensions, elementCount >= PARALLEL_MIN_ELEMENT_COUNT);
     }
 
-    public static void add(Network network, List<LfNetwork> lfNetworks, ShortCircuitNormExtensions shortCircuitNormExtensions) {
+    /**
+     * The properties of the busses and branches only depend on the iidm network and on the norm extensions: they are
+     * computed concurrently if parallel is true, then attached to the LfNetwork elements on the calling thread.
+     * The properties depending on the working variant (loads) are always computed on the calling thread, the threads
+     * of the parallel stage having no working variant when the network allows multi thread access to its variants.
+     * Returns the short circuit data of each LfNetwork, in the order of the list.
+     */
+    public static List<ShortCircuitNetworkData> add(Network network, List<LfNetwork> lfNetworks, ShortCircuitNormExtensions shortCircuitNormExtensions, boolean parallel) {
         Objects.requireNonNull(network);
         Objects.requireNonNull(lfNetworks);
+        Objects.requireNonNull(shortCircuitNormExtensions);
+        List<ShortCircuitNetworkData> networkData = new ArrayList<>(lfNetworks.size());
         for (LfNetwork lfNetwork : lfNetworks) {
-            for (LfBus lfBus : lfNetwork.getBuses()) {
-                for (LfGenerator lfGenerator : lfBus.getGenerators()) {
-                    addGeneratorExtension(network, lfGenerator, shortCircuitNormExtensions);
+            List<LfBus> lfBuses = lfNetwork.getBuses();
+            List<ScLoad> scLoads = compute(lfBuses, lfBus -> computeLoadProperty(network, lfBus), false);
+            List<BusProperties> busProperties = compute(lfBuses, lfBus -> computeBusProperties(network, lfBus, shortCircuitNormExtensions), parallel);
+            for (int i = 0; i < lfBuses.size(); i++) {
+                LfBus lfBus = lfBuses.get(i);
+                BusProperties properties = busProperties.get(i);
+                List<LfGenerator> lfGenerators = lfBus.getGenerators();
+                for (int j = 0; j < lfGenerators.size(); j++) {
+                    properties.generatorProperties.get(j).attachTo(lfGenerators.get(j));
                 }
-                addLoadExtension(network, lfBus);
+                lfBus.setProperty(PROPERTY_SHORT_CIRCUIT, scLoads.get(i)); // for now load extension is attached to the bus
             }
 
-            for (LfBranch lfBranch : lfNetwork.getBranches()) {
-                switch (lfBranch.getBranchType()) {
-                    case LINE:
-                        addLineExtension(network, lfBranch);
-                        break;
+            List<LfBranch> lfBranches = lfNetwork.getBranches();
+            List<BranchProperties> branchProperties = compute(lfBranches, lfBranch -> computeBranchProperties(network, lfBranch, shortCircuitNormExtensions), parallel);
+            for (int i = 0; i < lfBranches.size(); i++) {
+                LfBranch lfBranch = lfBranches.get(i);
+                BranchProperties properties = branchProperties.get(i);
+                if (properties.scProperties != null) {
+                    properties.scProperties.attachTo(lfBranch);
+                }
+                lfBranch.setProperty(PROPERTY_HOMOPOLAR_MODEL, properties.homopolarModel);
+            }
 
-                    case TRANSFO_2:
-                        addTransfo2Extension(network, lfBranch, shortCircuitNormExtensions);
-                        break;
+            networkData.add(ShortCircuitNetworkData.build(lfNetwork));
+        }
+        return networkData;
+    }
 
-                    case TRANSFO_3_LEG_1:
-                    case TRANSFO_3_LEG_2:
-                    case TRANSFO_3_LEG_3:
-                        addTransfo3Extension(network, lfBranch, shortCircuitNormExtensions);
-                        break;
+    // results are in the order of the elements
+    private static <E, P> List<P> compute(List<E> elements, Function<E, P> propertiesBuilder, boolean parallel) {
+        IntStream indexes = IntStream.range(0, elements.size());
+        if (parallel) {
+            indexes = indexes.parallel();
+        }
+        return indexes.mapToObj(i -> propertiesBuilder.apply(elements.get(i))).collect(Collectors.toList());
+    }
 
-                    case DANGLING_LINE:
-                        // FIXME something to do?
-                        break;
+    /**
+     * Short circuit property of an element, and its norm dependant property if any.
+     */
+    private static final class ScProperties {
 
-                    default:
-                        break;
-                }
+        private final Object shortCircuit;
+
+        private final Object shortCircuitNorm;
+
+        private ScProperties(Object shortCircuit, Object shortCircuitNorm) {
+            this.shortCircuit = shortCircuit;
+            this.shortCircuitNorm = shortCircuitNorm;
+        }
+
+        private void attachTo(LfGenerator lfGenerator) {
+            lfGenerator.setProperty(PROPERTY_SHORT_CIRCUIT, shortCircuit);
+            if (shortCircuitNorm != null) {
+                lfGenerator.setProperty(PROPERTY_SHORT_CIRCUIT_NORM, shortCircuitNorm);
+            }
+        }
 
-                // build homopolar model
-                HomopolarModel homopolarModel = HomopolarModel.build(lfBranch);
-                lfBranch.setProperty(PROPERTY_HOMOPOLAR_MODEL, homopolarModel);
+        private void attachTo(LfBranch lfBranch) {
+            lfBranch.setProperty(PROPERTY_SHORT_CIRCUIT, shortCircuit);
+            if (shortCircuitNorm != null) {
+                lfBranch.setProperty(PROPERTY_SHORT_CIRCUIT_NORM, shortCircuitNorm);
             }
         }
     }
 
-    private static void addTransfo3Extension(Network network, LfBranch lfBranch, ShortCircuitNormExtensions shortCircuitNormExtensions) {
+    private static final class BusProperties {
+
+        private final List<ScProperties> generatorProperties; // in the order of the generators of the bus
+
+        private BusProperties(List<ScProperties> generatorProperties) {
+            this.generatorProperties = generatorProperties;
+        }
+    }
+
+    private static final class BranchProperties {
+
+        private final ScProperties scProperties; // null if the type of branch has no short circuit data
+
+        private final HomopolarModel homopolarModel;
+
+        private BranchProperties(ScProperties scProperties, HomopolarModel homopolarModel) {
+            this.scProperties = scProperties;
+            this.homopolarModel = homopolarModel;
+        }
+    }
+
+    private static BusProperties computeBusProperties(Network network, LfBus lfBus, ShortCircuitNormExtensions shortCircuitNormExtensions) {
+        List<ScProperties> generatorProperties = new ArrayList<>(lfBus.getGenerators().size());
+        for (LfGenerator lfGenerator : lfBus.getGenerators()) {
+            generatorProperties.add(computeGeneratorProperties(network, lfGenerator, shortCircuitNormExtensions));
+        }
+        return new BusProperties(generatorProperties);
+    }
+
+    private static BranchProperties computeBranchProperties(Network network, LfBranch lfBranch, ShortCircuitNormExtensions shortCircuitNormExtensions) {
+        ScProperties scProperties;
+        switch (lfBranch.getBranchType()) {
+            case LINE:
+                scProperties = computeLineProperties(network, lfBranch);
+                break;
+
+            case TRANSFO_2:
+                scProperties = computeTransfo2Properties(network, lfBranch, shortCircuitNormExtensions);
+                break;
+
+            case TRANSFO_3_LEG_1:
+            case TRANSFO_3_LEG_2:
+            case TRANSFO_3_LEG_3:
+                scProperties = computeTransfo3Properties(network, lfBranch, shortCircuitNormExtensions);
+                break;
+
+            case DANGLING_LINE:
+                // FIXME something to do?
+                scProperties = null;
+                break;
+
+            default:
+                scProperties = null;
+                break;
+        }
+
+        // build homopolar model
+        Object shortCircuit = scProperties != null ? scProperties.shortCircuit : null;
+        Object shortCircuitNorm = scProperties != null ? scProperties.shortCircuitNorm : null;
+        return new BranchProperties(scProperties, HomopolarModel.build(lfBranch, shortCircuit, shortCircuitNorm));
+    }
+
+    private static ScProperties computeTransfo3Properties(Network network, LfBranch lfBranch, ShortCircuitNormExtensions shortCircuitNormExtensions) {
         String t3wId = lfBranch.getOriginalIds().get(0);
         ThreeWindingsTransformer twt = network.getThreeWindingsTransformer(t3wId);
 
@@ -164,11 +280,11 @@ public final class ShortCircuitExtensions {
         ScTransfo3wKt.Leg leg2kT = new ScTransfo3wKt.Leg(kT2R, kT2X, kT2R0, kT2X0);
         ScTransfo3wKt.Leg leg3kT = new ScTransfo3wKt.Leg(kT3R, kT3X, kT3R0, kT3X0);
 
-        lfBranch.setProperty(PROPERTY_SHORT_CIRCUIT, new ScTransfo3W(leg1, leg2, leg3));
-        lfBranch.setProperty(PROPERTY_SHORT_CIRCUIT_NORM, new ScTransfo3wKt(leg1kT, leg2kT, leg3kT)); // set in a separate extension because is does not depend only on iidm in input but also on the type of norm
+        // norm coefficients set in a separate extension because is does not depend only on iidm in input but also on the type of norm
+        return new ScProperties(new ScTransfo3W(leg1, leg2, leg3), new ScTransfo3wKt(leg1kT, leg2kT, leg3kT));
     }
 
-    private static void addLineExtension(Network network, LfBranch lfBranch) {
+    private static ScProperties computeLineProperties(Network network, LfBranch lfBranch) {
         String lineId = lfBranch.getOriginalIds().get(0);
         Line line = network.getLine(lineId);
 
@@ -182,10 +298,10 @@ public final class ShortCircuitExtensions {
             xo = extensions.getXo() / zBase;
         }
 
-        lfBranch.setProperty(PROPERTY_SHORT_CIRCUIT, new ScLine(ro, xo));
+        return new ScProperties(new ScLine(ro, xo), null);
     }
 
-    private static void addTransfo2Extension(Network network, LfBranch lfBranch, ShortCircuitNormExtensions shortCircuitNormExtensions) {
+    private static ScProperties computeTransfo2Properties(Network network, LfBranch lfBranch, ShortCircuitNormExtensions shortCircuitNormExtensions) {
         String t2wId = lfBranch.getOriginalIds().get(0);
         TwoWindingsTransformer twt = network.getTwoWindingsTransformer(t2wId);
 
@@ -224,11 +340,11 @@ public final class ShortCircuitExtensions {
             kT = t2wNormExtension.getkNorm();
         }
 
-        lfBranch.setProperty(PROPERTY_SHORT_CIRCUIT, new ScTransfo2W(leg1ConnectionType, leg2ConnectionType, ro, xo, freeFluxes, r1Ground, x1Ground, r2Ground, x2Ground));
-        lfBranch.setProperty(PROPERTY_SHORT_CIRCUIT_NORM, kT); // set in a separate extension because is does not depend only on iidm in input but also on the type of norm
+        // kT set in a separate extension because is does not depend only on iidm in input but also on the type of norm
+        return new ScProperties(new ScTransfo2W(leg1ConnectionType, leg2ConnectionType, ro, xo, freeFluxes, r1Ground, x1Ground, r2Ground, x2Ground), kT);
     }
 
-    private static void addGeneratorExtension(Network network, LfGenerator lfGenerator, ShortCircuitNormExtensions shortCircuitNormExtensions) {
+    private static ScProperties computeGeneratorProperties(Network network, LfGenerator lfGenerator, ShortCircuitNormExtensions shortCircuitNormExtensions) {
         Generator generator = network.getGenerator(lfGenerator.getOriginalId());
 
         double transX = DEFAULT_TRANS_XD;
@@ -267,7 +383,8 @@ public final class ShortCircuitExtensions {
             kG = extensionGenNorm.getkG();
         }
 
-        lfGenerator.setProperty(PROPERTY_SHORT_CIRCUIT, new ScGenerator(transX,
+        // kG set in a separate extension because is does not depend only on iidm in input but also on the type of norm
+        return new ScProperties(new ScGenerator(transX,
                 stepUpTfoX,
                 ScGenerator.MachineType.SYNCHRONOUS_GEN,
                 transRd,
@@ -278,11 +395,12 @@ public final class ShortCircuitExtensions {
                 0.,
                 0.,
                 ro,
-                xo));
-        lfGenerator.setProperty(PROPERTY_SHORT_CIRCUIT_NORM, kG); // set in a separate extension because is does not depend only on iidm in input but also on the type of norm
+                xo),
+                kG);
     }
 
-    private static void addLoadExtension(Network network, LfBus lfBus) {
+    // reads the working variant of the calling thread (p0 and q0 of the loads)
+    private static ScLoad computeLoadProperty(Network network, LfBus lfBus) {
         double bLoads = 0.;
         double gLoads = 0.;
         for (String loadId : lfBus.getAggregatedLoads().getOriginalIds()) {
@@ -315,7 +433,7 @@ public final class ShortCircuitExtensions {
 
         }
 
-        lfBus.setProperty(PROPERTY_SHORT_CIRCUIT, new ScLoad(gLoads, bLoads)); // for now load extension is attached to the bus
+        return new ScLoad(gLoads, bLoads);
     }
 
 }
@@ -0,0 +1,285 @@
+/**
+ * Copyright (c) 2022, Jean-Baptiste Heyberger & Geoffroy Jamgotchian
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.incubator.simulator.util.extensions;
+
+import com.powsybl.openloadflow.network.LfBranch;
+import com.powsybl.openloadflow.network.LfBus;
+import com.powsybl.openloadflow.network.LfGenerator;
+import com.powsybl.openloadflow.network.LfNetwork;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Short circuit data of a LfNetwork stored in primitive arrays, read once from the properties of its elements
+ * so that the admittance matrix builders do not look up and cast the properties of each element at each build.
+ * Bus and branch data are indexed by the num of the LfBus and LfBranch, generator data of a bus by the indexes
+ * from getGeneratorStart(bus num) to getGeneratorEnd(bus num) excluded, in the order of the generators of the bus.
+ *
+ * @author Jean-Baptiste Heyberger <jbheyberger at gmail.com>
+ */
+public final class ShortCircuitNetworkData {
+
+    private final LfNetwork network;
+
+    // branches: norm coefficients of transformers (1 if none) and homopolar models
+    private final double[] branchKtR;
+    private final double[] branchKtX;
+    private final HomopolarModel[] homopolarModels;
+
+    // busses: equivalent admittance of loads
+    private final boolean[] busDataAvailable; // false if the load or a generator of the bus has no short circuit property
+    private final double[] busLoadG;
+    private final double[] busLoadB;
+
+    // generators of bus num are from busGeneratorStart[num] to busGeneratorStart[num + 1] excluded
+    private final int[] busGeneratorStart;
+    private final String[] generatorIds;
+    private final double[] generatorTransRd;
+    private final double[] generatorTransXd;
+    private final double[] generatorSubTransRd;
+    private final double[] generatorSubTransXd;
+    private final double[] generatorStepUpTfoR;
+    private final double[] generatorStepUpTfoX;
+    private final double[] generatorRo;
+    private final double[] generatorXo;
+    private final double[] generatorKg;
+    private final boolean[] generatorGrounded;
+
+    // branch admittance matrices and nodes of non impedant branches, computed at first use
+    private BranchAdmittanceTable directAdmittanceTable;
+    private BranchAdmittanceTable homopolarAdmittanceTable;
+    private ZeroImpedanceContraction zeroImpedanceContraction;
+
+    private ShortCircuitNetworkData(LfNetwork network) {
+        this.network = network;
+        List<LfBus> buses = network.getBuses();
+        List<LfBranch> branches = network.getBranches();
+
+        branchKtR = new double[branches.size()];
+        branchKtX = new double[branches.size()];
+        homopolarModels = new HomopolarModel[branches.size()];
+
+        busDataAvailable = new boolean[buses.size()];
+        busLoadG = new double[buses.size()];
+        busLoadB = new double[buses.size()];
+        busGeneratorStart = new int[buses.size() + 1];
+        int generatorCount = 0;
+        for (LfBus bus : buses) {
+            busGeneratorStart[bus.getNum() + 1] = bus.getGenerators().size();
+            generatorCount += bus.getGenerators().size();
+        }
+        for (int num = 0; num < buses.size(); num++) {
+            busGeneratorStart[num + 1] += busGeneratorStart[num];
+        }
+
+        generatorIds = new String[generatorCount];
+        generatorTransRd = new double[generatorCount];
+        generatorTransXd = new double[generatorCount];
+        generatorSubTransRd = new double[generatorCount];
+        generatorSubTransXd = new double[generatorCount];
+        generatorStepUpTfoR = new double[generatorCount];
+        generatorStepUpTfoX = new double[generatorCount];
+        generatorRo = new double[generatorCount];
+        generatorXo = new double[generatorCount];
+        generatorKg = new double[generatorCount];
+        generatorGrounded = new boolean[generatorCount];
+    }
+
+    /**
+     * Reads the short circuit properties attached to the elements of the network by ShortCircuitExtensions.
+     * Missing properties are allowed and only reported when the data is used.
+     */
+    public static ShortCircuitNetworkData build(LfNetwork network) {
+        Objects.requireNonNull(network);
+        ShortCircuitNetworkData data = new ShortCircuitNetworkData(network);
+        for (LfBranch branch : network.getBranches()) {
+            data.readBranch(branch);
+        }
+        for (LfBus bus : network.getBuses()) {
+            data.readBus(bus);
+        }
+        return data;
+    }
+
+    private void readBranch(LfBranch branch) {
+        int num = branch.getNum();
+        double kTr = 1.;
+        double kTx = 1.;
+        Object normProperty = branch.getProperty(ShortCircuitExtensions.PROPERTY_SHORT_CIRCUIT_NORM);
+        if (branch.getBranchType() == LfBranch.BranchType.TRANSFO_2) {
+            // branch is a 2 windings transformer
+            if (normProperty != null) {
+                kTx = (Double) normProperty;
+                kTr = kTx;
+            }
+        } else if (normProperty != null && (branch.getBranchType() == LfBranch.BranchType.TRANSFO_3_LEG_1
+                || branch.getBranchType() == LfBranch.BranchType.TRANSFO_3_LEG_2
+                || branch.getBranchType() == LfBranch.BranchType.TRANSFO_3_LEG_3)) {
+            ScTransfo3wKt scTransfoKt = (ScTransfo3wKt) normProperty;
+            ScTransfo3wKt.Leg leg;
+            if (branch.getBranchType() == LfBranch.BranchType.TRANSFO_3_LEG_1) {
+                leg = scTransfoKt.getLeg1();
+            } else if (branch.getBranchType() == LfBranch.BranchType.TRANSFO_3_LEG_2) {
+                leg = scTransfoKt.getLeg2();
+            } else {
+                leg = scTransfoKt.getLeg3();
+            }
+            kTr = leg.getkTr();
+            kTx = leg.getkTx();
+        }
+        branchKtR[num] = kTr;
+        branchKtX[num] = kTx;
+        homopolarModels[num] = (HomopolarModel) branch.getProperty(ShortCircuitExtensions.PROPERTY_HOMOPOLAR_MODEL);
+    }
+
+    private void readBus(LfBus bus) {
+        int num = bus.getNum();
+        boolean available = true;
+        ScLoad scLoad = (ScLoad) bus.getProperty(ShortCircuitExtensions.PROPERTY_SHORT_CIRCUIT);
+        if (scLoad != null) {
+            busLoadG[num] = scLoad.getGdEquivalent();
+            busLoadB[num] = scLoad.getBdEquivalent();
+        } else {
+            available = false;
+        }
+
+        int index = busGeneratorStart[num];
+        for (LfGenerator lfGenerator : bus.getGenerators()) {
+            generatorIds[index] = lfGenerator.getId();
+            ScGenerator scGen = (ScGenerator) lfGenerator.getProperty(ShortCircuitExtensions.PROPERTY_SHORT_CIRCUIT);
+            Object kG = lfGenerator.getProperty(ShortCircuitExtensions.PROPERTY_SHORT_CIRCUIT_NORM);
+            if (scGen != null && kG != null) {
+                generatorTransRd[index] = scGen.getTransRd();
+                generatorTransXd[index] = scGen.getTransXd();
+                generatorSubTransRd[index] = scGen.getSubTransRd();
+                generatorSubTransXd[index] = scGen.getSubTransXd();
+                generatorStepUpTfoR[index] = scGen.getStepUpTfoR();
+                generatorStepUpTfoX[index] = scGen.getStepUpTfoX();
+                generatorRo[index] = scGen.getRo();
+                generatorXo[index] = scGen.getXo();
+                generatorKg[index] = (Double) kG;
+                generatorGrounded[index] = scGen.isGrounded();
+            } else {
+                available = false;
+            }
+            index++;
+        }
+        busDataAvailable[num] = available;
+    }
+
+    public LfNetwork getNetwork() {
+        return network;
+    }
+
+    /**
+     * Direct or homopolar admittance matrices of the branches, computed at first call.
+     */
+    public synchronized BranchAdmittanceTable getAdmittanceTable(boolean homopolar) {
+        if (homopolar) {
+            if (homopolarAdmittanceTable == null) {
+                homopolarAdmittanceTable = BranchAdmittanceTable.build(this, true);
+            }
+            return homopolarAdmittanceTable;
+        }
+        if (directAdmittanceTable == null) {
+            directAdmittanceTable = BranchAdmittanceTable.build(this, false);
+        }
+        return directAdmittanceTable;
+    }
+
+    /**
+     * Nodes of the busses linked by non impedant branches, computed at first call.
+     */
+    public synchronized ZeroImpedanceContraction getZeroImpedanceContraction() {
+        if (zeroImpedanceContraction == null) {
+            zeroImpedanceContraction = ZeroImpedanceContraction.build(this);
+        }
+        return zeroImpedanceContraction;
+    }
+
+    public double getBranchKtR(int branchNum) {
+        return branchKtR[branchNum];
+    }
+
+    public double getBranchKtX(int branchNum) {
+        return branchKtX[branchNum];
+    }
+
+    public HomopolarModel getHomopolarModel(int branchNum) {
+        return homopolarModels[branchNum];
+    }
+
+    /**
+     * Checks that the load and the generators of the bus have short circuit data.
+     */
+    public void checkBus(LfBus bus) {
+        if (!busDataAvailable[bus.getNum()]) {
+            throw new IllegalArgumentException("Bus " + bus.getId() + " has no short circuit data: short circuit extensions must be added to the network");
+        }
+    }
+
+    public double getBusLoadG(int busNum) {
+        return busLoadG[busNum];
+    }
+
+    public double getBusLoadB(int busNum) {
+        return busLoadB[busNum];
+    }
+
+    public int getGeneratorStart(int busNum) {
+        return busGeneratorStart[busNum];
+    }
+
+    public int getGeneratorEnd(int busNum) {
+        return busGeneratorStart[busNum + 1];
+    }
+
+    public String getGeneratorId(int index) {
+        return generatorIds[index];
+    }
+
+    public double getGeneratorTransRd(int index) {
+        return generatorTransRd[index];
+    }
+
+    public double getGeneratorTransXd(int index) {
+        return generatorTransXd[index];
+    }
+
+    public double getGeneratorSubTransRd(int index) {
+        return generatorSubTransRd[index];
+    }
+
+    public double getGeneratorSubTransXd(int index) {
+        return generatorSubTransXd[index];
+    }
+
+    public double getGeneratorStepUpTfoR(int index) {
+        return generatorStepUpTfoR[index];
+    }
+
+    public double getGeneratorStepUpTfoX(int index) {
+        return generatorStepUpTfoX[index];
+    }
+
+    public double getGeneratorRo(int index) {
+        return generatorRo[index];
+    }
+
+    public double getGeneratorXo(int index) {
+        return generatorXo[index];
+    }
+
+    public double getGeneratorKg(int index) {
+        return generatorKg[index];
+    }
+
+    public boolean isGeneratorGrounded(int index) {
+        return generatorGrounded[index];
+    }
+}
@@ -0,0 +1,147 @@
+/**
+ * Copyright (c) 2022, Jean-Baptiste Heyberger & Geoffroy Jamgotchian
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.incubator.simulator.util.extensions;
+
+import com.powsybl.openloadflow.network.LfBranch;
+import com.powsybl.openloadflow.network.LfBus;
+import com.powsybl.openloadflow.network.LfNetworkParameters;
+import com.powsybl.openloadflow.network.PiModel;
+import net.jafama.FastMath;
+
+import java.util.List;
+
+/**
+ * Electrical nodes of a LfNetwork once the busses linked by non impedant branches (couplers, zero reactance lines)
+ * are merged: the busses of a node share the same voltage and are represented in the admittance matrix by a single
+ * bus, the one of smallest num of the node. Only branches without ratio nor phase shift are contracted, the other
+ * non impedant branches are left to the admittance matrix builders.
+ * Nodes are computed with a union-find on the bus nums.
+ *
+ * @author Jean-Baptiste Heyberger <jbheyberger at gmail.com>
+ */
+public final class ZeroImpedanceContraction {
+
+    private final int[] representatives; // representative bus num of each bus num
+
+    private final boolean[] contractedBranches; // true for the branch nums merged into a node
+
+    private final int[] nodeStart; // busses of the node of representative r: nodeBusNums[nodeStart[r]] to nodeBusNums[nodeStart[r + 1]] excluded
+
+    private final int[] nodeBusNums;
+
+    private final int contractedBusCount;
+
+    private ZeroImpedanceContraction(int[] representatives, boolean[] contractedBranches) {
+        this.representatives = representatives;
+        this.contractedBranches = contractedBranches;
+
+        int busCount = representatives.length;
+        nodeStart = new int[busCount + 1];
+        int count = 0;
+        for (int num = 0; num < busCount; num++) {
+            nodeStart[representatives[num] + 1]++;
+            if (representatives[num] != num) {
+                count++;
+            }
+        }
+        contractedBusCount = count;
+        for (int num = 0; num < busCount; num++) {
+            nodeStart[num + 1] += nodeStart[num];
+        }
+        nodeBusNums = new int[busCount];
+        int[] next = new int[busCount];
+        System.arraycopy(nodeStart, 0, next, 0, busCount);
+        for (int num = 0; num < busCount; num++) {
+            nodeBusNums[next[representatives[num]]++] = num;
+        }
+    }
+
+    static ZeroImpedanceContraction build(ShortCircuitNetworkData data) {
+        List<LfBus> busses = data.getNetwork().getBuses();
+        List<LfBranch> branches = data.getNetwork().getBranches();
+        int[] parents = new int[busses.size()];
+        for (int num = 0; num < parents.length; num++) {
+            parents[num] = num;
+        }
+        boolean[] contractedBranches = new boolean[branches.size()];
+        for (LfBranch branch : branches) {
+            LfBus bus1 = branch.getBus1();
+            LfBus bus2 = branch.getBus2();
+            if (bus1 != null && bus2 != null && isContractible(branch)) {
+                contractedBranches[branch.getNum()] = true;
+                int root1 = find(parents, bus1.getNum());
+                int root2 = find(parents, bus2.getNum());
+                // the root of a node is its smallest bus num
+                if (root1 < root2) {
+                    parents[root2] = root1;
+                } else if (root2 < root1) {
+                    parents[root1] = root2;
+                }
+            }
+        }
+        int[] representatives = new int[parents.length];
+        for (int num = 0; num < parents.length; num++) {
+            representatives[num] = find(parents, num);
+        }
+        return new ZeroImpedanceContraction(representatives, contractedBranches);
+    }
+
+    private static boolean isContractible(LfBranch branch) {
+        PiModel piModel = branch.getPiModel();
+        return FastMath.abs(piModel.getX()) < LfNetworkParameters.LOW_IMPEDANCE_THRESHOLD_DEFAULT_VALUE
+                && piModel.getR1() == 1. && piModel.getA1() == 0.;
+    }
+
+    private static int find(int[] parents, int num) {
+        int root = num;
+        while (parents[root] != root) {
+            root = parents[root];
+        }
+        // path compression
+        int current = num;
+        while (parents[current] != root) {
+            int parent = parents[current];
+            parents[current] = root;
+            current = parent;
+        }
+        return root;
+    }
+
+    /**
+     * Num of the bus representing the node of the given bus num in the admittance matrix.
+     */
+    public int getRepresentative(int busNum) {
+        return representatives[busNum];
+    }
+
+    public boolean isRepresentative(int busNum) {
+        return representatives[busNum] == busNum;
+    }
+
+    /**
+     * True if the branch is non impedant and merged into a node: no current can be computed from the voltages at its sides.
+     */
+    public boolean isContracted(int branchNum) {
+        return contractedBranches[branchNum];
+    }
+
+    /**
+     * Number of busses merged into the node of another bus.
+     */
+    public int getContractedBusCount() {
+        return contractedBusCount;
+    }
+
+    /**
+     * Bus nums of the node represented by the given bus num, the representative first.
+     */
+    public int[] getNodeBusNums(int representative) {
+        int[] busNums = new int[nodeStart[representative + 1] - nodeStart[representative]];
+        System.arraycopy(nodeBusNums, nodeStart[representative], busNums, 0, busNums.length);
+        return busNums;
+    }
+}
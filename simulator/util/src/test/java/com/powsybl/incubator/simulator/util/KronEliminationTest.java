@@ -0,0 +1,157 @@
+/**
+ * Copyright (c) 2022, Jean-Baptiste Heyberger & Geoffroy Jamgotchian
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.incubator.simulator.util;
+
+import com.powsybl.math.matrix.DenseMatrix;
+import com.powsybl.math.matrix.LUDecomposition;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Jean-Baptiste Heyberger <jbheyberger at gmail.com>
+ */
+class KronEliminationTest {
+
+    private static final int NODE_COUNT = 6;
+
+    // branches {node1, node2} and their series admittances {g, b}: a core triangle 0 - 1 - 2, a star node 3 linked to
+    // the core and a chain antenna 0 - 4 - 5
+    private static final int[][] BRANCHES = {{0, 1}, {1, 2}, {2, 0}, {3, 0}, {3, 1}, {3, 2}, {0, 4}, {4, 5}};
+
+    private static final double[][] BRANCH_ADMITTANCES = {{1.2, -10.5}, {0.8, -7.3}, {2.1, -15.2}, {0.4, -6.1}, {0.3, -4.9}, {0.5, -5.7}, {1.7, -9.4}, {0.9, -3.8}};
+
+    // shunts {node, g, b}: the core is grounded at node 0, the star node and the end of the antenna have a shunt
+    private static final double[][] SHUNTS = {{0, 0.6, -3.2}, {3, 0.05, -0.7}, {5, 0.2, 0.1}};
+
+    private static void fill(KronElimination elimination) {
+        elimination.init(NODE_COUNT);
+        for (int k = 0; k < BRANCHES.length; k++) {
+            int node1 = BRANCHES[k][0];
+            int node2 = BRANCHES[k][1];
+            double g = BRANCH_ADMITTANCES[k][0];
+            double b = BRANCH_ADMITTANCES[k][1];
+            elimination.addShunt(node1, g, b);
+            elimination.addShunt(node2, g, b);
+            elimination.addCoupling(node1, node2, -g, -b);
+            elimination.addCoupling(node2, node1, -g, -b);
+        }
+        for (double[] shunt : SHUNTS) {
+            elimination.addShunt((int) shunt[0], shunt[1], shunt[2]);
+        }
+    }
+
+    // complex term y = g + j.b at row i and column j, as the real block [ g -b ; b g ]
+    private static void add(DenseMatrix m, int i, int j, double g, double b) {
+        m.add(2 * i, 2 * j, g);
+        m.add(2 * i, 2 * j + 1, -b);
+        m.add(2 * i + 1, 2 * j, b);
+        m.add(2 * i + 1, 2 * j + 1, g);
+    }
+
+    private static DenseMatrix solve(DenseMatrix y, DenseMatrix b) {
+        try (LUDecomposition lu = y.decomposeLU()) {
+            lu.solve(b);
+        }
+        return b;
+    }
+
+    private static DenseMatrix identity() {
+        DenseMatrix id = new DenseMatrix(2 * NODE_COUNT, 2 * NODE_COUNT);
+        for (int i = 0; i < 2 * NODE_COUNT; i++) {
+            id.set(i, i, 1.);
+        }
+        return id;
+    }
+
+    @Test
+    void eliminationTest() {
+        // full matrix, without elimination
+        KronElimination full = new KronElimination();
+        fill(full);
+        DenseMatrix y = new DenseMatrix(2 * NODE_COUNT, 2 * NODE_COUNT);
+        for (int i = 0; i < NODE_COUNT; i++) {
+            add(y, i, i, full.getDiagonalG(i), full.getDiagonalB(i));
+            for (Map.Entry<Integer, double[]> e : full.getOffDiagonals(i).entrySet()) {
+                add(y, i, e.getKey(), e.getValue()[0], e.getValue()[1]);
+            }
+        }
+        DenseMatrix z = solve(y, identity());
+
+        // the star node is eliminated first, then the antenna from its end
+        KronElimination elimination = new KronElimination();
+        fill(elimination);
+        boolean[] nodes = new boolean[NODE_COUNT];
+        boolean[] starNodes = new boolean[NODE_COUNT];
+        Arrays.fill(nodes, true);
+        starNodes[3] = true;
+        elimination.eliminate(nodes, starNodes);
+        assertEquals(3, elimination.getEliminatedCount());
+        assertEquals(3, elimination.getStepNode(0));
+        assertEquals(5, elimination.getStepNode(1));
+        assertEquals(4, elimination.getStepNode(2));
+        for (int node = 0; node < NODE_COUNT; node++) {
+            assertEquals(node >= 3, elimination.isEliminated(node));
+        }
+
+        // core matrix of the remaining nodes, the rows of the eliminated nodes being kept as identity so that they carry
+        // their currents through the core solve
+        DenseMatrix core = new DenseMatrix(2 * NODE_COUNT, 2 * NODE_COUNT);
+        for (int i = 0; i < NODE_COUNT; i++) {
+            if (elimination.isEliminated(i)) {
+                add(core, i, i, 1., 0.);
+                continue;
+            }
+            add(core, i, i, elimination.getDiagonalG(i), elimination.getDiagonalB(i));
+            for (Map.Entry<Integer, double[]> e : elimination.getOffDiagonals(i).entrySet()) {
+                assertFalse(elimination.isEliminated(e.getKey()));
+                add(core, i, e.getKey(), e.getValue()[0], e.getValue()[1]);
+            }
+        }
+        elimination.releaseAdmittances();
+
+        int[] rowR = new int[NODE_COUNT];
+        int[] rowI = new int[NODE_COUNT];
+        for (int node = 0; node < NODE_COUNT; node++) {
+            rowR[node] = 2 * node;
+            rowI[node] = 2 * node + 1;
+        }
+        DenseMatrix x = identity();
+        elimination.forward(x, rowR, rowI);
+        solve(core, x);
+        elimination.backward(x, rowR, rowI);
+
+        // same impedances for all the nodes, including the eliminated ones
+        for (int i = 0; i < 2 * NODE_COUNT; i++) {
+            for (int j = 0; j < 2 * NODE_COUNT; j++) {
+                assertEquals(z.get(i, j), x.get(i, j), 1e-10);
+            }
+        }
+    }
+
+    @Test
+    void nullDiagonalTest() {
+        // chain 0 - 1 - 2 whose end 0 has a null diagonal term: it is kept, the rest of the chain being eliminated into it
+        KronElimination elimination = new KronElimination();
+        elimination.init(3);
+        elimination.addCoupling(0, 1, 0., 0.);
+        elimination.addCoupling(1, 0, 0., 0.);
+        elimination.addShunt(1, 1.5, -6.);
+        elimination.addShunt(2, 1.5, -6.);
+        elimination.addCoupling(1, 2, -1.5, 6.);
+        elimination.addCoupling(2, 1, -1.5, 6.);
+        elimination.addShunt(1, 0.2, -1.);
+        elimination.eliminate(new boolean[] {true, true, true}, new boolean[] {false, false, false});
+        assertFalse(elimination.isEliminated(0));
+        assertTrue(elimination.isEliminated(1));
+        assertTrue(elimination.isEliminated(2));
+        assertEquals(2, elimination.getEliminatedCount());
+    }
+}
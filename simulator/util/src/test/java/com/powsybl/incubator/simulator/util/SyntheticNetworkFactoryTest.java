@@ -0,0 +1,87 @@
+/**
+ * Copyright (c) 2022, Jean-Baptiste Heyberger & Geoffroy Jamgotchian
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.incubator.simulator.util;
+
+import com.powsybl.iidm.network.*;
+import com.powsybl.iidm.network.extensions.GeneratorShortCircuit;
+import com.powsybl.incubator.simulator.util.extensions.ShortCircuitExtensions;
+import com.powsybl.incubator.simulator.util.extensions.iidm.*;
+import com.powsybl.openloadflow.network.LfNetwork;
+import com.powsybl.openloadflow.network.LfNetworkParameters;
+import com.powsybl.openloadflow.network.impl.LfNetworkLoaderImpl;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Jean-Baptiste Heyberger <jbheyberger at gmail.com>
+ */
+class SyntheticNetworkFactoryTest {
+
+    @Test
+    void busCountAndExtensionsTest() {
+        Network network = SyntheticNetworkFactory.create(1000, 42);
+
+        assertEquals(1000, network.getBusBreakerView().getBusStream().count());
+        assertTrue(network.getThreeWindingsTransformerCount() > 0);
+        assertTrue(network.getGeneratorCount() > 0);
+        assertTrue(network.getLoadCount() > 0);
+
+        for (Line line : network.getLines()) {
+            assertNotNull(line.getExtension(LineFortescue.class));
+        }
+        for (TwoWindingsTransformer t2w : network.getTwoWindingsTransformers()) {
+            assertNotNull(t2w.getExtension(TwoWindingsTransformerFortescue.class));
+        }
+        for (ThreeWindingsTransformer t3w : network.getThreeWindingsTransformers()) {
+            assertNotNull(t3w.getExtension(ThreeWindingsTransformerFortescue.class));
+        }
+        for (Generator generator : network.getGenerators()) {
+            assertNotNull(generator.getExtension(GeneratorShortCircuit.class));
+            assertNotNull(generator.getExtension(GeneratorShortCircuit2.class));
+            assertNotNull(generator.getExtension(GeneratorFortescue.class));
+        }
+    }
+
+    @Test
+    void connectivityTest() {
+        Network network = SyntheticNetworkFactory.create(5000, 1);
+
+        List<LfNetwork> lfNetworks = LfNetwork.load(network, new LfNetworkLoaderImpl(), new LfNetworkParameters());
+        ShortCircuitExtensions.add(network, lfNetworks);
+
+        // all busses are in the main component, plus one star bus per three windings transformer
+        assertEquals(5000 + network.getThreeWindingsTransformerCount(), lfNetworks.get(0).getBuses().size());
+    }
+
+    @Test
+    void determinismTest() {
+        Network network1 = SyntheticNetworkFactory.create(500, 7);
+        Network network2 = SyntheticNetworkFactory.create(500, 7);
+        Network network3 = SyntheticNetworkFactory.create(500, 8);
+
+        assertEquals(getLineIds(network1), getLineIds(network2));
+        for (Line line1 : network1.getLines()) {
+            Line line2 = network2.getLine(line1.getId());
+            assertEquals(line1.getR(), line2.getR(), 0.);
+            assertEquals(line1.getX(), line2.getX(), 0.);
+        }
+        assertNotEquals(getLineIds(network1), getLineIds(network3));
+    }
+
+    @Test
+    void tooSmallNetworkTest() {
+        assertThrows(IllegalArgumentException.class, () -> SyntheticNetworkFactory.create(2, 0));
+    }
+
+    private static List<String> getLineIds(Network network) {
+        return network.getLineStream().map(Identifiable::getId).collect(Collectors.toList());
+    }
+}
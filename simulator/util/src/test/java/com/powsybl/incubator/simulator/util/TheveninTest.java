@@ -16,6 +16,8 @@ import com.powsybl.openloadflow.OpenLoadFlowParameters;
 import com.powsybl.openloadflow.OpenLoadFlowProvider;
 import com.powsybl.openloadflow.ac.outerloop.AcLoadFlowParameters;
 import com.powsybl.openloadflow.graph.EvenShiloachGraphDecrementalConnectivityFactory;
+import com.powsybl.openloadflow.network.LfBus;
+import com.powsybl.openloadflow.network.LfNetwork;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.slf4j.Logger;
@@ -25,6 +27,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 /**
  * @author Jean-Baptiste Heyberger <jbheyberger at gmail.com>
@@ -69,14 +72,50 @@ class TheveninTest {
 
         thEq.run();
 
-        assertEquals(0.0027661335620416884, thEq.getImpedanceLinearResolution().results.get(1).getRthz11(), 0.000001);
-        assertEquals(0.16629396899928067, thEq.getImpedanceLinearResolution().results.get(1).getXthz12(), 0.000001);
-        assertEquals(0.0030247992008329934, thEq.getImpedanceLinearResolution().results.get(0).getRthz11(), 0.000001);
-        assertEquals(0.1833452236067607, thEq.getImpedanceLinearResolution().results.get(0).getXthz12(), 0.000001);
+        assertEquals(0.0027661335620416884, thEq.getImpedanceLinearResolution().getResults().get(1).getRthz11(), 0.000001);
+        assertEquals(0.16629396899928067, thEq.getImpedanceLinearResolution().getResults().get(1).getXthz12(), 0.000001);
+        assertEquals(0.0030247992008329934, thEq.getImpedanceLinearResolution().getResults().get(0).getRthz11(), 0.000001);
+        assertEquals(0.1833452236067607, thEq.getImpedanceLinearResolution().getResults().get(0).getXthz12(), 0.000001);
         //assertEquals(0.16522876711663945, thEq.results.get(0).getDvr1().get(0), 0.000001);
 
     }
 
+    @Test
+    void multiPortTest() {
+        Network network = Networks.create4n();
+        loadFlowRunner.run(network, parameters);
+
+        AcLoadFlowParameters acLoadFlowParameters = OpenLoadFlowParameters.createAcParameters(network,
+                parameters, OpenLoadFlowParameters.get(parameters), matrixFactory, new EvenShiloachGraphDecrementalConnectivityFactory<>());
+        ShortCircuitNetworkContext context = new ShortCircuitNetworkContext(network);
+        LfNetwork lfNetwork = context.getLfNetworks().get(0);
+        LfBus bus0 = lfNetwork.getBuses().get(0);
+        LfBus bus1 = lfNetwork.getBuses().get(1);
+
+        ImpedanceLinearResolutionParameters linearResolutionParameters = new ImpedanceLinearResolutionParameters(acLoadFlowParameters, matrixFactory,
+                new ArrayList<>(), false, AdmittanceEquationSystem.AdmittanceVoltageProfileType.NOMINAL, AdmittanceEquationSystem.AdmittancePeriodType.ADM_TRANSIENT,
+                AdmittanceEquationSystem.AdmittanceType.ADM_THEVENIN, false);
+        MultiPortImpedanceLinearResolution multiPortResolution = new MultiPortImpedanceLinearResolution(context.getNetworkData().get(0), linearResolutionParameters,
+                List.of(List.of(bus0), List.of(bus1, bus0)));
+        multiPortResolution.run();
+
+        // a single factorization for all the fault sets
+        assertEquals(1, multiPortResolution.getMetrics().getMatrixCount());
+        MultiPortImpedanceMatrix onePort = multiPortResolution.getResults().get(0);
+        MultiPortImpedanceMatrix twoPort = multiPortResolution.getResults().get(1);
+        assertEquals(1, onePort.getPortCount());
+        assertEquals(2, twoPort.getPortCount());
+        assertEquals(onePort.getR(0, 0), twoPort.getR(1, 1), 0.);
+        assertEquals(onePort.getX(0, 0), twoPort.getX(1, 1), 0.);
+        assertEquals(twoPort.getR(0, 1), twoPort.getR(1, 0), 0.000001);
+        assertEquals(twoPort.getX(0, 1), twoPort.getX(1, 0), 0.000001);
+        assertEquals(1., twoPort.getEthx(0), 0.);
+
+        MultiPortImpedanceLinearResolution invalidResolution = new MultiPortImpedanceLinearResolution(context.getNetworkData().get(0), linearResolutionParameters,
+                List.of(List.of(bus0, bus0)));
+        assertThrows(IllegalArgumentException.class, invalidResolution::run);
+    }
+
     @Test
     void referenceTransientTest() {
         Network network = ReferenceNetwork.createShortCircuitReference();
@@ -102,10 +141,10 @@ class TheveninTest {
         thEq.run();
 
         // results here are with Sbase = 100 MVA we convert them into Sbase = 15 MVA to be in line with the reference doc result :
-        assertEquals(0.003683374391319212, thEq.getImpedanceLinearResolution().results.get(0).getRthz11() * 15. / 100., 0.000001); //F1 : doc result = Zth(Sbase15) ~ 0.0036+j0.0712
-        assertEquals(0.07118802892811232, thEq.getImpedanceLinearResolution().results.get(0).getXthz12() * 15. / 100., 0.000001);
-        assertEquals(0.019949496420349225, thEq.getImpedanceLinearResolution().results.get(1).getRthz11() * 15. / 100., 0.000001); //F2 : doc result = Zth(Sbase15) ~ 0.0199+j0.2534
-        assertEquals(0.2534161781273357, thEq.getImpedanceLinearResolution().results.get(1).getXthz12() * 15. / 100., 0.000001);
+        assertEquals(0.003683374391319212, thEq.getImpedanceLinearResolution().getResults().get(0).getRthz11() * 15. / 100., 0.000001); //F1 : doc result = Zth(Sbase15) ~ 0.0036+j0.0712
+        assertEquals(0.07118802892811232, thEq.getImpedanceLinearResolution().getResults().get(0).getXthz12() * 15. / 100., 0.000001);
+        assertEquals(0.019949496420349225, thEq.getImpedanceLinearResolution().getResults().get(1).getRthz11() * 15. / 100., 0.000001); //F2 : doc result = Zth(Sbase15) ~ 0.0199+j0.2534
+        assertEquals(0.2534161781273357, thEq.getImpedanceLinearResolution().getResults().get(1).getXthz12() * 15. / 100., 0.000001);
 
     }
 
@@ -134,12 +173,12 @@ class TheveninTest {
         thEq.run();
 
         // results here are with Sbase = 100 MVA we convert them into Sbase = 15 MVA to be in line with the reference doc result :
-        assertEquals(0.0035803351059196286, thEq.getImpedanceLinearResolution().results.get(0).getRthz11() * 15. / 100., 0.000001); //F1 : doc result = Zth(Sbase15) ~ 0.0035+j0.0666
-        assertEquals(0.0666102621341282, thEq.getImpedanceLinearResolution().results.get(0).getXthz12() * 15. / 100., 0.000001);
-        assertEquals(0.01766454025768954, thEq.getImpedanceLinearResolution().results.get(1).getRthz11() * 15. / 100., 0.000001); //F2 : doc result = Zth(Sbase15) ~ 0.0175+j0.2313
-        assertEquals(0.2313127317660599, thEq.getImpedanceLinearResolution().results.get(1).getXthz12() * 15. / 100., 0.000001);
-        assertEquals(0.07967413109647312, thEq.getImpedanceLinearResolution().results.get(2).getRthz11() * 15. / 100., 0.000001); //F2 : doc result = Zth(Sbase15) ~ 0.0796+j0.5
-        assertEquals(0.4997813218278794, thEq.getImpedanceLinearResolution().results.get(2).getXthz12() * 15. / 100., 0.000001);
+        assertEquals(0.0035803351059196286, thEq.getImpedanceLinearResolution().getResults().get(0).getRthz11() * 15. / 100., 0.000001); //F1 : doc result = Zth(Sbase15) ~ 0.0035+j0.0666
+        assertEquals(0.0666102621341282, thEq.getImpedanceLinearResolution().getResults().get(0).getXthz12() * 15. / 100., 0.000001);
+        assertEquals(0.01766454025768954, thEq.getImpedanceLinearResolution().getResults().get(1).getRthz11() * 15. / 100., 0.000001); //F2 : doc result = Zth(Sbase15) ~ 0.0175+j0.2313
+        assertEquals(0.2313127317660599, thEq.getImpedanceLinearResolution().getResults().get(1).getXthz12() * 15. / 100., 0.000001);
+        assertEquals(0.07967413109647312, thEq.getImpedanceLinearResolution().getResults().get(2).getRthz11() * 15. / 100., 0.000001); //F2 : doc result = Zth(Sbase15) ~ 0.0796+j0.5
+        assertEquals(0.4997813218278794, thEq.getImpedanceLinearResolution().getResults().get(2).getXthz12() * 15. / 100., 0.000001);
 
     }
 
@@ -0,0 +1,167 @@
+/**
+ * Copyright (c) 2022, Jean-Baptiste Heyberger & Geoffroy Jamgotchian
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.incubator.simulator.util.extensions;
+
+import com.powsybl.iidm.network.Network;
+import com.powsybl.incubator.simulator.util.AdmittanceConstants;
+import com.powsybl.incubator.simulator.util.SyntheticNetworkFactory;
+import com.powsybl.openloadflow.network.*;
+import com.powsybl.openloadflow.network.impl.LfNetworkLoaderImpl;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Jean-Baptiste Heyberger <jbheyberger at gmail.com>
+ */
+class ShortCircuitExtensionsTest {
+
+    @Test
+    void parallelBuildTest() {
+        Network network = SyntheticNetworkFactory.create(1000, 3);
+
+        LfNetwork sequentialLfNetwork = LfNetwork.load(network, new LfNetworkLoaderImpl(), new LfNetworkParameters()).get(0);
+        ShortCircuitExtensions.add(network, List.of(sequentialLfNetwork), new ShortCircuitNormExtensions(), false);
+        LfNetwork parallelLfNetwork = LfNetwork.load(network, new LfNetworkLoaderImpl(), new LfNetworkParameters()).get(0);
+        ShortCircuitExtensions.add(network, List.of(parallelLfNetwork), new ShortCircuitNormExtensions(), true);
+
+        assertEquals(sequentialLfNetwork.getBuses().size(), parallelLfNetwork.getBuses().size());
+        for (int i = 0; i < sequentialLfNetwork.getBuses().size(); i++) {
+            LfBus sequentialBus = sequentialLfNetwork.getBuses().get(i);
+            LfBus parallelBus = parallelLfNetwork.getBuses().get(i);
+            ScLoad sequentialLoad = (ScLoad) sequentialBus.getProperty(ShortCircuitExtensions.PROPERTY_SHORT_CIRCUIT);
+            ScLoad parallelLoad = (ScLoad) parallelBus.getProperty(ShortCircuitExtensions.PROPERTY_SHORT_CIRCUIT);
+            assertEquals(sequentialLoad.getGdEquivalent(), parallelLoad.getGdEquivalent(), 0.);
+            assertEquals(sequentialLoad.getBdEquivalent(), parallelLoad.getBdEquivalent(), 0.);
+            for (int j = 0; j < sequentialBus.getGenerators().size(); j++) {
+                assertEquals(sequentialBus.getGenerators().get(j).getProperty(ShortCircuitExtensions.PROPERTY_SHORT_CIRCUIT_NORM),
+                        parallelBus.getGenerators().get(j).getProperty(ShortCircuitExtensions.PROPERTY_SHORT_CIRCUIT_NORM));
+            }
+        }
+
+        assertEquals(sequentialLfNetwork.getBranches().size(), parallelLfNetwork.getBranches().size());
+        for (int i = 0; i < sequentialLfNetwork.getBranches().size(); i++) {
+            HomopolarModel sequentialModel = (HomopolarModel) sequentialLfNetwork.getBranches().get(i).getProperty(ShortCircuitExtensions.PROPERTY_HOMOPOLAR_MODEL);
+            HomopolarModel parallelModel = (HomopolarModel) parallelLfNetwork.getBranches().get(i).getProperty(ShortCircuitExtensions.PROPERTY_HOMOPOLAR_MODEL);
+            assertEquals(sequentialModel.getRo(), parallelModel.getRo(), 0.);
+            assertEquals(sequentialModel.getXo(), parallelModel.getXo(), 0.);
+            assertEquals(sequentialModel.getGom(), parallelModel.getGom(), 0.);
+            assertEquals(sequentialModel.getBom(), parallelModel.getBom(), 0.);
+            assertEquals(sequentialModel.getLeg1ConnectionType(), parallelModel.getLeg1ConnectionType());
+            assertEquals(sequentialModel.getLeg2ConnectionType(), parallelModel.getLeg2ConnectionType());
+        }
+    }
+
+    @Test
+    void parallelBuildMultiVariantTest() {
+        Network network = SyntheticNetworkFactory.create(1000, 3);
+        String initialVariantId = network.getVariantManager().getWorkingVariantId();
+        network.getVariantManager().cloneVariant(initialVariantId, "V2");
+        network.getVariantManager().setWorkingVariant("V2");
+        network.getLoads().forEach(load -> load.setP0(2 * load.getP0()));
+
+        // the threads of the parallel stage have no working variant: the loads must be read on the calling thread
+        network.getVariantManager().allowVariantMultiThreadAccess(true);
+        network.getVariantManager().setWorkingVariant("V2");
+        LfNetwork parallelLfNetwork = LfNetwork.load(network, new LfNetworkLoaderImpl(), new LfNetworkParameters()).get(0);
+        ShortCircuitNetworkData parallelData = ShortCircuitExtensions.add(network, List.of(parallelLfNetwork), new ShortCircuitNormExtensions(), true).get(0);
+        LfNetwork sequentialLfNetwork = LfNetwork.load(network, new LfNetworkLoaderImpl(), new LfNetworkParameters()).get(0);
+        ShortCircuitNetworkData sequentialData = ShortCircuitExtensions.add(network, List.of(sequentialLfNetwork), new ShortCircuitNormExtensions(), false).get(0);
+        network.getVariantManager().setWorkingVariant(initialVariantId);
+        LfNetwork initialLfNetwork = LfNetwork.load(network, new LfNetworkLoaderImpl(), new LfNetworkParameters()).get(0);
+        ShortCircuitNetworkData initialData = ShortCircuitExtensions.add(network, List.of(initialLfNetwork), new ShortCircuitNormExtensions(), true).get(0);
+
+        boolean loadChanged = false;
+        for (int num = 0; num < parallelLfNetwork.getBuses().size(); num++) {
+            assertEquals(sequentialData.getBusLoadG(num), parallelData.getBusLoadG(num), 0.);
+            assertEquals(sequentialData.getBusLoadB(num), parallelData.getBusLoadB(num), 0.);
+            loadChanged |= parallelData.getBusLoadG(num) != initialData.getBusLoadG(num);
+        }
+        assertTrue(loadChanged);
+    }
+
+    @Test
+    void networkDataTest() {
+        Network network = SyntheticNetworkFactory.create(100, 3);
+
+        LfNetwork lfNetwork = LfNetwork.load(network, new LfNetworkLoaderImpl(), new LfNetworkParameters()).get(0);
+        ShortCircuitNetworkData data = ShortCircuitExtensions.add(network, List.of(lfNetwork)).get(0);
+        assertSame(lfNetwork, data.getNetwork());
+
+        for (LfBus bus : lfNetwork.getBuses()) {
+            ScLoad scLoad = (ScLoad) bus.getProperty(ShortCircuitExtensions.PROPERTY_SHORT_CIRCUIT);
+            assertEquals(scLoad.getGdEquivalent(), data.getBusLoadG(bus.getNum()), 0.);
+            assertEquals(scLoad.getBdEquivalent(), data.getBusLoadB(bus.getNum()), 0.);
+            assertEquals(bus.getGenerators().size(), data.getGeneratorEnd(bus.getNum()) - data.getGeneratorStart(bus.getNum()));
+            int index = data.getGeneratorStart(bus.getNum());
+            for (LfGenerator generator : bus.getGenerators()) {
+                ScGenerator scGenerator = (ScGenerator) generator.getProperty(ShortCircuitExtensions.PROPERTY_SHORT_CIRCUIT);
+                assertEquals(generator.getId(), data.getGeneratorId(index));
+                assertEquals(scGenerator.getTransXd(), data.getGeneratorTransXd(index), 0.);
+                assertEquals(scGenerator.getSubTransXd(), data.getGeneratorSubTransXd(index), 0.);
+                assertEquals((Double) generator.getProperty(ShortCircuitExtensions.PROPERTY_SHORT_CIRCUIT_NORM), data.getGeneratorKg(index), 0.);
+                assertEquals(scGenerator.isGrounded(), data.isGeneratorGrounded(index));
+                index++;
+            }
+        }
+
+        for (LfBranch branch : lfNetwork.getBranches()) {
+            assertSame(branch.getProperty(ShortCircuitExtensions.PROPERTY_HOMOPOLAR_MODEL), data.getHomopolarModel(branch.getNum()));
+            if (branch.getBranchType() == LfBranch.BranchType.TRANSFO_2) {
+                assertEquals((Double) branch.getProperty(ShortCircuitExtensions.PROPERTY_SHORT_CIRCUIT_NORM), data.getBranchKtX(branch.getNum()), 0.);
+            } else if (branch.getBranchType() == LfBranch.BranchType.LINE) {
+                assertEquals(1., data.getBranchKtR(branch.getNum()), 0.);
+                assertEquals(1., data.getBranchKtX(branch.getNum()), 0.);
+            }
+        }
+    }
+
+    @Test
+    void missingNetworkDataTest() {
+        Network network = SyntheticNetworkFactory.create(100, 3);
+
+        LfNetwork lfNetwork = LfNetwork.load(network, new LfNetworkLoaderImpl(), new LfNetworkParameters()).get(0);
+        ShortCircuitNetworkData data = ShortCircuitNetworkData.build(lfNetwork);
+        LfBus bus = lfNetwork.getBuses().get(0);
+        assertThrows(IllegalArgumentException.class, () -> data.checkBus(bus));
+    }
+
+    @Test
+    void admittanceTableTest() {
+        Network network = SyntheticNetworkFactory.create(100, 3);
+
+        LfNetwork lfNetwork = LfNetwork.load(network, new LfNetworkLoaderImpl(), new LfNetworkParameters()).get(0);
+        ShortCircuitNetworkData data = ShortCircuitExtensions.add(network, List.of(lfNetwork)).get(0);
+        BranchAdmittanceTable directTable = data.getAdmittanceTable(false);
+        BranchAdmittanceTable homopolarTable = data.getAdmittanceTable(true);
+        assertSame(directTable, data.getAdmittanceTable(false));
+        assertSame(homopolarTable, data.getAdmittanceTable(true));
+        assertFalse(directTable.isHomopolar());
+        assertTrue(homopolarTable.isHomopolar());
+
+        for (LfBranch branch : lfNetwork.getBranches()) {
+            directTable.check(branch);
+            int num = branch.getNum();
+            // [I1r; I1i] = [g1+g12 -b1-b12; b1+b12 g1+g12] * [V1r; V1i]
+            assertEquals(directTable.get(num, BranchAdmittanceTable.ROW_I1R, BranchAdmittanceTable.COL_V1R),
+                    directTable.get(num, BranchAdmittanceTable.ROW_I1I, BranchAdmittanceTable.COL_V1I), 0.);
+            assertEquals(directTable.get(num, BranchAdmittanceTable.ROW_I1R, BranchAdmittanceTable.COL_V1I),
+                    -directTable.get(num, BranchAdmittanceTable.ROW_I1I, BranchAdmittanceTable.COL_V1R), 0.);
+            double i1r = directTable.getCurrent(num, BranchAdmittanceTable.ROW_I1R, 1., 0., 0., 0.);
+            assertEquals(directTable.get(num, BranchAdmittanceTable.ROW_I1R, BranchAdmittanceTable.COL_V1R), i1r, 0.);
+
+            if (branch.getBranchType() == LfBranch.BranchType.LINE) {
+                HomopolarModel homopolarModel = data.getHomopolarModel(num);
+                homopolarTable.check(branch);
+                assertEquals(homopolarModel.getRo() * homopolarModel.getZoInvSquare() + branch.getPiModel().getG2() * AdmittanceConstants.COEF_XO_XD,
+                        homopolarTable.get(num, BranchAdmittanceTable.ROW_I2R, BranchAdmittanceTable.COL_V2R), 1e-12);
+            }
+        }
+    }
+}